@@ -31,6 +31,23 @@ import { playerApiUrl } from '../../utils';
 import { VideoJsPlayer } from './VideoJsPlayer';
 import VideoMetadataEditModal from './VideoMetadataEditModal';
 
+/**
+ * Browse pages already received, with the ETag the server sent them with.
+ * Used to revalidate with If-None-Match instead of downloading them again.
+ * Kept in least recently used order, the oldest pages are dropped past
+ * MAX_BROWSE_CACHE.
+ */
+const MAX_BROWSE_CACHE = 100;
+const browseCache = new Map<string, { etag: string, data: any }>();
+
+const setBrowseCache = (key: string, value: { etag: string, data: any }) => {
+  browseCache.delete(key);
+  browseCache.set(key, value);
+  while (browseCache.size > MAX_BROWSE_CACHE) {
+    browseCache.delete(browseCache.keys().next().value as string);
+  }
+}
+
 export const Player = () => {
   const [data, setData] = useState({ goal: '', folders: [], breadcrumbs: [], medias: [], useWebControl: false } as BaseBrowse);
   const [loading, setLoading] = useState(false);
@@ -65,12 +82,25 @@ export const Player = () => {
   const refreshPage = () => {
     if (sse.uuid && sse.reqType) {
       setLoading(true);
-      axios.post(playerApiUrl + sse.reqType, { uuid: sse.uuid, id: sse.reqId, lang: i18n.language }, { headers: { 'Player': sse.uuid } })
+      const cacheKey = sse.reqType === 'browse' ? sse.reqId + '|' + i18n.language : undefined;
+      const cached = cacheKey ? browseCache.get(cacheKey) : undefined;
+      const headers: { [key: string]: string } = { 'Player': sse.uuid };
+      if (cached) {
+        headers['If-None-Match'] = cached.etag;
+      }
+      axios.post(playerApiUrl + sse.reqType, { uuid: sse.uuid, id: sse.reqId, lang: i18n.language }, { headers, validateStatus: (status: number) => (status >= 200 && status < 300) || status === 304 })
         .then(function(response: any) {
-          setData(response.data);
-          const mediaTemp = response.data.goal === 'show' ? response.data.medias[0] : response.data.breadcrumbs[response.data.breadcrumbs.length - 1];
+          let responseData = response.data;
+          if (response.status === 304 && cached && cacheKey) {
+            responseData = cached.data;
+            setBrowseCache(cacheKey, cached);
+          } else if (cacheKey && response.headers['etag']) {
+            setBrowseCache(cacheKey, { etag: response.headers['etag'], data: responseData });
+          }
+          setData(responseData);
+          const mediaTemp = responseData.goal === 'show' ? responseData.medias[0] : responseData.breadcrumbs[responseData.breadcrumbs.length - 1];
           setMetadataBackground(
-            response.data.goal === 'show' ? (mediaTemp as any).metadata as VideoMetadata : response.data.metadata,
+            responseData.goal === 'show' ? (mediaTemp as any).metadata as VideoMetadata : responseData.metadata,
           );
           window.scrollTo(0, 0);
           const url = '/player/' + sse.reqType + '/' + sse.reqId;
@@ -83,6 +83,7 @@ import net.pms.service.Services;
 import net.pms.store.MediaInfoStore;
 import net.pms.store.MediaScanner;
 import net.pms.store.MediaStatusStore;
+import net.pms.store.MediaStoreIds;
 import net.pms.store.ThumbnailStore;
 import net.pms.store.container.CodeEnter;
 import net.pms.swing.LanguageSelection;
@@ -794,10 +795,21 @@ public class PMS {
 		tfm.add(f);
 	}
 
-	public void addTempFile(File f, int cleanTime) {
+	public void addTempFile(File f, long cleanTime) {
 		tfm.add(f, cleanTime);
 	}
 
+	public void addTempFile(File f, long cleanTime, TempFileMgr.Category category) {
+		tfm.add(f, cleanTime, category);
+	}
+
+	/**
+	 * @return The instanciated {@link TempFileMgr}.
+	 */
+	public TempFileMgr getTempFileMgr() {
+		return tfm;
+	}
+
 	public CodeDb codeDb() {
 		return codes;
 	}
@@ -1126,6 +1138,8 @@ public class PMS {
 
 		if (MediaDatabase.isInstantiated()) {
 			LOGGER.debug("Shutting down media database");
+			MediaStatusStore.flush();
+			MediaStoreIds.flush();
 			MediaDatabase.shutdown();
 			MediaDatabase.createDatabaseReportIfNeeded();
 		}
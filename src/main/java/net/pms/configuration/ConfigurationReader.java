@@ -18,10 +18,14 @@ package net.pms.configuration;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.configuration.AbstractConfiguration;
 import org.apache.commons.configuration.CompositeConfiguration;
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConversionException;
 import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.commons.configuration.event.ConfigurationListener;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -29,14 +33,32 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Helper class that implements common getters for the various types stored in renderer confs and UMS.conf.
+ *
+ * The converted values are kept in a snapshot, so reading a value again is a
+ * map lookup. Any change to a configuration, including saving and reloading
+ * it, drops the snapshots of all the readers.
  */
 public class ConfigurationReader {
 	private static final Logger LOGGER = LoggerFactory.getLogger(ConfigurationReader.class);
+	private static final AtomicLong VERSION = new AtomicLong();
+	// the type tags of the snapshot values, one per getter
+	private static final char TYPE_INT = 'i';
+	private static final char TYPE_LONG = 'l';
+	private static final char TYPE_DOUBLE = 'd';
+	private static final char TYPE_BOOLEAN = 'b';
+	private static final char TYPE_STRING_LIST = 'a';
+	private static final char TYPE_NON_BLANK_STRING = 's';
+	private static final ConfigurationListener CHANGE_TRACKER = event -> {
+		if (!event.isBeforeUpdate()) {
+			VERSION.incrementAndGet();
+		}
+	};
 	private final Map<String, Object> logMap = new HashMap<>();
 	private final Configuration configuration;
 	private boolean logOverrides;
 	private Configuration dConf;
 	private String dTag;
+	private volatile Snapshot snapshot = new Snapshot(-1);
 
 	ConfigurationReader(Configuration configuration) {
 		this(configuration, false); // don't log by default: just provide the getters
@@ -49,6 +71,42 @@ public class ConfigurationReader {
 			((CompositeConfiguration) configuration).getConfiguration(0) : null;
 		File f = dConf != null ? ((PropertiesConfiguration) dConf).getFile() : null;
 		dTag = f != null ? ("[" + f.getName() + "] ") : null;
+		trackChanges(configuration);
+		if (configuration instanceof CompositeConfiguration compositeConfiguration) {
+			for (int i = 0; i < compositeConfiguration.getNumberOfConfigurations(); i++) {
+				trackChanges(compositeConfiguration.getConfiguration(i));
+			}
+		}
+	}
+
+	/**
+	 * @return a number changing each time a configuration is changed.
+	 */
+	public static long getVersion() {
+		return VERSION.get();
+	}
+
+	private static void trackChanges(Configuration configuration) {
+		if (configuration instanceof AbstractConfiguration eventSource) {
+			synchronized (CHANGE_TRACKER) {
+				if (!eventSource.getConfigurationListeners().contains(CHANGE_TRACKER)) {
+					eventSource.addConfigurationListener(CHANGE_TRACKER);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the snapshot of the current configuration version.
+	 */
+	private Snapshot getSnapshot() {
+		Snapshot current = snapshot;
+		long version = VERSION.get();
+		if (current.version != version) {
+			current = new Snapshot(version);
+			snapshot = current;
+		}
+		return current;
 	}
 
 	// quote strings
@@ -104,6 +162,11 @@ public class ConfigurationReader {
 	 * @return The value configured for the key.
 	 */
 	int getInt(String key, int def) {
+		Snapshot current = getSnapshot();
+		Object cached = current.get(key, TYPE_INT, def);
+		if (cached != null) {
+			return (Integer) cached;
+		}
 		int value;
 
 		try {
@@ -113,6 +176,7 @@ public class ConfigurationReader {
 		}
 
 		log(key, value, def);
+		current.put(key, TYPE_INT, def, value);
 		return value;
 	}
 
@@ -127,6 +191,11 @@ public class ConfigurationReader {
 	 * @return The value configured for the key.
 	 */
 	long getLong(String key, long def) {
+		Snapshot current = getSnapshot();
+		Object cached = current.get(key, TYPE_LONG, def);
+		if (cached != null) {
+			return (Long) cached;
+		}
 		long value;
 
 		try {
@@ -136,6 +205,7 @@ public class ConfigurationReader {
 		}
 
 		log(key, value, def);
+		current.put(key, TYPE_LONG, def, value);
 		return value;
 	}
 
@@ -150,6 +220,11 @@ public class ConfigurationReader {
 	 * @return The value configured for the key.
 	 */
 	double getDouble(String key, double def) {
+		Snapshot current = getSnapshot();
+		Object cached = current.get(key, TYPE_DOUBLE, def);
+		if (cached != null) {
+			return (Double) cached;
+		}
 		double value;
 
 		try {
@@ -159,6 +234,7 @@ public class ConfigurationReader {
 		}
 
 		log(key, value, def);
+		current.put(key, TYPE_DOUBLE, def, value);
 		return value;
 	}
 
@@ -173,6 +249,11 @@ public class ConfigurationReader {
 	 * @return The value configured for the key.
 	 */
 	boolean getBoolean(String key, boolean def) {
+		Snapshot current = getSnapshot();
+		Object cached = current.get(key, TYPE_BOOLEAN, def);
+		if (cached != null) {
+			return (Boolean) cached;
+		}
 		boolean value;
 
 		try {
@@ -182,6 +263,7 @@ public class ConfigurationReader {
 		}
 
 		log(key, value, def);
+		current.put(key, TYPE_BOOLEAN, def, value);
 		return value;
 	}
 
@@ -212,10 +294,18 @@ public class ConfigurationReader {
 	 * If list items in a comma-separated have surrounding whitespace,
 	 * the whitespace is ignored e.g. <code>"foo, bar, baz"</code> becomes
 	 * <code>[ "foo", "bar" , "baz" ]</code>.
-	 * @return The list of value strings configured for the key.
+	 * @return The unmodifiable list of value strings configured for the key.
 	 */
+	@SuppressWarnings("unchecked")
 	List<String> getStringList(String key, String def) {
-		return Arrays.asList(getString(key, def != null ? def : "").split("\\s*,\\s*"));
+		Snapshot current = getSnapshot();
+		Object cached = current.get(key, TYPE_STRING_LIST, def);
+		if (cached != null) {
+			return (List<String>) cached;
+		}
+		List<String> value = Collections.unmodifiableList(Arrays.asList(getString(key, def != null ? def : "").split("\\s*,\\s*")));
+		current.put(key, TYPE_STRING_LIST, def, value);
+		return value;
 	}
 
 	/**
@@ -243,6 +333,11 @@ public class ConfigurationReader {
 	 * @return The value configured for the key.
 	 */
 	String getNonBlankConfigurationString(String key, String def) {
+		Snapshot current = getSnapshot();
+		Object cached = current.get(key, TYPE_NON_BLANK_STRING, def);
+		if (cached != null) {
+			return cached == Snapshot.NULL ? null : (String) cached;
+		}
 		String value;
 		String s = configuration.getString(key);
 
@@ -255,6 +350,7 @@ public class ConfigurationReader {
 		}
 
 		log(key, value, def);
+		current.put(key, TYPE_NON_BLANK_STRING, def, value);
 		return value;
 	}
 
@@ -290,4 +386,45 @@ public class ConfigurationReader {
 	public void setLogOverrides(boolean logOverrides) {
 		this.logOverrides = logOverrides;
 	}
+
+	/**
+	 * The values read since the last configuration change, by key.
+	 */
+	private static class Snapshot {
+		private static final Object NULL = new Object();
+		private final long version;
+		private final Map<String, Value> values = new ConcurrentHashMap<>();
+
+		private Snapshot(long version) {
+			this.version = version;
+		}
+
+		/**
+		 * @return the value read with the same type and default, {@link #NULL}
+		 *         if it was {@code null}, or {@code null} if it was not read.
+		 */
+		private Object get(String key, char type, Object def) {
+			Value value = values.get(key);
+			if (value != null && value.type == type && Objects.equals(value.def, def)) {
+				return value.value;
+			}
+			return null;
+		}
+
+		private void put(String key, char type, Object def, Object value) {
+			values.put(key, new Value(type, def, value != null ? value : NULL));
+		}
+	}
+
+	private static class Value {
+		private final char type;
+		private final Object def;
+		private final Object value;
+
+		private Value(char type, Object def, Object value) {
+			this.type = type;
+			this.def = def;
+			this.value = value;
+		}
+	}
 }
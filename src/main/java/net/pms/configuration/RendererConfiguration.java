@@ -30,6 +30,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.pms.PMS;
 import net.pms.encoders.EncodingFormat;
+import net.pms.encoders.TranscodingDecisions;
 import net.pms.formats.Format;
 import net.pms.formats.Format.Identifier;
 import net.pms.media.MediaInfo;
@@ -164,6 +165,7 @@ public class RendererConfiguration extends BaseConfiguration {
 
 	private File file;
 	private FormatConfiguration formatConfiguration;
+	private final TranscodingDecisions transcodingDecisions = new TranscodingDecisions(this);
 	private List<String> identifiers = null;
 
 	// Holds MIME type aliases
@@ -204,6 +206,10 @@ public class RendererConfiguration extends BaseConfiguration {
 		return formatConfiguration;
 	}
 
+	public TranscodingDecisions getTranscodingDecisions() {
+		return transcodingDecisions;
+	}
+
 	public UmsConfiguration getUmsConfiguration() {
 		return umsConfiguration;
 	}
@@ -381,6 +387,7 @@ public class RendererConfiguration extends BaseConfiguration {
 		if (isUseMediaInfo()) {
 			formatConfiguration = new FormatConfiguration(configuration.getList(KEY_SUPPORTED));
 		}
+		transcodingDecisions.clear();
 	}
 
 	public void reset() {
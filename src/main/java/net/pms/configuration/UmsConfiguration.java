@@ -223,6 +223,7 @@ public class UmsConfiguration extends BaseConfiguration {
 	private static final String KEY_ALTERNATE_THUMB_FOLDER = "alternate_thumb_folder";
 	private static final String KEY_ANONYMOUS_DEVICES_WRITE = "anonymous_devices_write";
 	private static final String KEY_APPEND_PROFILE_NAME = "append_profile_name";
+	private static final String KEY_ARCHIVE_CACHE_SIZE = "archive_cache_size";
 	private static final String KEY_ATZ_LIMIT = "atz_limit";
 	private static final String KEY_AUTOMATIC_DISCOVER = "automatic_discover";
 	private static final String KEY_AUTOMATIC_MAXIMUM_BITRATE = "automatic_maximum_bitrate";
@@ -338,6 +339,7 @@ public class UmsConfiguration extends BaseConfiguration {
 	private static final String KEY_MAX_AUDIO_BUFFER = "maximum_audio_buffer_size";
 	private static final String KEY_MAX_BITRATE = "maximum_bitrate";
 	private static final String KEY_MAX_MEMORY_BUFFER_SIZE = "maximum_video_buffer_size";
+	private static final String KEY_MEDIAINFO_JSON_INFORM = "mediainfo_json_inform";
 	private static final String KEY_MENCODER_ASS = "mencoder_ass";
 	private static final String KEY_MENCODER_AC3_FIXED = "mencoder_ac3_fixed";
 	private static final String KEY_MENCODER_CODEC_SPECIFIC_SCRIPT = "mencoder_codec_specific_script";
@@ -425,6 +427,7 @@ public class UmsConfiguration extends BaseConfiguration {
 	private static final String KEY_SUBS_INFO_LEVEL = "subs_info_level";
 	private static final String KEY_SUBTITLES_CODEPAGE = "subtitles_codepage";
 	private static final String KEY_SUBTITLES_LANGUAGES = "subtitles_languages";
+	private static final String KEY_TEMP_FILES_QUOTA = "temp_files_quota";
 	private static final String KEY_TEMP_FOLDER_PATH = "temp_directory";
 	private static final String KEY_THUMBNAIL_GENERATION_ENABLED = "generate_thumbnails";
 	private static final String KEY_THUMBNAIL_SEEK_POS = "thumbnail_seek_position";
@@ -432,8 +435,12 @@ public class UmsConfiguration extends BaseConfiguration {
 	private static final String KEY_TRANSCODE_BLOCKS_MULTIPLE_CONNECTIONS = "transcode_block_multiple_connections";
 	private static final String KEY_TRANSCODE_FOLDER_NAME = "transcode_folder_name";
 	private static final String KEY_TRANSCODE_KEEP_FIRST_CONNECTION = "transcode_keep_first_connection";
+	private static final String KEY_TRANSCODE_MAX_SESSIONS = "transcode_max_sessions";
+	private static final String KEY_TRANSCODE_MAX_SESSIONS_PER_RENDERER = "transcode_max_sessions_per_renderer";
+	private static final String KEY_TRANSCODE_QUEUE_TIMEOUT = "transcode_queue_timeout";
 	private static final String KEY_TSMUXER_FORCEFPS = "tsmuxer_forcefps";
 	private static final String KEY_UPNP_ALIVE_DELAY = "upnp_alive_delay";
+	private static final String KEY_UPNP_CDS_EVENT_RATE = "upnp_cds_event_rate";
 	private static final String KEY_UPNP_CDS_WRITE = "upnp_cds_write";
 	private static final String KEY_UPNP_ENABLED = "upnp_enable";
 	private static final String KEY_UPNP_JUPNP_DIDL = "upnp_jupnp_didl";
@@ -948,6 +955,16 @@ public class UmsConfiguration extends BaseConfiguration {
 		return tempFolder.getTempFolder();
 	}
 
+	/**
+	 * Returns the maximum size in megabytes of the managed temporary files,
+	 * the least recently added ones are deleted past it. 0 means no limit.
+	 *
+	 * @return The temporary files quota in megabytes.
+	 */
+	public int getTempFilesQuota() {
+		return Math.max(0, getInt(KEY_TEMP_FILES_QUOTA, 1024));
+	}
+
 	public LogSystemInformationMode getLogSystemInformation() {
 		LogSystemInformationMode defaultValue = LogSystemInformationMode.TRACE_ONLY;
 		String value = getString(KEY_LOG_SYSTEM_INFO, defaultValue.toString());
@@ -2316,6 +2333,20 @@ public class UmsConfiguration extends BaseConfiguration {
 		configuration.setProperty(KEY_OPEN_ARCHIVES, value);
 	}
 
+	/**
+	 * Returns the maximum size in megabytes of the archive entries kept
+	 * extracted for seeking, 0 to disable the cache.
+	 *
+	 * @return The archive cache size in megabytes.
+	 */
+	public int getArchiveCacheSize() {
+		return getInt(KEY_ARCHIVE_CACHE_SIZE, 256);
+	}
+
+	public void setArchiveCacheSize(int value) {
+		configuration.setProperty(KEY_ARCHIVE_CACHE_SIZE, value);
+	}
+
 	/**
 	 * Returns true if MEncoder should use the deinterlace filter, false
 	 * otherwise.
@@ -3202,6 +3233,48 @@ public class UmsConfiguration extends BaseConfiguration {
 		configuration.setProperty(KEY_TRANSCODE_KEEP_FIRST_CONNECTION, value);
 	}
 
+	/**
+	 * Returns the maximum number of external processes running at the same
+	 * time, 0 or less for no limit.
+	 *
+	 * Default to no limit.
+	 *
+	 * @return The maximum number of transcodes.
+	 */
+	public int getTranscodeMaxSessions() {
+		return getInt(KEY_TRANSCODE_MAX_SESSIONS, 0);
+	}
+
+	public void setTranscodeMaxSessions(int value) {
+		configuration.setProperty(KEY_TRANSCODE_MAX_SESSIONS, value);
+	}
+
+	/**
+	 * Returns the maximum number of playback transcodes a renderer or user
+	 * can run at the same time, 0 or less for no limit.
+	 *
+	 * Default to no limit.
+	 *
+	 * @return The maximum number of transcodes per renderer.
+	 */
+	public int getTranscodeMaxSessionsPerRenderer() {
+		return getInt(KEY_TRANSCODE_MAX_SESSIONS_PER_RENDERER, 0);
+	}
+
+	public void setTranscodeMaxSessionsPerRenderer(int value) {
+		configuration.setProperty(KEY_TRANSCODE_MAX_SESSIONS_PER_RENDERER, value);
+	}
+
+	/**
+	 * Returns how many seconds a playback request waits for a free transcode
+	 * slot before being refused.
+	 *
+	 * @return The queue timeout in seconds.
+	 */
+	public int getTranscodeQueueTimeout() {
+		return getInt(KEY_TRANSCODE_QUEUE_TIMEOUT, 5);
+	}
+
 	public boolean isMencoderIntelligentSync() {
 		return getBoolean(KEY_MENCODER_INTELLIGENT_SYNC, true);
 	}
@@ -3678,9 +3751,9 @@ public class UmsConfiguration extends BaseConfiguration {
 	private ArrayList<String> ignoredFolderNames;
 
 	/**
-	 * Whether folder_names_ignored has been read.
+	 * The configuration version folder_names_ignored has been read at.
 	 */
-	private boolean ignoredFolderNamesRead;
+	private long ignoredFolderNamesVersion = -1;
 
 	/**
 	 * List of system folder to always skip.
@@ -3692,7 +3765,8 @@ public class UmsConfiguration extends BaseConfiguration {
 	 */
 	@Nonnull
 	public List<String> getIgnoredFolderNames() {
-		if (!ignoredFolderNamesRead) {
+		long version = ConfigurationReader.getVersion();
+		if (ignoredFolderNamesVersion != version) {
 			String ignoredFolderNamesString = configuration.getString(KEY_FOLDER_NAMES_IGNORED, ".unwanted,$RECYCLE.BIN,System Volume Information");
 
 			if (ignoredFolderNamesString == null || ignoredFolderNamesString.length() == 0) {
@@ -3714,7 +3788,7 @@ public class UmsConfiguration extends BaseConfiguration {
 			}
 			ignoredFolderNames.addAll(ignoredSystemFolderNames);
 
-			ignoredFolderNamesRead = true;
+			ignoredFolderNamesVersion = version;
 		}
 
 		return ignoredFolderNames;
@@ -4651,6 +4725,16 @@ public class UmsConfiguration extends BaseConfiguration {
 		configuration.setProperty(KEY_EXTERNAL_NETWORK, b);
 	}
 
+	/**
+	 * Whether MediaInfo values are read from a single JSON report per file
+	 * instead of one library call per value.
+	 *
+	 * @return true if the JSON report should be used.
+	 */
+	public boolean isMediaInfoJsonInform() {
+		return getBoolean(KEY_MEDIAINFO_JSON_INFORM, true);
+	}
+
 	public boolean isUseInfoFromExternalAPI() {
 		return isUseInfoFromUmsAPI() || isUseInfoFromTMDB();
 	}
@@ -5338,6 +5422,16 @@ public class UmsConfiguration extends BaseConfiguration {
 		return getBoolean(KEY_UPNP_CDS_WRITE, false);
 	}
 
+	/**
+	 * The interval between the ContentDirectory update id events, the changes
+	 * made meanwhile are sent together.
+	 *
+	 * @return the interval in milliseconds.
+	 */
+	public int getUpnpCdsEventRate() {
+		return Math.max(100, getInt(KEY_UPNP_CDS_EVENT_RATE, 200));
+	}
+
 	/**
 	 * This allow anonymous remote devices to add/replace files and folders.
 	 */
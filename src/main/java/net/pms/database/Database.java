@@ -17,6 +17,7 @@
 package net.pms.database;
 
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import java.sql.*;
 import net.pms.Messages;
 import net.pms.gui.GuiManager;
@@ -75,6 +76,19 @@ public abstract class Database extends DatabaseHelper {
 		return ds.isRegisterMbeans() ? ds.getHikariPoolMXBean().getActiveConnections() : 0;
 	}
 
+	/**
+	 * @return the connection pool state.
+	 */
+	public String getPoolStatistics() {
+		HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+		if (pool == null) {
+			return "pool not started";
+		}
+		return "active connections: " + pool.getActiveConnections() +
+			", idle connections: " + pool.getIdleConnections() +
+			", threads awaiting a connection: " + pool.getThreadsAwaitingConnection();
+	}
+
 	public boolean isOpened() {
 		return status == DatabaseStatus.OPENED;
 	}
@@ -43,6 +43,12 @@ public class DatabaseEmbedded {
 	private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseEmbedded.class);
 	private static final UmsConfiguration CONFIGURATION = PMS.getConfiguration();
 	private static final Profiler PROFILER = new Profiler();
+
+	/**
+	 * The number of parsed statements each connection keeps, instead of the
+	 * H2 default of 8.
+	 */
+	static final int QUERY_CACHE_SIZE = 128;
 	private static boolean collecting = false;
 
 	/**
@@ -63,6 +69,8 @@ public class DatabaseEmbedded {
 		}
 		LOGGER.info("Database may use {} MB for caching", Math.round((cacheSize / 1024)));
 		url += ";CACHE_SIZE=" + cacheSize;
+		// the media tables helpers prepare the same statements on every call
+		url += ";QUERY_CACHE_SIZE=" + QUERY_CACHE_SIZE;
 
 		if (CONFIGURATION.isDatabaseMediaUseCacheSoft()) {
 			LOGGER.info("Database use soft cache");
@@ -91,7 +99,7 @@ public class DatabaseEmbedded {
 		return url;
 	}
 
-	private static String getDbDir() {
+	static String getDbDir() {
 		File profileDirectory = new File(CONFIGURATION.getProfileDirectory());
 		return new File(PMS.isRunningTests() || profileDirectory.isDirectory() ? CONFIGURATION.getProfileDirectory() : null, "database").getAbsolutePath();
 	}
@@ -18,6 +18,7 @@ package net.pms.database;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
 import net.pms.store.MediaScanner;
 import net.pms.swing.Splash;
 import org.slf4j.Logger;
@@ -38,6 +39,8 @@ public class MediaDatabase extends Database {
 	 */
 	private static MediaDatabase instance = null;
 	private static boolean tablesChecked = false;
+	private static final AtomicLong POOL_CONNECTIONS = new AtomicLong();
+	private static final AtomicLong SHARED_CONNECTIONS = new AtomicLong();
 
 	/**
 	 * Initializes the database connection pool for the current profile.
@@ -90,6 +93,8 @@ public class MediaDatabase extends Database {
 				MediaTableVideotracks.checkTable(connection);
 				MediaTableSubtracks.checkTable(connection);
 				MediaTableChapters.checkTable(connection);
+				MediaTableSeekIndex.checkTable(connection);
+				MediaTableSubtitleAnalysis.checkTable(connection);
 				MediaTableRegexpRules.checkTable(connection);
 
 				MediaTableMusicBrainzReleases.checkTable(connection);
@@ -150,6 +155,8 @@ public class MediaDatabase extends Database {
 		dropTableAndConstraint(connection, MediaTableCoverArtArchive.TABLE_NAME);
 		dropTableAndConstraint(connection, MediaTableThumbnails.TABLE_NAME);
 		dropTableAndConstraint(connection, MediaTableChapters.TABLE_NAME);
+		dropTableAndConstraint(connection, MediaTableSeekIndex.TABLE_NAME);
+		dropTableAndConstraint(connection, MediaTableSubtitleAnalysis.TABLE_NAME);
 
 		dropTableAndConstraint(connection, MediaTableTVSeries.TABLE_NAME);
 		dropTableAndConstraint(connection, MediaTableFailedLookups.TABLE_NAME);
@@ -232,19 +239,60 @@ public class MediaDatabase extends Database {
 	 *
 	 * Prevent for init or giving a connection on db closing
 	 *
+	 * Inside a {@link UnitOfWork}, the connection of the unit of work is
+	 * given.
+	 *
 	 * @return A {@link java.sql.Connection} if the MediaDatabase is available,
 	 * <code>null</code> otherwise
 	 */
 	public static Connection getConnectionIfAvailable() {
 		if (isAvailable()) {
 			try {
-				return instance.getConnection();
+				UnitOfWork unitOfWork = UnitOfWork.getCurrent();
+				if (unitOfWork != null) {
+					return unitOfWork.getConnection();
+				}
+				Connection connection = instance.getConnection();
+				countConnection(false);
+				return connection;
 			} catch (SQLException ex) {
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * Opens a {@link UnitOfWork} sharing one connection between the media
+	 * database lookups of this thread until it is closed.
+	 *
+	 * @return the unit of work, to be closed.
+	 */
+	public static UnitOfWork beginUnitOfWork() {
+		return UnitOfWork.begin(instance);
+	}
+
+	static void countConnection(boolean shared) {
+		if (shared) {
+			SHARED_CONNECTIONS.incrementAndGet();
+		} else {
+			POOL_CONNECTIONS.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @return the connection pool and statement cache statistics.
+	 */
+	public static String getStatistics() {
+		StringBuilder statistics = new StringBuilder();
+		statistics.append("connections taken from the pool: ").append(POOL_CONNECTIONS.get());
+		statistics.append(", connections shared by units of work: ").append(SHARED_CONNECTIONS.get());
+		statistics.append(", statement cache size per connection: ").append(DatabaseEmbedded.QUERY_CACHE_SIZE);
+		if (instance != null) {
+			statistics.append(", ").append(instance.getPoolStatistics());
+		}
+		return statistics.toString();
+	}
+
 	/**
 	 * Reset the media database cache.
 	 *
@@ -263,6 +311,7 @@ public class MediaDatabase extends Database {
 	 */
 	public static synchronized void shutdown() {
 		if (instance != null) {
+			LOGGER.debug("Media database {}", getStatistics());
 			instance.close();
 		}
 	}
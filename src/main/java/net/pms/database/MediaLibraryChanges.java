@@ -0,0 +1,52 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.database;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the changes of the media library tables.
+ *
+ * The write paths of the tables the media library folders are built from
+ * increment the library version, so a folder knows it is up to date by
+ * comparing the version it was populated at instead of running its queries
+ * again. Writes made in a transaction are counted again after the commit,
+ * otherwise a folder populated in between would keep the old content.
+ */
+public class MediaLibraryChanges {
+
+	private static final AtomicLong VERSION = new AtomicLong();
+
+	private MediaLibraryChanges() {
+		//should not be instantiated
+	}
+
+	/**
+	 * @return the current version of the media library.
+	 */
+	public static long getVersion() {
+		return VERSION.get();
+	}
+
+	/**
+	 * Records a change of the media library tables.
+	 */
+	public static void changed() {
+		VERSION.incrementAndGet();
+	}
+
+}
@@ -303,6 +303,7 @@ public class MediaTableAudioMetadata extends MediaTable {
 			ps.setString(2, musicBrainzTrackId);
 			ps.executeUpdate();
 		}
+		MediaLibraryChanges.changed();
 	}
 
 	public static Integer getRatingByAudiotrackId(Connection connection, Integer audiotrackId) throws SQLException {
@@ -330,6 +331,7 @@ public class MediaTableAudioMetadata extends MediaTable {
 			ps.executeUpdate();
 			connection.commit();
 		}
+		MediaLibraryChanges.changed();
 	}
 
 	public static Integer getRatingByMusicbrainzTrackId(Connection connection, String musicBrainzTrackId) throws SQLException {
@@ -867,6 +867,7 @@ public class MediaTableFiles extends MediaTable {
 			if (fileId != null) {
 				//let store know that we change media metadata
 				MediaStoreIds.incrementUpdateIdForFilename(connection, name);
+				MediaLibraryChanges.changed();
 			}
 		}
 		return fileId;
@@ -934,6 +935,7 @@ public class MediaTableFiles extends MediaTable {
 		if (removeStatus) {
 			MediaTableFilesStatus.remove(connection, filename, useLike);
 		}
+		MediaTableSubtitleAnalysis.remove(connection, filename, useLike);
 	}
 
 	/**
@@ -959,6 +961,9 @@ public class MediaTableFiles extends MediaTable {
 			ps.setString(1, filename);
 			int rows = ps.executeUpdate();
 			LOGGER.trace("Deleted {} rows from " + TABLE_NAME, rows);
+			if (rows > 0) {
+				MediaLibraryChanges.changed();
+			}
 		}
 	}
 
@@ -1026,6 +1031,7 @@ public class MediaTableFiles extends MediaTable {
 				ps.setLong(1, fileId);
 				ps.executeUpdate();
 			}
+			MediaLibraryChanges.changed();
 		} catch (SQLException se) {
 			LOGGER.error("An error occurred while trying to remove \"{}\" from the database: {}", fileId, se.getMessage());
 			LOGGER.trace("", se);
@@ -1194,9 +1200,18 @@ public class MediaTableFiles extends MediaTable {
 			 */
 			MediaTableThumbnails.cleanup(connection);
 
+			/*
+			 * Cleanup of SUBTITLE_ANALYSIS table
+			 *
+			 * Removes entries of subtitles files that are not on the hard
+			 * drive anymore.
+			 */
+			MediaTableSubtitleAnalysis.cleanup(connection);
+
 		} catch (SQLException se) {
 			LOGGER.error(null, se);
 		} finally {
+			MediaLibraryChanges.changed();
 			GuiManager.setStatusLine(null);
 		}
 	}
@@ -1287,7 +1302,7 @@ public class MediaTableFiles extends MediaTable {
 		} catch (SQLException se) {
 			LOGGER.trace("Error get files with sql: {}", psSql);
 			LOGGER.error(null, se);
-			return list;
+			return null;
 		}
 		return list;
 	}
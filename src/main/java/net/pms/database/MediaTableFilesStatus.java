@@ -23,7 +23,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import net.pms.media.MediaStatus;
 import org.slf4j.Logger;
@@ -49,6 +52,11 @@ public final class MediaTableFilesStatus extends MediaTable {
 	 */
 	private static final int TABLE_VERSION = 14;
 
+	/**
+	 * The maximum number of files of {@link #getMediaStatuses(Connection, List, int)}.
+	 */
+	public static final int MAX_FILENAMES_PER_QUERY = 100;
+
 	/**
 	 * COLUMNS NAMES
 	 */
@@ -75,6 +83,7 @@ public final class MediaTableFilesStatus extends MediaTable {
 	 * SQL Queries
 	 */
 	private static final String SQL_GET_ALL = SELECT_ALL + FROM + TABLE_NAME + WHERE + TABLE_COL_FILENAME + EQUAL + PARAMETER + AND + TABLE_COL_USERID + EQUAL + PARAMETER + LIMIT_1;
+	private static final String SQL_GET_ALL_BY_USERID_FILENAMES = SELECT_ALL + FROM + TABLE_NAME + WHERE + TABLE_COL_USERID + EQUAL + PARAMETER + AND + TABLE_COL_FILENAME + IN;
 	private static final String SQL_GET_ISFULLYPLAYED = SELECT + TABLE_COL_ISFULLYPLAYED + FROM + TABLE_NAME + WHERE + TABLE_COL_FILENAME + EQUAL + PARAMETER + AND + TABLE_COL_USERID + EQUAL + PARAMETER + LIMIT_1;
 	private static final String SQL_GET_MOVED = SELECT + PARAMETER + COMMA + COL_USERID + COMMA + COL_BOOKMARK + COMMA + COL_ISFULLYPLAYED + COMMA + COL_PLAYCOUNT + COMMA + COL_DATELASTPLAY + FROM + TABLE_NAME + WHERE + TABLE_COL_FILENAME + EQUAL + PARAMETER;
 	private static final String SQL_GET_USER = SELECT + TABLE_COL_FILENAME + COMMA + PARAMETER + COMMA + COL_BOOKMARK + COMMA + COL_ISFULLYPLAYED + COMMA + COL_PLAYCOUNT + COMMA + COL_DATELASTPLAY + FROM + TABLE_NAME + WHERE + TABLE_COL_USERID + EQUAL + PARAMETER;
@@ -250,13 +259,7 @@ public final class MediaTableFilesStatus extends MediaTable {
 			statement.setInt(2, userId);
 			try (ResultSet rs = statement.executeQuery()) {
 				if (rs.next()) {
-					MediaStatus media = new MediaStatus();
-					media.setFullyPlayed(rs.getBoolean(COL_ISFULLYPLAYED));
-					media.setPlaybackCount(rs.getInt(COL_PLAYCOUNT));
-					media.setLastPlaybackTime(rs.getString(COL_DATELASTPLAY));
-					media.setLastPlaybackPosition(rs.getDouble(COL_LASTPLAYBACKPOSITION));
-					media.setBookmark(rs.getInt(COL_BOOKMARK));
-					return media;
+					return toMediaStatus(rs);
 				}
 			}
 		} catch (SQLException e) {
@@ -266,6 +269,52 @@ public final class MediaTableFilesStatus extends MediaTable {
 		return null;
 	}
 
+	/**
+	 * Gets the status of several files in one query.
+	 *
+	 * @param connection the db connection
+	 * @param fullPathToFiles the full paths to the files, at most
+	 *            {@link #MAX_FILENAMES_PER_QUERY}.
+	 * @param userId the user id.
+	 * @return the status of the files having one, by full path.
+	 */
+	public static Map<String, MediaStatus> getMediaStatuses(final Connection connection, final List<String> fullPathToFiles, final int userId) {
+		Map<String, MediaStatus> result = new HashMap<>();
+		if (connection == null || fullPathToFiles == null || fullPathToFiles.isEmpty()) {
+			return result;
+		}
+		StringBuilder sql = new StringBuilder(SQL_GET_ALL_BY_USERID_FILENAMES).append('(');
+		for (int i = 0; i < fullPathToFiles.size(); i++) {
+			sql.append(i == 0 ? PARAMETER : COMMA + PARAMETER);
+		}
+		sql.append(')');
+		try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+			statement.setInt(1, userId);
+			for (int i = 0; i < fullPathToFiles.size(); i++) {
+				statement.setString(i + 2, fullPathToFiles.get(i));
+			}
+			try (ResultSet rs = statement.executeQuery()) {
+				while (rs.next()) {
+					result.put(rs.getString(COL_FILENAME), toMediaStatus(rs));
+				}
+			}
+		} catch (SQLException e) {
+			LOGGER.error(LOG_ERROR_WHILE_IN_FOR, DATABASE_NAME, "getting data", TABLE_NAME, fullPathToFiles.size() + " files", e.getMessage());
+			LOGGER.trace("", e);
+		}
+		return result;
+	}
+
+	private static MediaStatus toMediaStatus(ResultSet rs) throws SQLException {
+		MediaStatus media = new MediaStatus();
+		media.setFullyPlayed(rs.getBoolean(COL_ISFULLYPLAYED));
+		media.setPlaybackCount(rs.getInt(COL_PLAYCOUNT));
+		media.setLastPlaybackTime(rs.getString(COL_DATELASTPLAY));
+		media.setLastPlaybackPosition(rs.getDouble(COL_LASTPLAYBACKPOSITION));
+		media.setBookmark(rs.getInt(COL_BOOKMARK));
+		return media;
+	}
+
 	/**
 	 * Sets whether the file has been fully played.
 	 *
@@ -299,6 +348,7 @@ public final class MediaTableFilesStatus extends MediaTable {
 							result.updateTimestamp(COL_MODIFIED, new Timestamp(System.currentTimeMillis()));
 							result.updateBoolean(COL_ISFULLYPLAYED, isFullyPlayed);
 							result.updateRow();
+							MediaLibraryChanges.changed();
 						}
 					} else {
 						if (trace) {
@@ -314,6 +364,7 @@ public final class MediaTableFilesStatus extends MediaTable {
 						result.updateTimestamp(COL_MODIFIED, new Timestamp(System.currentTimeMillis()));
 						result.updateBoolean(COL_ISFULLYPLAYED, isFullyPlayed);
 						result.insertRow();
+						MediaLibraryChanges.changed();
 					}
 				}
 			}
@@ -331,6 +382,18 @@ public final class MediaTableFilesStatus extends MediaTable {
 	 * @param lastPlaybackPosition how many seconds were played
 	 */
 	public static void setLastPlayed(final Connection connection, final String fullPathToFile, final int userId, final Double lastPlaybackPosition) {
+		setLastPlayed(connection, fullPathToFile, userId, lastPlaybackPosition, 1);
+	}
+
+	/**
+	 * Sets the last played date and increments the play count.
+	 *
+	 * @param connection the db connection
+	 * @param fullPathToFile
+	 * @param lastPlaybackPosition how many seconds were played
+	 * @param playCount the number of plays to add
+	 */
+	public static void setLastPlayed(final Connection connection, final String fullPathToFile, final int userId, final Double lastPlaybackPosition, final int playCount) {
 		boolean trace = LOGGER.isTraceEnabled();
 		try {
 			try (PreparedStatement statement = connection.prepareStatement(SQL_GET_ALL, ResultSet.TYPE_SCROLL_SENSITIVE, ResultSet.CONCUR_UPDATABLE)) {
@@ -340,21 +403,21 @@ public final class MediaTableFilesStatus extends MediaTable {
 					LOGGER.trace("Searching for file in " + TABLE_NAME + " with \"{}\" before setLastPlayed", statement);
 				}
 				try (ResultSet result = statement.executeQuery()) {
-					int playCount;
+					int newPlayCount;
 					boolean isCreatingNewRecord = !result.next();
 
 					if (isCreatingNewRecord) {
-						playCount = 1;
+						newPlayCount = playCount;
 						result.moveToInsertRow();
 						result.updateString(COL_FILENAME, fullPathToFile);
 						result.updateInt(COL_USERID, userId);
 					} else {
-						playCount = result.getInt(COL_PLAYCOUNT) + 1;
+						newPlayCount = result.getInt(COL_PLAYCOUNT) + playCount;
 					}
 
 					result.updateTimestamp(COL_MODIFIED, new Timestamp(System.currentTimeMillis()));
 					result.updateTimestamp(COL_DATELASTPLAY, new Timestamp(System.currentTimeMillis()));
-					result.updateInt(COL_PLAYCOUNT, playCount);
+					result.updateInt(COL_PLAYCOUNT, newPlayCount);
 					if (lastPlaybackPosition != null) {
 						result.updateDouble(COL_LASTPLAYBACKPOSITION, lastPlaybackPosition);
 					}
@@ -364,6 +427,7 @@ public final class MediaTableFilesStatus extends MediaTable {
 					} else {
 						result.updateRow();
 					}
+					MediaLibraryChanges.changed();
 				}
 			}
 		} catch (SQLException e) {
@@ -426,6 +490,9 @@ public final class MediaTableFilesStatus extends MediaTable {
 				statement.setString(1, filename);
 				int rows = statement.executeUpdate();
 				LOGGER.trace("Removed entries {} in " + TABLE_NAME + " for filename \"{}\"", rows, filename);
+				if (rows > 0) {
+					MediaLibraryChanges.changed();
+				}
 			}
 		} catch (SQLException e) {
 			LOGGER.error(LOG_ERROR_WHILE_IN_FOR, DATABASE_NAME, "removing entries", TABLE_NAME, filename, e.getMessage());
@@ -447,6 +514,9 @@ public final class MediaTableFilesStatus extends MediaTable {
 				statement.setString(2, fullPathToFile);
 				int rows = statement.executeUpdate();
 				LOGGER.trace("Copied entries {} in " + TABLE_NAME + " for filename \"{}\"", rows, fullPathToNewFile);
+				if (rows > 0) {
+					MediaLibraryChanges.changed();
+				}
 			}
 		} catch (SQLException e) {
 			LOGGER.error(LOG_ERROR_WHILE_IN_FOR, DATABASE_NAME, "Copying entries", TABLE_NAME, fullPathToNewFile, e.getMessage());
@@ -484,6 +554,7 @@ public final class MediaTableFilesStatus extends MediaTable {
 		try (PreparedStatement statement = connection.prepareStatement(SQL_DELETE_USER)) {
 			statement.setInt(1, userId);
 			statement.executeUpdate();
+			MediaLibraryChanges.changed();
 		} catch (SQLException e) {
 			LOGGER.error("Error deleteUser:{}", e.getMessage());
 		}
@@ -499,6 +570,7 @@ public final class MediaTableFilesStatus extends MediaTable {
 			statement.setInt(1, userIdDest);
 			statement.setInt(2, userId);
 			statement.executeUpdate();
+			MediaLibraryChanges.changed();
 		} catch (SQLException e) {
 			LOGGER.error("Error copyUserEntries:{}", e.getMessage());
 		}
@@ -0,0 +1,177 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import net.pms.util.MpegSeekIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is responsible for managing the Seek Index table. It
+ * does everything from creating, checking and upgrading the table to performing
+ * lookups, updates and inserts. All operations involving this table shall be
+ * done with this class.
+ */
+public class MediaTableSeekIndex extends MediaTable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(MediaTableSeekIndex.class);
+	protected static final String TABLE_NAME = "SEEK_INDEX";
+
+	/**
+	 * Table version must be increased every time a change is done to the table
+	 * definition. Table upgrade SQL must also be added to
+	 * {@link #upgradeTable(Connection, int)}
+	 */
+	private static final int TABLE_VERSION = 1;
+
+	/**
+	 * COLUMNS NAMES
+	 */
+	private static final String COL_FILEID = MediaTableFiles.CHILD_ID;
+	private static final String COL_FILESIZE = "FILESIZE";
+	private static final String COL_DATA = "DATA";
+
+	/**
+	 * COLUMNS with table name
+	 */
+	private static final String TABLE_COL_FILEID = TABLE_NAME + "." + COL_FILEID;
+
+	/**
+	 * SQL Queries
+	 */
+	private static final String SQL_GET_ALL_BY_FILEID = SELECT_ALL + FROM + TABLE_NAME + WHERE + TABLE_COL_FILEID + EQUAL + PARAMETER;
+
+	/**
+	 * Checks and creates or upgrades the table as needed.
+	 *
+	 * @param connection the {@link Connection} to use
+	 *
+	 * @throws SQLException
+	 */
+	protected static void checkTable(final Connection connection) throws SQLException {
+		if (tableExists(connection, TABLE_NAME)) {
+			Integer version = MediaTableTablesVersions.getTableVersion(connection, TABLE_NAME);
+			if (version == null) {
+				version = 1;
+			}
+			if (version < TABLE_VERSION) {
+				upgradeTable(connection, version);
+			} else if (version > TABLE_VERSION) {
+				LOGGER.warn(LOG_TABLE_NEWER_VERSION_DELETEDB, DATABASE_NAME, TABLE_NAME, DATABASE.getDatabaseFilename());
+			}
+		} else {
+			createTable(connection);
+			MediaTableTablesVersions.setTableVersion(connection, TABLE_NAME, TABLE_VERSION);
+		}
+	}
+
+	private static void upgradeTable(Connection connection, Integer currentVersion) throws SQLException {
+		LOGGER.info(LOG_UPGRADING_TABLE, DATABASE_NAME, TABLE_NAME, currentVersion, TABLE_VERSION);
+		for (int version = currentVersion; version < TABLE_VERSION; version++) {
+			LOGGER.trace(LOG_UPGRADING_TABLE, DATABASE_NAME, TABLE_NAME, version, version + 1);
+			switch (version) {
+				default -> {
+					throw new IllegalStateException(
+							getMessage(LOG_UPGRADING_TABLE_MISSING, DATABASE_NAME, TABLE_NAME, version, TABLE_VERSION)
+					);
+				}
+			}
+		}
+		try {
+			MediaTableTablesVersions.setTableVersion(connection, TABLE_NAME, TABLE_VERSION);
+		} catch (SQLException e) {
+			LOGGER.error("Failed setting the table version of the {} for {}", TABLE_NAME, e.getMessage());
+			LOGGER.error("Please use the 'Reset the cache' button on the 'Navigation Settings' tab, close UMS and start it again.");
+			throw new SQLException(e);
+		}
+	}
+
+	private static void createTable(final Connection connection) throws SQLException {
+		LOGGER.info(LOG_CREATING_TABLE, DATABASE_NAME, TABLE_NAME);
+		execute(connection,
+			CREATE_TABLE + TABLE_NAME + " (" +
+				COL_FILEID          + BIGINT               + PRIMARY_KEY                + COMMA +
+				COL_FILESIZE        + BIGINT               + NOT_NULL                   + COMMA +
+				COL_DATA            + BLOB                                              + COMMA +
+				CONSTRAINT + TABLE_NAME + CONSTRAINT_SEPARATOR + COL_FILEID + FK_MARKER + FOREIGN_KEY + "(" + COL_FILEID + ")" + REFERENCES + MediaTableFiles.REFERENCE_TABLE_COL_ID + ON_DELETE_CASCADE +
+			")"
+		);
+	}
+
+	/**
+	 * Gets the stored seek index of a file.
+	 *
+	 * @param connection the db connection
+	 * @param fileId the file id.
+	 * @param fileSize the current file size.
+	 * @return the seek index, or {@code null} if none or outdated.
+	 */
+	public static MpegSeekIndex getSeekIndex(final Connection connection, long fileId, long fileSize) {
+		if (connection == null || fileId < 0) {
+			return null;
+		}
+		try (PreparedStatement stmt = connection.prepareStatement(SQL_GET_ALL_BY_FILEID)) {
+			stmt.setLong(1, fileId);
+			try (ResultSet rs = stmt.executeQuery()) {
+				if (rs.next() && rs.getLong(COL_FILESIZE) == fileSize) {
+					return MpegSeekIndex.fromByteArray(rs.getBytes(COL_DATA));
+				}
+			}
+		} catch (SQLException e) {
+			LOGGER.error(LOG_ERROR_WHILE_IN_FOR, DATABASE_NAME, "reading seek index", TABLE_NAME, fileId, e.getMessage());
+			LOGGER.trace("", e);
+		}
+		return null;
+	}
+
+	/**
+	 * Stores the seek index of a file.
+	 *
+	 * @param connection the db connection
+	 * @param fileId the file id.
+	 * @param seekIndex the seek index.
+	 */
+	public static void setSeekIndex(final Connection connection, long fileId, MpegSeekIndex seekIndex) {
+		if (connection == null || fileId < 0 || seekIndex == null) {
+			return;
+		}
+		try (PreparedStatement stmt = connection.prepareStatement(SQL_GET_ALL_BY_FILEID, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_UPDATABLE)) {
+			stmt.setLong(1, fileId);
+			try (ResultSet result = stmt.executeQuery()) {
+				boolean isCreatingNewRecord = !result.next();
+				if (isCreatingNewRecord) {
+					result.moveToInsertRow();
+					result.updateLong(COL_FILEID, fileId);
+				}
+				result.updateLong(COL_FILESIZE, seekIndex.getLength());
+				result.updateBytes(COL_DATA, seekIndex.toByteArray());
+				if (isCreatingNewRecord) {
+					result.insertRow();
+				} else {
+					result.updateRow();
+				}
+			}
+		} catch (SQLException e) {
+			LOGGER.error(LOG_ERROR_WHILE_IN_FOR, DATABASE_NAME, "writing seek index", TABLE_NAME, fileId, e.getMessage());
+			LOGGER.trace("", e);
+		}
+	}
+
+}
@@ -0,0 +1,267 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.database;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import net.pms.formats.v2.SubtitleType;
+import net.pms.media.subtitle.SubtitleAnalysis;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is responsible for managing the Subtitle Analysis table. It
+ * does everything from creating, checking and upgrading the table to performing
+ * lookups, updates and inserts. All operations involving this table shall be
+ * done with this class.
+ */
+public class MediaTableSubtitleAnalysis extends MediaTable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(MediaTableSubtitleAnalysis.class);
+	protected static final String TABLE_NAME = "SUBTITLE_ANALYSIS";
+
+	/**
+	 * Table version must be increased every time a change is done to the table
+	 * definition. Table upgrade SQL must also be added to
+	 * {@link #upgradeTable(Connection, int)}
+	 */
+	private static final int TABLE_VERSION = 1;
+
+	/**
+	 * COLUMNS NAMES
+	 */
+	private static final String COL_FILENAME = "FILENAME";
+	private static final String COL_FILESIZE = "FILESIZE";
+	private static final String COL_MODIFIED = "MODIFIED";
+	private static final String COL_CHARSET = "CHARSET";
+	private static final String COL_CONFIDENCE = "CONFIDENCE";
+	private static final String COL_LANG = "LANG";
+	private static final String COL_FORMAT_TYPE = "FORMAT_TYPE";
+	private static final String COL_CONVERTED = "CONVERTED";
+
+	/**
+	 * COLUMNS with table name
+	 */
+	private static final String TABLE_COL_FILENAME = TABLE_NAME + "." + COL_FILENAME;
+
+	/**
+	 * SQL Queries
+	 */
+	private static final String SQL_GET_ALL_BY_FILENAME = SELECT_ALL + FROM + TABLE_NAME + WHERE + TABLE_COL_FILENAME + EQUAL + PARAMETER;
+	private static final String SQL_GET_FILENAME_CONVERTED = SELECT + COL_FILENAME + COMMA + COL_CONVERTED + FROM + TABLE_NAME;
+	private static final String SQL_DELETE = DELETE_FROM + TABLE_NAME + WHERE + TABLE_COL_FILENAME + EQUAL + PARAMETER;
+	private static final String SQL_DELETE_LIKE = DELETE_FROM + TABLE_NAME + WHERE + TABLE_COL_FILENAME + LIKE + LIKE_STARTING_WITH_PARAMETER;
+
+	/**
+	 * Checks and creates or upgrades the table as needed.
+	 *
+	 * @param connection the {@link Connection} to use
+	 *
+	 * @throws SQLException
+	 */
+	protected static void checkTable(final Connection connection) throws SQLException {
+		if (tableExists(connection, TABLE_NAME)) {
+			Integer version = MediaTableTablesVersions.getTableVersion(connection, TABLE_NAME);
+			if (version == null) {
+				version = 1;
+			}
+			if (version < TABLE_VERSION) {
+				upgradeTable(connection, version);
+			} else if (version > TABLE_VERSION) {
+				LOGGER.warn(LOG_TABLE_NEWER_VERSION_DELETEDB, DATABASE_NAME, TABLE_NAME, DATABASE.getDatabaseFilename());
+			}
+		} else {
+			createTable(connection);
+			MediaTableTablesVersions.setTableVersion(connection, TABLE_NAME, TABLE_VERSION);
+		}
+	}
+
+	private static void upgradeTable(Connection connection, Integer currentVersion) throws SQLException {
+		LOGGER.info(LOG_UPGRADING_TABLE, DATABASE_NAME, TABLE_NAME, currentVersion, TABLE_VERSION);
+		for (int version = currentVersion; version < TABLE_VERSION; version++) {
+			LOGGER.trace(LOG_UPGRADING_TABLE, DATABASE_NAME, TABLE_NAME, version, version + 1);
+			switch (version) {
+				default -> {
+					throw new IllegalStateException(
+							getMessage(LOG_UPGRADING_TABLE_MISSING, DATABASE_NAME, TABLE_NAME, version, TABLE_VERSION)
+					);
+				}
+			}
+		}
+		try {
+			MediaTableTablesVersions.setTableVersion(connection, TABLE_NAME, TABLE_VERSION);
+		} catch (SQLException e) {
+			LOGGER.error("Failed setting the table version of the {} for {}", TABLE_NAME, e.getMessage());
+			LOGGER.error("Please use the 'Reset the cache' button on the 'Navigation Settings' tab, close UMS and start it again.");
+			throw new SQLException(e);
+		}
+	}
+
+	private static void createTable(final Connection connection) throws SQLException {
+		LOGGER.info(LOG_CREATING_TABLE, DATABASE_NAME, TABLE_NAME);
+		execute(connection,
+			CREATE_TABLE + TABLE_NAME + " (" +
+				COL_FILENAME        + VARCHAR_1024         + PRIMARY_KEY                + COMMA +
+				COL_FILESIZE        + BIGINT               + NOT_NULL                   + COMMA +
+				COL_MODIFIED        + BIGINT               + NOT_NULL                   + COMMA +
+				COL_CHARSET         + VARCHAR_32                                        + COMMA +
+				COL_CONFIDENCE      + INTEGER                                           + COMMA +
+				COL_LANG            + VARCHAR_3                                         + COMMA +
+				COL_FORMAT_TYPE     + INTEGER                                           + COMMA +
+				COL_CONVERTED       + VARCHAR_1024                                      +
+			")"
+		);
+	}
+
+	/**
+	 * Gets the stored analysis of a subtitles file.
+	 *
+	 * @param connection the db connection
+	 * @param filename the absolute path of the subtitles file.
+	 * @return the analysis, or {@code null} if none. It may be outdated.
+	 */
+	public static SubtitleAnalysis getAnalysis(final Connection connection, String filename) {
+		if (connection == null || filename == null) {
+			return null;
+		}
+		try (PreparedStatement stmt = connection.prepareStatement(SQL_GET_ALL_BY_FILENAME)) {
+			stmt.setString(1, filename);
+			try (ResultSet rs = stmt.executeQuery()) {
+				if (rs.next()) {
+					String converted = rs.getString(COL_CONVERTED);
+					return new SubtitleAnalysis(
+						rs.getLong(COL_FILESIZE),
+						rs.getLong(COL_MODIFIED),
+						rs.getString(COL_CHARSET),
+						rs.getInt(COL_CONFIDENCE),
+						rs.getString(COL_LANG),
+						SubtitleType.valueOfStableIndex(rs.getInt(COL_FORMAT_TYPE)),
+						converted == null ? null : new File(converted)
+					);
+				}
+			}
+		} catch (SQLException e) {
+			LOGGER.error(LOG_ERROR_WHILE_IN_FOR, DATABASE_NAME, "reading subtitle analysis", TABLE_NAME, filename, e.getMessage());
+			LOGGER.trace("", e);
+		}
+		return null;
+	}
+
+	/**
+	 * Stores the analysis of a subtitles file.
+	 *
+	 * @param connection the db connection
+	 * @param filename the absolute path of the subtitles file.
+	 * @param analysis the analysis.
+	 */
+	public static void setAnalysis(final Connection connection, String filename, SubtitleAnalysis analysis) {
+		if (connection == null || filename == null || analysis == null) {
+			return;
+		}
+		try (PreparedStatement stmt = connection.prepareStatement(SQL_GET_ALL_BY_FILENAME, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_UPDATABLE)) {
+			stmt.setString(1, filename);
+			try (ResultSet result = stmt.executeQuery()) {
+				boolean isCreatingNewRecord = !result.next();
+				if (isCreatingNewRecord) {
+					result.moveToInsertRow();
+					result.updateString(COL_FILENAME, filename);
+				}
+				File convertedFile = analysis.getConvertedFile();
+				result.updateLong(COL_FILESIZE, analysis.getFileSize());
+				result.updateLong(COL_MODIFIED, analysis.getModified());
+				result.updateString(COL_CHARSET, analysis.getCharset());
+				result.updateInt(COL_CONFIDENCE, analysis.getConfidence());
+				result.updateString(COL_LANG, analysis.getLanguage());
+				result.updateInt(COL_FORMAT_TYPE, analysis.getType() == null ? SubtitleType.UNKNOWN.getStableIndex() : analysis.getType().getStableIndex());
+				result.updateString(COL_CONVERTED, convertedFile == null ? null : convertedFile.getAbsolutePath());
+				if (isCreatingNewRecord) {
+					result.insertRow();
+				} else {
+					result.updateRow();
+				}
+			}
+		} catch (SQLException e) {
+			LOGGER.error(LOG_ERROR_WHILE_IN_FOR, DATABASE_NAME, "writing subtitle analysis", TABLE_NAME, filename, e.getMessage());
+			LOGGER.trace("", e);
+		}
+	}
+
+	/**
+	 * Removes the analysis of a subtitles file, or of all the subtitles files
+	 * in a folder, with their {@code UTF-8} copies. If {@code useLike} is
+	 * {@code true}, {@code filename} must be properly escaped.
+	 *
+	 * @param connection the db connection
+	 * @param filename the absolute path of the file or folder.
+	 * @param useLike {@code true} if {@code LIKE} should be used as the compare
+	 *            operator, {@code false} if {@code =} should be used.
+	 */
+	public static void remove(final Connection connection, final String filename, boolean useLike) {
+		if (!useLike) {
+			SubtitleAnalysis analysis = getAnalysis(connection, filename);
+			if (analysis != null) {
+				deleteConvertedFile(analysis.getConvertedFile());
+			}
+		}
+		try (PreparedStatement statement = connection.prepareStatement(useLike ? SQL_DELETE_LIKE : SQL_DELETE)) {
+			statement.setString(1, filename);
+			int rows = statement.executeUpdate();
+			LOGGER.trace("Removed entries {} in " + TABLE_NAME + " for filename \"{}\"", rows, filename);
+		} catch (SQLException e) {
+			LOGGER.error(LOG_ERROR_WHILE_IN_FOR, DATABASE_NAME, "removing entries", TABLE_NAME, filename, e.getMessage());
+			LOGGER.trace("", e);
+		}
+	}
+
+	/**
+	 * Removes the entries of the subtitles files that are not on the hard
+	 * drive anymore, with their {@code UTF-8} copies.
+	 *
+	 * @param connection the db connection
+	 */
+	public static void cleanup(final Connection connection) {
+		int rows = 0;
+		try (
+			PreparedStatement statement = connection.prepareStatement(SQL_GET_FILENAME_CONVERTED, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_UPDATABLE);
+			ResultSet rs = statement.executeQuery()
+		) {
+			while (rs.next()) {
+				if (!new File(rs.getString(COL_FILENAME)).isFile()) {
+					String converted = rs.getString(COL_CONVERTED);
+					if (converted != null) {
+						deleteConvertedFile(new File(converted));
+					}
+					rs.deleteRow();
+					rows++;
+				}
+			}
+			LOGGER.trace("Removed {} entries in \"{}\"", rows, TABLE_NAME);
+		} catch (SQLException e) {
+			LOGGER.error(LOG_ERROR_WHILE_IN, DATABASE_NAME, "removing entries", TABLE_NAME, e.getMessage());
+			LOGGER.trace("", e);
+		}
+	}
+
+	private static void deleteConvertedFile(File convertedFile) {
+		if (convertedFile != null && convertedFile.isFile() && !convertedFile.delete()) {
+			LOGGER.debug("Cannot delete the converted subtitles \"{}\"", convertedFile);
+		}
+	}
+
+}
@@ -536,6 +536,7 @@ public final class MediaTableTVSeries extends MediaTable {
 							result.updateInt(COL_STARTYEAR, startYear);
 						}
 						result.insertRow();
+						MediaLibraryChanges.changed();
 						return set(connection, title, startYear);
 					}
 				}
@@ -650,6 +651,7 @@ public final class MediaTableTVSeries extends MediaTable {
 			MediaTableVideoMetadataGenres.set(connection, null, seriesMetadata.getGenres(), tvSeriesId);
 			MediaTableVideoMetadataRatings.set(connection, null, seriesMetadata.getRatings(), tvSeriesId);
 			connection.commit();
+			MediaLibraryChanges.changed();
 		} catch (SQLException e) {
 			LOGGER.error(LOG_ERROR_WHILE_VAR_IN, DATABASE_NAME, "inserting API data to TV series entry", title, TABLE_NAME, e.getMessage());
 		}
@@ -1157,6 +1159,7 @@ public final class MediaTableTVSeries extends MediaTable {
 				");"
 		)) {
 			ps.execute();
+			MediaLibraryChanges.changed();
 		} catch (SQLException se) {
 			LOGGER.error(null, se);
 		}
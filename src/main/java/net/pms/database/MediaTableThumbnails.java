@@ -24,8 +24,17 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.pms.dlna.DLNAImageProfile;
+import net.pms.dlna.DLNAProfileException;
 import net.pms.dlna.DLNAThumbnail;
 import net.pms.dlna.DLNAThumbnailFixer;
+import net.pms.image.ImageInfo;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +46,12 @@ import org.slf4j.LoggerFactory;
  * performing lookups, updates and inserts. All operations involving this table
  * shall be done with this class.
  *
+ * The images are stored by {@link ThumbnailBlobStore}, the table only keeps
+ * their ids, hashes, {@link ImageInfo} and {@link DLNAImageProfile}, so
+ * reading a thumbnail does not decode the image. Thumbnails stored in the
+ * table by older versions are moved out when read, and by the background
+ * compaction.
+ *
  * @author SubJunk & Nadahar
  * @since 7.1.1
  */
@@ -50,7 +65,7 @@ public final class MediaTableThumbnails extends MediaTable {
 	 * definition. Table upgrade SQL must also be added to
 	 * {@link #upgradeTable()}
 	 */
-	private static final int TABLE_VERSION = 1;
+	private static final int TABLE_VERSION = 3;
 
 	/**
 	 * COLUMNS NAMES
@@ -59,25 +74,33 @@ public final class MediaTableThumbnails extends MediaTable {
 	private static final String COL_ID = "ID";
 	private static final String COL_MD5 = "MD5";
 	private static final String COL_MODIFIED = "MODIFIED";
+	private static final String COL_IMAGE_INFO = "IMAGE_INFO";
+	private static final String COL_PROFILE = "PROFILE";
 
 	/**
 	 * COLUMNS with table name
 	 */
 	public static final String TABLE_COL_ID = TABLE_NAME + "." + COL_ID;
 	private static final String TABLE_COL_MD5 = TABLE_NAME + "." + COL_MD5;
+	private static final String TABLE_COL_THUMBNAIL = TABLE_NAME + "." + COL_THUMBNAIL;
 
 	/**
 	 * SQL Queries
 	 */
 	private static final String SQL_GET_ID = SELECT_ALL + FROM + TABLE_NAME + WHERE + TABLE_COL_ID + EQUAL + PARAMETER + LIMIT_1;
+	private static final String SQL_GET_MD5_IMAGE_INFO_ID = SELECT + COL_ID + COMMA + COL_MD5 + COMMA + COL_IMAGE_INFO + COMMA + COL_PROFILE + FROM + TABLE_NAME + WHERE + TABLE_COL_ID + EQUAL + PARAMETER + LIMIT_1;
+	private static final String SQL_GET_MD5 = SELECT + TABLE_COL_MD5 + FROM + TABLE_NAME;
+	private static final String SQL_GET_ID_MD5_STORED_IN_TABLE = SELECT + TABLE_COL_ID + COMMA + TABLE_COL_MD5 + FROM + TABLE_NAME + WHERE + TABLE_COL_THUMBNAIL + IS_NOT_NULL;
 	private static final String SQL_GET_ID_MD5 = SELECT + TABLE_COL_ID + FROM + TABLE_NAME + WHERE + TABLE_COL_MD5 + EQUAL + PARAMETER + LIMIT_1;
-	private static final String SQL_INSERT_ID_MD5 = INSERT_INTO + TABLE_NAME + " (" + COL_THUMBNAIL + COMMA + COL_MODIFIED + COMMA + COL_MD5 + ") VALUES (" + PARAMETER + COMMA + PARAMETER + COMMA + PARAMETER + ")";
+	private static final String SQL_INSERT_ID_MD5 = INSERT_INTO + TABLE_NAME + " (" + COL_THUMBNAIL + COMMA + COL_MODIFIED + COMMA + COL_MD5 + COMMA + COL_IMAGE_INFO + COMMA + COL_PROFILE + ") VALUES (" + PARAMETER + COMMA + PARAMETER + COMMA + PARAMETER + COMMA + PARAMETER + COMMA + PARAMETER + ")";
 
 	private static final String SQL_DELETE_ID = DELETE_FROM + TABLE_NAME + WHERE + TABLE_COL_ID + EQUAL + PARAMETER;
 	private static final String SQL_CLEANUP = DELETE_FROM + TABLE_NAME + WHERE +
 		NOT + EXISTS + "(" + SELECT + MediaTableTVSeries.TABLE_COL_THUMBID + FROM + MediaTableTVSeries.TABLE_NAME + WHERE + MediaTableTVSeries.TABLE_COL_THUMBID + EQUAL + TABLE_COL_ID + ")" +
 		AND + NOT + EXISTS + "(" + SELECT + MediaTableFiles.TABLE_COL_THUMBID + FROM + MediaTableFiles.TABLE_NAME + WHERE + MediaTableFiles.TABLE_COL_THUMBID + EQUAL + TABLE_COL_ID + ")";
 
+	private static final AtomicBoolean COMPACTING = new AtomicBoolean();
+
 	/**
 	 * Checks and creates or upgrades the table as needed.
 	 *
@@ -122,6 +145,15 @@ public final class MediaTableThumbnails extends MediaTable {
 		for (int version = currentVersion; version < TABLE_VERSION; version++) {
 			LOGGER.trace(LOG_UPGRADING_TABLE, DATABASE_NAME, TABLE_NAME, version, version + 1);
 			switch (version) {
+				case 1 -> {
+					// the images are now stored out of the table
+					executeUpdate(connection, ALTER_TABLE + TABLE_NAME + ALTER_COLUMN + COL_THUMBNAIL + SET + NULL);
+				}
+				case 2 -> {
+					// the image info is stored to build the thumbnails without decoding them
+					executeUpdate(connection, ALTER_TABLE + TABLE_NAME + ADD + COLUMN + IF_NOT_EXISTS + COL_IMAGE_INFO + OTHER);
+					executeUpdate(connection, ALTER_TABLE + TABLE_NAME + ADD + COLUMN + IF_NOT_EXISTS + COL_PROFILE + OTHER);
+				}
 				default ->
 					throw new IllegalStateException(
 							getMessage(LOG_UPGRADING_TABLE_MISSING, DATABASE_NAME, TABLE_NAME, version, TABLE_VERSION)
@@ -136,9 +168,11 @@ public final class MediaTableThumbnails extends MediaTable {
 		execute(connection,
 			CREATE_TABLE + TABLE_NAME + "(" +
 				COL_ID                + IDENTITY                       + COMMA +
-				COL_THUMBNAIL         + OTHER      + NOT_NULL          + COMMA +
+				COL_THUMBNAIL         + OTHER                          + COMMA +
 				COL_MODIFIED          + TIMESTAMP                      + COMMA +
-				COL_MD5               + VARCHAR    + UNIQUE_NOT_NULL   +
+				COL_MD5               + VARCHAR    + UNIQUE_NOT_NULL   + COMMA +
+				COL_IMAGE_INFO        + OTHER                          + COMMA +
+				COL_PROFILE           + OTHER                          +
 			")"
 		);
 	}
@@ -146,22 +180,35 @@ public final class MediaTableThumbnails extends MediaTable {
 	/**
 	 * Attempts to find a thumbnail in this table by MD5 hash.
 	 *
-	 * If not found, it writes the new thumbnail to this table. Finally, it
-	 * returns the ID from this table as the THUMBID.
+	 * If not found, it writes the new thumbnail to the blob store and this
+	 * table. Finally, it returns the ID from this table as the THUMBID.
 	 *
 	 * @param connection the db connection
 	 * @param thumbnail
 	 */
-	public static synchronized Long setThumbnail(final Connection connection, final DLNAThumbnail thumbnail) {
-		String md5Hash = DigestUtils.md5Hex(thumbnail.getBytes(false));
+	public static Long setThumbnail(final Connection connection, final DLNAThumbnail thumbnail) {
+		byte[] bytes = thumbnail.getBytes(false);
+		String md5Hash = DigestUtils.md5Hex(bytes);
+		// keep it in the table if the blob store is not writable
+		boolean stored = ThumbnailBlobStore.write(md5Hash, bytes);
+		return setThumbnailId(connection, md5Hash, thumbnail, !stored);
+	}
+
+	private static synchronized Long setThumbnailId(final Connection connection, final String md5Hash, final DLNAThumbnail thumbnail, final boolean storeImage) {
 		Long existingId = getThumbnailId(connection, md5Hash);
 		if (existingId != null) {
 			return existingId;
 		}
 		try (PreparedStatement insertStatement = connection.prepareStatement(SQL_INSERT_ID_MD5, Statement.RETURN_GENERATED_KEYS)) {
-			insertStatement.setObject(1, thumbnail);
+			if (storeImage) {
+				insertStatement.setObject(1, thumbnail);
+			} else {
+				insertStatement.setNull(1, Types.JAVA_OBJECT);
+			}
 			insertStatement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
 			insertStatement.setString(3, md5Hash);
+			insertStatement.setObject(4, thumbnail.getImageInfo());
+			insertStatement.setObject(5, thumbnail.getDLNAImageProfile());
 			insertStatement.executeUpdate();
 			return getThumbnailId(connection, md5Hash);
 		} catch (SQLException e) {
@@ -193,26 +240,107 @@ public final class MediaTableThumbnails extends MediaTable {
 	}
 
 	public static DLNAThumbnail getThumbnail(final Connection connection, final Long id) {
+		String md5Hash = null;
+		ImageInfo imageInfo = null;
+		DLNAImageProfile profile = null;
+		try (PreparedStatement statement = connection.prepareStatement(SQL_GET_MD5_IMAGE_INFO_ID, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_UPDATABLE)) {
+			statement.setLong(1, id);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				if (resultSet.next()) {
+					md5Hash = resultSet.getString(COL_MD5);
+					imageInfo = getObject(resultSet, COL_IMAGE_INFO, ImageInfo.class);
+					profile = getObject(resultSet, COL_PROFILE, DLNAImageProfile.class);
+					if (imageInfo == null || profile == null) {
+						// stored by an older version, decode it once
+						DLNAThumbnail thumbnail = readThumbnail(id, md5Hash);
+						if (thumbnail != null) {
+							updateImageInfo(resultSet, thumbnail);
+							resultSet.updateRow();
+							return thumbnail;
+						}
+					}
+				}
+			}
+		} catch (SQLException e) {
+			LOGGER.error("Database error in " + TABLE_NAME + " for id \"{}\": {}", id, e.getMessage());
+			LOGGER.trace("", e);
+		}
+		if (md5Hash == null) {
+			return null;
+		}
+		if (imageInfo != null && profile != null) {
+			byte[] bytes = ThumbnailBlobStore.read(md5Hash);
+			if (bytes != null) {
+				try {
+					return new DLNAThumbnail(bytes, imageInfo, profile, false);
+				} catch (DLNAProfileException e) {
+					LOGGER.debug("The stored image info of thumbnail \"{}\" doesn't match: {}", id, e.getMessage());
+					LOGGER.trace("", e);
+					return toThumbnail(id, bytes);
+				}
+			}
+		}
+		return getStoredThumbnail(connection, id, md5Hash);
+	}
+
+	/**
+	 * Reads and decodes a thumbnail from the blob store.
+	 */
+	private static DLNAThumbnail readThumbnail(final Long id, final String md5Hash) {
+		byte[] bytes = ThumbnailBlobStore.read(md5Hash);
+		return bytes == null ? null : toThumbnail(id, bytes);
+	}
+
+	private static DLNAThumbnail toThumbnail(final Long id, final byte[] bytes) {
+		try {
+			return DLNAThumbnail.toThumbnail(bytes);
+		} catch (IOException e) {
+			LOGGER.error("Error reading the thumbnail for id \"{}\": {}", id, e.getMessage());
+			LOGGER.trace("", e);
+			return null;
+		}
+	}
+
+	private static <T> T getObject(final ResultSet resultSet, final String column, final Class<T> type) {
+		try {
+			Object object = resultSet.getObject(column);
+			return type.isInstance(object) ? type.cast(object) : null;
+		} catch (SQLException e) {
+			// not readable by this version, it will be replaced
+			LOGGER.trace("Cannot read the stored {}: {}", column, e.getMessage());
+			return null;
+		}
+	}
+
+	private static void updateImageInfo(final ResultSet resultSet, final DLNAThumbnail thumbnail) throws SQLException {
+		resultSet.updateObject(COL_IMAGE_INFO, thumbnail.getImageInfo());
+		resultSet.updateObject(COL_PROFILE, thumbnail.getDLNAImageProfile());
+	}
+
+	/**
+	 * Reads a thumbnail stored in this table, and moves it to the blob store.
+	 */
+	private static DLNAThumbnail getStoredThumbnail(final Connection connection, final Long id, final String md5Hash) {
 		try (PreparedStatement statement = connection.prepareStatement(SQL_GET_ID, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_UPDATABLE)) {
 			statement.setLong(1, id);
 			try (ResultSet resultSet = statement.executeQuery()) {
 				if (resultSet.next()) {
 					DLNAThumbnail thumbnail = null;
 					try {
-						return ((DLNAThumbnail) resultSet.getObject(COL_THUMBNAIL));
+						thumbnail = (DLNAThumbnail) resultSet.getObject(COL_THUMBNAIL);
 					} catch (SQLException ex) {
 						try {
 							thumbnail = DLNAThumbnailFixer.fixDLNAThumbnail(resultSet.getBinaryStream(COL_THUMBNAIL));
-							if (thumbnail != null) {
-								//update thumbnail object
-								resultSet.updateObject(COL_THUMBNAIL, thumbnail);
-								resultSet.updateRow();
-							}
 						} catch (IOException ex1) {
 							LOGGER.error("Error in DLNAThumbnail deserialization for id \"{}\": {}", id, ex.getMessage());
 							LOGGER.info("", ex);
 						}
 					}
+					if (thumbnail != null && ThumbnailBlobStore.write(md5Hash, thumbnail.getBytes(false))) {
+						resultSet.updateNull(COL_THUMBNAIL);
+						updateImageInfo(resultSet, thumbnail);
+						resultSet.updateRow();
+					}
 					return thumbnail;
 				}
 			}
@@ -226,6 +354,9 @@ public final class MediaTableThumbnails extends MediaTable {
 	/**
 	 * Remove entries not in FILES table or TV_SERIES table.
 	 *
+	 * The thumbnails still stored in this table are then moved to the blob
+	 * store, and the unused blobs are deleted, in the background.
+	 *
 	 * @param connection
 	 */
 	public static void cleanup(final Connection connection) {
@@ -236,6 +367,56 @@ public final class MediaTableThumbnails extends MediaTable {
 			LOGGER.error(LOG_ERROR_WHILE_IN, DATABASE_NAME, "removing entries", TABLE_NAME, e.getMessage());
 			LOGGER.trace("", e);
 		}
+		if (COMPACTING.compareAndSet(false, true)) {
+			new Thread(() -> {
+				try {
+					compact();
+				} finally {
+					COMPACTING.set(false);
+				}
+			}, "Thumbnails compaction").start();
+		}
+	}
+
+	private static void compact() {
+		Connection connection = null;
+		try {
+			connection = MediaDatabase.getConnectionIfAvailable();
+			if (connection == null) {
+				return;
+			}
+			Map<Long, String> storedInTable = new LinkedHashMap<>();
+			try (
+				PreparedStatement statement = connection.prepareStatement(SQL_GET_ID_MD5_STORED_IN_TABLE);
+				ResultSet resultSet = statement.executeQuery()
+			) {
+				while (resultSet.next()) {
+					storedInTable.put(resultSet.getLong(COL_ID), resultSet.getString(COL_MD5));
+				}
+			}
+			for (Map.Entry<Long, String> entry : storedInTable.entrySet()) {
+				getStoredThumbnail(connection, entry.getKey(), entry.getValue());
+			}
+			if (!storedInTable.isEmpty()) {
+				LOGGER.debug("Moved {} thumbnails out of \"{}\"", storedInTable.size(), TABLE_NAME);
+			}
+			Set<String> md5Hashes = new HashSet<>();
+			try (
+				PreparedStatement statement = connection.prepareStatement(SQL_GET_MD5);
+				ResultSet resultSet = statement.executeQuery()
+			) {
+				while (resultSet.next()) {
+					md5Hashes.add(resultSet.getString(COL_MD5));
+				}
+			}
+			int deleted = ThumbnailBlobStore.sweep(md5Hashes);
+			LOGGER.trace("Removed {} unused thumbnail files", deleted);
+		} catch (SQLException e) {
+			LOGGER.error(LOG_ERROR_WHILE_IN, DATABASE_NAME, "compacting", TABLE_NAME, e.getMessage());
+			LOGGER.trace("", e);
+		} finally {
+			MediaDatabase.close(connection);
+		}
 	}
 
 }
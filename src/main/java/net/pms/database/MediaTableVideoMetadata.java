@@ -483,6 +483,7 @@ public class MediaTableVideoMetadata extends MediaTable {
 			MediaTableVideoMetadataRatings.set(connection, fileId, videoMetadata.getRatings(), null);
 		}
 		connection.commit();
+		MediaLibraryChanges.changed();
 	}
 
 	/**
@@ -715,6 +716,7 @@ public class MediaTableVideoMetadata extends MediaTable {
 				statement.setString(2,  StringUtils.left(oldName, SIZE_MAX));
 				statement.execute();
 			}
+			MediaLibraryChanges.changed();
 		} catch (SQLException e) {
 			LOGGER.error(
 				"Failed to update MOVIEORSHOWNAME from \"{}\" to \"{}\": {}",
@@ -0,0 +1,166 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.database;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores the thumbnail images as plain files named after the hash of their
+ * content, next to the media database.
+ *
+ * The same image is stored once whatever the number of rows using it, and
+ * the files are written before the rows referencing them. The files are
+ * spread in sub folders named after the first two characters of the hash.
+ */
+public class ThumbnailBlobStore {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThumbnailBlobStore.class);
+	private static final String FOLDER_NAME = "thumbnails";
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	/**
+	 * Files this recent are kept by {@link #sweep(Set)} even if unreferenced,
+	 * their row may not be committed yet.
+	 */
+	private static final long SWEEP_MIN_AGE = TimeUnit.HOURS.toMillis(1);
+
+	private ThumbnailBlobStore() {
+		//should not be instantiated
+	}
+
+	/**
+	 * Writes an image if it is not stored yet.
+	 *
+	 * An image already stored gets a new modification time, so that
+	 * {@link #sweep(Set)} doesn't delete it before the row now using it is
+	 * committed.
+	 *
+	 * @param hash the hash of the image.
+	 * @param bytes the image.
+	 * @return {@code true} if the image is stored.
+	 */
+	public static boolean write(String hash, byte[] bytes) {
+		File file = getFile(hash);
+		if (file == null) {
+			return false;
+		}
+		if (file.length() == bytes.length) {
+			// a new row may use it now, keep it out of the next sweep
+			if (!file.setLastModified(System.currentTimeMillis())) {
+				LOGGER.trace("Cannot update the modification time of the thumbnail \"{}\"", hash);
+			}
+			return true;
+		}
+		File folder = file.getParentFile();
+		if (!folder.isDirectory() && !folder.mkdirs()) {
+			LOGGER.debug("Cannot create the thumbnails folder \"{}\"", folder);
+			return false;
+		}
+		File tempFile = new File(folder, hash + "." + Thread.currentThread().getId() + TEMP_SUFFIX);
+		try {
+			Files.write(tempFile.toPath(), bytes);
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		} catch (IOException e) {
+			LOGGER.debug("Cannot write the thumbnail \"{}\": {}", hash, e.getMessage());
+			LOGGER.trace("", e);
+			if (!tempFile.delete()) {
+				tempFile.deleteOnExit();
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Reads an image.
+	 *
+	 * @param hash the hash of the image.
+	 * @return the image, or {@code null} if it is not stored.
+	 */
+	public static byte[] read(String hash) {
+		File file = getFile(hash);
+		if (file == null) {
+			return null;
+		}
+		try {
+			return Files.readAllBytes(file.toPath());
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException e) {
+			LOGGER.debug("Cannot read the thumbnail \"{}\": {}", hash, e.getMessage());
+			LOGGER.trace("", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Deletes the images not referenced anymore.
+	 *
+	 * @param hashes the hashes of all the referenced images.
+	 * @return the number of deleted images.
+	 */
+	public static int sweep(Set<String> hashes) {
+		File root = getFolder();
+		File[] folders = root == null ? null : root.listFiles(File::isDirectory);
+		if (folders == null) {
+			return 0;
+		}
+		long maxLastModified = System.currentTimeMillis() - SWEEP_MIN_AGE;
+		int deleted = 0;
+		for (File folder : folders) {
+			File[] files = folder.listFiles();
+			if (files == null) {
+				continue;
+			}
+			for (File file : files) {
+				String name = file.getName();
+				if (name.endsWith(TEMP_SUFFIX) || !hashes.contains(name)) {
+					if (file.lastModified() < maxLastModified && file.delete()) {
+						deleted++;
+					}
+				}
+			}
+			String[] remaining = folder.list();
+			if (remaining != null && remaining.length == 0 && !folder.delete()) {
+				LOGGER.trace("Cannot delete the empty thumbnails folder \"{}\"", folder);
+			}
+		}
+		return deleted;
+	}
+
+	private static File getFile(String hash) {
+		if (hash == null || hash.length() < 3) {
+			return null;
+		}
+		File root = getFolder();
+		return root == null ? null : new File(new File(root, hash.substring(0, 2)), hash);
+	}
+
+	private static File getFolder() {
+		String dbDir = DatabaseEmbedded.getDbDir();
+		return dbDir == null ? null : new File(dbDir, FOLDER_NAME);
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shares one media database connection between the lookups of a thread.
+ *
+ * While a unit of work is open, {@link MediaDatabase#getConnectionIfAvailable()}
+ * gives the same pooled connection to all the stores on this thread, and
+ * closing it only ends the transaction it started. A connection asked during
+ * a transaction is taken from the pool as usual. The shared connection goes
+ * back to the pool when the outermost unit of work is closed.
+ *
+ * <pre>
+ * try (UnitOfWork unitOfWork = MediaDatabase.beginUnitOfWork()) {
+ *     ...
+ * }
+ * </pre>
+ */
+public class UnitOfWork implements AutoCloseable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(UnitOfWork.class);
+	private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+	private final Database database;
+	private Connection connection;
+	private int depth;
+
+	private UnitOfWork(Database database) {
+		this.database = database;
+	}
+
+	/**
+	 * Opens a unit of work on this thread, or joins the one already open.
+	 */
+	static UnitOfWork begin(Database database) {
+		UnitOfWork unitOfWork = CURRENT.get();
+		if (unitOfWork == null) {
+			unitOfWork = new UnitOfWork(database);
+			CURRENT.set(unitOfWork);
+		}
+		unitOfWork.depth++;
+		return unitOfWork;
+	}
+
+	/**
+	 * @return the unit of work open on this thread, or {@code null}.
+	 */
+	static UnitOfWork getCurrent() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Gets the shared connection, taking it from the pool on first use.
+	 *
+	 * @return a connection whose {@link Connection#close()} keeps the shared
+	 *         connection open.
+	 * @throws SQLException if no connection could be taken from the pool.
+	 */
+	Connection getConnection() throws SQLException {
+		if (connection == null || connection.isClosed()) {
+			connection = database.getConnection();
+			MediaDatabase.countConnection(false);
+		} else if (!connection.getAutoCommit()) {
+			// keep the running transaction apart, like before
+			MediaDatabase.countConnection(false);
+			return database.getConnection();
+		} else {
+			MediaDatabase.countConnection(true);
+		}
+		return (Connection) Proxy.newProxyInstance(
+			UnitOfWork.class.getClassLoader(),
+			new Class<?>[] {Connection.class},
+			new SharedConnectionHandler(connection)
+		);
+	}
+
+	@Override
+	public void close() {
+		if (--depth > 0) {
+			return;
+		}
+		CURRENT.remove();
+		if (connection != null) {
+			try {
+				release(connection);
+				connection.close();
+			} catch (SQLException e) {
+				LOGGER.debug("Error closing the unit of work connection: {}", e.getMessage());
+				LOGGER.trace("", e);
+			}
+			connection = null;
+		}
+	}
+
+	/**
+	 * Ends an uncommitted transaction like the pool does when it gets a
+	 * connection back, so the next user gets it in the usual state.
+	 */
+	private static void release(Connection connection) throws SQLException {
+		if (!connection.isClosed() && !connection.getAutoCommit()) {
+			connection.rollback();
+			connection.setAutoCommit(true);
+		}
+	}
+
+	private static class SharedConnectionHandler implements InvocationHandler {
+		private final Connection connection;
+		private boolean closed;
+		private boolean transactionStarted;
+
+		private SharedConnectionHandler(Connection connection) {
+			this.connection = connection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if ("setAutoCommit".equals(method.getName()) && Boolean.FALSE.equals(args[0])) {
+				transactionStarted = true;
+			}
+			switch (method.getName()) {
+				case "close" -> {
+					if (!closed) {
+						closed = true;
+						if (transactionStarted) {
+							release(connection);
+						}
+					}
+					return null;
+				}
+				case "isClosed" -> {
+					return closed || connection.isClosed();
+				}
+				case "equals" -> {
+					return proxy == args[0];
+				}
+				case "hashCode" -> {
+					return System.identityHashCode(proxy);
+				}
+				case "toString" -> {
+					return connection.toString();
+				}
+				default -> {
+					if (closed) {
+						throw new SQLException("Connection is closed");
+					}
+					try {
+						return method.invoke(connection, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -56,6 +56,7 @@ public class HlsHelper {
 	private static final UmsConfiguration CONFIGURATION = PMS.getConfiguration();
 	private static final String NONE_CONF_NAME = "NONE";
 	private static final String COPY_CONF_NAME = "COPY";
+	private static final int SATURATED_MAX_HEIGHT = 480;
 	private static final DateTimeFormatter CHAPTERS_TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
 
 	/**
@@ -227,9 +228,12 @@ public class HlsHelper {
 			//always add copy conf first
 			videoGroups.add(HlsVideoConfiguration.getByKey(COPY_CONF_NAME));
 			if (renderer.getHlsMultiVideoQuality()) {
+				//when most transcode slots are used, only offer renditions up to SD
+				int maxTranscodeHeight = TranscodeScheduler.isSaturated() ? SATURATED_MAX_HEIGHT : Integer.MAX_VALUE;
 				//always add basic LD conf and other conf that match
 				for (HlsVideoConfiguration videoConf : HlsVideoConfiguration.getValues()) {
 					if (videoConf.isTranscodable && !videoGroups.contains(videoConf) &&
+						videoConf.resolutionHeight <= maxTranscodeHeight &&
 						(mediaInfo.getHeight() != videoConf.resolutionHeight && mediaInfo.getWidth() != videoConf.resolutionWidth) &&
 						((maxHeight >= videoConf.resolutionHeight && mediaInfo.getWidth() >= videoConf.resolutionWidth) || "LD".equals(videoConf.label))
 					) {
@@ -42,12 +42,12 @@ import net.pms.platform.PlatformUtils;
 import net.pms.platform.windows.NTStatus;
 import net.pms.renderers.Renderer;
 import net.pms.store.StoreItem;
+import net.pms.store.SubtitleAnalysisStore;
 import net.pms.store.item.DVDISOTitle;
 import net.pms.util.CodecUtil;
 import net.pms.util.ExecutableErrorType;
 import net.pms.util.ExecutableInfo;
 import net.pms.util.ExecutableInfo.ExecutableInfoBuilder;
-import net.pms.util.FileUtil;
 import net.pms.util.InputFile;
 import net.pms.util.PlayerUtil;
 import net.pms.util.ProcessUtil;
@@ -442,8 +442,7 @@ public class MEncoderVideo extends Engine {
 			if (params.getSid().getExternalFile() != null) {
 				if (params.getSid().isExternalFileUtf16()) {
 					// convert UTF-16 -> UTF-8
-					File convertedSubtitles = new File(configuration.getTempFolder(), "utf8_" + params.getSid().getExternalFile().getName());
-					FileUtil.convertFileFromUtf16ToUtf8(params.getSid().getExternalFile(), convertedSubtitles);
+					File convertedSubtitles = SubtitleAnalysisStore.getUtf8File(params.getSid().getExternalFile());
 					externalSubtitlesFileName = ProcessUtil.getShortFileNameIfWideChars(convertedSubtitles.getAbsolutePath());
 				} else {
 					externalSubtitlesFileName = ProcessUtil.getShortFileNameIfWideChars(params.getSid().getExternalFile());
@@ -0,0 +1,290 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.encoders;
+
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import net.pms.PMS;
+import net.pms.configuration.UmsConfiguration;
+import net.pms.io.ProcessWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admission control for the external processes.
+ *
+ * A configurable number of slots is shared by all the transcodes. Playback
+ * requests get a slot when one is free, wait a short time for one otherwise,
+ * and are refused when the server stays saturated. Background work like
+ * thumbnails and probes never takes the last free slot, so it always leaves
+ * room for playback.
+ *
+ * A slot is held until it is closed, or until the process attached to it
+ * ends.
+ */
+public class TranscodeScheduler {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TranscodeScheduler.class);
+	private static final UmsConfiguration CONFIGURATION = PMS.getConfiguration();
+	private static final long CHECK_INTERVAL = 250;
+
+	/**
+	 * Ratio of used slots from which the server is considered saturated, and
+	 * new playback is offered in lower qualities.
+	 */
+	private static final double SATURATION_RATIO = 0.75;
+
+	public enum Priority {
+		/**
+		 * Playback requested by a renderer.
+		 */
+		INTERACTIVE,
+		/**
+		 * Work nobody waits on, like thumbnails and probes.
+		 */
+		BACKGROUND
+	}
+
+	private static final List<Slot> SLOTS = new ArrayList<>();
+	private static int queued;
+	private static long granted;
+	private static long refused;
+
+	private TranscodeScheduler() {
+		//should not be instantiated
+	}
+
+	/**
+	 * Gets a slot for a process.
+	 *
+	 * @param priority the priority of the work.
+	 * @param owner the renderer or user the quota applies to, or
+	 * {@code null} for no quota.
+	 * @param timeout the maximum time to wait for a slot in milliseconds.
+	 * @return the slot, or {@code null} if none became free in time.
+	 */
+	public static Slot acquire(Priority priority, String owner, long timeout) {
+		long deadline = System.currentTimeMillis() + timeout;
+		synchronized (SLOTS) {
+			boolean isQueued = false;
+			try {
+				while (true) {
+					removeEnded();
+					if (isAdmissible(priority, owner)) {
+						Slot slot = new Slot(priority, owner);
+						SLOTS.add(slot);
+						granted++;
+						return slot;
+					}
+					long remaining = deadline - System.currentTimeMillis();
+					if (remaining <= 0) {
+						refused++;
+						LOGGER.debug("No transcode slot available for {} work of {} ({} of {} used)", priority, owner, SLOTS.size(), getMaxSlots());
+						return null;
+					}
+					if (!isQueued) {
+						isQueued = true;
+						queued++;
+					}
+					// processes are not watched, check them again from time to time
+					SLOTS.wait(Math.min(remaining, CHECK_INTERVAL));
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			} finally {
+				if (isQueued) {
+					queued--;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets a playback slot, waiting for the configured queue timeout.
+	 *
+	 * @param owner the renderer or user the quota applies to.
+	 * @return the slot.
+	 * @throws TranscodeRefusedException if no slot became free in time.
+	 */
+	public static Slot acquireInteractive(String owner) throws TranscodeRefusedException {
+		Slot slot = acquire(Priority.INTERACTIVE, owner, CONFIGURATION.getTranscodeQueueTimeout() * 1000L);
+		if (slot == null) {
+			throw new TranscodeRefusedException("Transcode refused, the server is saturated");
+		}
+		return slot;
+	}
+
+	/**
+	 * @return whether most of the slots are used.
+	 */
+	public static boolean isSaturated() {
+		int maxSlots = getMaxSlots();
+		if (maxSlots <= 0) {
+			return false;
+		}
+		synchronized (SLOTS) {
+			removeEnded();
+			return SLOTS.size() >= Math.max(1, maxSlots * SATURATION_RATIO);
+		}
+	}
+
+	public static int getMaxSlots() {
+		return CONFIGURATION.getTranscodeMaxSessions();
+	}
+
+	public static int getActiveCount() {
+		synchronized (SLOTS) {
+			removeEnded();
+			return SLOTS.size();
+		}
+	}
+
+	public static int getQueuedCount() {
+		synchronized (SLOTS) {
+			return queued;
+		}
+	}
+
+	public static long getGrantedCount() {
+		synchronized (SLOTS) {
+			return granted;
+		}
+	}
+
+	public static long getRefusedCount() {
+		synchronized (SLOTS) {
+			return refused;
+		}
+	}
+
+	public static JsonObject toJson() {
+		JsonObject result = new JsonObject();
+		synchronized (SLOTS) {
+			removeEnded();
+			int background = 0;
+			for (Slot slot : SLOTS) {
+				if (slot.priority == Priority.BACKGROUND) {
+					background++;
+				}
+			}
+			result.addProperty("maxSlots", getMaxSlots());
+			result.addProperty("active", SLOTS.size());
+			result.addProperty("activeBackground", background);
+			result.addProperty("queued", queued);
+			result.addProperty("granted", granted);
+			result.addProperty("refused", refused);
+		}
+		return result;
+	}
+
+	private static boolean isAdmissible(Priority priority, String owner) {
+		int maxSlots = getMaxSlots();
+		if (maxSlots <= 0) {
+			return true;
+		}
+		int used = SLOTS.size();
+		if (priority == Priority.BACKGROUND) {
+			// keep the last slot for playback
+			return used < maxSlots - 1 || (maxSlots == 1 && used == 0);
+		}
+		if (used >= maxSlots) {
+			return false;
+		}
+		int maxPerOwner = CONFIGURATION.getTranscodeMaxSessionsPerRenderer();
+		if (owner != null && maxPerOwner > 0) {
+			int owned = 0;
+			for (Slot slot : SLOTS) {
+				if (slot.priority == Priority.INTERACTIVE && owner.equals(slot.owner)) {
+					owned++;
+				}
+			}
+			return owned < maxPerOwner;
+		}
+		return true;
+	}
+
+	private static void removeEnded() {
+		Iterator<Slot> slots = SLOTS.iterator();
+		while (slots.hasNext()) {
+			Slot slot = slots.next();
+			if (slot.isProcessEnded()) {
+				slot.released = true;
+				slots.remove();
+			}
+		}
+	}
+
+	private static void release(Slot slot) {
+		synchronized (SLOTS) {
+			if (!slot.released) {
+				slot.released = true;
+				SLOTS.remove(slot);
+				SLOTS.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * A granted slot, released by {@link #close()} or when the attached process
+	 * ends.
+	 */
+	public static class Slot implements AutoCloseable {
+		private final Priority priority;
+		private final String owner;
+		private ProcessWrapper process;
+		private boolean released;
+
+		private Slot(Priority priority, String owner) {
+			this.priority = priority;
+			this.owner = owner;
+		}
+
+		public Priority getPriority() {
+			return priority;
+		}
+
+		/**
+		 * Ties the slot to a process, it will be released when the process
+		 * ends.
+		 *
+		 * @param process the process launched for this slot.
+		 */
+		public void attach(ProcessWrapper process) {
+			if (process == null) {
+				close();
+				return;
+			}
+			synchronized (SLOTS) {
+				this.process = process;
+			}
+		}
+
+		private boolean isProcessEnded() {
+			return process != null && (process.isDestroyed() ||
+				(process instanceof Thread thread && thread.getState() == Thread.State.TERMINATED));
+		}
+
+		@Override
+		public void close() {
+			release(this);
+		}
+	}
+
+}
@@ -0,0 +1,164 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.encoders;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.pms.configuration.ConfigurationReader;
+import net.pms.configuration.FormatConfiguration;
+import net.pms.configuration.RendererConfiguration;
+import net.pms.formats.Format;
+import net.pms.media.MediaInfo;
+import net.pms.media.audio.MediaAudio;
+import net.pms.media.subtitle.MediaSubtitle;
+import net.pms.store.StoreItem;
+import net.pms.util.LruMap;
+
+/**
+ * Keeps the transcoding decisions of a renderer.
+ *
+ * The engine chosen for an item only depends on the renderer transcoding
+ * formats, the enabled engines and a few properties of the item, so the items
+ * sharing these properties share the decision instead of walking the engines
+ * again. The web items are not kept since the engines also check their URL.
+ * The decisions are dropped when the configuration or the engines change.
+ */
+public class TranscodingDecisions {
+
+	private static final int MAX_DECISIONS = 1024;
+	private static final Object NONE = new Object();
+
+	private final RendererConfiguration renderer;
+	private final Map<String, Object> decisions = new LruMap<>(MAX_DECISIONS);
+	private final Map<EncodingFormat, Object> matchedMimeTypes = new HashMap<>();
+	private long version = -1;
+	private List<Engine> engines;
+	private List<EncodingFormat> encodingFormats;
+
+	public TranscodingDecisions(RendererConfiguration renderer) {
+		this.renderer = renderer;
+	}
+
+	/**
+	 * Returns the first {@link TranscodingSettings} compatible with the given
+	 * {@link StoreItem}.
+	 *
+	 * @param item the {@link StoreItem} to match.
+	 * @return The {@link TranscodingSettings} if a match could be found,
+	 *         {@code null} otherwise.
+	 */
+	public TranscodingSettings getBestTranscodingSettings(StoreItem item) {
+		String signature = getSignature(item);
+		List<Engine> currentEngines = EngineFactory.getEngines();
+		synchronized (this) {
+			checkValidity(currentEngines);
+			if (signature == null) {
+				return TranscodingSettings.getBestTranscodingSettings(item, encodingFormats, engines);
+			}
+			Object decision = decisions.get(signature);
+			if (decision == null) {
+				TranscodingSettings transcodingSettings = TranscodingSettings.getBestTranscodingSettings(item, encodingFormats, engines);
+				decision = transcodingSettings == null ? NONE : transcodingSettings;
+				decisions.put(signature, decision);
+			}
+			return decision == NONE ? null : (TranscodingSettings) decision;
+		}
+	}
+
+	/**
+	 * Gets the MIME type of an {@link EncodingFormat} from the "Supported"
+	 * lines of the renderer.
+	 *
+	 * @param encodingFormat the {@link EncodingFormat}.
+	 * @return The matched MIME type, or {@code null} if none matched.
+	 */
+	public String getMatchedMimeType(EncodingFormat encodingFormat) {
+		List<Engine> currentEngines = EngineFactory.getEngines();
+		synchronized (this) {
+			checkValidity(currentEngines);
+			Object mimeType = matchedMimeTypes.get(encodingFormat);
+			if (mimeType == null) {
+				FormatConfiguration formatConfiguration = renderer.getFormatConfiguration();
+				String matchedMimeType = formatConfiguration == null ? null : formatConfiguration.getMatchedMIMEtype(
+					encodingFormat.getTranscodingContainer(),
+					encodingFormat.getTranscodingVideoCodec(),
+					encodingFormat.getTranscodingAudioCodec()
+				);
+				mimeType = matchedMimeType == null ? NONE : matchedMimeType;
+				matchedMimeTypes.put(encodingFormat, mimeType);
+			}
+			return mimeType == NONE ? null : (String) mimeType;
+		}
+	}
+
+	/**
+	 * Drops the decisions, the renderer profile has been loaded.
+	 */
+	public synchronized void clear() {
+		version = -1;
+		engines = null;
+		encodingFormats = null;
+		decisions.clear();
+		matchedMimeTypes.clear();
+	}
+
+	private void checkValidity(List<Engine> currentEngines) {
+		long currentVersion = ConfigurationReader.getVersion();
+		if (version != currentVersion || !currentEngines.equals(engines)) {
+			decisions.clear();
+			matchedMimeTypes.clear();
+			version = currentVersion;
+			engines = currentEngines;
+			encodingFormats = renderer.getTranscodingFormats();
+		}
+	}
+
+	/**
+	 * Gets what the engines check of an item.
+	 *
+	 * @return the signature, or {@code null} if the decision can't be shared.
+	 */
+	private static String getSignature(StoreItem item) {
+		Format format = item.getFormat();
+		MediaInfo mediaInfo = item.getMediaInfo();
+		if (mediaInfo == null || format == null || format.getIdentifier() == Format.Identifier.WEB) {
+			return null;
+		}
+		StringBuilder signature = new StringBuilder();
+		signature.append(format.getType()).append('|').append(format.getIdentifier());
+		signature.append('|').append("m3u8".equals(format.getMatchedExtension()));
+		signature.append('|').append(mediaInfo.isImage());
+		MediaAudio defaultAudio = mediaInfo.getDefaultAudioTrack();
+		signature.append('|').append(defaultAudio != null && defaultAudio.isAC4());
+		MediaSubtitle subtitle = item.getMediaSubtitle();
+		if (subtitle == null || subtitle.getLang() == null) {
+			signature.append("|-");
+		} else {
+			signature.append(subtitle.isExternal() ? "|e" : "|i");
+		}
+		MediaAudio audio = item.getMediaAudio();
+		if (audio == null) {
+			signature.append("|-");
+		} else {
+			// the engines only supporting the default audio track accept it when unknown
+			signature.append(defaultAudio == null || audio.toString().equals(defaultAudio.toString()) ? "|d" : "|o");
+		}
+		return signature.toString();
+	}
+
+}
@@ -70,7 +70,7 @@ public class TranscodingSettings {
 
 		if (item.getDefaultRenderer().isUseMediaInfo() && (HTTPResource.VIDEO_TRANSCODE.equals(mimeType) || HTTPResource.AUDIO_TRANSCODE.equals(mimeType))) {
 			// Use the supported information in the configuration to determine the transcoding mime type.
-			matchedMimeType = item.getDefaultRenderer().getFormatConfiguration().getMatchedMIMEtype(getEncodingFormat().getTranscodingContainer(), getEncodingFormat().getTranscodingVideoCodec(), getEncodingFormat().getTranscodingAudioCodec());
+			matchedMimeType = item.getDefaultRenderer().getTranscodingDecisions().getMatchedMimeType(getEncodingFormat());
 		}
 
 		if (matchedMimeType == null) {
@@ -156,10 +156,22 @@ public class TranscodingSettings {
 			LOGGER.warn("Invalid resource (null): no engine found");
 			return null;
 		}
+		return item.getDefaultRenderer().getTranscodingDecisions().getBestTranscodingSettings(item);
+	}
+
+	/**
+	 * Returns the first {@link Engine} and {@link EncodingFormat} that match
+	 * the given {@link StoreItem}.
+	 *
+	 * @param item the {@link StoreItem} to match.
+	 * @param encodingFormats the renderer {@link EncodingFormat}s by priority.
+	 * @param engines the enabled and available {@link Engine}s by priority.
+	 * @return The {@link TranscodingSettings} if a match could be found,
+	 * {@code null} otherwise.
+	 */
+	static TranscodingSettings getBestTranscodingSettings(final StoreItem item, List<EncodingFormat> encodingFormats, List<Engine> engines) {
 		LOGGER.trace("Getting engine for resource \"{}\"", item.getName());
 		boolean isImage = item.getMediaInfo() != null && item.getMediaInfo().isImage();
-		List<EncodingFormat> encodingFormats = item.getDefaultRenderer().getTranscodingFormats();
-		List<Engine> engines = EngineFactory.getEngines();
 
 		for (EncodingFormat encodingFormat : encodingFormats) {
 			for (Engine engine : engines) {
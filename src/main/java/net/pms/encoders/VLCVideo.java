@@ -34,6 +34,7 @@ import net.pms.network.HTTPResource;
 import net.pms.platform.PlatformUtils;
 import net.pms.renderers.Renderer;
 import net.pms.store.StoreItem;
+import net.pms.store.SubtitleAnalysisStore;
 import net.pms.util.*;
 import net.pms.util.ExecutableInfo.ExecutableInfoBuilder;
 import org.apache.commons.lang3.StringUtils;
@@ -528,8 +529,7 @@ public class VLCVideo extends Engine {
 					if (params.getSid().isExternalFileUtf16()) {
 						try {
 							// Convert UTF-16 -> UTF-8
-							File convertedSubtitles = new File(CONFIGURATION.getTempFolder(), "utf8_" + params.getSid().getName());
-							FileUtil.convertFileFromUtf16ToUtf8(params.getSid().getExternalFile(), convertedSubtitles);
+							File convertedSubtitles = SubtitleAnalysisStore.getUtf8File(params.getSid().getExternalFile());
 							externalSubtitlesFileName = ProcessUtil.getShortFileNameIfWideChars(convertedSubtitles.getAbsolutePath());
 						} catch (IOException e) {
 							LOGGER.debug("Error converting file from UTF-16 to UTF-8", e);
@@ -27,7 +27,9 @@ import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import net.pms.dlna.DLNAThumbnail;
 import net.pms.image.ImageFormat;
 import net.pms.image.ImagesUtil.ScaleType;
@@ -41,6 +43,23 @@ import org.slf4j.LoggerFactory;
 public class JavaHttpClient {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(JavaHttpClient.class);
+	private static final int HTTP_TOO_MANY_REQUESTS = 429;
+	private static final int MAX_ATTEMPTS = 3;
+	private static final long MAX_RETRY_DELAY = 30;
+
+	/**
+	 * One client for all the requests, so connections are reused and HTTP/2
+	 * requests to the same host are multiplexed.
+	 */
+	private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+			.followRedirects(HttpClient.Redirect.ALWAYS)
+			.connectTimeout(Duration.ofSeconds(30))
+			.build();
+
+	/**
+	 * The recently downloaded thumbnails, shared by the episodes of a series.
+	 */
+	private static final LookupCache<String, DLNAThumbnail> THUMBNAILS = new LookupCache<>(TimeUnit.MINUTES.toMillis(10), 32);
 
 	/**
 	 * This class is not meant to be instantiated.
@@ -64,11 +83,7 @@ public class JavaHttpClient {
 					.uri(new URI(uri))
 					.GET()
 					.build();
-			HttpResponse<byte[]> response = HttpClient.newBuilder()
-					.followRedirects(HttpClient.Redirect.ALWAYS)
-					.build()
-					.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
-					.join();
+			HttpResponse<byte[]> response = send(request, HttpResponse.BodyHandlers.ofByteArray());
 			int statusCode = response.statusCode();
 			if (statusCode != 200) {
 				String contentType = response.headers().firstValue("content-type").orElse(null);
@@ -92,9 +107,7 @@ public class JavaHttpClient {
 					.GET()
 					.build();
 			FileBodyHandler responseBodyHandler = new FileBodyHandler(file, uri, callback);
-			HttpResponse<Void> response = HttpClient.newBuilder()
-					.followRedirects(HttpClient.Redirect.ALWAYS)
-					.build()
+			HttpResponse<Void> response = HTTP_CLIENT
 					.sendAsync(request, responseBodyHandler)
 					.join();
 			int statusCode = response.statusCode();
@@ -120,11 +133,7 @@ public class JavaHttpClient {
 					.headers("Content-Type", "text/plain;charset=UTF-8")
 					.GET()
 					.build();
-			HttpResponse<String> response = HttpClient.newBuilder()
-					.followRedirects(HttpClient.Redirect.ALWAYS)
-					.build()
-					.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-					.join();
+			HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
 			int statusCode = response.statusCode();
 			if (statusCode != 200) {
 				throw new IOException("HTTP response not OK (" + statusCode + ") for " + uri);
@@ -141,9 +150,7 @@ public class JavaHttpClient {
 					.uri(URI.create(uri))
 					.method("HEAD", HttpRequest.BodyPublishers.noBody())
 					.build();
-			HttpResponse<Void> response = HttpClient.newBuilder()
-					.followRedirects(HttpClient.Redirect.ALWAYS)
-					.build()
+			HttpResponse<Void> response = HTTP_CLIENT
 					.sendAsync(request, HttpResponse.BodyHandlers.discarding())
 					.join();
 			return response.headers();
@@ -170,9 +177,7 @@ public class JavaHttpClient {
 					.uri(URI.create(uri))
 					.GET()
 					.build();
-			return HttpClient.newBuilder()
-					.followRedirects(HttpClient.Redirect.ALWAYS)
-					.build()
+			return HTTP_CLIENT
 					.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
 					.join();
 		} catch (IllegalArgumentException ex) {
@@ -180,11 +185,57 @@ public class JavaHttpClient {
 		}
 	}
 
+	/**
+	 * Sends a request, waiting and retrying when the server answers it gets
+	 * too many requests.
+	 */
+	private static <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
+		for (int attempt = 1;; attempt++) {
+			HttpResponse<T> response = HTTP_CLIENT.sendAsync(request, responseBodyHandler).join();
+			if (response.statusCode() != HTTP_TOO_MANY_REQUESTS || attempt >= MAX_ATTEMPTS ||
+					!waitRetryAfter(response.headers().firstValue("retry-after").orElse(null))) {
+				return response;
+			}
+			LOGGER.debug("Too many requests to {}, retrying", request.uri().getHost());
+		}
+	}
+
+	/**
+	 * Waits for the delay asked by a server before retrying a request.
+	 *
+	 * @param retryAfter the {@code Retry-After} header value in seconds, or
+	 *            {@code null}.
+	 * @return {@code false} if the delay is too long or the wait is
+	 *         interrupted.
+	 */
+	public static boolean waitRetryAfter(String retryAfter) {
+		long delay = 1;
+		if (retryAfter != null) {
+			try {
+				delay = Math.max(1, Long.parseLong(retryAfter.trim()));
+			} catch (NumberFormatException e) {
+				// an HTTP date, use the default delay
+			}
+		}
+		if (delay > MAX_RETRY_DELAY) {
+			return false;
+		}
+		try {
+			TimeUnit.SECONDS.sleep(delay);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
 	public static DLNAThumbnail getThumbnail(String uri) {
 		try {
-			LOGGER.trace("Downloading image from {}", uri);
-			byte[] image = getBytes(uri);
-			return DLNAThumbnail.toThumbnail(image, 640, 480, ScaleType.MAX, ImageFormat.JPEG, false);
+			return THUMBNAILS.get(uri, () -> {
+				LOGGER.trace("Downloading image from {}", uri);
+				byte[] image = getBytes(uri);
+				return DLNAThumbnail.toThumbnail(image, 640, 480, ScaleType.MAX, ImageFormat.JPEG, false);
+			});
 		} catch (EOFException e) {
 			LOGGER.debug(
 					"Error reading thumbnail from uri \"{}\": Unexpected end of stream, probably corrupt or read error.",
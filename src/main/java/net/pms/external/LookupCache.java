@@ -0,0 +1,152 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.external;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import net.pms.util.LruMap;
+
+/**
+ * Runs identical external lookups once.
+ *
+ * A lookup asked while the same one is running waits for its result instead
+ * of sending another request, and the results are kept for a while, so the
+ * episodes of a series scanned together share the series lookup and poster.
+ * Failures are given to the waiting callers but are not kept.
+ *
+ * @param <K> the lookup key type.
+ * @param <V> the result type.
+ */
+public class LookupCache<K, V> {
+
+	private final long timeToLive;
+	private final Map<K, CompletableFuture<V>> running = new HashMap<>();
+	private final Map<K, Result<V>> results;
+
+	/**
+	 * @param timeToLive how long the results are kept, in milliseconds.
+	 * @param maxSize the maximum number of results kept.
+	 */
+	public LookupCache(long timeToLive, int maxSize) {
+		this.timeToLive = timeToLive;
+		this.results = new LruMap<>(maxSize);
+	}
+
+	/**
+	 * Gets the result of a lookup, running it only if the same lookup is not
+	 * running or recently done.
+	 *
+	 * @param key the key identifying the lookup.
+	 * @param lookup the lookup.
+	 * @return the result.
+	 * @throws IOException if the lookup fails.
+	 */
+	public V get(K key, Lookup<V> lookup) throws IOException {
+		CompletableFuture<V> future;
+		boolean run = false;
+		synchronized (this) {
+			Result<V> result = results.get(key);
+			if (result != null) {
+				if (result.expires > System.currentTimeMillis()) {
+					return result.value;
+				}
+				results.remove(key);
+			}
+			future = running.get(key);
+			if (future == null) {
+				future = new CompletableFuture<>();
+				running.put(key, future);
+				run = true;
+			}
+		}
+		if (run) {
+			return run(key, lookup, future);
+		}
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the lookup of " + key);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	private V run(K key, Lookup<V> lookup, CompletableFuture<V> future) throws IOException {
+		try {
+			V value = lookup.run();
+			synchronized (this) {
+				running.remove(key);
+				if (value != null) {
+					results.put(key, new Result<>(value, System.currentTimeMillis() + timeToLive));
+				}
+			}
+			future.complete(value);
+			return value;
+		} catch (IOException | RuntimeException e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			if (!future.isDone()) {
+				future.completeExceptionally(new IOException("Lookup of " + key + " failed"));
+			}
+			synchronized (this) {
+				if (running.get(key) == future) {
+					running.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Forgets the kept results.
+	 */
+	public synchronized void clear() {
+		results.clear();
+	}
+
+	/**
+	 * An external lookup.
+	 *
+	 * @param <V> the result type.
+	 */
+	@FunctionalInterface
+	public interface Lookup<V> {
+		V run() throws IOException;
+	}
+
+	private static class Result<V> {
+		private final V value;
+		private final long expires;
+
+		private Result(V value, long expires) {
+			this.value = value;
+			this.expires = expires;
+		}
+	}
+
+}
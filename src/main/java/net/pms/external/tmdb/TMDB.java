@@ -67,6 +67,7 @@ import net.pms.Messages;
 import net.pms.PMS;
 import net.pms.configuration.UmsConfiguration;
 import net.pms.database.MediaDatabase;
+import net.pms.database.MediaLibraryChanges;
 import net.pms.database.MediaTableFailedLookups;
 import net.pms.database.MediaTableFiles;
 import net.pms.database.MediaTableTVSeries;
@@ -74,6 +75,7 @@ import net.pms.database.MediaTableVideoMetadata;
 import net.pms.database.MediaTableVideoMetadataLocalized;
 import net.pms.dlna.DLNAThumbnail;
 import net.pms.external.JavaHttpClient;
+import net.pms.external.LookupCache;
 import net.pms.external.umsapi.APIUtils;
 import net.pms.gui.GuiManager;
 import net.pms.logging.DebounceTraceLogger;
@@ -108,6 +110,12 @@ public class TMDB {
 	private static final Gson GSON = new Gson();
 	private static final DebounceTraceLogger DEBOUNCED_TRACE_LOGGER = new DebounceTraceLogger();
 
+	/**
+	 * The TV show lookups, shared by the episodes scanned together.
+	 */
+	private static final LookupCache<Long, TvDetailsSchema> TV_SHOWS = new LookupCache<>(TimeUnit.MINUTES.toMillis(10), 64);
+	private static final LookupCache<String, TvDetailsSchema> TV_SHOWS_FROM_EPISODE = new LookupCache<>(TimeUnit.MINUTES.toMillis(10), 64);
+
 	// Minimum number of threads in pool
 	private static final ThreadPoolExecutor BACKGROUND_EXECUTOR = new ThreadPoolExecutor(
 			0,
@@ -242,6 +250,7 @@ public class TMDB {
 			try {
 				connection.commit();
 				connection.setAutoCommit(true);
+				MediaLibraryChanges.changed();
 			} catch (SQLException e) {
 				LOGGER.error("Error in commit in TMDB.backgroundLookupAndAddMetadata: {}", e.getMessage());
 				LOGGER.trace("", e);
@@ -793,6 +802,10 @@ public class TMDB {
 	}
 
 	private static TvDetailsSchema getTvShowFromEpisode(String title, Integer year, String imdbId) throws IOException {
+		return TV_SHOWS_FROM_EPISODE.get(title + "|" + year + "|" + imdbId, () -> lookupTvShowFromEpisode(title, year, imdbId));
+	}
+
+	private static TvDetailsSchema lookupTvShowFromEpisode(String title, Integer year, String imdbId) throws IOException {
 		String titleSimplified = FileUtil.getSimplifiedShowName(title);
 		List<Long> tvShowIds = new ArrayList<>();
 		if (imdbId != null) {
@@ -1133,14 +1146,14 @@ public class TMDB {
 	private static TvDetailsSchema getTvShowInfo(
 			long tvId
 	) throws IOException {
-		return CLIENT.tv(tvId)
+		return TV_SHOWS.get(tvId, () -> CLIENT.tv(tvId)
 				.appendToResponse(TvIdAppendToResponse.ALTERNATIVE_TITLES)
 				.appendToResponse(TvIdAppendToResponse.CONTENT_RATINGS)
 				.appendToResponse(TvIdAppendToResponse.CREDITS)
 				.appendToResponse(TvIdAppendToResponse.EXTERNAL_IDS)
 				.appendToResponse(TvIdAppendToResponse.IMAGES)
 				.appendToResponse(TvIdAppendToResponse.TRANSLATIONS)
-				.getDetails();
+				.getDetails());
 	}
 
 	private static MovieDetailsSchema getMovieInfo(
@@ -41,6 +41,7 @@ import net.pms.Messages;
 import net.pms.PMS;
 import net.pms.configuration.UmsConfiguration;
 import net.pms.database.MediaDatabase;
+import net.pms.database.MediaLibraryChanges;
 import net.pms.database.MediaTableFailedLookups;
 import net.pms.database.MediaTableFiles;
 import net.pms.database.MediaTableMetadata;
@@ -48,6 +49,7 @@ import net.pms.database.MediaTableTVSeries;
 import net.pms.database.MediaTableVideoMetadata;
 import net.pms.dlna.DLNAThumbnail;
 import net.pms.external.JavaHttpClient;
+import net.pms.external.LookupCache;
 import net.pms.gui.GuiManager;
 import net.pms.media.MediaInfo;
 import net.pms.media.video.metadata.ApiRatingSource;
@@ -78,6 +80,13 @@ public class APIUtils {
 	private static final UmsConfiguration CONFIGURATION = PMS.getConfiguration();
 	private static final String VERBOSE_UA = "Universal Media Server " + PMS.getVersion();
 	private static final String API_URL = "https://api.universalmediaserver.com";
+	private static final int HTTP_TOO_MANY_REQUESTS = 429;
+	private static final int MAX_ATTEMPTS = 3;
+
+	/**
+	 * The TV series lookups, shared by the episodes scanned together.
+	 */
+	private static final LookupCache<String, JsonObject> TV_SERIES = new LookupCache<>(TimeUnit.MINUTES.toMillis(10), 64);
 
 	/**
 	 * This class is not meant to be instantiated.
@@ -559,6 +568,7 @@ public class APIUtils {
 			try {
 				connection.commit();
 				connection.setAutoCommit(true);
+				MediaLibraryChanges.changed();
 			} catch (SQLException e) {
 				LOGGER.error("Error in commit in APIUtils.backgroundLookupAndAdd: {}", e.getMessage());
 				LOGGER.trace("", e);
@@ -874,6 +884,12 @@ public class APIUtils {
 	 * @throws IOException If an I/O error occurs during the operation.
 	 */
 	public static JsonObject getTVSeriesInfo(String formattedName, String imdbID, Integer startYear) throws IOException {
+		// the callers may change the result
+		JsonObject data = TV_SERIES.get(formattedName + "|" + imdbID + "|" + startYear, () -> lookupTVSeriesInfo(formattedName, imdbID, startYear));
+		return data == null ? null : data.deepCopy();
+	}
+
+	private static JsonObject lookupTVSeriesInfo(String formattedName, String imdbID, Integer startYear) throws IOException {
 		String apiResult;
 
 		// Remove the startYear from the title if it exists
@@ -961,16 +977,24 @@ public class APIUtils {
 	private static String getJson(URL url) throws IOException {
 		HttpURLConnection connection = null;
 		try {
-			connection = (HttpURLConnection) url.openConnection();
-			connection.setAllowUserInteraction(false);
-			connection.setRequestProperty("Content-Type", "application/json");
-			connection.setRequestProperty("Content-length", "0");
-			connection.setRequestProperty("User-Agent", VERBOSE_UA);
-			connection.setConnectTimeout(30000);
-			connection.setReadTimeout(30000);
-			connection.connect();
-
-			int status = connection.getResponseCode();
+			int status;
+			for (int attempt = 1;; attempt++) {
+				connection = (HttpURLConnection) url.openConnection();
+				connection.setAllowUserInteraction(false);
+				connection.setRequestProperty("Content-Type", "application/json");
+				connection.setRequestProperty("Content-length", "0");
+				connection.setRequestProperty("User-Agent", VERBOSE_UA);
+				connection.setConnectTimeout(30000);
+				connection.setReadTimeout(30000);
+				connection.connect();
+
+				status = connection.getResponseCode();
+				// respect the API rate limit
+				if (status != HTTP_TOO_MANY_REQUESTS || attempt >= MAX_ATTEMPTS || !JavaHttpClient.waitRetryAfter(connection.getHeaderField("Retry-After"))) {
+					break;
+				}
+				connection.disconnect();
+			}
 			String response;
 
 			switch (status) {
@@ -24,6 +24,7 @@ import java.io.OutputStream;
 import java.util.Iterator;
 import javax.imageio.IIOException;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
 import javax.imageio.ImageReader;
 import javax.imageio.spi.IIORegistry;
 import javax.imageio.spi.ImageInputStreamSpi;
@@ -61,13 +62,36 @@ public class ImageIOTools {
 	 * @see ImageIO#read(InputStream)
 	 */
 	public static ImageReaderResult read(InputStream inputStream) throws IOException {
+		return read(inputStream, 0, 0);
+	}
+
+	/**
+	 * Like {@link #read(InputStream)}, but only decodes the pixels needed for
+	 * an image scaled down to the given resolution. Every n-th pixel is
+	 * decoded, or a large enough embedded thumbnail is used, so a large photo
+	 * never needs its full resolution raster in memory.
+	 * <p>
+	 * The result is at least as large as the given resolution in both
+	 * orientations, it still has to be scaled to the exact size.
+	 *
+	 * <p><b>
+	 * This method consumes and closes {@code inputStream}.
+	 * </b>
+	 *
+	 * @param inputStream an {@link InputStream} to read from.
+	 * @param width the width the image will be scaled to, or 0 to read the
+	 *            full resolution.
+	 * @param height the height the image will be scaled to, or 0 to read the
+	 *            full resolution.
+	 */
+	public static ImageReaderResult read(InputStream inputStream, int width, int height) throws IOException {
 		if (inputStream == null) {
 			throw new IllegalArgumentException("input == null!");
 		}
 
 		ImageInputStream stream = createImageInputStream(inputStream);
 		try {
-			ImageReaderResult result = read(stream);
+			ImageReaderResult result = read(stream, width, height);
 			if (result == null) {
 				inputStream.close();
 			}
@@ -100,6 +124,26 @@ public class ImageIOTools {
 	 * @see ImageIO#read(ImageInputStream)
 	 */
 	public static ImageReaderResult read(ImageInputStream stream) throws IOException {
+		return read(stream, 0, 0);
+	}
+
+	/**
+	 * Like {@link #read(ImageInputStream)}, but only decodes the pixels needed
+	 * for an image scaled down to the given resolution.
+	 *
+	 * <b>
+	 * This method consumes and closes {@code stream}.
+	 * </b>
+	 *
+	 * @param stream an {@link ImageInputStream} to read from.
+	 * @param width the width the image will be scaled to, or 0 to read the
+	 *            full resolution.
+	 * @param height the height the image will be scaled to, or 0 to read the
+	 *            full resolution.
+	 *
+	 * @see #read(InputStream, int, int)
+	 */
+	public static ImageReaderResult read(ImageInputStream stream, int width, int height) throws IOException {
 		if (stream == null) {
 			throw new IllegalArgumentException("stream == null!");
 		}
@@ -112,22 +156,85 @@ public class ImageIOTools {
 
 			ImageFormat inputFormat = null;
 			BufferedImage bufferedImage = null;
+			boolean scaled = false;
 			ImageReader reader = (ImageReader) iter.next();
 			try {
 				// Store the parsing result
 				inputFormat = ImageFormat.toImageFormat(reader.getFormatName());
 
-				reader.setInput(stream, true, true);
-				bufferedImage = reader.read(0, reader.getDefaultReadParam());
+				if (width > 0 && height > 0) {
+					// the embedded thumbnails are read from the metadata
+					reader.setInput(stream, false, false);
+					bufferedImage = readEmbeddedThumbnail(reader, width, height);
+					if (bufferedImage == null) {
+						ImageReadParam param = reader.getDefaultReadParam();
+						int subsampling = getSubsampling(reader.getWidth(0), reader.getHeight(0), width, height);
+						if (subsampling > 1) {
+							param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+						}
+						bufferedImage = reader.read(0, param);
+						scaled = subsampling > 1;
+					} else {
+						scaled = true;
+					}
+				} else {
+					reader.setInput(stream, true, true);
+					bufferedImage = reader.read(0, reader.getDefaultReadParam());
+				}
 			} finally {
 				reader.dispose();
 			}
-			return bufferedImage != null ? new ImageReaderResult(bufferedImage, inputFormat) : null;
+			return bufferedImage != null ? new ImageReaderResult(bufferedImage, inputFormat, scaled) : null;
 		} catch (RuntimeException e) {
 			throw new ImageIORuntimeException("An error occurred while trying to read image: " + e.getMessage(), e);
 		}
 	}
 
+	/**
+	 * Gets the largest embedded thumbnail if it is large enough to be scaled
+	 * to the given resolution.
+	 */
+	private static BufferedImage readEmbeddedThumbnail(ImageReader reader, int width, int height) {
+		try {
+			if (!reader.readerSupportsThumbnails()) {
+				return null;
+			}
+			int found = -1;
+			int foundSize = 0;
+			for (int i = 0; i < reader.getNumThumbnails(0); i++) {
+				int thumbnailWidth = reader.getThumbnailWidth(0, i);
+				int thumbnailHeight = reader.getThumbnailHeight(0, i);
+				if (getSubsampling(thumbnailWidth, thumbnailHeight, width, height) > 0 && thumbnailWidth * thumbnailHeight > foundSize) {
+					found = i;
+					foundSize = thumbnailWidth * thumbnailHeight;
+				}
+			}
+			return found < 0 ? null : reader.readThumbnail(0, found);
+		} catch (IOException | RuntimeException e) {
+			// fall back to the image itself
+			return null;
+		}
+	}
+
+	/**
+	 * Calculates the source subsampling keeping at least the given resolution.
+	 * The axes may be swapped later by the Exif orientation, so both
+	 * orientations are kept large enough.
+	 *
+	 * @param sourceWidth the width of the source image.
+	 * @param sourceHeight the height of the source image.
+	 * @param width the width the image will be scaled to.
+	 * @param height the height the image will be scaled to.
+	 * @return The subsampling factor, 1 to read every pixel or 0 if the source
+	 *         is smaller than the given resolution.
+	 */
+	protected static int getSubsampling(int sourceWidth, int sourceHeight, int width, int height) {
+		if (width < 1 || height < 1 || sourceWidth < 1 || sourceHeight < 1) {
+			return 1;
+		}
+		return Math.min(sourceWidth, sourceHeight) / Math.max(width, height);
+	}
+
 	/**
 	 * Tries to detect the input image file format using {@link ImageIO} and
 	 * returns the result.
@@ -223,11 +330,21 @@ public class ImageIOTools {
 		public final int width;
 		public final int height;
 
+		/**
+		 * Whether the image was decoded at a lower resolution than the source.
+		 */
+		public final boolean scaled;
+
 		public ImageReaderResult(BufferedImage bufferedImage, ImageFormat imageFormat) {
+			this(bufferedImage, imageFormat, false);
+		}
+
+		public ImageReaderResult(BufferedImage bufferedImage, ImageFormat imageFormat, boolean scaled) {
 			this.bufferedImage = bufferedImage;
 			this.imageFormat = imageFormat;
 			this.width = bufferedImage == null ? -1 : bufferedImage.getWidth();
 			this.height = bufferedImage == null ? -1 : bufferedImage.getHeight();
+			this.scaled = scaled;
 		}
 	}
 }
@@ -1087,7 +1087,8 @@ public class ImagesUtil {
 
 		ImageReaderResult inputResult;
 		try {
-			inputResult = ImageIOTools.read(new ByteArrayInputStream(inputByteArray));
+			// large sources are decoded directly at a lower resolution
+			inputResult = ImageIOTools.read(new ByteArrayInputStream(inputByteArray), width, height);
 		} catch (IIOException e) {
 			throw new UnknownFormatException("Unable to read image format", e);
 		}
@@ -1101,7 +1102,7 @@ public class ImagesUtil {
 		}
 
 		BufferedImage bufferedImage = inputResult.bufferedImage;
-		boolean reencode = filterChain != null && !filterChain.isEmpty();
+		boolean reencode = inputResult.scaled || (filterChain != null && !filterChain.isEmpty());
 
 		if (outputProfile == null && dlnaCompliant) {
 			// Override output format to one valid for DLNA, defaulting to PNG
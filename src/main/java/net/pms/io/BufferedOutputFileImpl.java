@@ -21,11 +21,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.text.NumberFormat;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.CopyOnWriteArrayList;
 import net.pms.PMS;
 import net.pms.configuration.UmsConfiguration;
 import net.pms.gui.GuiManager;
@@ -66,6 +67,12 @@ public class BufferedOutputFileImpl extends OutputStream implements BufferedOutp
 	private static final int CHECK_INTERVAL = 500;
 	private static final int CHECK_END_OF_PROCESS = 2500; // must be superior to CHECK_INTERVAL
 
+	/**
+	 * How long a reader with unread data can go without reading before it
+	 * stops holding back the writer for the other readers, in milliseconds.
+	 */
+	private static final long STALLED_READER_DELAY = 5000;
+
 	private final UmsConfiguration configuration;
 	private final Renderer renderer;
 	private final int minMemorySize;
@@ -83,7 +90,7 @@ public class BufferedOutputFileImpl extends OutputStream implements BufferedOutp
 	private boolean eof;
 	private long writeCount;
 	private byte[] buffer;
-	private ArrayList<WaitBufferedInputStream> inputStreams;
+	private List<WaitBufferedInputStream> inputStreams;
 	private ProcessWrapper attachedThread;
 	private Timer timer;
 	private boolean buffered = false;
@@ -223,7 +230,7 @@ public class BufferedOutputFileImpl extends OutputStream implements BufferedOutp
 			System.exit(1);
 		}
 
-		inputStreams = new ArrayList<>();
+		inputStreams = new CopyOnWriteArrayList<>();
 	}
 
 	@Override
@@ -293,6 +300,77 @@ public class BufferedOutputFileImpl extends OutputStream implements BufferedOutp
 		return atominputStream;
 	}
 
+	/**
+	 * Gets the input stream with the lowest read position, which is the one
+	 * limiting how far the writer can go without overwriting unread data.
+	 *
+	 * Several readers can share the output of one process, each one with its
+	 * own position. A reader which stopped reading, like a paused renderer,
+	 * only holds back the writer when no other reader makes progress.
+	 *
+	 * @return the slowest input stream, or {@code null} if none.
+	 */
+	private WaitBufferedInputStream getSlowestInputStream() {
+		if (forcefirst) {
+			return getCurrentInputStream();
+		}
+		long now = System.currentTimeMillis();
+		WaitBufferedInputStream slowest = null;
+		WaitBufferedInputStream slowestReading = null;
+		for (WaitBufferedInputStream inputStream : inputStreams) {
+			if (slowest == null || inputStream.getReadCount() < slowest.getReadCount()) {
+				slowest = inputStream;
+			}
+			if (!isStalled(inputStream, now) && (slowestReading == null || inputStream.getReadCount() < slowestReading.getReadCount())) {
+				slowestReading = inputStream;
+			}
+		}
+		return slowestReading != null ? slowestReading : slowest;
+	}
+
+	private boolean isStalled(WaitBufferedInputStream inputStream, long now) {
+		return inputStream.getReadCount() < writeCount && now - inputStream.getLastReadTime() > STALLED_READER_DELAY;
+	}
+
+	/**
+	 * Detaches the readers whose unread data is about to be overwritten, they
+	 * fail on their next read instead of reading the new data.
+	 *
+	 * @param length the number of bytes about to be written.
+	 */
+	private void detachOverrunInputStreams(long length) {
+		for (WaitBufferedInputStream inputStream : inputStreams) {
+			if (writeCount + length - inputStream.getReadCount() > maxMemorySize) {
+				LOGGER.debug("Detaching InputStream which stopped reading at position {}", FORMATTER.format(inputStream.getReadCount()));
+				inputStream.setOverrun();
+				inputStreams.remove(inputStream);
+			}
+		}
+	}
+
+	/**
+	 * @param inputStream an input stream given by this buffer.
+	 * @return whether the input stream still reads this buffer.
+	 */
+	public boolean isAttached(InputStream inputStream) {
+		return inputStream instanceof WaitBufferedInputStream && inputStreams.contains(inputStream);
+	}
+
+	/**
+	 * @return the number of input streams currently reading this buffer.
+	 */
+	public int getInputStreamCount() {
+		return inputStreams.size();
+	}
+
+	/**
+	 * @return the size of the circular buffer, the last bytes written within
+	 * this size can still be read.
+	 */
+	public int getMaxMemorySize() {
+		return maxMemorySize;
+	}
+
 	@Override
 	public long getWriteCount() {
 		return writeCount;
@@ -305,14 +383,15 @@ public class BufferedOutputFileImpl extends OutputStream implements BufferedOutp
 			debugOutput.flush();
 		}
 
-		WaitBufferedInputStream input = getCurrentInputStream();
+		WaitBufferedInputStream input = getSlowestInputStream();
 
 		//LOGGER.trace("write(" + b.length + ", " + off + ", " + len + "), writeCount = " + writeCount + ", readCount = " + (input != null ? input.getReadCount() : "null"));
 
 		while ((input != null && (writeCount - input.getReadCount() > bufferOverflowWarning)) || (input == null && writeCount > bufferOverflowWarning)) {
 			UMSUtils.sleep(CHECK_INTERVAL);
-			input = getCurrentInputStream();
+			input = getSlowestInputStream();
 		}
+		detachOverrunInputStreams(len - off);
 
 		if (buffer != null) {
 			int mb = (int) (writeCount % maxMemorySize);
@@ -401,12 +480,13 @@ public class BufferedOutputFileImpl extends OutputStream implements BufferedOutp
 	@Override
 	public void write(int b) throws IOException {
 		boolean bb = b % 100000 == 0;
-		WaitBufferedInputStream input = getCurrentInputStream();
+		WaitBufferedInputStream input = getSlowestInputStream();
 		while (bb && ((input != null && (writeCount - input.getReadCount() > bufferOverflowWarning)) || (input == null && writeCount == bufferOverflowWarning))) {
 			UMSUtils.sleep(CHECK_INTERVAL);
 			//LOGGER.trace("BufferedOutputFile Full");
-			input = getCurrentInputStream();
+			input = getSlowestInputStream();
 		}
+		detachOverrunInputStreams(1);
 		int mb = (int) (writeCount++ % maxMemorySize);
 		if (buffer != null) {
 			buffer[mb] = (byte) b;
@@ -834,6 +914,11 @@ public class BufferedOutputFileImpl extends OutputStream implements BufferedOutp
 			GuiManager.setReadValue(0);
 		}
 
+		if (!inputStreams.isEmpty()) {
+			// other readers are still attached to this output
+			return;
+		}
+
 		if (attachedThread != null) {
 			attachedThread.setReadyToStop(true);
 		}
@@ -845,7 +930,7 @@ public class BufferedOutputFileImpl extends OutputStream implements BufferedOutp
 				LOGGER.error(null, e);
 			}
 
-			if (attachedThread != null && attachedThread.isReadyToStop()) {
+			if (attachedThread != null && attachedThread.isReadyToStop() && inputStreams.isEmpty()) {
 				if (!attachedThread.isDestroyed()) {
 					attachedThread.stopProcess();
 				}
@@ -332,6 +332,17 @@ public class ProcessWrapperImpl extends Thread implements ProcessWrapper {
 		return bo instanceof BufferedOutputByteArrayImpl ? (BufferedOutputByteArrayImpl) bo : null;
 	}
 
+	/**
+	 * @return The {@link BufferedOutputFile} receiving the process output, or
+	 * {@code null} if not attached yet.
+	 */
+	public BufferedOutputFile getBufferedOutputFile() {
+		if (bo == null && stdoutConsumer != null) {
+			return stdoutConsumer.getBuffer();
+		}
+		return bo;
+	}
+
 	@Override
 	public InputStream getInputStream(long seek) throws IOException {
 		if (bo != null) {
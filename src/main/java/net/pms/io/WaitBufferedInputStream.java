@@ -23,6 +23,8 @@ public class WaitBufferedInputStream extends InputStream {
 	private final BufferedOutputFile outputStream;
 	private long readCount;
 	private boolean firstRead;
+	private volatile long lastReadTime;
+	private volatile boolean overrun;
 
 	public void setReadCount(long readCount) {
 		this.readCount = readCount;
@@ -32,28 +34,54 @@ public class WaitBufferedInputStream extends InputStream {
 		return readCount;
 	}
 
+	/**
+	 * @return the time of the last read, or of the creation if none.
+	 */
+	public long getLastReadTime() {
+		return lastReadTime;
+	}
+
+	/**
+	 * Marks this stream as left behind by the writer, its unread data was
+	 * overwritten.
+	 */
+	void setOverrun() {
+		overrun = true;
+	}
+
 	WaitBufferedInputStream(BufferedOutputFile outputStream) {
 		this.outputStream = outputStream;
 		firstRead = true;
+		lastReadTime = System.currentTimeMillis();
+	}
+
+	private void checkOverrun() throws IOException {
+		if (overrun) {
+			throw new IOException("The buffered output was overwritten before being read at position " + readCount);
+		}
 	}
 
 	@Override
 	public int read() throws IOException {
+		checkOverrun();
 		int r = outputStream.read(firstRead, getReadCount());
 		if (r != -1) {
 			setReadCount(getReadCount() + 1);
 		}
 		firstRead = false;
+		lastReadTime = System.currentTimeMillis();
 		return r;
 	}
 
 	@Override
 	public int read(byte[] b, int off, int len) throws IOException {
+		checkOverrun();
 		int returned = outputStream.read(firstRead, getReadCount(), b, off, len);
 		if (returned != -1) {
 			setReadCount(getReadCount() + returned);
 		}
 		firstRead = false;
+		lastReadTime = System.currentTimeMillis();
 		return returned;
 	}
 
@@ -0,0 +1,163 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hands the log events of an appender to a background thread, which appends
+ * them in batches.
+ *
+ * The queue is bounded: when it is nearly full the events below WARN are
+ * dropped, the others wait for some room for a while before being dropped.
+ *
+ * @param <E>
+ */
+public class AsyncAppendQueue<E> {
+
+	public static final int DEFAULT_QUEUE_SIZE = 8192;
+	private static final int MAX_BATCH_SIZE = 256;
+	private static final long MAX_WAIT = 1000;
+
+	private final String name;
+	private final BlockingQueue<E> queue;
+	private final int discardThreshold;
+	private final Consumer<List<E>> batchAppender;
+	private final Consumer<String> warner;
+	private final AtomicLong dropped = new AtomicLong();
+	private long reportedDropped;
+	private Thread worker;
+
+	/**
+	 * @param name the name of the appender.
+	 * @param queueSize the maximum number of waiting events.
+	 * @param batchAppender appends a batch of events, in order.
+	 * @param warner reports the dropped events.
+	 */
+	public AsyncAppendQueue(String name, int queueSize, Consumer<List<E>> batchAppender, Consumer<String> warner) {
+		this.name = name;
+		this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+		this.discardThreshold = Math.max(1, queueSize) / 5;
+		this.batchAppender = batchAppender;
+		this.warner = warner;
+	}
+
+	public synchronized void start() {
+		if (worker != null) {
+			return;
+		}
+		worker = new Thread(this::work, "Log appender " + name);
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	/**
+	 * Stops the background thread, after it has appended the waiting events.
+	 */
+	public synchronized void stop() {
+		if (worker == null) {
+			return;
+		}
+		worker.interrupt();
+		try {
+			worker.join(MAX_WAIT);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		worker = null;
+		appendWaiting();
+	}
+
+	/**
+	 * Queues an event.
+	 *
+	 * @param event the event.
+	 * @return {@code false} if the event was dropped.
+	 */
+	public boolean offer(E event) {
+		boolean discardable = event instanceof ILoggingEvent loggingEvent && loggingEvent.getLevel().toInt() < Level.WARN_INT;
+		if (discardable && queue.remainingCapacity() < discardThreshold) {
+			dropped.incrementAndGet();
+			return false;
+		}
+		if (event instanceof ILoggingEvent loggingEvent) {
+			// keep the thread name, arguments and MDC of the calling thread
+			loggingEvent.prepareForDeferredProcessing();
+		}
+		if (queue.offer(event)) {
+			return true;
+		}
+		try {
+			if (!discardable && queue.offer(event, MAX_WAIT, TimeUnit.MILLISECONDS)) {
+				return true;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		dropped.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * @return the number of events dropped because the queue was full.
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	private void work() {
+		List<E> batch = new ArrayList<>(MAX_BATCH_SIZE);
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				batch.add(queue.take());
+			} catch (InterruptedException e) {
+				break;
+			}
+			queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+			append(batch);
+		}
+	}
+
+	private void appendWaiting() {
+		List<E> batch = new ArrayList<>(MAX_BATCH_SIZE);
+		while (queue.drainTo(batch, MAX_BATCH_SIZE) > 0) {
+			append(batch);
+		}
+	}
+
+	private void append(List<E> batch) {
+		long totalDropped = dropped.get();
+		if (totalDropped > reportedDropped) {
+			warner.accept("Dropped " + (totalDropped - reportedDropped) + " log events, the queue of " + name + " was full");
+			reportedDropped = totalDropped;
+		}
+		try {
+			batchAppender.accept(batch);
+		} finally {
+			batch.clear();
+		}
+	}
+
+}
@@ -18,9 +18,10 @@ package net.pms.logging;
 
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
 import ch.qos.logback.core.status.ErrorStatus;
-import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Special LogBack appender that simply caches all messages and repost them
@@ -29,17 +30,15 @@ import java.util.LinkedList;
  * @author Nadahar
  * @param <E>
  */
-public class CacheAppender<E> extends AppenderBase<E> {
+public class CacheAppender<E> extends UnsynchronizedAppenderBase<E> {
 
 	private final Object eventListLock = new Object();
-	private final LinkedList<E> eventList = new LinkedList<>();
+	private final Queue<E> eventList = new ConcurrentLinkedQueue<>();
 
 	@Override
 	protected void append(E eventObject) {
 		try {
-			synchronized (eventListLock) {
-				eventList.add(eventObject);
-			}
+			eventList.add(eventObject);
 		} catch (Exception e) {
 			addStatus(new ErrorStatus(
 						getName() + " failed to append event: " + e.getLocalizedMessage(), this, e)
@@ -49,8 +48,9 @@ public class CacheAppender<E> extends AppenderBase<E> {
 
 	public void flush(Logger rootLogger) {
 		synchronized (eventListLock) {
-			while (!eventList.isEmpty()) {
-				rootLogger.callAppenders((ILoggingEvent) eventList.poll());
+			E eventObject;
+			while ((eventObject = eventList.poll()) != null) {
+				rootLogger.callAppenders((ILoggingEvent) eventObject);
 			}
 		}
 	}
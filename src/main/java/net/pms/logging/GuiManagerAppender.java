@@ -20,16 +20,23 @@ import ch.qos.logback.core.UnsynchronizedAppenderBase;
 import ch.qos.logback.core.encoder.Encoder;
 import ch.qos.logback.core.status.ErrorStatus;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import net.pms.gui.GuiManager;
 
 /**
  * Special Logback appender to 'print' log messages on the UMS GUI.
  *
+ * Unless <code>async</code> is set to false, the messages are sent to the GUI
+ * by a background thread, see {@link AsyncAppendQueue}.
+ *
  * @author thomas@innot.de
  * @param <E>
  */
 public class GuiManagerAppender<E> extends UnsynchronizedAppenderBase<E> {
 	private Encoder<E> encoder;
+	private boolean async = true;
+	private int queueSize = AsyncAppendQueue.DEFAULT_QUEUE_SIZE;
+	private AsyncAppendQueue<E> asyncQueue;
 
 	/**
 	 * Checks that the required parameters are set and if everything is in
@@ -51,14 +58,42 @@ public class GuiManagerAppender<E> extends UnsynchronizedAppenderBase<E> {
 
 		if (!error) {
 			super.start();
+			if (async) {
+				asyncQueue = new AsyncAppendQueue<>(getName(), queueSize, this::appendBatch, this::addWarn);
+				asyncQueue.start();
+			}
+		}
+	}
+
+	@Override
+	public void stop() {
+		if (asyncQueue != null) {
+			asyncQueue.stop();
+			asyncQueue = null;
 		}
+		super.stop();
 	}
 
 	/* (non-Javadoc)
 	 * @see ch.qos.logback.core.UnsynchronizedAppenderBase#append(java.lang.Object)
 	 */
 	@Override
-	protected synchronized void append(E eventObject) {
+	protected void append(E eventObject) {
+		AsyncAppendQueue<E> queue = asyncQueue;
+		if (queue != null) {
+			queue.offer(eventObject);
+		} else {
+			appendNow(eventObject);
+		}
+	}
+
+	private void appendBatch(List<E> batch) {
+		for (E eventObject : batch) {
+			appendNow(eventObject);
+		}
+	}
+
+	private synchronized void appendNow(E eventObject) {
 		String msg = new String(encoder.encode(eventObject), StandardCharsets.UTF_8);
 		GuiManager.appendLog(msg);
 	}
@@ -74,4 +109,24 @@ public class GuiManagerAppender<E> extends UnsynchronizedAppenderBase<E> {
 	public void setEncoder(Encoder<E> encoder) {
 		this.encoder = encoder;
 	}
+
+	/**
+	 * Sets whether the messages are sent by a background thread, from the
+	 * <code>async</code> element of the configuration.
+	 *
+	 * @param async {@code false} to send them in the logging thread.
+	 */
+	public void setAsync(boolean async) {
+		this.async = async;
+	}
+
+	/**
+	 * Sets the maximum number of messages waiting to be sent, from the
+	 * <code>queueSize</code> element of the configuration.
+	 *
+	 * @param queueSize the maximum number of waiting messages.
+	 */
+	public void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+	}
 }
@@ -18,6 +18,9 @@ package net.pms.logging;
 
 import ch.qos.logback.core.rolling.RollingFileAppender;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 import org.apache.commons.io.FileUtils;
 
 /**
@@ -25,14 +28,102 @@ import org.apache.commons.io.FileUtils;
  * the old log file on startup when used with {@link UmsRollingPolicy}.
  * Use the custom {@link UmsRollingPolicy}, otherwise it will have the same effect
  * that the former {@link RollingFileAppender}.
+ * <p>
+ * Unless <code>async</code> is set to false, the events are written by a
+ * background thread in batches, see {@link AsyncAppendQueue}, and the file is
+ * flushed once per batch instead of once per event.
  * @param <E>
  */
 public class UmsFileAppender<E> extends RollingFileAppender<E> {
 
+	private boolean async = true;
+	private int queueSize = AsyncAppendQueue.DEFAULT_QUEUE_SIZE;
+	private boolean flushEachBatch = true;
+	private AsyncAppendQueue<E> asyncQueue;
+
 	@Override
 	public void start() {
 		savePreviousFile();
 		super.start();
+		if (async && isStarted()) {
+			flushEachBatch = super.isImmediateFlush();
+			super.setImmediateFlush(false);
+			asyncQueue = new AsyncAppendQueue<>(getName(), queueSize, this::appendBatch, this::addWarn);
+			asyncQueue.start();
+		}
+	}
+
+	@Override
+	public void stop() {
+		if (asyncQueue != null) {
+			asyncQueue.stop();
+			asyncQueue = null;
+			super.setImmediateFlush(flushEachBatch);
+		}
+		super.stop();
+	}
+
+	@Override
+	protected void append(E eventObject) {
+		AsyncAppendQueue<E> queue = asyncQueue;
+		if (queue != null) {
+			queue.offer(eventObject);
+		} else {
+			super.append(eventObject);
+		}
+	}
+
+	private void appendBatch(List<E> batch) {
+		for (E eventObject : batch) {
+			super.append(eventObject);
+		}
+		if (flushEachBatch) {
+			streamWriteLock.lock();
+			try {
+				OutputStream outputStream = getOutputStream();
+				if (outputStream != null) {
+					outputStream.flush();
+				}
+			} catch (IOException e) {
+				addError("Could not flush the log file", e);
+			} finally {
+				streamWriteLock.unlock();
+			}
+		}
+	}
+
+	@Override
+	public boolean isImmediateFlush() {
+		return asyncQueue != null ? flushEachBatch : super.isImmediateFlush();
+	}
+
+	@Override
+	public void setImmediateFlush(boolean immediateFlush) {
+		if (asyncQueue != null) {
+			flushEachBatch = immediateFlush;
+		} else {
+			super.setImmediateFlush(immediateFlush);
+		}
+	}
+
+	/**
+	 * Sets whether the events are written by a background thread, from the
+	 * <code>async</code> element of the configuration.
+	 *
+	 * @param async {@code false} to write them in the logging thread.
+	 */
+	public void setAsync(boolean async) {
+		this.async = async;
+	}
+
+	/**
+	 * Sets the maximum number of events waiting to be written, from the
+	 * <code>queueSize</code> element of the configuration.
+	 *
+	 * @param queueSize the maximum number of waiting events.
+	 */
+	public void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
 	}
 
 	private void savePreviousFile() {
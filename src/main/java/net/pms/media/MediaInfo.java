@@ -24,7 +24,12 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import net.pms.configuration.FormatConfiguration;
 import net.pms.dlna.DLNAThumbnail;
 import net.pms.dlna.DLNAThumbnailInputStream;
@@ -40,7 +45,6 @@ import net.pms.media.video.metadata.MediaVideoMetadata;
 import net.pms.store.ThumbnailSource;
 import net.pms.store.ThumbnailStore;
 import net.pms.util.StringUtil;
-import net.pms.util.UMSUtils;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -59,6 +63,11 @@ public class MediaInfo implements Cloneable {
 
 	private final AtomicBoolean parsing = new AtomicBoolean(false);
 
+	/**
+	 * Completed when the current parsing ends, replaced when a new one starts.
+	 */
+	private final AtomicReference<CompletableFuture<Void>> parsed = new AtomicReference<>(CompletableFuture.completedFuture(null));
+
 	// Stored in database
 	private Long fileId;
 	private String lastParser;
@@ -194,17 +203,34 @@ public class MediaInfo implements Cloneable {
 
 	/**
 	 * Ensure media is not parsing.
+	 *
+	 * Returns as soon as the parsing ends.
+	 *
+	 * @param seconds the maximum time to wait.
+	 * @return {@code false} if the media is still parsing after that time.
 	 */
 	public boolean waitMediaParsing(int seconds) {
-		int i = 0;
-		while (isParsing()) {
-			if (i == seconds) {
-				return false;
-			}
-			UMSUtils.sleep(1000);
-			i++;
+		if (!isParsing()) {
+			return true;
 		}
-		return true;
+		try {
+			parsed.get().get(seconds, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | TimeoutException e) {
+			// still parsing
+		}
+		return !isParsing();
+	}
+
+	/**
+	 * Gets a future completed when the media is not parsing, to continue
+	 * without blocking a thread while a parser works on it.
+	 *
+	 * @return the future, already completed if the media is not parsing.
+	 */
+	public CompletableFuture<MediaInfo> whenParsed() {
+		return parsed.get().thenApply(v -> this);
 	}
 
 	public int getFrameNumbers() {
@@ -654,7 +680,19 @@ public class MediaInfo implements Cloneable {
 	 * @since 1.50.0
 	 */
 	public void setParsing(boolean parsing) {
-		this.parsing.set(parsing);
+		CompletableFuture<Void> ended;
+		synchronized (this.parsing) {
+			if (this.parsing.getAndSet(parsing) == parsing) {
+				return;
+			}
+			if (parsing) {
+				parsed.set(new CompletableFuture<>());
+				return;
+			}
+			ended = parsed.get();
+		}
+		// continuations run here, out of the lock
+		ended.complete(null);
 	}
 
 	public long getLastExternalLookup() {
@@ -16,13 +16,12 @@
  */
 package net.pms.media.subtitle;
 
-import com.ibm.icu.text.CharsetMatch;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.IOException;
 import java.util.Locale;
 import net.pms.formats.v2.SubtitleType;
 import net.pms.media.MediaLang;
+import net.pms.store.SubtitleAnalysisStore;
 import net.pms.util.Constants;
 import net.pms.util.FileUtil;
 import org.apache.commons.lang3.StringUtils;
@@ -223,33 +222,27 @@ public class MediaSubtitle extends MediaLang implements Cloneable {
 	 */
 	private void setFileSubsCharacterSet() {
 		if (externalFile != null && !type.isPicture()) {
-			try {
-				CharsetMatch match = FileUtil.getFileCharsetMatch(externalFile);
-				if (match != null) {
-					subsCharacterSet = match.getName().toUpperCase(Locale.ROOT);
-					// Returned Charset can have additional info like ISO-8859-8-I but
-					// FFmpeg video filter knows only ISO-8859-8 so extract the additional "-I".
-					if (subsCharacterSet.split("-").length > 3) {
-						subsCharacterSet = subsCharacterSet.substring(0, subsCharacterSet.lastIndexOf("-"));
-					}
+			SubtitleAnalysis analysis = SubtitleAnalysisStore.getAnalysis(externalFile);
+			if (analysis != null && analysis.getCharset() != null) {
+				subsCharacterSet = analysis.getCharset().toUpperCase(Locale.ROOT);
+				// Returned Charset can have additional info like ISO-8859-8-I but
+				// FFmpeg video filter knows only ISO-8859-8 so extract the additional "-I".
+				if (subsCharacterSet.split("-").length > 3) {
+					subsCharacterSet = subsCharacterSet.substring(0, subsCharacterSet.lastIndexOf("-"));
+				}
 
-					// Set the detected language if is isn't already set
-					if (lang == null || MediaLang.UND.equals(lang)) {
-						String tmpLanguage = match.getLanguage();
-						if (StringUtils.isNotBlank(tmpLanguage)) {
-							lang = tmpLanguage;
-						}
+				// Set the detected language if is isn't already set
+				if (lang == null || MediaLang.UND.equals(lang)) {
+					String tmpLanguage = analysis.getLanguage();
+					if (StringUtils.isNotBlank(tmpLanguage)) {
+						lang = tmpLanguage;
 					}
-
-					LOGGER.debug("Set detected charset \"{}\" and language \"{}\" for {}", subsCharacterSet, lang, externalFile);
-				} else {
-					subsCharacterSet = null;
-					LOGGER.debug("No charset detected for {}", externalFile);
 				}
 
-			} catch (IOException ex) {
-				LOGGER.warn("Exception during external file charset detection: {}", ex.getMessage());
-				LOGGER.trace("", ex);
+				LOGGER.debug("Set detected charset \"{}\" and language \"{}\" for {}", subsCharacterSet, lang, externalFile);
+			} else if (analysis != null) {
+				subsCharacterSet = null;
+				LOGGER.debug("No charset detected for {}", externalFile);
 			}
 		} else {
 			subsCharacterSet = null;
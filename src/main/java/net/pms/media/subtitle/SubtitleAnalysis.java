@@ -0,0 +1,101 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.media.subtitle;
+
+import java.io.File;
+import net.pms.formats.v2.SubtitleType;
+
+/**
+ * The result of the analysis of an external subtitles file, valid as long as
+ * the file size and modification time are unchanged.
+ */
+public class SubtitleAnalysis {
+
+	private final long fileSize;
+	private final long modified;
+	private final String charset;
+	private final int confidence;
+	private final String language;
+	private final SubtitleType type;
+	private volatile File convertedFile;
+
+	/**
+	 * @param fileSize the size of the analyzed file.
+	 * @param modified the modification time of the analyzed file.
+	 * @param charset the detected charset name, or {@code null}.
+	 * @param confidence the confidence of the detection, from 0 to 100.
+	 * @param language the detected language, or {@code null}.
+	 * @param type the subtitles type.
+	 * @param convertedFile the {@code UTF-8} copy of an {@code UTF-16} file,
+	 *            or {@code null}.
+	 */
+	public SubtitleAnalysis(long fileSize, long modified, String charset, int confidence, String language, SubtitleType type, File convertedFile) {
+		this.fileSize = fileSize;
+		this.modified = modified;
+		this.charset = charset;
+		this.confidence = confidence;
+		this.language = language;
+		this.type = type;
+		this.convertedFile = convertedFile;
+	}
+
+	/**
+	 * @param file the subtitles file.
+	 * @return whether this analysis is still valid for the file.
+	 */
+	public boolean isValidFor(File file) {
+		return file.length() == fileSize && file.lastModified() == modified;
+	}
+
+	public long getFileSize() {
+		return fileSize;
+	}
+
+	public long getModified() {
+		return modified;
+	}
+
+	public String getCharset() {
+		return charset;
+	}
+
+	public int getConfidence() {
+		return confidence;
+	}
+
+	public String getLanguage() {
+		return language;
+	}
+
+	public SubtitleType getType() {
+		return type;
+	}
+
+	/**
+	 * @return the {@code UTF-8} copy of an {@code UTF-16} file if it still
+	 *         exists, {@code null} otherwise.
+	 */
+	public File getConvertedFile() {
+		File file = convertedFile;
+		return file != null && file.isFile() ? file : null;
+	}
+
+	public void setConvertedFile(File convertedFile) {
+		this.convertedFile = convertedFile;
+	}
+
+}
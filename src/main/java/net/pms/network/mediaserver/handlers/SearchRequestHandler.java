@@ -223,7 +223,7 @@ public class SearchRequestHandler {
 		addSqlWherePart(requestMessage.getSearchCriteria(), requestType, sb);
 		addOrderBy(requestMessage.getSortCriteria(), requestType, sb);
 		addLimit(requestMessage.getStartingIndex(), requestMessage.getRequestedCount(), sb);
-		LOGGER.debug(sb.toString());
+		LOGGER.debug("{}", sb);
 		return sb.toString();
 	}
 
@@ -234,7 +234,7 @@ public class SearchRequestHandler {
 		addSqlWherePart(searchCriteria, requestType, sb);
 		addOrderBy(orderBy, requestType, sb);
 		addLimit(startingIndex, requestedCount, sb);
-		LOGGER.trace(sb.toString());
+		LOGGER.trace("{}", sb);
 		return sb.toString();
 	}
 
@@ -470,7 +470,7 @@ public class SearchRequestHandler {
 
 	public static int getLibraryResourceCountFromSQL(String query) {
 		if (LOGGER.isTraceEnabled()) {
-			LOGGER.trace(String.format("SQL count : %s", query));
+			LOGGER.trace("SQL count : {}", query);
 		}
 		Connection connection = null;
 		try {
@@ -503,7 +503,7 @@ public class SearchRequestHandler {
 		ArrayList<StoreResource> result = new ArrayList<>();
 
 		if (LOGGER.isTraceEnabled()) {
-			LOGGER.trace(String.format("SQL %s : %s", type.dbidPrefix, query));
+			LOGGER.trace("SQL {} : {}", type.dbidPrefix, query);
 		}
 		Connection connection = null;
 		try {
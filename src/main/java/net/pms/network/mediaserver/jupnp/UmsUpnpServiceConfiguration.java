@@ -29,6 +29,8 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import net.pms.PMS;
 import net.pms.configuration.UmsConfiguration;
+import net.pms.network.mediaserver.jupnp.binding.xml.UmsDeviceDescriptorBinder;
+import net.pms.network.mediaserver.jupnp.binding.xml.UmsServiceDescriptorBinder;
 import net.pms.network.mediaserver.jupnp.transport.impl.UmsDatagramIO;
 import net.pms.network.mediaserver.jupnp.transport.impl.UmsDatagramProcessor;
 import net.pms.network.mediaserver.jupnp.transport.impl.UmsMulticastReceiver;
@@ -38,8 +40,6 @@ import net.pms.util.SimpleThreadFactory;
 import org.apache.commons.configuration.event.ConfigurationEvent;
 import org.jupnp.UpnpServiceConfiguration;
 import org.jupnp.binding.xml.DeviceDescriptorBinder;
-import org.jupnp.binding.xml.RecoveringUDA10DeviceDescriptorBinderImpl;
-import org.jupnp.binding.xml.RecoveringUDA10ServiceDescriptorBinderImpl;
 import org.jupnp.binding.xml.ServiceDescriptorBinder;
 import org.jupnp.model.Namespace;
 import org.jupnp.model.message.UpnpHeaders;
@@ -128,8 +128,8 @@ public class UmsUpnpServiceConfiguration implements UpnpServiceConfiguration {
 		datagramProcessor = new UmsDatagramProcessor();
 		soapActionProcessor = new SOAPActionProcessorImpl();
 		genaEventProcessor = new GENAEventProcessorImpl();
-		deviceDescriptorBinderUDA10 = new RecoveringUDA10DeviceDescriptorBinderImpl();
-		serviceDescriptorBinderUDA10 = new RecoveringUDA10ServiceDescriptorBinderImpl();
+		deviceDescriptorBinderUDA10 = new UmsDeviceDescriptorBinder();
+		serviceDescriptorBinderUDA10 = new UmsServiceDescriptorBinder();
 		namespace = new Namespace();
 		createExecutorServices();
 	}
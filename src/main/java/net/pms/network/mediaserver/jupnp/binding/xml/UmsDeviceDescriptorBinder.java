@@ -0,0 +1,92 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.network.mediaserver.jupnp.binding.xml;
+
+import java.util.Map;
+import net.pms.configuration.ConfigurationReader;
+import net.pms.util.LruMap;
+import org.jupnp.binding.xml.DescriptorBindingException;
+import org.jupnp.binding.xml.RecoveringUDA10DeviceDescriptorBinderImpl;
+import org.jupnp.model.Namespace;
+import org.jupnp.model.meta.Device;
+import org.jupnp.model.meta.DeviceDetails;
+import org.jupnp.model.meta.LocalDevice;
+import org.jupnp.model.profile.RemoteClientInfo;
+
+/**
+ * Keeps the generated descriptors of the local devices.
+ *
+ * The descriptor of a local device only varies with the details given to the
+ * client, so it is generated once per set of details. The details are still
+ * asked for each request, as this is where the renderers get recognized.
+ * The descriptors are generated again after a configuration change.
+ */
+public class UmsDeviceDescriptorBinder extends RecoveringUDA10DeviceDescriptorBinderImpl {
+
+	private static final int MAX_DESCRIPTORS = 32;
+
+	private final Map<String, Descriptor> descriptors = new LruMap<>(MAX_DESCRIPTORS);
+
+	@Override
+	public String generate(Device deviceModel, RemoteClientInfo info, Namespace namespace) throws DescriptorBindingException {
+		if (!(deviceModel instanceof LocalDevice)) {
+			return super.generate(deviceModel, info, namespace);
+		}
+		String key = getKey(deviceModel, info, namespace);
+		long version = ConfigurationReader.getVersion();
+		synchronized (descriptors) {
+			Descriptor descriptor = descriptors.get(key);
+			if (descriptor != null && descriptor.device == deviceModel && descriptor.version == version) {
+				return descriptor.xml;
+			}
+		}
+		String xml = super.generate(deviceModel, info, namespace);
+		synchronized (descriptors) {
+			descriptors.put(key, new Descriptor(deviceModel, version, xml));
+		}
+		return xml;
+	}
+
+	private static String getKey(Device deviceModel, RemoteClientInfo info, Namespace namespace) {
+		StringBuilder key = new StringBuilder();
+		key.append(deviceModel.getIdentity().getUdn()).append('|').append(namespace.getBasePath());
+		DeviceDetails details = deviceModel.getDetails(info);
+		if (details != null) {
+			key.append('|').append(details.getFriendlyName());
+			if (details.getModelDetails() != null) {
+				key.append('|').append(details.getModelDetails().getModelName())
+					.append('|').append(details.getModelDetails().getModelDescription())
+					.append('|').append(details.getModelDetails().getModelNumber());
+			}
+			key.append('|').append(details.getPresentationURI());
+		}
+		return key.toString();
+	}
+
+	private static class Descriptor {
+		private final Device device;
+		private final long version;
+		private final String xml;
+
+		private Descriptor(Device device, long version, String xml) {
+			this.device = device;
+			this.version = version;
+			this.xml = xml;
+		}
+	}
+
+}
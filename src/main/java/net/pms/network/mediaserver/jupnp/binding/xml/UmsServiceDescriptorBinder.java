@@ -0,0 +1,64 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.network.mediaserver.jupnp.binding.xml;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import net.pms.configuration.ConfigurationReader;
+import org.jupnp.binding.xml.DescriptorBindingException;
+import org.jupnp.binding.xml.RecoveringUDA10ServiceDescriptorBinderImpl;
+import org.jupnp.model.meta.LocalService;
+import org.jupnp.model.meta.Service;
+
+/**
+ * Keeps the generated descriptors of the local services, which don't change
+ * until the configuration does.
+ */
+public class UmsServiceDescriptorBinder extends RecoveringUDA10ServiceDescriptorBinderImpl {
+
+	private final Map<Service, Descriptor> descriptors = new WeakHashMap<>();
+
+	@Override
+	public String generate(Service service) throws DescriptorBindingException {
+		if (!(service instanceof LocalService)) {
+			return super.generate(service);
+		}
+		long version = ConfigurationReader.getVersion();
+		synchronized (descriptors) {
+			Descriptor descriptor = descriptors.get(service);
+			if (descriptor != null && descriptor.version == version) {
+				return descriptor.xml;
+			}
+		}
+		String xml = super.generate(service);
+		synchronized (descriptors) {
+			descriptors.put(service, new Descriptor(version, xml));
+		}
+		return xml;
+	}
+
+	private static class Descriptor {
+		private final long version;
+		private final String xml;
+
+		private Descriptor(long version, String xml) {
+			this.version = version;
+			this.xml = xml;
+		}
+	}
+
+}
@@ -23,11 +23,13 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.xpath.XPathExpressionException;
+import net.pms.PMS;
 import net.pms.dlna.DidlHelper;
 import net.pms.network.mediaserver.handlers.SearchRequestHandler;
 import net.pms.network.mediaserver.jupnp.model.meta.UmsRemoteClientInfo;
@@ -188,6 +190,13 @@ public class UmsContentDirectoryService {
 	)
 	private UnsignedIntegerFourBytes systemUpdateID;
 
+	@UpnpStateVariable(
+			sendEvents = true,
+			defaultValue = "",
+			datatype = "string"
+	)
+	private String containerUpdateIDs = "";
+
 	protected final PropertyChangeSupport propertyChangeSupport;
 
 	public UmsContentDirectoryService() {
@@ -208,7 +217,7 @@ public class UmsContentDirectoryService {
 		MediaStoreIds.incrementSystemUpdateId();
 		systemUpdateID = new UnsignedIntegerFourBytes(MediaStoreIds.getSystemUpdateId().getValue());
 		propertyChangeSupport = new PropertyChangeSupport(this);
-		systemUpdateIdTimer.schedule(systemUpdateIdTask, 0, 200);
+		systemUpdateIdTimer.schedule(systemUpdateIdTask, 0, PMS.getConfiguration().getUpnpCdsEventRate());
 	}
 
 	@UpnpAction(out =
@@ -228,7 +237,7 @@ public class UmsContentDirectoryService {
 	@UpnpAction(out =
 			@UpnpOutputArgument(name = "Id")
 	)
-	public synchronized UnsignedIntegerFourBytes getSystemUpdateID() {
+	public UnsignedIntegerFourBytes getSystemUpdateID() {
 		return MediaStoreIds.getSystemUpdateId();
 	}
 
@@ -236,7 +245,29 @@ public class UmsContentDirectoryService {
 		return propertyChangeSupport;
 	}
 
+	/**
+	 * Sends the update ids changed since the last call, the containers
+	 * changed meanwhile are sent in one ContainerUpdateIDs event.
+	 */
 	private void systemUpdateIdChanged() {
+		Map<Long, Long> changedContainers = MediaStoreIds.pollChangedContainers();
+		if (!changedContainers.isEmpty()) {
+			StringBuilder value = new StringBuilder();
+			for (Map.Entry<Long, Long> changedContainer : changedContainers.entrySet()) {
+				if (value.length() > 0) {
+					value.append(',');
+				}
+				value.append(changedContainer.getKey()).append(',').append(changedContainer.getValue());
+			}
+			String oldContainerUpdateIDs = containerUpdateIDs;
+			containerUpdateIDs = value.toString();
+			getPropertyChangeSupport().firePropertyChange(
+					"ContainerUpdateIDs",
+					oldContainerUpdateIDs,
+					containerUpdateIDs
+			);
+			LOGGER.trace("Send event \"ContainerUpdateIDs\" for {} containers", changedContainers.size());
+		}
 		long oldValue = systemUpdateID.getValue();
 		long newValue = MediaStoreIds.getSystemUpdateId().getValue();
 		if (oldValue != newValue) {
@@ -39,6 +39,7 @@ import net.pms.network.mediaserver.jupnp.support.contentdirectory.result.namespa
 import net.pms.network.mediaserver.jupnp.support.contentdirectory.result.namespace.dlna.ORG_OP;
 import net.pms.network.mediaserver.jupnp.support.contentdirectory.result.namespace.dlna.ORG_PN;
 import net.pms.renderers.Renderer;
+import net.pms.store.SeekIndexStore;
 import net.pms.store.StoreItem;
 import net.pms.store.StoreResource;
 import org.slf4j.Logger;
@@ -201,6 +202,9 @@ public class DlnaHelper {
 				// seek by time (exclusive)
 				dlnaOrgOp.setHttpRangeHeaderAccepted(false);
 			}
+		} else if (renderer.isTranscodeSeekByTime() && !item.isTranscoded() && SeekIndexStore.isSeekIndexable(item)) {
+			// direct played MPEG streams are seeked by time through their seek index
+			dlnaOrgOp.setHttpTimeSeekRangeHeaderAccepted(true);
 		}
 
 		return dlnaOrgOp;
@@ -22,11 +22,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
 import net.pms.network.HttpServletHelper;
 import net.pms.network.mediaserver.MediaServer;
+import net.pms.network.mediaserver.jupnp.transport.impl.StaticResponseCache.StaticResponse;
 import org.jupnp.model.message.Connection;
 import org.jupnp.model.message.StreamRequestMessage;
 import org.jupnp.model.message.StreamResponseMessage;
@@ -163,9 +166,14 @@ public abstract class JakartaServletUpnpStream extends UpnpStream {
 	}
 
 	protected void writeResponseMessage(StreamResponseMessage responseMessage) throws IOException {
-		LOGGER.trace("Sending HTTP response status: {}", responseMessage.getOperation().getStatusCode());
+		StaticResponse staticResponse = getStaticResponse(responseMessage);
+		int statusCode = responseMessage.getOperation().getStatusCode();
+		if (staticResponse != null && staticResponse.getEntityTag().equals(getRequest().getHeader("If-None-Match"))) {
+			statusCode = HttpServletResponse.SC_NOT_MODIFIED;
+		}
+		LOGGER.trace("Sending HTTP response status: {}", statusCode);
 
-		getResponse().setStatus(responseMessage.getOperation().getStatusCode());
+		getResponse().setStatus(statusCode);
 
 		// Headers
 		for (Map.Entry<String, List<String>> entry : responseMessage.getHeaders().entrySet()) {
@@ -178,8 +186,32 @@ public abstract class JakartaServletUpnpStream extends UpnpStream {
 		// The Date header is recommended in UDA
 		getResponse().setDateHeader("Date", System.currentTimeMillis());
 
+		if (staticResponse != null) {
+			getResponse().setHeader("ETag", staticResponse.getEntityTag());
+			getResponse().setDateHeader("Last-Modified", staticResponse.getLastModified());
+			if (statusCode == HttpServletResponse.SC_NOT_MODIFIED) {
+				if (LOGGER.isTraceEnabled()) {
+					HttpServletHelper.logHttpServletResponse(getRequest(), getResponse(), null, false);
+				}
+				return;
+			}
+		}
+
 		// Body
-		byte[] responseBodyBytes = responseMessage.hasBody() ? responseMessage.getBodyBytes() : null;
+		byte[] responseBodyBytes;
+		if (staticResponse != null) {
+			responseBodyBytes = staticResponse.getBytes();
+			if (staticResponse.getGzipBytes() != null) {
+				getResponse().setHeader("Vary", "Accept-Encoding");
+				String acceptEncoding = getRequest().getHeader("Accept-Encoding");
+				if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+					getResponse().setHeader("Content-Encoding", "gzip");
+					responseBodyBytes = staticResponse.getGzipBytes();
+				}
+			}
+		} else {
+			responseBodyBytes = responseMessage.hasBody() ? responseMessage.getBodyBytes() : null;
+		}
 		int contentLength = responseBodyBytes != null ? responseBodyBytes.length : -1;
 
 		if (contentLength > 0) {
@@ -199,6 +231,28 @@ public abstract class JakartaServletUpnpStream extends UpnpStream {
 		}
 	}
 
+	/**
+	 * Gets the precomputed response of a retrieval request, the descriptors
+	 * and icons.
+	 *
+	 * @return the response, or {@code null} if it is not a retrieval.
+	 */
+	private StaticResponse getStaticResponse(StreamResponseMessage responseMessage) {
+		if (!UpnpRequest.Method.GET.getHttpName().equals(getRequest().getMethod()) ||
+				responseMessage.getOperation().getStatusCode() != HttpServletResponse.SC_OK ||
+				!responseMessage.hasBody()) {
+			return null;
+		}
+		Object body = responseMessage.getBody();
+		if (body instanceof String) {
+			Charset charset = responseMessage.getContentTypeCharset();
+			return StaticResponseCache.get(body, charset != null ? charset : StandardCharsets.UTF_8);
+		} else if (body instanceof byte[]) {
+			return StaticResponseCache.get(body, null);
+		}
+		return null;
+	}
+
 	protected abstract Connection createConnection();
 
 	protected abstract HttpServletRequest getRequest();
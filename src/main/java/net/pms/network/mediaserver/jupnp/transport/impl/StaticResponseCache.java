@@ -0,0 +1,123 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.network.mediaserver.jupnp.transport.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+import net.pms.configuration.ConfigurationReader;
+import net.pms.util.LruMap;
+
+/**
+ * Keeps the bytes, entity tag and compressed variant of the descriptors and
+ * icons served to the control points.
+ *
+ * The descriptor binders give the same string for the same descriptor and the
+ * icons are always the same arrays, so they are used as keys. The entries are
+ * dropped after a configuration change.
+ */
+public class StaticResponseCache {
+
+	private static final int MAX_RESPONSES = 64;
+
+	/**
+	 * Smaller bodies are not worth compressing.
+	 */
+	private static final int MIN_GZIP_LENGTH = 512;
+
+	private static final Map<Object, StaticResponse> RESPONSES = new LruMap<>(MAX_RESPONSES);
+	private static long version;
+
+	private StaticResponseCache() {
+		//should not be instantiated
+	}
+
+	/**
+	 * Gets the precomputed response for a body.
+	 *
+	 * @param body the body, a string or bytes.
+	 * @param charset the charset of a string body.
+	 * @return the response.
+	 */
+	public static StaticResponse get(Object body, Charset charset) {
+		long currentVersion = ConfigurationReader.getVersion();
+		synchronized (RESPONSES) {
+			if (version != currentVersion) {
+				RESPONSES.clear();
+				version = currentVersion;
+			}
+			StaticResponse response = RESPONSES.get(body);
+			if (response == null) {
+				response = new StaticResponse(body, charset);
+				RESPONSES.put(body, response);
+			}
+			return response;
+		}
+	}
+
+	public static class StaticResponse {
+		private final byte[] bytes;
+		private final String entityTag;
+		private final long lastModified;
+		private final byte[] gzipBytes;
+
+		private StaticResponse(Object body, Charset charset) {
+			boolean text = body instanceof String;
+			bytes = text ? ((String) body).getBytes(charset) : (byte[]) body;
+			CRC32 crc = new CRC32();
+			crc.update(bytes);
+			entityTag = "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(bytes.length) + "\"";
+			// HTTP dates are in seconds
+			lastModified = System.currentTimeMillis() / 1000 * 1000;
+			gzipBytes = text && bytes.length >= MIN_GZIP_LENGTH ? gzip(bytes) : null;
+		}
+
+		public byte[] getBytes() {
+			return bytes;
+		}
+
+		public String getEntityTag() {
+			return entityTag;
+		}
+
+		public long getLastModified() {
+			return lastModified;
+		}
+
+		/**
+		 * @return the compressed bytes, or {@code null} if not worth it.
+		 */
+		public byte[] getGzipBytes() {
+			return gzipBytes;
+		}
+
+		private static byte[] gzip(byte[] bytes) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+				gzip.write(bytes);
+			} catch (IOException e) {
+				return null;
+			}
+			byte[] result = out.toByteArray();
+			return result.length < bytes.length ? result : null;
+		}
+	}
+
+}
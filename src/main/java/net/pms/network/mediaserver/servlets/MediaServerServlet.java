@@ -38,6 +38,7 @@ import net.pms.dlna.DLNAThumbnailInputStream;
 import net.pms.dlna.protocolinfo.PanasonicDmpProfiles;
 import net.pms.encoders.HlsHelper;
 import net.pms.encoders.ImageEngine;
+import net.pms.encoders.TranscodeRefusedException;
 import net.pms.formats.Format;
 import net.pms.formats.v2.SubtitleType;
 import net.pms.image.BufferedImageFilterChain;
@@ -56,8 +57,10 @@ import net.pms.renderers.Renderer;
 import net.pms.service.Services;
 import net.pms.service.sleep.SleepManager;
 import net.pms.store.MediaStoreIds;
+import net.pms.store.SeekIndexStore;
 import net.pms.store.StoreItem;
 import net.pms.store.StoreResource;
+import net.pms.store.item.RealFile;
 import net.pms.util.ByteRange;
 import net.pms.util.FullyPlayed;
 import net.pms.util.Range;
@@ -283,6 +286,12 @@ public class MediaServerServlet extends MediaServerHttpServlet {
 		}
 	}
 
+	private static void respondTranscodeRefused(HttpServletRequest req, HttpServletResponse resp, TranscodeRefusedException e) throws IOException {
+		LOGGER.info("Refusing \"{}\": {}", req.getRequestURI(), e.getMessage());
+		resp.setHeader("Retry-After", "10");
+		respondServiceUnavailable(req, resp, e.getMessage());
+	}
+
 	private static void sendMediaResponse(HttpServletRequest req, HttpServletResponse resp, final Renderer renderer, StoreResource resource, String filename) throws IOException {
 		// Request to retrieve a file
 		if (resource instanceof StoreItem item) {
@@ -319,7 +328,12 @@ public class MediaServerServlet extends MediaServerHttpServlet {
 					}
 				} else {
 					//HLS stream request
-					inputStream = HlsHelper.getInputStream("/" + filename, item);
+					try {
+						inputStream = HlsHelper.getInputStream("/" + filename, item);
+					} catch (TranscodeRefusedException e) {
+						respondTranscodeRefused(req, resp, e);
+						return;
+					}
 					if (inputStream != null) {
 						if (filename.endsWith(".ts")) {
 							resp.setContentType(HTTPResource.MPEGTS_BYTESTREAM_TYPEMIME);
@@ -459,7 +473,21 @@ public class MediaServerServlet extends MediaServerHttpServlet {
 						range.setStart(0L);
 						range.setEnd(0L);
 					}
-					inputStream = item.getInputStream(Range.create(range.getStart(), range.getEnd(), timeseekrange.getStart(), timeseekrange.getEnd()));
+					Double timeseekStart = timeseekrange.getStart();
+					if (!item.isTranscoded() && timeseekrange.getStartOrZero() > 0 && range.getStart() == 0 && SeekIndexStore.isSeekIndexable(item)) {
+						// answer the time seek on a direct played MPEG stream with the matching byte range
+						long position = SeekIndexStore.getPositionForTime(((RealFile) item).getFile(), timeseekrange.getStartOrZero());
+						if (position > 0) {
+							range.setStart(position);
+							timeseekStart = null;
+						}
+					}
+					try {
+						inputStream = item.getInputStream(Range.create(range.getStart(), range.getEnd(), timeseekStart, timeseekrange.getEnd()));
+					} catch (TranscodeRefusedException e) {
+						respondTranscodeRefused(req, resp, e);
+						return;
+					}
 
 					if (item.isResume()) {
 						// Update range to possibly adjusted resume time
@@ -67,6 +67,7 @@ public class WebGuiServerJetty extends WebGuiServer {
 		//let some time for pausing from media renderer (2 hours)
 		connector.setIdleTimeout(2 * 60 * 60 * 1000);
 		server.addConnector(connector);
+		WebPlayerBrowseCache.listenStoreChanges();
 		ServletContextHandler servletHandler = new ServletContextHandler(ServletContextHandler.NO_SESSIONS);
 		addServlet(servletHandler, AboutApiServlet.class);
 		addServlet(servletHandler, AccountApiServlet.class);
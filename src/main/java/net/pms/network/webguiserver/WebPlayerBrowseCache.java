@@ -0,0 +1,223 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.network.webguiserver;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.pms.store.ContainerUpdateListener;
+import net.pms.store.MediaStoreIds;
+import net.pms.store.StoreResource;
+import net.pms.util.LruMap;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the serialized web player browse pages.
+ *
+ * A page is keyed by the renderer, the account and the resources it was
+ * rendered from, so that pages are never shared between web players and a
+ * refreshed folder gets a new page. It is also stored with the store ids it
+ * references (the container, its children and breadcrumbs), so that a
+ * container change notified by {@link MediaStoreIds} on any of them drops the
+ * page. A system wide update drops everything.
+ *
+ * The ETag is a hash of the page json, so it stays valid across restarts.
+ */
+public class WebPlayerBrowseCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WebPlayerBrowseCache.class);
+	private static final int MAX_ENTRIES = 256;
+	private static final long MAX_AGE = 10 * 60 * 1000L;
+	private static final Map<String, BrowsePage> PAGES = new LruMap<>(MAX_ENTRIES);
+	private static final ContainerUpdateListener LISTENER = WebPlayerBrowseCache::invalidate;
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private WebPlayerBrowseCache() {
+	}
+
+	/**
+	 * Start dropping the pages when their containers change in the store.
+	 */
+	public static void listenStoreChanges() {
+		MediaStoreIds.addListener(LISTENER);
+	}
+
+	/**
+	 * Build the cache key for a browse page.
+	 *
+	 * @param rendererId the web player renderer id.
+	 * @param id the requested container id.
+	 * @param lang the client language.
+	 * @param userId the account user id (fully played marks are per user).
+	 * @param permissions the account permissions.
+	 * @param editable whether metadata edition is available.
+	 * @param resources the resolved resources of the page.
+	 * @return the key.
+	 */
+	public static String getKey(String rendererId, String id, String lang, int userId, int permissions, boolean editable, List<? extends StoreResource> resources) {
+		StringBuilder key = new StringBuilder();
+		key.append(rendererId).append('|').append(id).append('|').append(lang).append('|')
+			.append(userId).append('|').append(permissions).append('|').append(editable).append('|');
+		for (StoreResource resource : resources) {
+			if (resource != null) {
+				key.append(resource.getResourceId()).append(',');
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Returns the cached page for this key, or null if none is valid.
+	 *
+	 * @param key the key from {@link #getKey}.
+	 * @return the cached page or null.
+	 */
+	public static BrowsePage get(String key) {
+		synchronized (PAGES) {
+			BrowsePage page = PAGES.get(key);
+			if (page != null && System.currentTimeMillis() - page.created > MAX_AGE) {
+				PAGES.remove(key);
+				return null;
+			}
+			return page;
+		}
+	}
+
+	/**
+	 * Store a freshly built page.
+	 *
+	 * @param key the key from {@link #getKey}.
+	 * @param id the requested container id.
+	 * @param page the page json.
+	 * @return the cached page.
+	 */
+	public static BrowsePage put(String key, String id, JsonObject page) {
+		Set<Long> storeIds = new HashSet<>();
+		addStoreIds(storeIds, id);
+		collectStoreIds(storeIds, page);
+		String json = page.toString();
+		BrowsePage result = new BrowsePage(
+			"\"" + DigestUtils.sha1Hex(json) + "\"",
+			json,
+			storeIds,
+			System.currentTimeMillis()
+		);
+		synchronized (PAGES) {
+			PAGES.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Drop every page that references the given store id.
+	 *
+	 * @param id the store id, -1 or null for all pages.
+	 */
+	public static void invalidate(Long id) {
+		synchronized (PAGES) {
+			if (PAGES.isEmpty()) {
+				return;
+			}
+			if (id == null || id == -1) {
+				PAGES.clear();
+				return;
+			}
+			Iterator<BrowsePage> pages = PAGES.values().iterator();
+			while (pages.hasNext()) {
+				if (pages.next().storeIds.contains(id)) {
+					pages.remove();
+				}
+			}
+		}
+	}
+
+	public static void clear() {
+		synchronized (PAGES) {
+			PAGES.clear();
+		}
+	}
+
+	private static void collectStoreIds(Set<Long> storeIds, JsonElement element) {
+		if (element == null) {
+			return;
+		}
+		if (element.isJsonArray()) {
+			for (JsonElement child : (JsonArray) element) {
+				collectStoreIds(storeIds, child);
+			}
+		} else if (element.isJsonObject()) {
+			for (Map.Entry<String, JsonElement> member : ((JsonObject) element).entrySet()) {
+				if ("id".equals(member.getKey()) && member.getValue().isJsonPrimitive()) {
+					addStoreIds(storeIds, member.getValue().getAsString());
+				} else {
+					collectStoreIds(storeIds, member.getValue());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Resource ids are either a store id or a dotted path of store ids when
+	 * auto discover is on.
+	 */
+	private static void addStoreIds(Set<Long> storeIds, String resourceId) {
+		if (resourceId == null || resourceId.isEmpty()) {
+			return;
+		}
+		for (String part : resourceId.split("\\.")) {
+			try {
+				storeIds.add(Long.valueOf(part));
+			} catch (NumberFormatException e) {
+				LOGGER.trace("Browse cache ignoring non numeric id \"{}\"", part);
+			}
+		}
+	}
+
+	public static class BrowsePage {
+
+		private final String etag;
+		private final String json;
+		private final Set<Long> storeIds;
+		private final long created;
+
+		private BrowsePage(String etag, String json, Set<Long> storeIds, long created) {
+			this.etag = etag;
+			this.json = json;
+			this.storeIds = storeIds;
+			this.created = created;
+		}
+
+		public String getEtag() {
+			return etag;
+		}
+
+		public String getJson() {
+			return json;
+		}
+
+	}
+
+}
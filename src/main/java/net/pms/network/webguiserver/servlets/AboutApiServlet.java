@@ -23,6 +23,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import net.pms.PMS;
+import net.pms.encoders.TranscodeScheduler;
 import net.pms.iam.Account;
 import net.pms.iam.AuthService;
 import net.pms.iam.Permissions;
@@ -78,6 +79,8 @@ public class AboutApiServlet extends GuiHttpServlet {
 					jsonResponse.addProperty("operatingSystem", getOperatingSystem());
 					jsonResponse.addProperty("systemMemorySize", getSystemMemorySize());
 					jsonResponse.addProperty("jvmMemoryMax", getJavaMemoryMax());
+					jsonResponse.add("transcodeQueue", TranscodeScheduler.toJson());
+					jsonResponse.add("tempFiles", PMS.get().getTempFileMgr().toJson());
 				}
 				respond(req, resp, jsonResponse.toString(), 200, "application/json");
 			} else {
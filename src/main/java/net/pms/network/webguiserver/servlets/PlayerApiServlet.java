@@ -32,6 +32,7 @@ import java.io.OutputStream;
 import java.util.List;
 import net.pms.PMS;
 import net.pms.configuration.FormatConfiguration;
+import net.pms.dlna.DLNAThumbnail;
 import net.pms.dlna.DLNAThumbnailInputStream;
 import net.pms.encoders.FFmpegHlsVideo;
 import net.pms.encoders.HlsHelper;
@@ -57,6 +58,8 @@ import net.pms.network.mediaserver.MediaServer;
 import net.pms.network.mediaserver.servlets.StartStopListener;
 import net.pms.network.webguiserver.EventSourceClient;
 import net.pms.network.webguiserver.GuiHttpServlet;
+import net.pms.network.webguiserver.WebPlayerBrowseCache;
+import net.pms.network.webguiserver.WebPlayerBrowseCache.BrowsePage;
 import net.pms.renderers.ConnectedRenderers;
 import net.pms.renderers.Renderer;
 import net.pms.renderers.devices.WebGuiRenderer;
@@ -65,6 +68,7 @@ import net.pms.store.MediaStoreIds;
 import net.pms.store.StoreContainer;
 import net.pms.store.StoreItem;
 import net.pms.store.StoreResource;
+import net.pms.store.ThumbnailStripStore;
 import net.pms.store.container.CodeEnter;
 import net.pms.store.container.MediaLibraryFolder;
 import net.pms.store.container.MediaLibraryTvSeries;
@@ -106,6 +110,8 @@ public class PlayerApiServlet extends GuiHttpServlet {
 				sendServerSentEvents(req, resp);
 			} else if (path.startsWith("/thumbnail/")) {
 				sendThumbnail(req, resp);
+			} else if (path.startsWith("/preview/")) {
+				sendPreviewThumbnail(req, resp);
 			} else if (path.startsWith("/image/")) {
 				sendImageMedia(req, resp);
 			} else if (path.startsWith("/raw/")) {
@@ -151,10 +157,24 @@ public class PlayerApiServlet extends GuiHttpServlet {
 						String id = action.get("id").getAsString();
 						String search = action.has("search") ? action.get("search").getAsString() : null;
 						String lang = action.has("lang") ? action.get("lang").getAsString() : null;
-						JsonObject browse = getBrowsePage(renderer, id, search, lang);
-						if (browse != null) {
-							respond(req, resp, browse.toString(), 200, "application/json");
-							return;
+						if (StringUtils.isEmpty(search)) {
+							BrowsePage page = getCachedBrowsePage(renderer, id, lang);
+							if (page != null) {
+								String etag = req.getHeader("If-None-Match");
+								if (etag != null && etag.equals(page.getEtag())) {
+									respondNotModified(req, resp);
+								} else {
+									resp.setHeader("ETag", page.getEtag());
+									respond(req, resp, page.getJson(), 200, "application/json");
+								}
+								return;
+							}
+						} else {
+							JsonObject browse = getBrowsePage(renderer, id, search, lang);
+							if (browse != null) {
+								respond(req, resp, browse.toString(), 200, "application/json");
+								return;
+							}
 						}
 					}
 					respondBadRequest(req, resp);
@@ -396,7 +416,36 @@ public class PlayerApiServlet extends GuiHttpServlet {
 		};
 	}
 
+	/**
+	 * Returns the browse page from the cache, building and caching it when
+	 * needed.
+	 *
+	 * The resources are always resolved, so the discovery and the dynamic
+	 * folders refresh as usual; only the rendering is cached.
+	 */
+	private static BrowsePage getCachedBrowsePage(WebGuiRenderer renderer, String id, String lang) throws IOException, InterruptedException {
+		List<StoreResource> resources = renderer.getMediaStore().getResources(id, true);
+		Account account = renderer.getAccount();
+		int permissions = account != null && account.getGroup() != null ? account.getGroup().getPermissions() : 0;
+		boolean editable = renderer.havePermission(Permissions.WEB_PLAYER_EDIT) && TMDB.isReady();
+		String key = WebPlayerBrowseCache.getKey(renderer.getId(), id, lang, renderer.getUserId(), permissions, editable, resources);
+		BrowsePage page = WebPlayerBrowseCache.get(key);
+		if (page != null) {
+			LOGGER.trace("Browse page {} served from cache", id);
+			return page;
+		}
+		JsonObject browse = getBrowsePage(renderer, id, null, lang, resources);
+		if (browse == null) {
+			return null;
+		}
+		return WebPlayerBrowseCache.put(key, id, browse);
+	}
+
 	private static JsonObject getBrowsePage(WebGuiRenderer renderer, String id, String search, String lang) throws IOException, InterruptedException {
+		return getBrowsePage(renderer, id, search, lang, renderer.getMediaStore().getResources(id, true));
+	}
+
+	private static JsonObject getBrowsePage(WebGuiRenderer renderer, String id, String search, String lang, List<StoreResource> resources) throws IOException, InterruptedException {
 		LOGGER.debug("Make browse page " + id);
 		JsonObject result = new JsonObject();
 		result.addProperty("goal", "browse");
@@ -406,7 +455,6 @@ public class PlayerApiServlet extends GuiHttpServlet {
 		JsonArray jMedias = new JsonArray();
 		StoreResource rootResource = id.equals("0") ? null : renderer.getMediaStore().getResource(id);
 
-		List<StoreResource> resources = renderer.getMediaStore().getResources(id, true);
 		if (!resources.isEmpty() &&
 				resources.get(0).getParent() != null &&
 				(resources.get(0).getParent() instanceof CodeEnter)) {
@@ -1334,6 +1382,47 @@ public class PlayerApiServlet extends GuiHttpServlet {
 		}
 	}
 
+	/**
+	 * Sends the seek preview of a video at a position, from the thumbnail
+	 * strip of the video.
+	 */
+	private static void sendPreviewThumbnail(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+		String path = req.getPathInfo();
+		String[] pathData = path.split("/");
+		WebGuiRenderer renderer = getValidRendererOrRespondError(req, resp, pathData, 5, Permissions.WEB_PLAYER_BROWSE);
+		if (renderer == null) {
+			return;
+		}
+		StoreResource resource = renderer.getMediaStore().getResource(pathData[3]);
+		double position;
+		try {
+			position = Double.parseDouble(pathData[4]);
+		} catch (NumberFormatException e) {
+			respondBadRequest(req, resp);
+			return;
+		}
+		DLNAThumbnail thumbnail = null;
+		if (resource instanceof RealFile realFile && realFile.getMediaInfo() != null && realFile.getMediaInfo().isVideo()) {
+			double duration = realFile.getMediaInfo().getDurationInSeconds();
+			// evenly spread over the video, at least ten seconds apart
+			double interval = Math.max(10, Math.ceil(duration / ThumbnailStripStore.MAX_THUMBNAILS));
+			thumbnail = ThumbnailStripStore.getThumbnail(realFile.getFile(), duration, interval, position);
+		}
+		if (thumbnail != null) {
+			resp.setContentType(ImageFormat.PNG.equals(thumbnail.getFormat()) ? HTTPResource.PNG_TYPEMIME : HTTPResource.JPEG_TYPEMIME);
+			resp.setHeader("Server", MediaServer.getServerName());
+			resp.setHeader("Cache-Control", "max-age=86400");
+			resp.setStatus(200);
+			byte[] bytes = thumbnail.getBytes(false);
+			resp.setContentLength(bytes.length);
+			try (OutputStream os = resp.getOutputStream()) {
+				os.write(bytes);
+			}
+		} else {
+			respondNotFound(req, resp);
+		}
+	}
+
 	/**
 	 * Gets metadata from our database, which may be there from our API, for
 	 * this HlsHelper, which could be a TV series, TV episode, or movie.
@@ -19,6 +19,7 @@ package net.pms.parsers;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.StringTokenizer;
@@ -28,6 +29,7 @@ import net.pms.configuration.UmsConfiguration;
 import net.pms.dlna.DLNAThumbnail;
 import net.pms.encoders.EngineFactory;
 import net.pms.encoders.StandardEngineId;
+import net.pms.encoders.TranscodeScheduler;
 import net.pms.formats.AudioAsVideo;
 import net.pms.formats.Format;
 import net.pms.formats.v2.SubtitleType;
@@ -52,6 +54,7 @@ public class FFmpegParser {
 	private static final Logger LOGGER = LoggerFactory.getLogger(FFmpegParser.class);
 	private static final UmsConfiguration CONFIGURATION = PMS.getConfiguration();
 	public static final String PARSER_NAME = "FFmpeg";
+	private static final long BACKGROUND_SLOT_TIMEOUT = 10000;
 
 	private static String version;
 
@@ -158,7 +161,7 @@ public class FFmpegParser {
 		final ProcessWrapperImpl pw = new ProcessWrapperImpl(args.toArray(String[]::new), true, params, false, true);
 		FailSafeProcessWrapper fspw = new FailSafeProcessWrapper(pw, 10000);
 		media.setParsing(true);
-		fspw.runInSameThread();
+		runInBackgroundSlot(fspw);
 
 		if (fspw.hasFail()) {
 			LOGGER.info("Error parsing information from the file: " + input);
@@ -194,7 +197,7 @@ public class FFmpegParser {
 		final ProcessWrapperImpl pw = new ProcessWrapperImpl(args.toArray(String[]::new), true, params, false, true);
 		FailSafeProcessWrapper fspw = new FailSafeProcessWrapper(pw, 10000);
 		media.setParsing(true);
-		fspw.runInSameThread();
+		runInBackgroundSlot(fspw);
 
 		if (fspw.hasFail()) {
 			LOGGER.info("Error parsing information from the url: " + url);
@@ -221,7 +224,10 @@ public class FFmpegParser {
 		DLNAThumbnail thumbnail = null;
 		args.add("-ss");
 		double thumbnailSeekPos = seekPosition != null ? seekPosition : CONFIGURATION.getThumbnailSeekPos();
-		thumbnailSeekPos = Math.min(thumbnailSeekPos, media.getDurationInSeconds());
+		if (thumbnailSeekPos >= media.getDurationInSeconds()) {
+			// there is no frame to get at the end, use the middle of short videos
+			thumbnailSeekPos = media.getDurationInSeconds() / 2;
+		}
 		args.add(Integer.toString((int) thumbnailSeekPos));
 
 		args.add("-i");
@@ -251,11 +257,22 @@ public class FFmpegParser {
 		// true: consume stderr on behalf of the caller i.e. parse()
 		final ProcessWrapperImpl pw = new ProcessWrapperImpl(args.toArray(String[]::new), true, params);
 
+		// Thumbnails can wait, leave the transcode slots to playback
+		TranscodeScheduler.Slot slot = TranscodeScheduler.acquire(TranscodeScheduler.Priority.BACKGROUND, null, BACKGROUND_SLOT_TIMEOUT);
+		if (slot == null) {
+			LOGGER.debug("Skipping thumbnail generation of {} since the server is busy transcoding", inputFile.getFile());
+			return null;
+		}
+
 		// FAILSAFE
 		media.waitMediaParsing(5);
 		media.setParsing(true);
 		FailSafeProcessWrapper fspw = new FailSafeProcessWrapper(pw, 3000);
-		fspw.runInSameThread();
+		try {
+			fspw.runInSameThread();
+		} finally {
+			slot.close();
+		}
 
 		if (fspw.hasFail()) {
 			LOGGER.info("Error generating thumbnail from the file: " + inputFile.getFile());
@@ -281,6 +298,125 @@ public class FFmpegParser {
 		return thumbnail;
 	}
 
+	/**
+	 * Extracts thumbnails at regular intervals of a video with one FFmpeg
+	 * process.
+	 *
+	 * Each position is an input seeked on its own, decoding only the key
+	 * frames, so the whole file is never read.
+	 *
+	 * @param file the video file.
+	 * @param positions the positions in seconds.
+	 * @return the thumbnails in the order of the positions, or {@code null}
+	 *         if the extraction failed.
+	 */
+	public static List<DLNAThumbnail> getThumbnailStrip(File file, double[] positions) {
+		String engine = EngineFactory.getEngineExecutable(StandardEngineId.FFMPEG_VIDEO);
+		if (engine == null || file == null || positions == null || positions.length == 0) {
+			return null;
+		}
+		ArrayList<String> args = new ArrayList<>();
+		args.add(engine);
+		String fileName = ProcessUtil.getShortFileNameIfWideChars(file.getAbsolutePath());
+		StringBuilder filter = new StringBuilder();
+		StringBuilder concat = new StringBuilder();
+		for (int i = 0; i < positions.length; i++) {
+			args.add("-skip_frame");
+			args.add("nokey");
+			args.add("-ss");
+			args.add(Integer.toString((int) positions[i]));
+			args.add("-i");
+			args.add(fileName);
+			filter.append('[').append(i).append(":v:0]trim=end_frame=1,setpts=PTS-STARTPTS,scale=320:-2,setsar=1[t").append(i).append("];");
+			concat.append("[t").append(i).append(']');
+		}
+		filter.append(concat).append("concat=n=").append(positions.length).append(":v=1:a=0[strip]");
+		args.add("-filter_complex");
+		args.add(filter.toString());
+		args.add("-map");
+		args.add("[strip]");
+		args.add("-frames:v");
+		args.add(Integer.toString(positions.length));
+		args.add("-f");
+		args.add("image2pipe");
+		args.add("-c:v");
+		args.add("mjpeg");
+		args.add("pipe:");
+
+		OutputParams params = new OutputParams(CONFIGURATION);
+		params.setMaxBufferSize(1);
+		params.setNoExitCheck(true);
+		final ProcessWrapperImpl pw = new ProcessWrapperImpl(args.toArray(String[]::new), true, params);
+
+		TranscodeScheduler.Slot slot = TranscodeScheduler.acquire(TranscodeScheduler.Priority.BACKGROUND, null, BACKGROUND_SLOT_TIMEOUT);
+		if (slot == null) {
+			LOGGER.debug("Skipping thumbnail strip generation of {} since the server is busy transcoding", file);
+			return null;
+		}
+		FailSafeProcessWrapper fspw = new FailSafeProcessWrapper(pw, 5000 + 1000L * positions.length);
+		try {
+			fspw.runInSameThread();
+		} finally {
+			slot.close();
+		}
+		if (fspw.hasFail() || pw.getOutputByteArray() == null) {
+			LOGGER.info("Error generating thumbnail strip from the file: {}", file);
+			return null;
+		}
+
+		List<DLNAThumbnail> thumbnails = new ArrayList<>();
+		for (byte[] image : splitJpegImages(pw.getOutputByteArray().toByteArray())) {
+			try {
+				thumbnails.add(DLNAThumbnail.toThumbnail(image));
+			} catch (IOException e) {
+				LOGGER.debug("Error while decoding thumbnail strip image: {}", e.getMessage());
+				LOGGER.trace("", e);
+				return null;
+			}
+		}
+		return thumbnails.size() == positions.length ? thumbnails : null;
+	}
+
+	/**
+	 * Splits concatenated JPEG images. Markers can't appear in the JPEG
+	 * entropy coded data, so each image ends at its first end of image marker.
+	 */
+	protected static List<byte[]> splitJpegImages(byte[] bytes) {
+		List<byte[]> images = new ArrayList<>();
+		int start = -1;
+		for (int i = 0; i + 1 < bytes.length; i++) {
+			if (bytes[i] != (byte) 0xFF) {
+				continue;
+			}
+			if (start < 0 && bytes[i + 1] == (byte) 0xD8) {
+				start = i;
+				i++;
+			} else if (start >= 0 && bytes[i + 1] == (byte) 0xD9) {
+				images.add(Arrays.copyOfRange(bytes, start, i + 2));
+				start = -1;
+				i++;
+			}
+		}
+		return images;
+	}
+
+	/**
+	 * Runs a probe, waiting for a background transcode slot first.
+	 *
+	 * The probe runs anyway when no slot became free in time, as browsing
+	 * depends on it.
+	 */
+	private static void runInBackgroundSlot(FailSafeProcessWrapper fspw) {
+		TranscodeScheduler.Slot slot = TranscodeScheduler.acquire(TranscodeScheduler.Priority.BACKGROUND, null, BACKGROUND_SLOT_TIMEOUT);
+		try {
+			fspw.runInSameThread();
+		} finally {
+			if (slot != null) {
+				slot.close();
+			}
+		}
+	}
+
 	/**
 	 * Parses media info from FFmpeg's stderr output
 	 *
@@ -29,6 +29,7 @@ import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.annotation.Nullable;
+import net.pms.PMS;
 import net.pms.configuration.FormatConfiguration;
 import net.pms.dlna.DLNAThumbnail;
 import net.pms.formats.Format;
@@ -70,6 +71,7 @@ public class MediaInfoParser {
 	// Pattern to parse the year from a string
 	private static final Pattern YEAR_PATTERN = Pattern.compile(YEAR_REGEX);
 	private static final Version VERSION;
+	private static final Version JSON_INFORM_VERSION = new Version("18.03");
 	private static final boolean IS_VALID;
 	public static final String PARSER_NAME;
 
@@ -139,6 +141,15 @@ public class MediaInfoParser {
 		return mediaInfoHelper;
 	}
 
+	/**
+	 * Whether all the values of a file can be read with a single JSON
+	 * {@code Inform()} call, which needs MediaInfo 18.03 or later.
+	 */
+	private static boolean isJsonInformSupported() {
+		return VERSION != null && VERSION.isGreaterThanOrEqualTo(JSON_INFORM_VERSION) &&
+			PMS.getConfiguration().isMediaInfoJsonInform();
+	}
+
 	/**
 	 * Parse media via MediaInfoHelper.
 	 */
@@ -157,6 +168,9 @@ public class MediaInfoParser {
 
 		MediaInfoParseLogger parseLogger = LOGGER.isTraceEnabled() ? new MediaInfoParseLogger(mediaInfoHelper) : null;
 		boolean fileOpened = mediaInfoHelper.openFile(file.getAbsolutePath()) > 0;
+		if (fileOpened && isJsonInformSupported() && !mediaInfoHelper.loadReport()) {
+			LOGGER.debug("MediaInfo JSON report not available for \"{}\", reading values one by one", file.getName());
+		}
 		if (fileOpened) {
 			MediaAudio currentAudioTrack = new MediaAudio();
 			MediaVideo currentVideoTrack = new MediaVideo();
@@ -30,6 +30,7 @@ public class MediaInfoHelper implements AutoCloseable {
 	private static final Logger LOGGER = LoggerFactory.getLogger(MediaInfoHelper.class);
 
 	private Pointer handle;
+	private MediaInfoReport report;
 
 	// Constructor/Destructor
 	public MediaInfoHelper(boolean log) {
@@ -93,9 +94,28 @@ public class MediaInfoHelper implements AutoCloseable {
 	 *
 	 */
 	public void closeFile() {
+		report = null;
 		MediaInfoLibrary.INSTANCE.Close(handle);
 	}
 
+	/**
+	 * Reads all the information of the opened file with a single
+	 * {@code Inform()} call in JSON, so the following {@code get} calls are
+	 * answered from memory instead of crossing to the library each time.
+	 *
+	 * @return true if the report was loaded, false if the library does not
+	 * support the JSON output.
+	 */
+	public boolean loadReport() {
+		option("Output", "JSON");
+		try {
+			report = MediaInfoReport.fromJson(inform());
+		} finally {
+			option("Output", "");
+		}
+		return report != null;
+	}
+
 	// Information
 	/**
 	 * Get all details about a file.
@@ -147,6 +167,12 @@ public class MediaInfoHelper implements AutoCloseable {
 	 * @return a string about information you search, an empty string if there is a problem
 	 */
 	public String get(StreamKind streamType, int streamNumber, String parameter, InfoKind infoType, InfoKind searchType) {
+		if (report != null && infoType == InfoKind.TEXT && searchType == InfoKind.NAME) {
+			String value = report.get(streamType, streamNumber, parameter);
+			if (value != null) {
+				return value;
+			}
+		}
 		return MediaInfoLibrary.INSTANCE.Get(handle,
 			streamType.getValue(),
 			streamNumber,
@@ -229,6 +255,9 @@ public class MediaInfoHelper implements AutoCloseable {
 	 * @return number of Streams of the given Stream kind
 	 */
 	public int countGet(StreamKind streamType) {
+		if (report != null) {
+			return report.count(streamType);
+		}
 		return MediaInfoLibrary.INSTANCE.Count_Get(handle, streamType.getValue(), -1);
 	}
 
@@ -0,0 +1,180 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.parsers.mediainfo;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * All the tracks of a file as reported by one MediaInfo {@code Inform()} call
+ * with the JSON output.
+ *
+ * It answers the same parameter names as
+ * {@link MediaInfoHelper#get(StreamKind, int, String)}, so the stream
+ * accessors work unchanged. The values the JSON output writes in another
+ * form are converted back to the {@code Get()} form. When the JSON output
+ * cannot answer a parameter exactly (missing, other name, other unit),
+ * {@code null} is returned and the caller has to ask the library.
+ */
+public class MediaInfoReport {
+
+	private static final String TYPE = "@type";
+	private static final String EXTRA = "extra";
+	private static final Pattern PLAIN_NAME = Pattern.compile("\\w+");
+
+	/**
+	 * Parameters not reported in JSON the way {@code Get()} reports them:
+	 * durations and delays are in seconds instead of milliseconds, the dates
+	 * have their time zone moved, and the cover data may be left out.
+	 */
+	private static final Pattern NATIVE_ONLY = Pattern.compile(".*(Duration|Delay|_Date).*|Cover_Data");
+
+	/**
+	 * Parameters reported in JSON without the prefix {@code Get()} gives them,
+	 * like {@code Format_Version} which is "1" instead of "Version 1".
+	 */
+	private static final Map<String, String> PREFIXES = Map.of(
+		"Format_Version", "Version "
+	);
+
+	private static final Map<String, StreamKind> STREAM_KINDS = Map.of(
+		"General", StreamKind.GENERAL,
+		"Video", StreamKind.VIDEO,
+		"Audio", StreamKind.AUDIO,
+		"Text", StreamKind.TEXT,
+		"Other", StreamKind.OTHER,
+		"Image", StreamKind.IMAGE,
+		"Menu", StreamKind.MENU
+	);
+
+	private final Map<StreamKind, List<Map<String, String>>> tracks = new EnumMap<>(StreamKind.class);
+
+	private MediaInfoReport() {
+	}
+
+	/**
+	 * @param streamType the kind of stream.
+	 * @return the number of streams of that kind.
+	 */
+	public int count(StreamKind streamType) {
+		List<Map<String, String>> streams = tracks.get(streamType);
+		return streams == null ? 0 : streams.size();
+	}
+
+	/**
+	 * Gets a value like {@link MediaInfoHelper#get(StreamKind, int, String)}.
+	 *
+	 * @param streamType the kind of stream.
+	 * @param streamNumber the stream number in that kind.
+	 * @param parameter the parameter name.
+	 * @return the value, an empty string if the stream does not exist, or
+	 * {@code null} if it cannot be answered from the report.
+	 */
+	public String get(StreamKind streamType, int streamNumber, String parameter) {
+		List<Map<String, String>> streams = tracks.get(streamType);
+		if (streams == null || streamNumber < 0 || streamNumber >= streams.size()) {
+			return "";
+		}
+		if ("StreamCount".equals(parameter)) {
+			return String.valueOf(streams.size());
+		}
+		if (NATIVE_ONLY.matcher(parameter).matches()) {
+			return null;
+		}
+		Map<String, String> stream = streams.get(streamNumber);
+		// names like "Channel(s)" or "Format/Info" are renamed in the report
+		String value = stream.get(PLAIN_NAME.matcher(parameter).matches() ? parameter : getJsonName(parameter));
+		if (value == null) {
+			// left out of the report, or not a field of the JSON output
+			return null;
+		}
+		String prefix = PREFIXES.get(parameter);
+		if (prefix != null && !value.startsWith(prefix)) {
+			return prefix + value;
+		}
+		return value;
+	}
+
+	private static String getJsonName(String parameter) {
+		return parameter.replace("(", "").replace(")", "").replaceAll("\\W", "_");
+	}
+
+	/**
+	 * Reads the JSON output of {@code Inform()}.
+	 *
+	 * @param json the report.
+	 * @return the report, or {@code null} if it is not a MediaInfo JSON report.
+	 */
+	public static MediaInfoReport fromJson(String json) {
+		if (json == null || !json.trim().startsWith("{")) {
+			return null;
+		}
+		try {
+			JsonObject root = JsonParser.parseString(json).getAsJsonObject();
+			JsonElement media = root.get("media");
+			if (media == null || !media.isJsonObject() || !media.getAsJsonObject().has("track")) {
+				return null;
+			}
+			JsonElement trackElement = media.getAsJsonObject().get("track");
+			JsonArray trackArray;
+			if (trackElement.isJsonArray()) {
+				trackArray = trackElement.getAsJsonArray();
+			} else {
+				trackArray = new JsonArray();
+				trackArray.add(trackElement);
+			}
+			MediaInfoReport report = new MediaInfoReport();
+			for (JsonElement element : trackArray) {
+				if (!element.isJsonObject()) {
+					continue;
+				}
+				JsonObject track = element.getAsJsonObject();
+				StreamKind streamKind = track.has(TYPE) ? STREAM_KINDS.get(track.get(TYPE).getAsString()) : null;
+				if (streamKind == null) {
+					continue;
+				}
+				Map<String, String> values = new HashMap<>();
+				addValues(values, track);
+				if (track.get(EXTRA) instanceof JsonObject extra) {
+					addValues(values, extra);
+				}
+				report.tracks.computeIfAbsent(streamKind, k -> new ArrayList<>()).add(values);
+			}
+			return report.tracks.containsKey(StreamKind.GENERAL) ? report : null;
+		} catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+			return null;
+		}
+	}
+
+	private static void addValues(Map<String, String> values, JsonObject object) {
+		for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+			if (entry.getValue().isJsonPrimitive()) {
+				values.putIfAbsent(entry.getKey(), entry.getValue().getAsString());
+			}
+		}
+	}
+
+}
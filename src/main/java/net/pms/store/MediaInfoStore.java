@@ -27,6 +27,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import net.pms.database.MediaDatabase;
+import net.pms.database.MediaLibraryChanges;
 import net.pms.database.MediaTableFailedLookups;
 import net.pms.database.MediaTableFiles;
 import net.pms.database.MediaTableTVSeries;
@@ -185,6 +186,7 @@ public class MediaInfoStore {
 					if (connection != null) {
 						connection.commit();
 						connection.setAutoCommit(true);
+						MediaLibraryChanges.changed();
 					}
 				} catch (SQLException e) {
 					LOGGER.error("Error in commit in RealFile.resolve: {}", e.getMessage());
@@ -17,30 +17,63 @@
 package net.pms.store;
 
 import java.sql.Connection;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import net.pms.Messages;
 import net.pms.database.MediaDatabase;
 import net.pms.database.MediaTableFiles;
 import net.pms.database.MediaTableFilesStatus;
 import net.pms.gui.GuiManager;
 import net.pms.media.MediaStatus;
+import net.pms.util.LruMap;
+import net.pms.util.SimpleThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Keeps the played status of the files by user.
+ *
+ * The most recently used statuses are kept in memory for each user, and the
+ * statuses of the files of a folder are loaded together when it is browsed.
+ * The changes are written to the database shortly after they are made, the
+ * changes of the same file made meanwhile are written together.
+ */
 public class MediaStatusStore {
 
-	private static final Map<Integer, Map<String, MediaStatus>> STORE = new HashMap<>();
+	private static final Logger LOGGER = LoggerFactory.getLogger(MediaStatusStore.class);
+	private static final int MAX_ENTRIES_PER_USER = 5000;
+
+	/**
+	 * How long the changes wait for the next ones before being written, in
+	 * milliseconds.
+	 */
+	private static final long WRITE_DELAY = 2000;
+
+	private static final Map<Integer, Map<String, MediaStatus>> STORE = new ConcurrentHashMap<>();
+	private static final Map<String, PendingWrite> PENDING_WRITES = new LinkedHashMap<>();
+	private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(new SimpleThreadFactory("Media status writer", true));
+	private static boolean writeScheduled;
 
 	private MediaStatusStore() {
 		//should not be instantiated
 	}
 
 	public static MediaStatus getMediaStatus(int userId, String filename) {
-		synchronized (STORE) {
-			if (STORE.containsKey(userId) && STORE.get(userId) != null && STORE.get(userId).containsKey(filename)) {
-				return STORE.get(userId).get(filename);
-			}
-			MediaStatus mediaStatus = null;
+		Map<String, MediaStatus> userStore = getUserStore(userId);
+		MediaStatus mediaStatus = userStore.get(filename);
+		if (mediaStatus != null) {
+			return mediaStatus;
+		}
+		mediaStatus = getPendingMediaStatus(userId, filename);
+		if (mediaStatus == null) {
 			Connection connection = null;
 			try {
 				connection = MediaDatabase.getConnectionIfAvailable();
@@ -53,11 +86,52 @@ public class MediaStatusStore {
 			if (mediaStatus == null) {
 				mediaStatus = new MediaStatus();
 			}
-			if (!STORE.containsKey(userId)) {
-				STORE.put(userId, new HashMap<>());
+		}
+		MediaStatus existing = userStore.putIfAbsent(filename, mediaStatus);
+		return existing != null ? existing : mediaStatus;
+	}
+
+	/**
+	 * Loads the statuses of several files with as few queries as possible,
+	 * before they are asked one by one.
+	 *
+	 * @param userId the user id.
+	 * @param filenames the full paths to the files.
+	 */
+	public static void loadMediaStatuses(int userId, Collection<String> filenames) {
+		if (filenames == null || filenames.isEmpty()) {
+			return;
+		}
+		Map<String, MediaStatus> userStore = getUserStore(userId);
+		List<String> missing = new ArrayList<>();
+		for (String filename : filenames) {
+			if (missing.size() >= MAX_ENTRIES_PER_USER) {
+				break;
+			}
+			if (filename != null && !userStore.containsKey(filename) && getPendingMediaStatus(userId, filename) == null) {
+				missing.add(filename);
 			}
-			STORE.get(userId).put(filename, mediaStatus);
-			return mediaStatus;
+		}
+		if (missing.isEmpty()) {
+			return;
+		}
+		Connection connection = null;
+		try {
+			connection = MediaDatabase.getConnectionIfAvailable();
+			if (connection == null) {
+				return;
+			}
+			for (int i = 0; i < missing.size(); i += MediaTableFilesStatus.MAX_FILENAMES_PER_QUERY) {
+				List<String> chunk = missing.subList(i, Math.min(i + MediaTableFilesStatus.MAX_FILENAMES_PER_QUERY, missing.size()));
+				Map<String, MediaStatus> mediaStatuses = MediaTableFilesStatus.getMediaStatuses(connection, chunk, userId);
+				for (String filename : chunk) {
+					MediaStatus mediaStatus = mediaStatuses.get(filename);
+					userStore.putIfAbsent(filename, mediaStatus != null ? mediaStatus : new MediaStatus());
+				}
+			}
+			LOGGER.trace("Loaded the status of {} files for user {}", missing.size(), userId);
+		} finally {
+			MediaDatabase.close(connection);
 		}
 	}
 
@@ -91,18 +165,13 @@ public class MediaStatusStore {
 			mediaStatus.setPlaybackCount(mediaStatus.getPlaybackCount() + 1);
 		}
 		//update db
-		Connection connection = null;
-		try {
-			connection = MediaDatabase.getConnectionIfAvailable();
-			if (connection != null) {
-				MediaTableFilesStatus.setFullyPlayed(connection, filename, userId, isFullyPlayed);
-				if (lastPlaybackPosition != null) {
-					MediaTableFilesStatus.setLastPlayed(connection, filename, userId, lastPlaybackPosition);
-				}
+		synchronized (PENDING_WRITES) {
+			PendingWrite pendingWrite = getPendingWrite(userId, filename, mediaStatus);
+			pendingWrite.fullyPlayed = isFullyPlayed;
+			if (lastPlaybackPosition != null) {
+				pendingWrite.lastPlaybackPosition = lastPlaybackPosition;
+				pendingWrite.playCount++;
 			}
-			MediaStoreIds.incrementUpdateIdForFilename(connection, filename);
-		} finally {
-			MediaDatabase.close(connection);
 		}
 	}
 
@@ -120,15 +189,10 @@ public class MediaStatusStore {
 			mediaStatus.setLastPlaybackPosition(lastPlaybackPosition);
 			mediaStatus.setPlaybackCount(mediaStatus.getPlaybackCount() + 1);
 			//update db
-			Connection connection = null;
-			try {
-				connection = MediaDatabase.getConnectionIfAvailable();
-				if (connection != null) {
-					MediaTableFilesStatus.setLastPlayed(connection, filename, userId, lastPlaybackPosition);
-				}
-				MediaStoreIds.incrementUpdateIdForFilename(connection, filename);
-			} finally {
-				MediaDatabase.close(connection);
+			synchronized (PENDING_WRITES) {
+				PendingWrite pendingWrite = getPendingWrite(userId, filename, mediaStatus);
+				pendingWrite.lastPlaybackPosition = lastPlaybackPosition;
+				pendingWrite.playCount++;
 			}
 		}
 	}
@@ -138,12 +202,47 @@ public class MediaStatusStore {
 		MediaStatus mediaStatus = getMediaStatus(userId, filename);
 		mediaStatus.setBookmark(bookmark);
 		//update db
+		synchronized (PENDING_WRITES) {
+			getPendingWrite(userId, filename, mediaStatus).bookmark = bookmark;
+		}
+	}
+
+	/**
+	 * Writes the pending changes to the database now.
+	 */
+	public static void flush() {
+		List<PendingWrite> pendingWrites;
+		synchronized (PENDING_WRITES) {
+			writeScheduled = false;
+			if (PENDING_WRITES.isEmpty()) {
+				return;
+			}
+			pendingWrites = new ArrayList<>(PENDING_WRITES.values());
+			PENDING_WRITES.clear();
+		}
 		Connection connection = null;
 		try {
 			connection = MediaDatabase.getConnectionIfAvailable();
-			if (connection != null) {
-				MediaTableFilesStatus.setBookmark(connection, filename, userId, bookmark);
+			if (connection == null) {
+				// keep the changes for the next try
+				restorePendingWrites(pendingWrites);
+				return;
 			}
+			for (PendingWrite pendingWrite : pendingWrites) {
+				if (pendingWrite.fullyPlayed != null) {
+					MediaTableFilesStatus.setFullyPlayed(connection, pendingWrite.filename, pendingWrite.userId, pendingWrite.fullyPlayed);
+				}
+				if (pendingWrite.lastPlaybackPosition != null) {
+					MediaTableFilesStatus.setLastPlayed(connection, pendingWrite.filename, pendingWrite.userId, pendingWrite.lastPlaybackPosition, pendingWrite.playCount);
+				}
+				if (pendingWrite.bookmark != null) {
+					MediaTableFilesStatus.setBookmark(connection, pendingWrite.filename, pendingWrite.userId, pendingWrite.bookmark);
+				}
+				if (pendingWrite.fullyPlayed != null || pendingWrite.lastPlaybackPosition != null) {
+					MediaStoreIds.incrementUpdateIdForFilename(connection, pendingWrite.filename);
+				}
+			}
+			LOGGER.trace("Wrote {} media status changes", pendingWrites.size());
 		} finally {
 			MediaDatabase.close(connection);
 		}
@@ -174,15 +273,13 @@ public class MediaStatusStore {
 
 	public static boolean removeMediaEntriesInFolder(String pathToFolder) {
 		boolean removed = false;
-		synchronized (STORE) {
-			for (int userId : STORE.keySet()) {
-				if (STORE.get(userId) != null) {
-					Iterator<String> filenames = STORE.get(userId).keySet().iterator();
-					while (filenames.hasNext()) {
-						if (filenames.next().startsWith(pathToFolder)) {
-							filenames.remove();
-							removed = true;
-						}
+		for (Map<String, MediaStatus> userStore : STORE.values()) {
+			synchronized (userStore) {
+				Iterator<String> filenames = userStore.keySet().iterator();
+				while (filenames.hasNext()) {
+					if (filenames.next().startsWith(pathToFolder)) {
+						filenames.remove();
+						removed = true;
 					}
 				}
 			}
@@ -192,27 +289,111 @@ public class MediaStatusStore {
 
 	public static boolean removeMediaEntry(String filename) {
 		boolean removed = false;
-		synchronized (STORE) {
-			for (int userId : STORE.keySet()) {
-				if (STORE.get(userId) != null && STORE.get(userId).remove(filename) != null) {
-					removed = true;
-				}
+		for (Map<String, MediaStatus> userStore : STORE.values()) {
+			if (userStore.remove(filename) != null) {
+				removed = true;
 			}
 		}
 		return removed;
 	}
 
 	public static void clear(int userId) {
-		synchronized (STORE) {
-			if (STORE.containsKey(userId) && STORE.get(userId) != null) {
-				STORE.get(userId).clear();
-			}
+		Map<String, MediaStatus> userStore = STORE.get(userId);
+		if (userStore != null) {
+			userStore.clear();
 		}
 	}
 
 	public static void clear() {
-		synchronized (STORE) {
-			STORE.clear();
+		flush();
+		STORE.clear();
+	}
+
+	private static Map<String, MediaStatus> getUserStore(int userId) {
+		return STORE.computeIfAbsent(userId, id -> LruMap.synchronizedMap(MAX_ENTRIES_PER_USER));
+	}
+
+	/**
+	 * Gets the status of a file with changes not written yet, its status may
+	 * have left the memory store meanwhile.
+	 */
+	private static MediaStatus getPendingMediaStatus(int userId, String filename) {
+		synchronized (PENDING_WRITES) {
+			PendingWrite pendingWrite = PENDING_WRITES.get(getPendingKey(userId, filename));
+			return pendingWrite != null ? pendingWrite.mediaStatus : null;
+		}
+	}
+
+	/**
+	 * Gets the pending changes of a file, scheduling their write.
+	 */
+	private static PendingWrite getPendingWrite(int userId, String filename, MediaStatus mediaStatus) {
+		PendingWrite pendingWrite = PENDING_WRITES.computeIfAbsent(getPendingKey(userId, filename), key -> new PendingWrite(userId, filename, mediaStatus));
+		if (!writeScheduled) {
+			writeScheduled = true;
+			WRITER.schedule(MediaStatusStore::flush, WRITE_DELAY, TimeUnit.MILLISECONDS);
+		}
+		return pendingWrite;
+	}
+
+	/**
+	 * Puts back changes that could not be written before the ones made
+	 * meanwhile, and schedules their write.
+	 */
+	private static void restorePendingWrites(List<PendingWrite> pendingWrites) {
+		synchronized (PENDING_WRITES) {
+			Map<String, PendingWrite> newerWrites = new LinkedHashMap<>(PENDING_WRITES);
+			PENDING_WRITES.clear();
+			for (PendingWrite pendingWrite : pendingWrites) {
+				String key = getPendingKey(pendingWrite.userId, pendingWrite.filename);
+				PendingWrite newerWrite = newerWrites.remove(key);
+				if (newerWrite != null) {
+					newerWrite.addOlder(pendingWrite);
+					pendingWrite = newerWrite;
+				}
+				PENDING_WRITES.put(key, pendingWrite);
+			}
+			PENDING_WRITES.putAll(newerWrites);
+			if (!writeScheduled) {
+				writeScheduled = true;
+				WRITER.schedule(MediaStatusStore::flush, WRITE_DELAY, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	private static String getPendingKey(int userId, String filename) {
+		return userId + ":" + filename;
+	}
+
+	private static class PendingWrite {
+		private final int userId;
+		private final String filename;
+		private final MediaStatus mediaStatus;
+		private Boolean fullyPlayed;
+		private Double lastPlaybackPosition;
+		private int playCount;
+		private Integer bookmark;
+
+		private PendingWrite(int userId, String filename, MediaStatus mediaStatus) {
+			this.userId = userId;
+			this.filename = filename;
+			this.mediaStatus = mediaStatus;
+		}
+
+		/**
+		 * Adds the changes made before this ones that are not overridden.
+		 */
+		private void addOlder(PendingWrite olderWrite) {
+			if (fullyPlayed == null) {
+				fullyPlayed = olderWrite.fullyPlayed;
+			}
+			if (lastPlaybackPosition == null) {
+				lastPlaybackPosition = olderWrite.lastPlaybackPosition;
+			}
+			playCount += olderWrite.playCount;
+			if (bookmark == null) {
+				bookmark = olderWrite.bookmark;
+			}
 		}
 	}
 
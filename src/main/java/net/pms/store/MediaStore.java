@@ -162,7 +162,7 @@ public class MediaStore extends StoreContainer {
 		if (isDiscovered()) {
 			return;
 		}
-		LOGGER.debug("Discovering the root folder for " + renderer.getRendererName());
+		LOGGER.debug("Discovering the root folder for {}", renderer.getRendererName());
 
 		//clear childrens but keep copy until discovered
 		backupChildren.clear();
@@ -662,11 +662,12 @@ public class MediaStore extends StoreContainer {
 				} else {
 					if (resource instanceof StoreContainer storeContainer) {
 						storeContainer.discover(true);
+						ThumbnailGenerator.prioritize(storeContainer.getSystemName());
 
 						int count = storeContainer.getChildren().size();
 						if (count > 0) {
 							String systemName = storeContainer.getSystemName();
-							LOGGER.trace("Start of analysis for " + systemName);
+							LOGGER.trace("Start of analysis for {}", systemName);
 							ArrayBlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(count);
 
 							int nParallelThreads = 3;
@@ -681,6 +682,7 @@ public class MediaStore extends StoreContainer {
 							if (shouldDoAudioTrackSorting(storeContainer)) {
 								sortChildrenWithAudioElements(storeContainer);
 							}
+							loadMediaStatuses(storeContainer);
 							for (int i = 0; i < storeContainer.getChildren().size(); i++) {
 								final StoreResource child = storeContainer.getChildren().get(i);
 								if (child != null) {
@@ -699,7 +701,7 @@ public class MediaStore extends StoreContainer {
 								Thread.currentThread().interrupt();
 							}
 
-							LOGGER.trace("End of analysis for " + systemName);
+							LOGGER.trace("End of analysis for {}", systemName);
 						}
 					}
 				}
@@ -851,7 +853,7 @@ public class MediaStore extends StoreContainer {
 
 			/* Optionally ignore empty directories */
 			if (file.isDirectory() && renderer.getUmsConfiguration().isHideEmptyFolders() && !FileUtil.isFolderRelevant(file, renderer.getUmsConfiguration())) {
-				LOGGER.debug("Ignoring empty/non-relevant directory: " + file.toString());
+				LOGGER.debug("Ignoring empty/non-relevant directory: {}", file);
 				return null;
 			} else if (file.isDirectory() && !"".equals(lcFilename) && !ignoredFolderNames.isEmpty() && ignoredFolderNames.contains(file.getName())) {
 				LOGGER.debug("Ignoring {} because it is in the ignored folders list", file.toString());
@@ -889,6 +891,20 @@ public class MediaStore extends StoreContainer {
 		}
 	}
 
+	/**
+	 * Loads the played status of the files of a folder together, before the
+	 * children ask for it one by one.
+	 */
+	private void loadMediaStatuses(StoreContainer storeContainer) {
+		List<String> filenames = new ArrayList<>();
+		for (StoreResource child : storeContainer.getChildren()) {
+			if (child instanceof RealFile realFile && realFile.getFile() != null) {
+				filenames.add(realFile.getFile().getAbsolutePath());
+			}
+		}
+		MediaStatusStore.loadMediaStatuses(renderer.getAccountUserId(), filenames);
+	}
+
 	/**
 	 * Check if all audio child elements belong to the same album. Here the
 	 * Album string is matched. Another more strict alternative implementation
@@ -19,11 +19,19 @@ package net.pms.store;
 import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import net.pms.database.MediaDatabase;
 import net.pms.database.MediaTableStoreIds;
+import net.pms.util.SimpleThreadFactory;
 import org.jupnp.model.types.UnsignedIntegerFourBytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,11 +41,39 @@ import org.slf4j.LoggerFactory;
  *
  * The ContentDirectory service is recommended to ensure the persistence of
  * the object’s @id property values.
+ *
+ * The ids are kept in memory once read or created, as their parent, name and
+ * type never change. Resolving a known resource or walking up the tree of a
+ * known id is then done without the database nor a lock.
+ *
+ * The update ids are counted in memory, the changes are written to the
+ * database shortly after they are made.
  */
 public class MediaStoreIds {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(MediaStoreIds.class);
-	private static final Map<Long, UnsignedIntegerFourBytes> UPDATE_IDS = new HashMap<>();
+	private static final Map<Long, UnsignedIntegerFourBytes> UPDATE_IDS = new ConcurrentHashMap<>();
+	private static final long MAX_UPDATE_ID = 4294967295L;
+	private static final AtomicLong SYSTEM_UPDATE_ID = new AtomicLong();
+	private static volatile boolean systemUpdateIdLoaded;
+
+	/**
+	 * How long the update id changes wait for the next ones before being
+	 * written, in milliseconds.
+	 */
+	private static final long WRITE_DELAY = 1000;
+	private static final Map<Long, Long> PENDING_UPDATE_IDS = new ConcurrentHashMap<>();
+	private static final Map<Long, Long> CHANGED_CONTAINERS = new ConcurrentHashMap<>();
+	private static final AtomicBoolean WRITE_SCHEDULED = new AtomicBoolean();
+	private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(new SimpleThreadFactory("Media store ids writer", true));
+
+	/**
+	 * The maximum number of ids kept in memory, the cache is emptied past it.
+	 */
+	private static final int MAX_NODES = 200000;
+	private static final Map<Long, Node> NODES = new ConcurrentHashMap<>();
+	private static final Map<String, Long> CHILD_IDS = new ConcurrentHashMap<>();
+	private static final List<ContainerUpdateListener> LISTENERS = new CopyOnWriteArrayList<>();
 
 	/**
 	 * This class is not meant to be instantiated.
@@ -45,10 +81,21 @@ public class MediaStoreIds {
 	private MediaStoreIds() {
 	}
 
-	public static synchronized Long getMediaStoreResourceId(StoreResource resource) {
+	public static Long getMediaStoreResourceId(StoreResource resource) {
 		if (resource == null) {
 			return null;
 		}
+		if (resource.getParent() != null && resource.getParent().getLongId() != null) {
+			Long id = CHILD_IDS.get(getChildKey(resource.getParent().getLongId(), resource.getSystemName()));
+			if (id != null && UPDATE_IDS.containsKey(id)) {
+				resource.setLongId(id);
+				return id;
+			}
+		}
+		return getMediaStoreResourceIdFromDb(resource);
+	}
+
+	private static synchronized Long getMediaStoreResourceIdFromDb(StoreResource resource) {
 		//parse db
 		Connection connection = null;
 		try {
@@ -58,11 +105,16 @@ public class MediaStoreIds {
 				MediaStoreId mediaStoreId = MediaTableStoreIds.getResourceMediaStoreId(connection, resource);
 				if (mediaStoreId != null) {
 					long id = mediaStoreId.getId();
+					addNode(mediaStoreId);
 					resource.setLongId(id);
 					if (mediaStoreId.getUpdateId() == 0) {
 						//brand new object : set its updateid to next systemUpdateId
-						long updateId = incrementUpdateId(id);
+						long updateId = bumpUpdateId(id);
 						mediaStoreId.setUpdateId(updateId);
+						//the parent content changed
+						if (resource.getParent() != null) {
+							notifyListeners(resource.getParent().getLongId());
+						}
 					}
 					UPDATE_IDS.put(id, new UnsignedIntegerFourBytes(mediaStoreId.getUpdateId()));
 					return id;
@@ -78,22 +130,33 @@ public class MediaStoreIds {
 		List<MediaStoreId> mediaStoreIds = new ArrayList<>();
 		Connection connection = null;
 		try {
-			connection = MediaDatabase.getConnectionIfAvailable();
-			if (connection != null) {
-				MediaStoreId mediaStoreId = MediaTableStoreIds.getMediaStoreId(connection, id);
-				if (mediaStoreId != null) {
-					mediaStoreIds.add(mediaStoreId);
-					while (mediaStoreId.getParentId() != 0) {
-						mediaStoreId = MediaTableStoreIds.getMediaStoreId(connection, mediaStoreId.getParentId());
-						mediaStoreIds.add(mediaStoreId);
-						if (mediaStoreIds.size() > 100) {
-							LOGGER.trace("MediaStore path is more than 100 entries, something was wrong");
+			long currentId = id;
+			do {
+				Node node = NODES.get(currentId);
+				if (node == null) {
+					if (connection == null) {
+						connection = MediaDatabase.getConnectionIfAvailable();
+						if (connection == null) {
 							return new ArrayList<>();
 						}
 					}
-					Collections.reverse(mediaStoreIds);
+					MediaStoreId mediaStoreId = MediaTableStoreIds.getMediaStoreId(connection, currentId);
+					if (mediaStoreId == null) {
+						if (!mediaStoreIds.isEmpty()) {
+							LOGGER.trace("MediaStore parent id {} was not found", currentId);
+						}
+						return new ArrayList<>();
+					}
+					node = addNode(mediaStoreId);
 				}
-			}
+				mediaStoreIds.add(node.toMediaStoreId(currentId));
+				if (mediaStoreIds.size() > 100) {
+					LOGGER.trace("MediaStore path is more than 100 entries, something was wrong");
+					return new ArrayList<>();
+				}
+				currentId = node.parentId;
+			} while (currentId != 0);
+			Collections.reverse(mediaStoreIds);
 		} finally {
 			MediaDatabase.close(connection);
 		}
@@ -115,6 +178,14 @@ public class MediaStoreIds {
 	}
 
 	public static String getMediaStoreNameForId(String id) {
+		try {
+			Node node = NODES.get(Long.valueOf(id));
+			if (node != null) {
+				return node.name;
+			}
+		} catch (NumberFormatException e) {
+			return null;
+		}
 		Connection connection = null;
 		try {
 			connection = MediaDatabase.getConnectionIfAvailable();
@@ -166,7 +237,9 @@ public class MediaStoreIds {
 	public static void incrementUpdateIdForFilename(Connection connection, String filename) {
 		List<Long> ids = MediaTableStoreIds.getMediaStoreIdsForName(connection, filename);
 		for (Long id : ids) {
-			incrementUpdateId(connection, id);
+			if (id != null && id != -1) {
+				bumpUpdateId(id);
+			}
 		}
 	}
 
@@ -189,29 +262,31 @@ public class MediaStoreIds {
 	 *
 	 * @return The system updated id.
 	 */
-	public static synchronized UnsignedIntegerFourBytes getSystemUpdateId() {
-		if (!UPDATE_IDS.containsKey(-1L)) {
-			UnsignedIntegerFourBytes value = null;
-			Connection connection = null;
-			try {
-				connection = MediaDatabase.getConnectionIfAvailable();
-				if (connection != null) {
-					MediaStoreId mediaStoreId = MediaTableStoreIds.getMediaStoreId(connection, -1L);
-					if (mediaStoreId != null) {
-						value = new UnsignedIntegerFourBytes(mediaStoreId.getUpdateId());
-					} else {
-						value = new UnsignedIntegerFourBytes(0);
+	public static UnsignedIntegerFourBytes getSystemUpdateId() {
+		return new UnsignedIntegerFourBytes(getSystemUpdateIdCounter().get());
+	}
+
+	private static AtomicLong getSystemUpdateIdCounter() {
+		if (!systemUpdateIdLoaded) {
+			synchronized (SYSTEM_UPDATE_ID) {
+				if (!systemUpdateIdLoaded) {
+					Connection connection = null;
+					try {
+						connection = MediaDatabase.getConnectionIfAvailable();
+						if (connection != null) {
+							MediaStoreId mediaStoreId = MediaTableStoreIds.getMediaStoreId(connection, -1L);
+							if (mediaStoreId != null) {
+								SYSTEM_UPDATE_ID.set(mediaStoreId.getUpdateId());
+							}
+						}
+					} finally {
+						MediaDatabase.close(connection);
 					}
+					systemUpdateIdLoaded = true;
 				}
-				if (value == null) {
-					value = new UnsignedIntegerFourBytes(0);
-				}
-				UPDATE_IDS.put(-1L, value);
-			} finally {
-				MediaDatabase.close(connection);
 			}
 		}
-		return UPDATE_IDS.get(-1L);
+		return SYSTEM_UPDATE_ID;
 	}
 
 	/**
@@ -219,30 +294,31 @@ public class MediaStoreIds {
 	 *
 	 * @return The object updated id.
 	 */
-	private static synchronized UnsignedIntegerFourBytes getObjectUpdateId(Long id) {
+	private static UnsignedIntegerFourBytes getObjectUpdateId(Long id) {
 		if (id == null || id == -1) {
 			return getSystemUpdateId();
 		}
-		if (!UPDATE_IDS.containsKey(id)) {
-			UnsignedIntegerFourBytes value = null;
-			Connection connection = null;
-			try {
-				connection = MediaDatabase.getConnectionIfAvailable();
-				if (connection != null) {
-					MediaStoreId mediaStoreId = MediaTableStoreIds.getMediaStoreId(connection, id);
-					if (mediaStoreId != null && mediaStoreId.getUpdateId() != 0) {
-						value = new UnsignedIntegerFourBytes(mediaStoreId.getUpdateId());
-					}
-				}
-				if (value == null) {
-					value = getSystemUpdateId();
+		UnsignedIntegerFourBytes value = UPDATE_IDS.get(id);
+		if (value != null) {
+			return value;
+		}
+		Connection connection = null;
+		try {
+			connection = MediaDatabase.getConnectionIfAvailable();
+			if (connection != null) {
+				MediaStoreId mediaStoreId = MediaTableStoreIds.getMediaStoreId(connection, id);
+				if (mediaStoreId != null && mediaStoreId.getUpdateId() != 0) {
+					value = new UnsignedIntegerFourBytes(mediaStoreId.getUpdateId());
 				}
-				UPDATE_IDS.put(id, value);
-			} finally {
-				MediaDatabase.close(connection);
 			}
+		} finally {
+			MediaDatabase.close(connection);
 		}
-		return UPDATE_IDS.get(id);
+		if (value == null) {
+			value = getSystemUpdateId();
+		}
+		UnsignedIntegerFourBytes existing = UPDATE_IDS.putIfAbsent(id, value);
+		return existing != null ? existing : value;
 	}
 
 	/**
@@ -265,7 +341,7 @@ public class MediaStoreIds {
 	 * potentially outdated and has to be refreshed.
 	 * </p>
 	 */
-	public static synchronized void incrementSystemUpdateId() {
+	public static void incrementSystemUpdateId() {
 		incrementUpdateId(null);
 	}
 
@@ -274,39 +350,151 @@ public class MediaStoreIds {
 	 *
 	 * -1 or null id mean systemUpdateId.
 	 *
+	 * The container is reported with the next ContainerUpdateIDs event.
+	 *
 	 * @param id
 	 * @return
 	 */
-	public static synchronized Long incrementUpdateId(Long id) {
-		long updateId = getSystemUpdateId().increment(false).getValue();
-		if (id != null && id != -1 && UPDATE_IDS.containsKey(id)) {
-			UPDATE_IDS.put(id, new UnsignedIntegerFourBytes(updateId));
+	public static Long incrementUpdateId(Long id) {
+		if (id == null || id == -1) {
+			long updateId = nextSystemUpdateId();
+			notifyListeners(id);
+			scheduleWrite();
+			return updateId;
+		}
+		long updateId = bumpUpdateId(id);
+		CHANGED_CONTAINERS.put(id, updateId);
+		return updateId;
+	}
+
+	/**
+	 * Gives the next system update id to an object, the change is written to
+	 * the database later.
+	 */
+	private static long bumpUpdateId(long id) {
+		long updateId = nextSystemUpdateId();
+		UPDATE_IDS.computeIfPresent(id, (key, value) -> new UnsignedIntegerFourBytes(updateId));
+		notifyListeners(id);
+		PENDING_UPDATE_IDS.put(id, updateId);
+		scheduleWrite();
+		return updateId;
+	}
+
+	private static long nextSystemUpdateId() {
+		return getSystemUpdateIdCounter().updateAndGet(value -> value >= MAX_UPDATE_ID ? 0 : value + 1);
+	}
+
+	/**
+	 * Gets and forgets the containers changed since the last call, with their
+	 * last update id.
+	 *
+	 * @return the changed container ids and update ids.
+	 */
+	public static Map<Long, Long> pollChangedContainers() {
+		Map<Long, Long> result = new TreeMap<>();
+		for (Long id : CHANGED_CONTAINERS.keySet()) {
+			Long updateId = CHANGED_CONTAINERS.remove(id);
+			if (updateId != null) {
+				result.put(id, updateId);
+			}
+		}
+		return result;
+	}
+
+	private static void scheduleWrite() {
+		if (WRITE_SCHEDULED.compareAndSet(false, true)) {
+			WRITER.schedule(MediaStoreIds::flush, WRITE_DELAY, TimeUnit.MILLISECONDS);
 		}
+	}
+
+	/**
+	 * Writes the pending update ids to the database now.
+	 */
+	public static void flush() {
+		WRITE_SCHEDULED.set(false);
 		Connection connection = null;
 		try {
 			connection = MediaDatabase.getConnectionIfAvailable();
-			if (connection != null) {
-				MediaTableStoreIds.setMediaStoreUpdateId(connection, -1, updateId);
-				if (id != null && id != -1) {
+			if (connection == null) {
+				// the pending update ids are kept for the next try
+				scheduleWrite();
+				return;
+			}
+			int written = 0;
+			for (Long id : PENDING_UPDATE_IDS.keySet()) {
+				Long updateId = PENDING_UPDATE_IDS.remove(id);
+				if (updateId != null) {
 					MediaTableStoreIds.setMediaStoreUpdateId(connection, id, updateId);
+					written++;
 				}
 			}
+			if (systemUpdateIdLoaded) {
+				MediaTableStoreIds.setMediaStoreUpdateId(connection, -1, SYSTEM_UPDATE_ID.get());
+			}
+			LOGGER.trace("Wrote {} update ids", written);
 		} finally {
 			MediaDatabase.close(connection);
 		}
-		return updateId;
 	}
 
-	private static synchronized void incrementUpdateId(Connection connection, Long id) {
-		if (id != null && id != -1) {
-			long updateId = getSystemUpdateId().increment(false).getValue();
-			if (UPDATE_IDS.containsKey(id)) {
-				UPDATE_IDS.put(id, new UnsignedIntegerFourBytes(updateId));
-			}
-			if (connection != null) {
-				MediaTableStoreIds.setMediaStoreUpdateId(connection, -1, updateId);
-				MediaTableStoreIds.setMediaStoreUpdateId(connection, id, updateId);
+	/**
+	 * Registers a listener notified each time a container update id changes.
+	 */
+	public static void addListener(ContainerUpdateListener listener) {
+		if (listener != null && !LISTENERS.contains(listener)) {
+			LISTENERS.add(listener);
+		}
+	}
+
+	private static void notifyListeners(Long id) {
+		for (ContainerUpdateListener listener : LISTENERS) {
+			listener.containerUpdated(id);
+		}
+	}
+
+	private static String getChildKey(long parentId, String name) {
+		return parentId + "/" + name;
+	}
+
+	private static Node addNode(MediaStoreId mediaStoreId) {
+		if (NODES.size() >= MAX_NODES) {
+			LOGGER.trace("MediaStore ids cache is full, emptying it");
+			NODES.clear();
+			CHILD_IDS.clear();
+		}
+		Node node = new Node(mediaStoreId.getParentId(), mediaStoreId.getName(), mediaStoreId.getObjectType());
+		NODES.put(mediaStoreId.getId(), node);
+		if (mediaStoreId.getName() != null) {
+			CHILD_IDS.put(getChildKey(mediaStoreId.getParentId(), mediaStoreId.getName()), mediaStoreId.getId());
+		}
+		return node;
+	}
+
+	/**
+	 * The unchanging part of a stored id.
+	 */
+	private static class Node {
+		private final long parentId;
+		private final String name;
+		private final String objectType;
+
+		private Node(long parentId, String name, String objectType) {
+			this.parentId = parentId;
+			this.name = name;
+			this.objectType = objectType;
+		}
+
+		private MediaStoreId toMediaStoreId(long id) {
+			MediaStoreId result = new MediaStoreId();
+			result.setId(id);
+			result.setParentId(parentId);
+			result.setName(name);
+			result.setObjectType(objectType);
+			UnsignedIntegerFourBytes updateId = UPDATE_IDS.get(id);
+			if (updateId != null) {
+				result.setUpdateId(updateId.getValue());
 			}
+			return result;
 		}
 	}
 
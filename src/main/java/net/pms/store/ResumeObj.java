@@ -27,6 +27,7 @@ import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import net.pms.PMS;
 import net.pms.configuration.UmsConfiguration;
+import net.pms.util.TempFileMgr;
 import net.pms.util.TimeRange;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -202,7 +203,7 @@ public class ResumeObj {
 				out.flush();
 				out.close();
 				if (CONFIGURATION.getResumeKeepTime() > 0) {
-					PMS.get().addTempFile(f, CONFIGURATION.getResumeKeepTime() * DAYS);
+					PMS.get().addTempFile(f, (long) CONFIGURATION.getResumeKeepTime() * DAYS, TempFileMgr.Category.RESUME);
 				}
 			}
 		} catch (IOException e) {
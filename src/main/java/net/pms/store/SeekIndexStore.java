@@ -0,0 +1,228 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.pms.configuration.FormatConfiguration;
+import net.pms.database.MediaDatabase;
+import net.pms.database.MediaTableFiles;
+import net.pms.database.MediaTableSeekIndex;
+import net.pms.media.MediaInfo;
+import net.pms.store.item.RealFile;
+import net.pms.util.LruMap;
+import net.pms.util.MpegSeekIndex;
+import net.pms.util.SimpleThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Gives the MPEG seek index of files.
+ *
+ * Indexes are kept in memory for the recently played files, and stored in the
+ * media database so they are built only once per file. Building happens in
+ * the background, callers fall back to probing the file meanwhile.
+ */
+public class SeekIndexStore {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SeekIndexStore.class);
+	private static final int MAX_ENTRIES = 64;
+	private static final Map<String, MpegSeekIndex> STORE = new LruMap<>(MAX_ENTRIES);
+	// files without seek index, with their length when the build failed
+	private static final Map<String, Long> NO_INDEX = new LruMap<>(MAX_ENTRIES);
+	private static final Set<String> BUILDING = new HashSet<>();
+	private static final ExecutorService BUILDER = Executors.newSingleThreadExecutor(new SimpleThreadFactory("Seek index builder", true));
+
+	private SeekIndexStore() {
+		//should not be instantiated
+	}
+
+	/**
+	 * Whether the item can be seeked by time without transcoding.
+	 *
+	 * @param item the item.
+	 * @return true if the item is a real file with a MPEG-TS or MPEG-PS
+	 * container.
+	 */
+	public static boolean isSeekIndexable(StoreItem item) {
+		if (item instanceof RealFile realFile && realFile.getFile() != null) {
+			MediaInfo mediaInfo = item.getMediaInfo();
+			return mediaInfo != null && (
+				FormatConfiguration.MPEGTS.equals(mediaInfo.getContainer()) ||
+				FormatConfiguration.MPEGPS.equals(mediaInfo.getContainer())
+			);
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the byte position for a time in a MPEG file.
+	 *
+	 * When the seek index is not known yet, its build is scheduled.
+	 *
+	 * @param file the MPEG file.
+	 * @param seconds the time to seek.
+	 * @return the position in bytes, or -1 if no seek index is available.
+	 */
+	public static long getPositionForTime(File file, double seconds) {
+		if (isKnownWithoutIndex(file)) {
+			return -1;
+		}
+		MpegSeekIndex seekIndex = getSeekIndex(file);
+		if (seekIndex == null) {
+			prepareSeekIndex(file);
+			return -1;
+		}
+		return seekIndex.getPosition(seconds);
+	}
+
+	/**
+	 * Schedules the build of the seek index of a file if it is not known.
+	 *
+	 * @param file the MPEG file.
+	 */
+	public static void prepareSeekIndex(File file) {
+		if (file == null || !file.isFile()) {
+			return;
+		}
+		String filename = file.getAbsolutePath();
+		synchronized (STORE) {
+			MpegSeekIndex seekIndex = STORE.get(filename);
+			if ((seekIndex != null && seekIndex.getLength() == file.length()) || isKnownWithoutIndex(file) || !BUILDING.add(filename)) {
+				return;
+			}
+		}
+		BUILDER.execute(() -> {
+			try {
+				if (getSeekIndex(file) == null) {
+					buildSeekIndex(file);
+				}
+			} finally {
+				synchronized (STORE) {
+					BUILDING.remove(filename);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Gets the known seek index of a file, from memory or from the database.
+	 *
+	 * @param file the MPEG file.
+	 * @return the seek index or null.
+	 */
+	public static MpegSeekIndex getSeekIndex(File file) {
+		if (file == null || !file.isFile()) {
+			return null;
+		}
+		String filename = file.getAbsolutePath();
+		long length = file.length();
+		synchronized (STORE) {
+			MpegSeekIndex seekIndex = STORE.get(filename);
+			if (seekIndex != null && seekIndex.getLength() == length) {
+				return seekIndex;
+			}
+		}
+		MpegSeekIndex seekIndex = null;
+		Connection connection = null;
+		try {
+			connection = MediaDatabase.getConnectionIfAvailable();
+			if (connection != null) {
+				Long fileId = MediaTableFiles.getFileId(connection, filename, file.lastModified());
+				if (fileId != null) {
+					seekIndex = MediaTableSeekIndex.getSeekIndex(connection, fileId, length);
+				}
+			}
+		} finally {
+			MediaDatabase.close(connection);
+		}
+		if (seekIndex != null) {
+			synchronized (STORE) {
+				STORE.put(filename, seekIndex);
+			}
+		}
+		return seekIndex;
+	}
+
+	/**
+	 * Whether a previous build found no seek index for the file as it is now.
+	 */
+	private static boolean isKnownWithoutIndex(File file) {
+		if (file == null) {
+			return true;
+		}
+		synchronized (STORE) {
+			Long length = NO_INDEX.get(file.getAbsolutePath());
+			return length != null && length == file.length();
+		}
+	}
+
+	private static void setWithoutIndex(File file) {
+		synchronized (STORE) {
+			NO_INDEX.put(file.getAbsolutePath(), file.length());
+		}
+	}
+
+	private static void buildSeekIndex(File file) {
+		String filename = file.getAbsolutePath();
+		MpegSeekIndex seekIndex;
+		try {
+			long start = System.currentTimeMillis();
+			seekIndex = MpegSeekIndex.build(file);
+			if (seekIndex == null) {
+				LOGGER.debug("No seek index available for \"{}\"", filename);
+				setWithoutIndex(file);
+				return;
+			}
+			LOGGER.debug("Seek index of {} entries built for \"{}\" in {} ms", seekIndex.size(), filename, System.currentTimeMillis() - start);
+		} catch (IOException e) {
+			LOGGER.debug("Error while building seek index for \"{}\": {}", filename, e.getMessage());
+			LOGGER.trace("", e);
+			setWithoutIndex(file);
+			return;
+		}
+		Connection connection = null;
+		try {
+			connection = MediaDatabase.getConnectionIfAvailable();
+			if (connection != null) {
+				Long fileId = MediaTableFiles.getFileId(connection, filename, file.lastModified());
+				if (fileId != null) {
+					MediaTableSeekIndex.setSeekIndex(connection, fileId, seekIndex);
+				}
+			}
+		} finally {
+			MediaDatabase.close(connection);
+		}
+		synchronized (STORE) {
+			STORE.put(filename, seekIndex);
+		}
+	}
+
+	public static void clear() {
+		synchronized (STORE) {
+			STORE.clear();
+			NO_INDEX.clear();
+		}
+	}
+
+}
@@ -22,6 +22,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.StringTokenizer;
 import net.pms.PMS;
+import net.pms.database.MediaDatabase;
+import net.pms.database.UnitOfWork;
 import net.pms.dlna.DLNAThumbnailInputStream;
 import net.pms.encoders.TranscodingSettings;
 import net.pms.media.MediaInfo;
@@ -280,15 +282,11 @@ public class StoreContainer extends StoreResource {
 					}
 				}
 
-				if (isNew) {
-					addChildInternal(item, isAddGlobally);
-				} else {
+				if (!isNew) {
 					LOGGER.trace("Details on media being imported :" + item);
 				}
 
-				if (resumeRes != null) {
-					addChildInternal(resumeRes);
-				}
+				addChildItemInternal(isNew ? item : null, resumeRes, isAddGlobally);
 			}
 		} catch (Throwable t) {
 			LOGGER.debug("Error adding child {}: {}", item.getName(), t);
@@ -298,6 +296,24 @@ public class StoreContainer extends StoreResource {
 		}
 	}
 
+	/**
+	 * Adds the item and its resume copy, sharing one media database connection
+	 * for their id lookups.
+	 */
+	private void addChildItemInternal(StoreItem item, StoreItem resumeRes, boolean isAddGlobally) {
+		UnitOfWork unitOfWork = MediaDatabase.beginUnitOfWork();
+		try {
+			if (item != null) {
+				addChildInternal(item, isAddGlobally);
+			}
+			if (resumeRes != null) {
+				addChildInternal(resumeRes);
+			}
+		} finally {
+			unitOfWork.close();
+		}
+	}
+
 	private void addChildContainer(StoreContainer container, boolean isNew, boolean isAddGlobally) {
 		try {
 			if (container.isValid()) {
@@ -30,6 +30,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import net.pms.Messages;
 import net.pms.PMS;
 import net.pms.configuration.FormatConfiguration;
@@ -40,6 +42,7 @@ import net.pms.dlna.DLNAThumbnail;
 import net.pms.dlna.DLNAThumbnailInputStream;
 import net.pms.encoders.Engine;
 import net.pms.encoders.HlsHelper;
+import net.pms.encoders.TranscodeScheduler;
 import net.pms.encoders.TranscodingSettings;
 import net.pms.formats.Format;
 import net.pms.formats.FormatFactory;
@@ -70,6 +73,7 @@ import net.pms.util.InputFile;
 import net.pms.util.Iso639;
 import net.pms.util.MpegUtil;
 import net.pms.util.Range;
+import net.pms.util.SimpleThreadFactory;
 import net.pms.util.SubtitleUtils;
 import net.pms.util.TimeRange;
 import org.apache.commons.lang3.StringUtils;
@@ -87,12 +91,20 @@ public abstract class StoreItem extends StoreResource {
 	private static final int STOP_PLAYING_DELAY = 4000;
 	private static final double CONTAINER_OVERHEAD = 1.04;
 
+	/**
+	 * Stores the subtitles tracks found while the media was parsing, once the
+	 * parse ends.
+	 */
+	private static final ExecutorService SUBTITLES_UPDATER = Executors.newSingleThreadExecutor(new SimpleThreadFactory("Subtitles tracks updater", true));
+
 	/**
 	 * Represents the transformation to be used to the file.
 	 */
 	private TranscodingSettings transcodingSettings;
 	private boolean skipTranscode = false;
 	private ProcessWrapper externalProcess;
+	private TranscodeSession transcodeSession;
+	private TranscodeScheduler.Slot transcodeSlot;
 
 	private Format format;
 	private int specificType;
@@ -118,8 +130,6 @@ public abstract class StoreItem extends StoreResource {
 	 */
 	private double lastStartPosition;
 
-	private double lastTimeSeek = -1.0;
-
 	private final Map<String, Integer> requestIdToRefcount = new HashMap<>();
 
 	////////////////////////////////////////////////////
@@ -757,6 +767,18 @@ public abstract class StoreItem extends StoreResource {
 
 	public abstract InputStream getInputStream() throws IOException;
 
+	/**
+	 * Gets the content from the given byte position without reading what is
+	 * before it, for items pushing their content.
+	 *
+	 * @param position the byte position to start from.
+	 * @return the stream, or {@code null} if the source cannot seek.
+	 * @throws IOException if the source cannot be read.
+	 */
+	protected InputStream getSeekableInputStream(long position) throws IOException {
+		return null;
+	}
+
 	/**
 	 * Returns an InputStream of this StoreItem that starts at a given
 	 * time, if possible. Very useful if video chapters are being used.
@@ -769,6 +791,17 @@ public abstract class StoreItem extends StoreResource {
 		return getInputStream(range, null);
 	}
 
+	/**
+	 * @return the key the transcode quota of the renderer playing this item
+	 * applies to, the logged in user when known.
+	 */
+	private String getTranscodeOwner() {
+		if (renderer.getAccountUserId() > 0) {
+			return "user:" + renderer.getAccountUserId();
+		}
+		return renderer.getId();
+	}
+
 	/**
 	 * Returns an InputStream of this StoreItem that starts at a given
 	 * time, if possible. Very useful if video chapters are being used.
@@ -779,12 +812,13 @@ public abstract class StoreItem extends StoreResource {
 	 * @throws IOException
 	 */
 	public synchronized InputStream getInputStream(Range range, HlsHelper.HlsConfiguration hlsConfiguration) throws IOException {
-		LOGGER.trace("Asked stream chunk: " + range + " of " + getName() + " and engine " + getTranscodingSettings());
+		LOGGER.trace("Asked stream chunk: {} of {} and engine {}", range, getName(), getTranscodingSettings());
 
 		boolean timeseekAuto = false;
 		// Ditlew - We convert byteoffset to timeoffset here. This needs the
 		// stream to be CBR!
 		int cbrVideoBitrate = renderer.getCBRVideoBitrate();
+		double cbrBytesPerSecond = cbrVideoBitrate > 0 ? (cbrVideoBitrate + 256) * 1024 / (double) 8 * CONTAINER_OVERHEAD : 0;
 		long low = (range instanceof ByteRange byteRange) ? byteRange.getStartOrZero() : 0;
 		long high = (range instanceof ByteRange byteRange && range.isEndLimitAvailable()) ? (long) byteRange.getEnd() : -1;
 		TimeRange timeRange = range.createTimeRange();
@@ -812,24 +846,27 @@ public abstract class StoreItem extends StoreResource {
 		if (low > 0 && mediaInfo.getBitRate() > 0) {
 			lastStartPosition = (low * 8) / (double) mediaInfo.getBitRate();
 			LOGGER.trace("Estimating seek position from byte range:");
-			LOGGER.trace("   media.getBitrate: " + mediaInfo.getBitRate());
-			LOGGER.trace("   low: " + low);
-			LOGGER.trace("   lastStartPosition: " + lastStartPosition);
+			LOGGER.trace("   media.getBitrate: {}", mediaInfo.getBitRate());
+			LOGGER.trace("   low: {}", low);
+			LOGGER.trace("   lastStartPosition: {}", lastStartPosition);
 		} else {
 			lastStartPosition = timeRange.getStartOrZero();
-			LOGGER.trace("Setting lastStartPosition from time-seeking: " + lastStartPosition);
+			LOGGER.trace("Setting lastStartPosition from time-seeking: {}", lastStartPosition);
 		}
 
 		// Determine source of the stream
 		if (!isTranscoded() && !isResume()) {
 			// No transcoding
 			if (this instanceof IPushOutput iPushOutput) {
-				PipedOutputStream out = new PipedOutputStream();
-				InputStream fis = new PipedInputStream(out);
-				iPushOutput.push(out);
-
-				if (low > 0) {
-					fis.skip(low);
+				InputStream fis = getSeekableInputStream(low);
+				if (fis == null) {
+					PipedOutputStream out = new PipedOutputStream();
+					fis = new PipedInputStream(out);
+					iPushOutput.push(out);
+
+					if (low > 0) {
+						fis.skip(low);
+					}
 				}
 
 				setLastStartSystemTime(System.currentTimeMillis());
@@ -844,8 +881,17 @@ public abstract class StoreItem extends StoreResource {
 				}
 
 				fis = wrap(fis, high, low);
-				if (timeRange.getStartOrZero() > 0 && this instanceof RealFile) {
-					fis.skip(MpegUtil.getPositionForTimeInMpeg(((RealFile) this).getFile(), (int) timeRange.getStartOrZero()));
+				boolean seekIndexable = SeekIndexStore.isSeekIndexable(this);
+				if (this instanceof RealFile realFile && seekIndexable) {
+					// get the seek index ready for the next time seeks
+					SeekIndexStore.prepareSeekIndex(realFile.getFile());
+				}
+				if (timeRange.getStartOrZero() > 0 && this instanceof RealFile realFile) {
+					long position = seekIndexable ? SeekIndexStore.getPositionForTime(realFile.getFile(), timeRange.getStartOrZero()) : -1;
+					if (position < 0) {
+						position = MpegUtil.getPositionForTimeInMpeg(realFile.getFile(), (int) timeRange.getStartOrZero());
+					}
+					fis.skip(position);
 				}
 			}
 
@@ -878,75 +924,93 @@ public abstract class StoreItem extends StoreResource {
 			}
 		}
 
-		if (System.currentTimeMillis() - lastStartSystemTime < 500) {
-			try {
-				Thread.sleep(500);
-			} catch (InterruptedException e) {
-				LOGGER.error(null, e);
-				Thread.currentThread().interrupt();
+		// Serve the request from the running transcode when it already covers it
+		boolean reuseSession = false;
+		if (hlsConfiguration == null && transcodeSession != null && transcodeSession.isAlive()) {
+			if (params.getTimeSeek() > 0 && mediaInfo != null && mediaInfo.isMediaParsed() && mediaInfo.getDurationInSeconds() > 0) {
+				if (transcodeSession.isDuplicateSeek(params.getTimeSeek())) {
+					LOGGER.debug("Duplicate time seek request: {} seconds, reusing the running process", params.getTimeSeek());
+					reuseSession = true;
+				} else {
+					long offset = transcodeSession.getOffsetForTime(params.getTimeSeek());
+					if (offset >= 0) {
+						LOGGER.debug("Time seek request: {} seconds is inside the transcoded window, reading from {}", params.getTimeSeek(), offset);
+						low = offset;
+						reuseSession = true;
+					}
+				}
+			} else {
+				reuseSession = true;
 			}
 		}
 
 		// (Re)start transcoding process if necessary
-		if (externalProcess == null || externalProcess.isDestroyed() || hlsConfiguration != null) {
-			// First playback attempt => start new transcoding process
-			LOGGER.debug("Starting transcode/remux of " + getName() + " with media info: " + mediaInfo);
-			setLastStartSystemTime(System.currentTimeMillis());
-
-			if (params.getTimeSeek() > 0) {
-				// This must be a resume - so need to set lastTimeSeek to avoid a restart of the process
-				// from a new seek request to the same resume point
-				LOGGER.debug("Setting last time seek (from resume) to: " + params.getTimeSeek() + " seconds");
-				lastTimeSeek = params.getTimeSeek();
-			}
-
-			externalProcess = getTranscodingSettings().getEngine().launchTranscode(this, mediaInfo, params);
-			if (params.getWaitBeforeStart() > 0) {
-				LOGGER.trace("Sleeping for {} milliseconds", params.getWaitBeforeStart());
+		if (!reuseSession) {
+			long sinceLastStart = System.currentTimeMillis() - lastStartSystemTime;
+			if (sinceLastStart < 500) {
+				// Let bursts of requests settle before launching a process
 				try {
-					Thread.sleep(params.getWaitBeforeStart());
+					Thread.sleep(500 - sinceLastStart);
 				} catch (InterruptedException e) {
 					LOGGER.error(null, e);
 					Thread.currentThread().interrupt();
 				}
-
-				LOGGER.trace("Finished sleeping for " + params.getWaitBeforeStart() + " milliseconds");
 			}
-		} else if (params.getTimeSeek() > 0 && mediaInfo != null && mediaInfo.isMediaParsed() && mediaInfo.getDurationInSeconds() > 0) {
-
-			// Time seek request => stop running transcode process and start a new one
-			LOGGER.debug("Requesting time seek: " + params.getTimeSeek() + " seconds");
-
-			if (lastTimeSeek == params.getTimeSeek()) {
-				LOGGER.debug("Duplicate time seek request: " + params.getTimeSeek() + " seconds, ignoring");
-			} else {
-
-				LOGGER.debug("Setting last time seek to: " + params.getTimeSeek() + " seconds");
-				lastTimeSeek = params.getTimeSeek();
 
+			if (hlsConfiguration == null && transcodeSession != null && transcodeSession.isAlive()) {
+				// Time seek request outside the transcoded window => stop running transcode process and start a new one
+				LOGGER.debug("Requesting time seek: {} seconds", params.getTimeSeek());
 				params.setMinBufferSize(1);
+				if (!transcodeSession.isShared(renderer.getId())) {
+					ProcessWrapper oldProcess = transcodeSession.getProcess();
+					new Thread(oldProcess::stopProcess, "External Process Stopper").start();
+					if (transcodeSlot != null) {
+						transcodeSlot.close();
+						transcodeSlot = null;
+					}
+				}
+			}
+			setLastStartSystemTime(System.currentTimeMillis());
 
-				Runnable r = () -> {
-					externalProcess.stopProcess();
-				};
-
-				new Thread(r, "External Process Stopper").start();
-
-				setLastStartSystemTime(System.currentTimeMillis());
-				ProcessWrapper newExternalProcess = getTranscodingSettings().getEngine().launchTranscode(this, mediaInfo, params);
-
+			// Join an identical transcode already running for another renderer
+			String sharingKey = TranscodeSessionStore.getSharingKey(this, params);
+			TranscodeSession sharedSession = TranscodeSessionStore.getSession(sharingKey, low);
+			if (sharedSession != null) {
+				LOGGER.debug("Sharing running transcode/remux of {}", getName());
+				transcodeSession = sharedSession;
+				externalProcess = sharedSession.getProcess();
+			} else {
+				// Throws when the server stays saturated, the renderer gets an error it can retry
+				TranscodeScheduler.Slot slot = TranscodeScheduler.acquireInteractive(getTranscodeOwner());
+				LOGGER.debug("Starting transcode/remux of {} with media info: {}", getName(), mediaInfo);
+				try {
+					externalProcess = getTranscodingSettings().getEngine().launchTranscode(this, mediaInfo, params);
+				} catch (IOException | RuntimeException e) {
+					slot.close();
+					throw e;
+				}
+				if (externalProcess == null) {
+					LOGGER.trace("External process instance is null... sounds not good");
+					slot.close();
+					return null;
+				}
+				slot.attach(externalProcess);
+				if (hlsConfiguration == null) {
+					transcodeSlot = slot;
+				}
+				transcodeSession = new TranscodeSession(externalProcess, params.getTimeSeek(), cbrBytesPerSecond);
+				TranscodeSessionStore.putSession(sharingKey, transcodeSession);
+			}
+			if (sharedSession == null && params.getWaitBeforeStart() > 0) {
+				LOGGER.trace("Sleeping for {} milliseconds", params.getWaitBeforeStart());
 				try {
-					Thread.sleep(1000);
+					Thread.sleep(params.getWaitBeforeStart());
 				} catch (InterruptedException e) {
 					LOGGER.error(null, e);
 					Thread.currentThread().interrupt();
 				}
 
-				if (newExternalProcess == null) {
-					LOGGER.trace("External process instance is null... sounds not good");
-				}
-
-				externalProcess = newExternalProcess;
+				LOGGER.trace("Finished sleeping for {} milliseconds", params.getWaitBeforeStart());
 			}
 		}
 
@@ -956,13 +1020,17 @@ public abstract class StoreItem extends StoreResource {
 
 		InputStream is = null;
 		int timer = 0;
-		while (is == null && timer < 10) {
-			is = externalProcess.getInputStream(low);
+		while (is == null && timer < 50) {
+			if (transcodeSession != null && transcodeSession.getProcess() == externalProcess) {
+				is = transcodeSession.getInputStream(renderer.getId(), low);
+			} else {
+				is = externalProcess.getInputStream(low);
+			}
 			timer++;
 			if (is == null) {
-				LOGGER.debug("External input stream instance is null... sounds not good, waiting 500ms");
+				LOGGER.trace("External input stream instance is not ready yet, waiting 100ms");
 				try {
-					Thread.sleep(500);
+					Thread.sleep(100);
 				} catch (InterruptedException e) {
 					Thread.currentThread().interrupt();
 				}
@@ -1002,7 +1070,7 @@ public abstract class StoreItem extends StoreResource {
 	public static InputStream wrap(InputStream input, long high, long low) {
 		if (input != null && high > low) {
 			long bytes = (high - (low < 0 ? 0 : low)) + 1;
-			LOGGER.trace("Using size-limiting stream (" + bytes + " bytes)");
+			LOGGER.trace("Using size-limiting stream ({} bytes)", bytes);
 			return new SizeLimitInputStream(input, bytes);
 		}
 
@@ -1351,6 +1419,26 @@ public abstract class StoreItem extends StoreResource {
 		}
 	}
 
+	/**
+	 * Queues the generation of a missing video thumbnail in the
+	 * {@link ThumbnailGenerator}, when nobody is waiting for it yet.
+	 *
+	 * @param inputFile File to generate the thumbnail for.
+	 */
+	protected void queueThumbnail(InputFile inputFile) {
+		if (getType() != Format.VIDEO || isResume()) {
+			checkThumbnail(inputFile);
+			return;
+		}
+		if (mediaInfo != null &&
+				!mediaInfo.isThumbnailReady() &&
+				renderer.getUmsConfiguration().isThumbnailGenerationEnabled() &&
+				renderer.isThumbnails()) {
+			String folder = getParent() != null ? getParent().getSystemName() : null;
+			ThumbnailGenerator.enqueue(folder, mediaInfo, inputFile, getFormat(), getType());
+		}
+	}
+
 	/**
 	 * Returns the input stream for this resource's generic thumbnail, which is
 	 * the first of:
@@ -1496,36 +1584,17 @@ public abstract class StoreItem extends StoreResource {
 			if (!renderer.getUmsConfiguration().isDisableSubtitles() && renderer.getUmsConfiguration().isAutoloadExternalSubtitles()) {
 				boolean changed = SubtitleUtils.searchAndAttachExternalSubtitles(file, mediaInfo, forceRefresh);
 				// update the database if enabled
-				if (changed && mediaInfo.isMediaParsed() && !mediaInfo.isParsing()) {
-					Connection connection = null;
-					try {
-						connection = MediaDatabase.getConnectionIfAvailable();
-						if (connection != null) {
-							//handle autocommit
-							boolean currentAutoCommit = connection.getAutoCommit();
-							if (currentAutoCommit) {
-								connection.setAutoCommit(false);
-							}
-							MediaTableSubtracks.insertOrUpdateSubtitleTracks(connection, mediaInfo.getFileId(), mediaInfo);
-							if (currentAutoCommit) {
-								connection.commit();
-								connection.setAutoCommit(true);
-							}
-						}
-					} catch (SQLException e) {
-						LOGGER.error("Database error while trying to add parsed information for \"{}\" to the cache: {}", file,
-								e.getMessage());
-						if (LOGGER.isTraceEnabled()) {
-							LOGGER.trace("SQL error code: {}", e.getErrorCode());
-							if (e.getCause() instanceof SQLException &&
-									((SQLException) e.getCause()).getErrorCode() != e.getErrorCode()) {
-								LOGGER.trace("Cause SQL error code: {}", ((SQLException) e.getCause()).getErrorCode());
-							}
-							LOGGER.trace("", e);
-						}
-					} finally {
-						MediaDatabase.close(connection);
+				if (changed && !mediaInfo.isParsing()) {
+					if (mediaInfo.isMediaParsed()) {
+						updateSubtitleTracks(file, mediaInfo);
 					}
+				} else if (changed) {
+					// update once the running parser has stored the media
+					mediaInfo.whenParsed().thenAcceptAsync(parsedMediaInfo -> {
+						if (parsedMediaInfo.isMediaParsed()) {
+							updateSubtitleTracks(file, parsedMediaInfo);
+						}
+					}, SUBTITLES_UPDATER);
 				}
 			}
 
@@ -1544,6 +1613,38 @@ public abstract class StoreItem extends StoreResource {
 		}
 	}
 
+	private static void updateSubtitleTracks(File file, MediaInfo mediaInfo) {
+		Connection connection = null;
+		try {
+			connection = MediaDatabase.getConnectionIfAvailable();
+			if (connection != null) {
+				//handle autocommit
+				boolean currentAutoCommit = connection.getAutoCommit();
+				if (currentAutoCommit) {
+					connection.setAutoCommit(false);
+				}
+				MediaTableSubtracks.insertOrUpdateSubtitleTracks(connection, mediaInfo.getFileId(), mediaInfo);
+				if (currentAutoCommit) {
+					connection.commit();
+					connection.setAutoCommit(true);
+				}
+			}
+		} catch (SQLException e) {
+			LOGGER.error("Database error while trying to add parsed information for \"{}\" to the cache: {}", file,
+					e.getMessage());
+			if (LOGGER.isTraceEnabled()) {
+				LOGGER.trace("SQL error code: {}", e.getErrorCode());
+				if (e.getCause() instanceof SQLException &&
+						((SQLException) e.getCause()).getErrorCode() != e.getErrorCode()) {
+					LOGGER.trace("Cause SQL error code: {}", ((SQLException) e.getCause()).getErrorCode());
+				}
+				LOGGER.trace("", e);
+			}
+		} finally {
+			MediaDatabase.close(connection);
+		}
+	}
+
 	/**
 	 * Sets external subtitles parsed status to true and sets
 	 * {@link #hasSubtitles} and {@link #hasExternalSubtitles} according to the
@@ -0,0 +1,232 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.store;
+
+import com.ibm.icu.text.CharsetMatch;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import net.pms.PMS;
+import net.pms.database.MediaDatabase;
+import net.pms.database.MediaTableSubtitleAnalysis;
+import net.pms.formats.v2.SubtitleType;
+import net.pms.media.subtitle.SubtitleAnalysis;
+import net.pms.util.FileUtil;
+import net.pms.util.LruMap;
+import net.pms.util.SimpleThreadFactory;
+import net.pms.util.StringUtil.LetterCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Gives the charset, language and type of external subtitles files.
+ *
+ * The charset detection reads the whole file, so it runs once per file
+ * version: the analyses are kept in memory for the recently used files and
+ * stored in the media database, keyed by path and checked against the file
+ * size and modification time. The subtitles found while scanning a folder
+ * are analyzed in the background.
+ */
+public class SubtitleAnalysisStore {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SubtitleAnalysisStore.class);
+	private static final int MAX_ENTRIES = 1024;
+	private static final Map<String, SubtitleAnalysis> STORE = new LruMap<>(MAX_ENTRIES);
+	private static final Map<String, CompletableFuture<SubtitleAnalysis>> ANALYZING = new HashMap<>();
+	private static final ExecutorService ANALYZER = Executors.newSingleThreadExecutor(new SimpleThreadFactory("Subtitle analyzer", true));
+
+	private SubtitleAnalysisStore() {
+		//should not be instantiated
+	}
+
+	/**
+	 * Schedules the analysis of a subtitles file if it is not known.
+	 *
+	 * @param file the subtitles file.
+	 */
+	public static void prepareAnalysis(File file) {
+		if (file == null) {
+			return;
+		}
+		String filename = file.getAbsolutePath();
+		synchronized (STORE) {
+			SubtitleAnalysis analysis = STORE.get(filename);
+			if ((analysis != null && analysis.isValidFor(file)) || ANALYZING.containsKey(filename)) {
+				return;
+			}
+		}
+		ANALYZER.execute(() -> getAnalysis(file));
+	}
+
+	/**
+	 * Gets the analysis of a subtitles file, analyzing it if it is not known.
+	 *
+	 * @param file the subtitles file.
+	 * @return the analysis, or {@code null} if the file can't be read.
+	 */
+	public static SubtitleAnalysis getAnalysis(File file) {
+		if (file == null || !file.isFile()) {
+			return null;
+		}
+		String filename = file.getAbsolutePath();
+		CompletableFuture<SubtitleAnalysis> analyzing;
+		boolean analyze = false;
+		synchronized (STORE) {
+			SubtitleAnalysis analysis = STORE.get(filename);
+			if (analysis != null && analysis.isValidFor(file)) {
+				return analysis;
+			}
+			analyzing = ANALYZING.get(filename);
+			if (analyzing == null) {
+				analyzing = new CompletableFuture<>();
+				ANALYZING.put(filename, analyzing);
+				analyze = true;
+			}
+		}
+		if (!analyze) {
+			// the same file is analyzed by another thread
+			return analyzing.join();
+		}
+		SubtitleAnalysis analysis = null;
+		try {
+			analysis = getStoredAnalysis(file);
+			if (analysis == null) {
+				analysis = analyze(file);
+				if (analysis != null) {
+					storeAnalysis(filename, analysis);
+				}
+			}
+			return analysis;
+		} finally {
+			synchronized (STORE) {
+				if (analysis != null) {
+					STORE.put(filename, analysis);
+				}
+				ANALYZING.remove(filename);
+			}
+			analyzing.complete(analysis);
+		}
+	}
+
+	/**
+	 * Gets the {@code UTF-8} copy of an {@code UTF-16} subtitles file,
+	 * converting it only if the file changed since the last conversion.
+	 *
+	 * The copy is named after the path, size and modification time of the
+	 * file, so subtitles files with the same name in different folders and
+	 * the versions of one file get their own copies.
+	 *
+	 * @param file the {@code UTF-16} subtitles file.
+	 * @return the {@code UTF-8} copy.
+	 * @throws IOException if the conversion fails.
+	 */
+	public static File getUtf8File(File file) throws IOException {
+		File outputFile = new File(PMS.getConfiguration().getTempFolder(), getUtf8FileName(file));
+		SubtitleAnalysis analysis = getAnalysis(file);
+		File convertedFile = analysis == null ? null : analysis.getConvertedFile();
+		if (outputFile.equals(convertedFile)) {
+			return convertedFile;
+		}
+		if (outputFile.exists() && !outputFile.delete()) {
+			LOGGER.debug("Cannot delete the outdated converted subtitles \"{}\"", outputFile);
+		}
+		FileUtil.convertFileFromUtf16ToUtf8(file, outputFile);
+		if (analysis != null && outputFile.isFile()) {
+			if (convertedFile != null && !convertedFile.delete()) {
+				LOGGER.debug("Cannot delete the outdated converted subtitles \"{}\"", convertedFile);
+			}
+			analysis.setConvertedFile(outputFile);
+			storeAnalysis(file.getAbsolutePath(), analysis);
+		}
+		return outputFile;
+	}
+
+	public static void clear() {
+		synchronized (STORE) {
+			STORE.clear();
+		}
+	}
+
+	private static SubtitleAnalysis getStoredAnalysis(File file) {
+		Connection connection = null;
+		try {
+			connection = MediaDatabase.getConnectionIfAvailable();
+			if (connection != null) {
+				SubtitleAnalysis analysis = MediaTableSubtitleAnalysis.getAnalysis(connection, file.getAbsolutePath());
+				if (analysis != null && analysis.isValidFor(file)) {
+					return analysis;
+				}
+			}
+		} finally {
+			MediaDatabase.close(connection);
+		}
+		return null;
+	}
+
+	private static void storeAnalysis(String filename, SubtitleAnalysis analysis) {
+		Connection connection = null;
+		try {
+			connection = MediaDatabase.getConnectionIfAvailable();
+			if (connection != null) {
+				MediaTableSubtitleAnalysis.setAnalysis(connection, filename, analysis);
+			}
+		} finally {
+			MediaDatabase.close(connection);
+		}
+	}
+
+	private static String getUtf8FileName(File file) {
+		CRC32 crc = new CRC32();
+		crc.update((file.getAbsolutePath() + "|" + file.length() + "|" + file.lastModified()).getBytes(StandardCharsets.UTF_8));
+		return String.format("utf8_%08x_%s", crc.getValue(), file.getName());
+	}
+
+	private static SubtitleAnalysis analyze(File file) {
+		long fileSize = file.length();
+		long modified = file.lastModified();
+		SubtitleType type = SubtitleType.valueOfFileExtension(FileUtil.getExtension(file.getPath(), LetterCase.LOWER, Locale.ROOT));
+		String charset = null;
+		int confidence = 0;
+		String language = null;
+		if (!type.isPicture()) {
+			try {
+				long start = System.currentTimeMillis();
+				CharsetMatch match = FileUtil.getFileCharsetMatch(file);
+				if (match != null) {
+					charset = match.getName();
+					confidence = match.getConfidence();
+					language = match.getLanguage();
+				}
+				LOGGER.trace("Subtitles \"{}\" analyzed in {} ms", file, System.currentTimeMillis() - start);
+			} catch (IOException e) {
+				LOGGER.warn("Exception during external file charset detection: {}", e.getMessage());
+				LOGGER.trace("", e);
+				return null;
+			}
+		}
+		return new SubtitleAnalysis(fileSize, modified, charset, confidence, language, type, null);
+	}
+
+}
@@ -0,0 +1,238 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.store;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import net.pms.dlna.DLNAThumbnail;
+import net.pms.formats.Format;
+import net.pms.media.MediaInfo;
+import net.pms.parsers.Parser;
+import net.pms.util.InputFile;
+import net.pms.util.SimpleThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates the video thumbnails in the background.
+ *
+ * The pending thumbnails are queued by folder, and a few workers handle the
+ * most recently browsed folder first. The results are available in memory
+ * as soon as they are generated and are stored in the database in batches.
+ */
+public class ThumbnailGenerator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThumbnailGenerator.class);
+	private static final int MAX_WORKERS = 2;
+	private static final int BATCH_SIZE = 20;
+
+	/**
+	 * How many times a thumbnail is tried, FFmpeg gives none when no
+	 * background slot became free in time.
+	 */
+	private static final int MAX_ATTEMPTS = 3;
+
+	/**
+	 * The delay before the next try of a thumbnail, multiplied by the number
+	 * of tries so far, in milliseconds.
+	 */
+	private static final long RETRY_DELAY = 30000;
+
+	/**
+	 * The pending thumbnails by folder, the last folder has the priority.
+	 */
+	private static final LinkedHashMap<String, LinkedHashMap<String, Task>> PENDING = new LinkedHashMap<>();
+	private static final Map<MediaInfo, DLNAThumbnail> GENERATED = new LinkedHashMap<>();
+	private static final ExecutorService WORKERS = Executors.newFixedThreadPool(MAX_WORKERS, new SimpleThreadFactory("Thumbnail generator", true));
+	private static final ScheduledExecutorService RETRIES = Executors.newSingleThreadScheduledExecutor(new SimpleThreadFactory("Thumbnail generator retries", true));
+	private static int runningWorkers;
+
+	private ThumbnailGenerator() {
+		//should not be instantiated
+	}
+
+	/**
+	 * Queues the thumbnail generation of a file.
+	 *
+	 * @param folder the folder the file is browsed from.
+	 * @param mediaInfo the parsed media of the file.
+	 * @param inputFile the file.
+	 * @param format the format of the file.
+	 * @param type the media type of the file.
+	 */
+	public static void enqueue(String folder, MediaInfo mediaInfo, InputFile inputFile, Format format, int type) {
+		if (mediaInfo == null || inputFile == null || inputFile.getFile() == null) {
+			return;
+		}
+		enqueue(new Task(folder, mediaInfo, inputFile, format, type));
+	}
+
+	private static void enqueue(Task task) {
+		String key = task.inputFile.getFile().getAbsolutePath();
+		synchronized (PENDING) {
+			LinkedHashMap<String, Task> tasks = PENDING.remove(task.folder);
+			if (tasks == null) {
+				tasks = new LinkedHashMap<>();
+			}
+			tasks.putIfAbsent(key, task);
+			PENDING.put(task.folder, tasks);
+			if (runningWorkers < MAX_WORKERS) {
+				runningWorkers++;
+				WORKERS.execute(ThumbnailGenerator::work);
+			}
+		}
+	}
+
+	/**
+	 * Gives the priority to the thumbnails of a folder a renderer is
+	 * browsing.
+	 *
+	 * @param folder the browsed folder.
+	 */
+	public static void prioritize(String folder) {
+		synchronized (PENDING) {
+			LinkedHashMap<String, Task> tasks = PENDING.remove(folder);
+			if (tasks != null) {
+				PENDING.put(folder, tasks);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of thumbnails waiting for generation.
+	 */
+	public static int getPendingCount() {
+		synchronized (PENDING) {
+			int count = 0;
+			for (LinkedHashMap<String, Task> tasks : PENDING.values()) {
+				count += tasks.size();
+			}
+			return count;
+		}
+	}
+
+	private static void work() {
+		Task task;
+		while ((task = next()) != null) {
+			generate(task);
+		}
+		flush();
+	}
+
+	/**
+	 * Gets the next task, or ends the worker when there is none left.
+	 */
+	private static Task next() {
+		synchronized (PENDING) {
+			Map.Entry<String, LinkedHashMap<String, Task>> lastFolder = null;
+			for (Map.Entry<String, LinkedHashMap<String, Task>> folder : PENDING.entrySet()) {
+				lastFolder = folder;
+			}
+			if (lastFolder == null) {
+				runningWorkers--;
+				return null;
+			}
+			Iterator<Task> tasks = lastFolder.getValue().values().iterator();
+			Task task = tasks.next();
+			tasks.remove();
+			if (!tasks.hasNext()) {
+				PENDING.remove(lastFolder.getKey());
+			}
+			return task;
+		}
+	}
+
+	private static void generate(Task task) {
+		MediaInfo mediaInfo = task.mediaInfo;
+		try {
+			// the duration is needed for the seek position
+			mediaInfo.waitMediaParsing(5);
+			if (mediaInfo.isThumbnailReady()) {
+				// already generated for a thumbnail request
+				return;
+			}
+			DLNAThumbnail thumbnail = Parser.getThumbnail(mediaInfo, task.inputFile, task.format, task.type, null);
+			if (thumbnail == null) {
+				retry(task);
+				return;
+			}
+			// usable right away, stored with the next batch
+			mediaInfo.setThumbnailId(ThumbnailStore.getTempId(thumbnail));
+			boolean full;
+			synchronized (GENERATED) {
+				GENERATED.put(mediaInfo, thumbnail);
+				full = GENERATED.size() >= BATCH_SIZE;
+			}
+			if (full) {
+				flush();
+			}
+		} catch (RuntimeException e) {
+			// keep the worker running
+			LOGGER.debug("Error generating the thumbnail of \"{}\": {}", task.inputFile.getFile(), e.getMessage());
+			LOGGER.trace("", e);
+		}
+	}
+
+	/**
+	 * Queues a task again later, the transcode slots may all be used by
+	 * playback meanwhile.
+	 */
+	private static void retry(Task task) {
+		task.attempts++;
+		if (task.attempts >= MAX_ATTEMPTS) {
+			LOGGER.debug("No thumbnail generated for \"{}\" after {} tries", task.inputFile.getFile(), task.attempts);
+			return;
+		}
+		RETRIES.schedule(() -> enqueue(task), RETRY_DELAY * task.attempts, TimeUnit.MILLISECONDS);
+	}
+
+	private static void flush() {
+		Map<MediaInfo, DLNAThumbnail> batch;
+		synchronized (GENERATED) {
+			if (GENERATED.isEmpty()) {
+				return;
+			}
+			batch = new LinkedHashMap<>(GENERATED);
+			GENERATED.clear();
+		}
+		LOGGER.trace("Storing {} generated thumbnails", batch.size());
+		ThumbnailStore.setThumbnails(batch);
+	}
+
+	private static class Task {
+		private final String folder;
+		private final MediaInfo mediaInfo;
+		private final InputFile inputFile;
+		private final Format format;
+		private final int type;
+		private int attempts;
+
+		private Task(String folder, MediaInfo mediaInfo, InputFile inputFile, Format format, int type) {
+			this.folder = folder;
+			this.mediaInfo = mediaInfo;
+			this.inputFile = inputFile;
+			this.format = format;
+			this.type = type;
+		}
+	}
+
+}
@@ -18,6 +18,7 @@ package net.pms.store;
 
 import java.lang.ref.WeakReference;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
 import net.pms.database.MediaDatabase;
@@ -26,9 +27,13 @@ import net.pms.database.MediaTableTVSeries;
 import net.pms.database.MediaTableThumbnails;
 import net.pms.dlna.DLNAThumbnail;
 import net.pms.dlna.DLNAThumbnailInputStream;
+import net.pms.media.MediaInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class ThumbnailStore {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThumbnailStore.class);
 	private static final Map<Long, WeakReference<DLNAThumbnail>> STORE = new HashMap<>();
 
 	private static Long tempId = Long.MAX_VALUE;
@@ -75,6 +80,56 @@ public class ThumbnailStore {
 		return id;
 	}
 
+	/**
+	 * Stores generated thumbnails in one transaction, links them to their
+	 * files and sets their ids on the media.
+	 *
+	 * @param thumbnails the thumbnails by media.
+	 */
+	public static void setThumbnails(Map<MediaInfo, DLNAThumbnail> thumbnails) {
+		if (thumbnails == null || thumbnails.isEmpty()) {
+			return;
+		}
+		Connection connection = null;
+		try {
+			connection = MediaDatabase.getConnectionIfAvailable();
+			if (connection == null) {
+				for (Map.Entry<MediaInfo, DLNAThumbnail> entry : thumbnails.entrySet()) {
+					entry.getKey().setThumbnailId(getTempId(entry.getValue()));
+				}
+				return;
+			}
+			boolean currentAutoCommit = connection.getAutoCommit();
+			if (currentAutoCommit) {
+				connection.setAutoCommit(false);
+			}
+			for (Map.Entry<MediaInfo, DLNAThumbnail> entry : thumbnails.entrySet()) {
+				MediaInfo mediaInfo = entry.getKey();
+				Long id = MediaTableThumbnails.setThumbnail(connection, entry.getValue());
+				if (id == null) {
+					continue;
+				}
+				// only the memory store is locked, not the database writes
+				synchronized (STORE) {
+					STORE.put(id, new WeakReference<>(entry.getValue()));
+				}
+				if (mediaInfo.getFileId() != null && mediaInfo.getThumbnailSource() != null) {
+					MediaTableFiles.updateThumbnailId(connection, mediaInfo.getFileId(), id, mediaInfo.getThumbnailSource().toString());
+				}
+				mediaInfo.setThumbnailId(id);
+			}
+			if (currentAutoCommit) {
+				connection.commit();
+				connection.setAutoCommit(true);
+			}
+		} catch (SQLException e) {
+			LOGGER.error("Database error while storing {} thumbnails: {}", thumbnails.size(), e.getMessage());
+			LOGGER.trace("", e);
+		} finally {
+			MediaDatabase.close(connection);
+		}
+	}
+
 	public static Long getIdForTvSeries(DLNAThumbnail thumbnail, long tvSeriesId, ThumbnailSource thumbnailSource) {
 		Long id = getId(thumbnail);
 		if (id != null) {
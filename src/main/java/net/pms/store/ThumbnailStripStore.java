@@ -0,0 +1,123 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.store;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.pms.dlna.DLNAThumbnail;
+import net.pms.parsers.FFmpegParser;
+import net.pms.util.LruMap;
+
+/**
+ * Keeps the thumbnails taken at regular intervals of a video, used for the
+ * virtual chapters and the web player seek previews.
+ *
+ * All the thumbnails of a video are extracted together by one FFmpeg
+ * process, and the most recently used strips are kept in memory.
+ */
+public class ThumbnailStripStore {
+
+	private static final int MAX_STRIPS = 8;
+
+	/**
+	 * The maximum number of thumbnails in a strip, each one is an input of
+	 * the FFmpeg process.
+	 */
+	public static final int MAX_THUMBNAILS = 48;
+
+	private static final Map<String, List<DLNAThumbnail>> STRIPS = new LruMap<>(MAX_STRIPS);
+	private static final Map<String, Object> LOCKS = new HashMap<>();
+
+	private ThumbnailStripStore() {
+		//should not be instantiated
+	}
+
+	/**
+	 * Gets the thumbnail at a position of a strip.
+	 *
+	 * @param file the video file.
+	 * @param duration the duration of the video in seconds.
+	 * @param interval the interval between the thumbnails in seconds.
+	 * @param position the position in seconds.
+	 * @return the thumbnail of the interval containing the position, or
+	 *         {@code null} if it is not in the strip.
+	 */
+	public static DLNAThumbnail getThumbnail(File file, double duration, double interval, double position) {
+		List<DLNAThumbnail> strip = getStrip(file, duration, interval);
+		int index = (int) (position / interval);
+		return index >= 0 && index < strip.size() ? strip.get(index) : null;
+	}
+
+	/**
+	 * Gets the thumbnails of a video, extracting them on first use.
+	 *
+	 * @param file the video file.
+	 * @param duration the duration of the video in seconds.
+	 * @param interval the interval between the thumbnails in seconds.
+	 * @return the thumbnails from the start of the video, empty if they can't
+	 *         be extracted.
+	 */
+	public static List<DLNAThumbnail> getStrip(File file, double duration, double interval) {
+		if (file == null || duration <= 0 || interval <= 0) {
+			return Collections.emptyList();
+		}
+		String key = file.getAbsolutePath() + "|" + file.lastModified() + "|" + interval;
+		Object lock;
+		synchronized (STRIPS) {
+			List<DLNAThumbnail> strip = STRIPS.get(key);
+			if (strip != null) {
+				return strip;
+			}
+			lock = LOCKS.computeIfAbsent(key, k -> new Object());
+		}
+		// one extraction per strip, other requests wait for it
+		synchronized (lock) {
+			try {
+				synchronized (STRIPS) {
+					List<DLNAThumbnail> strip = STRIPS.get(key);
+					if (strip != null) {
+						return strip;
+					}
+				}
+				int count = (int) Math.min(MAX_THUMBNAILS, Math.ceil(duration / interval));
+				double[] positions = new double[count];
+				for (int i = 0; i < count; i++) {
+					// stay away from the end, there is no frame after the last key frame
+					positions[i] = Math.min(i * interval, Math.max(0, duration - 5));
+				}
+				List<DLNAThumbnail> strip = FFmpegParser.getThumbnailStrip(file, positions);
+				if (strip == null) {
+					// not cached, the extraction may succeed once a slot is free
+					return Collections.emptyList();
+				}
+				strip = Collections.unmodifiableList(strip);
+				synchronized (STRIPS) {
+					STRIPS.put(key, strip);
+				}
+				return strip;
+			} finally {
+				synchronized (STRIPS) {
+					LOCKS.remove(key);
+				}
+			}
+		}
+	}
+
+}
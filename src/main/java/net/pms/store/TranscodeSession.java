@@ -0,0 +1,199 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import net.pms.io.BufferedOutputFileImpl;
+import net.pms.io.ProcessWrapper;
+import net.pms.io.ProcessWrapperImpl;
+
+/**
+ * A running transcode of an item and the output window it already produced.
+ *
+ * The output is kept in the circular buffer of the process, so a request for
+ * a time or byte position which is still in that buffer, or not far ahead of
+ * what was written, can be served by the running process instead of starting
+ * a new one.
+ */
+public class TranscodeSession {
+
+	/**
+	 * Time seeks closer than this to the session start are duplicates.
+	 */
+	private static final double DUPLICATE_SEEK_TOLERANCE = 1.0;
+
+	/**
+	 * How far ahead of the written output a seek can be and still wait for
+	 * the running process.
+	 */
+	private static final int LOOKAHEAD_SECONDS = 10;
+
+	/**
+	 * Part of the circular buffer considered safe to read back, the start of
+	 * it may be overwritten at any time.
+	 */
+	private static final double BUFFER_SAFE_RATIO = 0.8;
+
+	private final ProcessWrapper process;
+	private final double timeSeek;
+	private final double bytesPerSecond;
+	private final long startSystemTime;
+	private final Map<InputStream, String> readers = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * @param process the transcode process.
+	 * @param timeSeek the start time of the output in seconds.
+	 * @param bytesPerSecond the output byte rate when known (constant bitrate
+	 * output), or 0.
+	 */
+	public TranscodeSession(ProcessWrapper process, double timeSeek, double bytesPerSecond) {
+		this.process = process;
+		this.timeSeek = timeSeek;
+		this.bytesPerSecond = bytesPerSecond;
+		this.startSystemTime = System.currentTimeMillis();
+	}
+
+	public ProcessWrapper getProcess() {
+		return process;
+	}
+
+	public double getTimeSeek() {
+		return timeSeek;
+	}
+
+	public long getStartSystemTime() {
+		return startSystemTime;
+	}
+
+	public boolean isAlive() {
+		return process != null && !process.isDestroyed();
+	}
+
+	/**
+	 * @param time the requested time seek in seconds.
+	 * @return whether this seek targets the session start.
+	 */
+	public boolean isDuplicateSeek(double time) {
+		return Math.abs(time - timeSeek) < DUPLICATE_SEEK_TOLERANCE;
+	}
+
+	/**
+	 * Gets the output offset for a time seek when it falls inside the window
+	 * this session can serve.
+	 *
+	 * @param time the requested time seek in seconds.
+	 * @return the byte offset in the output, or -1 if a new process is needed.
+	 */
+	public long getOffsetForTime(double time) {
+		if (!isAlive() || bytesPerSecond <= 0 || time < timeSeek) {
+			return -1;
+		}
+		long offset = (long) ((time - timeSeek) * bytesPerSecond);
+		return isInWindow(offset, (long) (LOOKAHEAD_SECONDS * bytesPerSecond)) ? offset : -1;
+	}
+
+	/**
+	 * @return the number of readers attached to the output of this session.
+	 */
+	public int getReaderCount() {
+		BufferedOutputFileImpl output = getBufferedOutput();
+		return output != null ? output.getInputStreamCount() : 0;
+	}
+
+	/**
+	 * Attaches a new reader of a renderer to the output of this session.
+	 *
+	 * @param rendererId the id of the renderer reading.
+	 * @param position the byte position the reader starts at.
+	 * @return the input stream, or {@code null} if the output is not ready.
+	 * @throws IOException
+	 */
+	public InputStream getInputStream(String rendererId, long position) throws IOException {
+		InputStream inputStream = process.getInputStream(position);
+		if (inputStream != null) {
+			readers.put(inputStream, rendererId);
+		}
+		return inputStream;
+	}
+
+	/**
+	 * Gets the renderers still reading the output of this session, the
+	 * detached readers are not counted.
+	 *
+	 * @return the renderer ids.
+	 */
+	public Set<String> getRendererIds() {
+		Set<String> rendererIds = new HashSet<>();
+		BufferedOutputFileImpl output = getBufferedOutput();
+		if (output != null) {
+			synchronized (readers) {
+				for (Map.Entry<InputStream, String> reader : readers.entrySet()) {
+					if (output.isAttached(reader.getKey())) {
+						rendererIds.add(reader.getValue());
+					}
+				}
+			}
+		}
+		return rendererIds;
+	}
+
+	/**
+	 * Whether other renderers read this session, the old readers of the
+	 * renderer itself don't count.
+	 *
+	 * @param rendererId the id of the renderer asking.
+	 * @return true if stopping the process would cut another renderer.
+	 */
+	public boolean isShared(String rendererId) {
+		Set<String> rendererIds = getRendererIds();
+		rendererIds.remove(rendererId);
+		return !rendererIds.isEmpty();
+	}
+
+	/**
+	 * Whether a byte position of the output is still buffered or about to be
+	 * written.
+	 *
+	 * @param offset the byte offset in the output.
+	 * @param lookahead how many bytes ahead of the written output are allowed.
+	 * @return true if the running process can serve it.
+	 */
+	public boolean isInWindow(long offset, long lookahead) {
+		BufferedOutputFileImpl bufferedOutput = getBufferedOutput();
+		if (!isAlive() || bufferedOutput == null) {
+			return false;
+		}
+		long written = bufferedOutput.getWriteCount();
+		long oldest = written - (long) (bufferedOutput.getMaxMemorySize() * BUFFER_SAFE_RATIO);
+		return offset >= Math.max(0, oldest) && offset <= written + lookahead;
+	}
+
+	private BufferedOutputFileImpl getBufferedOutput() {
+		if (process instanceof ProcessWrapperImpl processWrapperImpl &&
+				processWrapperImpl.getBufferedOutputFile() instanceof BufferedOutputFileImpl bufferedOutput) {
+			return bufferedOutput;
+		}
+		return null;
+	}
+
+}
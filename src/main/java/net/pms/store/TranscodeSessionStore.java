@@ -0,0 +1,134 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.store;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import net.pms.encoders.TranscodingSettings;
+import net.pms.io.OutputParams;
+import net.pms.media.audio.MediaAudio;
+import net.pms.media.subtitle.MediaSubtitle;
+import net.pms.renderers.Renderer;
+import net.pms.util.IPushOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the running transcodes which can be shared between renderers.
+ *
+ * Renderers using the same profile and asking for the same item with the same
+ * settings get the same output, so a renderer joining while the start of that
+ * output is still in the buffer reads it from the running process with its
+ * own cursor instead of launching an identical one.
+ */
+public class TranscodeSessionStore {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TranscodeSessionStore.class);
+	private static final Map<String, TranscodeSession> SESSIONS = new HashMap<>();
+
+	private TranscodeSessionStore() {
+		//should not be instantiated
+	}
+
+	/**
+	 * Gets the key identifying the output of a transcode.
+	 *
+	 * @param item the transcoded item.
+	 * @param params the output parameters.
+	 * @return the key, or {@code null} if this output cannot be shared.
+	 */
+	public static String getSharingKey(StoreItem item, OutputParams params) {
+		TranscodingSettings transcodingSettings = item.getTranscodingSettings();
+		Renderer renderer = params.getMediaRenderer();
+		if (transcodingSettings == null || renderer == null || item instanceof IPushOutput ||
+				params.getHlsConfiguration() != null || item.getSystemName() == null ||
+				renderer.getUmsConfiguration().getTrancodeBlocksMultipleConnections()) {
+			return null;
+		}
+		StringBuilder key = new StringBuilder(item.getSystemName());
+		key.append('|').append(transcodingSettings.getEngine().getEngineId());
+		key.append('|').append(transcodingSettings.getEncodingFormat());
+		key.append('|').append(renderer.getConfName());
+		if (renderer.getDeviceConfiguration() != null && !renderer.getDeviceConfiguration().isEmpty()) {
+			// device specific settings may change the output
+			key.append('#').append(System.identityHashCode(renderer.getDeviceConfiguration()));
+		}
+		MediaAudio audio = params.getAid();
+		key.append('|').append(audio != null ? audio.getId() : -1);
+		MediaSubtitle subtitle = params.getSid();
+		key.append('|');
+		if (subtitle != null) {
+			key.append(subtitle.getId());
+			if (subtitle.getExternalFile() != null) {
+				key.append(':').append(subtitle.getExternalFile().getAbsolutePath());
+			}
+		}
+		key.append('|').append(params.getTimeSeek());
+		key.append('|').append(params.getTimeEnd());
+		key.append('|').append(params.isShiftSscr());
+		return key.toString();
+	}
+
+	/**
+	 * Gets a running session a new reader can join at the given position.
+	 *
+	 * @param key the sharing key.
+	 * @param position the byte position the reader starts at.
+	 * @return the session, or {@code null} if none can serve this position.
+	 */
+	public static TranscodeSession getSession(String key, long position) {
+		if (key == null) {
+			return null;
+		}
+		synchronized (SESSIONS) {
+			removeEnded();
+			TranscodeSession session = SESSIONS.get(key);
+			if (session != null && session.isInWindow(position, 0)) {
+				LOGGER.debug("Joining running transcode with {} reader(s) at position {}", session.getReaderCount(), position);
+				return session;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Makes a session available to other renderers.
+	 *
+	 * @param key the sharing key.
+	 * @param session the session.
+	 */
+	public static void putSession(String key, TranscodeSession session) {
+		if (key == null || session == null || !session.isAlive()) {
+			return;
+		}
+		synchronized (SESSIONS) {
+			removeEnded();
+			SESSIONS.put(key, session);
+		}
+	}
+
+	private static void removeEnded() {
+		Iterator<TranscodeSession> sessions = SESSIONS.values().iterator();
+		while (sessions.hasNext()) {
+			if (!sessions.next().isAlive()) {
+				sessions.remove();
+			}
+		}
+	}
+
+}
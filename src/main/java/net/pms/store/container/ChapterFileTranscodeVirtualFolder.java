@@ -16,9 +16,12 @@
  */
 package net.pms.store.container;
 
+import net.pms.dlna.DLNAThumbnail;
 import net.pms.renderers.Renderer;
 import net.pms.store.StoreItem;
 import net.pms.store.StoreResource;
+import net.pms.store.ThumbnailStripStore;
+import net.pms.store.item.RealFile;
 import net.pms.util.TimeRange;
 
 /**
@@ -76,4 +79,18 @@ public class ChapterFileTranscodeVirtualFolder extends LocalizedStoreContainer {
 			}
 		}
 	}
+
+	/**
+	 * Gets the thumbnail of a chapter. The thumbnails of all the chapters are
+	 * extracted together on first use.
+	 *
+	 * @param start the chapter start in seconds.
+	 * @return the thumbnail, or {@code null} if it can't be extracted.
+	 */
+	public DLNAThumbnail getChapterThumbnail(double start) {
+		if (getChildren().isEmpty() || !(getChildren().get(0) instanceof RealFile realFile) || realFile.getMediaInfo() == null) {
+			return null;
+		}
+		return ThumbnailStripStore.getThumbnail(realFile.getFile(), realFile.getMediaInfo().getDurationInSeconds(), 60.0 * interval, start);
+	}
 }
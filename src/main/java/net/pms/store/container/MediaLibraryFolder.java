@@ -21,10 +21,15 @@ import java.io.IOException;
 import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 import net.pms.database.MediaDatabase;
+import net.pms.database.MediaLibraryChanges;
 import net.pms.database.MediaTableAudioMetadata;
 import net.pms.database.MediaTableFiles;
 import net.pms.database.MediaTableFilesStatus;
@@ -41,7 +46,7 @@ import net.pms.store.StoreResource;
 import net.pms.store.item.MediaLibraryTvEpisode;
 import net.pms.store.item.RealFile;
 import net.pms.store.utils.StoreResourceSorter;
-import net.pms.util.UMSUtils;
+import net.pms.util.LruMap;
 import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,11 +62,17 @@ import org.slf4j.LoggerFactory;
 public class MediaLibraryFolder extends MediaLibraryAbstract {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(MediaLibraryFolder.class);
+	private static final int MAX_QUERY_RESULTS = 256;
+
+	/**
+	 * The query results shared by the folders of all the renderers, valid
+	 * while the media library version is unchanged.
+	 */
+	private static final Map<String, QueryResult<?>> QUERY_RESULTS = new LruMap<>(MAX_QUERY_RESULTS);
 
 	private String[] sqls;
 	private int[] expectedOutputs;
-	private List<String> populatedVirtualFoldersListFromDb;
-	private List<String> populatedFilesListFromDb;
+	private long populatedVersion = -1;
 
 	public MediaLibraryFolder(Renderer renderer, String i18nName, String sql, int expectedOutput) {
 		this(renderer, i18nName, new String[]{sql}, new int[]{expectedOutput}, null);
@@ -108,43 +119,34 @@ public class MediaLibraryFolder extends MediaLibraryAbstract {
 	/**
 	 * Whether the contents of this virtual folder should be refreshed.
 	 *
-	 * @return true if the old cached SQL result matches the new one.
+	 * @return true if the media library changed since this folder was
+	 *         populated.
 	 */
 	@Override
 	public boolean isRefreshNeeded() {
-		Connection connection = null;
-		try {
-			connection = MediaDatabase.getConnectionIfAvailable();
-			if (connection != null && sqls.length > 0) {
-				String sql = sqls[0];
-				int expectedOutput = expectedOutputs[0];
-				if (sql != null) {
-					sql = transformSQL(sql);
-
-					if (
-						expectedOutput == EPISODES ||
-						expectedOutput == EPISODES_WITHIN_SEASON ||
-						expectedOutput == FILES ||
-						expectedOutput == FILES_NOSORT ||
-						expectedOutput == FILES_NOSORT_DEDUPED ||
-						expectedOutput == FILES_WITH_FILTERS ||
-						expectedOutput == ISOS ||
-						expectedOutput == ISOS_WITH_FILTERS ||
-						expectedOutput == PLAYLISTS
-					) {
-						return !UMSUtils.isListsEqual(populatedFilesListFromDb, MediaTableFiles.getStrings(connection, sql));
-					} else if (isTextOutputExpected(expectedOutput)) {
-						return !UMSUtils.isListsEqual(populatedVirtualFoldersListFromDb, MediaTableFiles.getStrings(connection, sql));
-					} else if (expectedOutput == EMPTY_FILES_WITH_FILTERS) {
-						return false;
-					}
+		if (MediaDatabase.isAvailable() && sqls.length > 0) {
+			int expectedOutput = expectedOutputs[0];
+			if (sqls[0] != null) {
+				if (
+					expectedOutput == EPISODES ||
+					expectedOutput == EPISODES_WITHIN_SEASON ||
+					expectedOutput == FILES ||
+					expectedOutput == FILES_NOSORT ||
+					expectedOutput == FILES_NOSORT_DEDUPED ||
+					expectedOutput == FILES_WITH_FILTERS ||
+					expectedOutput == ISOS ||
+					expectedOutput == ISOS_WITH_FILTERS ||
+					expectedOutput == PLAYLISTS ||
+					isTextOutputExpected(expectedOutput)
+				) {
+					return populatedVersion != MediaLibraryChanges.getVersion();
+				} else if (expectedOutput == EMPTY_FILES_WITH_FILTERS) {
+					return false;
 				}
-			} else {
-				//database not available
-				return false;
 			}
-		} finally {
-			MediaDatabase.close(connection);
+		} else {
+			//database not available
+			return false;
 		}
 		return true;
 	}
@@ -217,6 +219,9 @@ public class MediaLibraryFolder extends MediaLibraryAbstract {
 	 */
 	@Override
 	public synchronized void doRefreshChildren() {
+		// read first, a change made while querying triggers the next refresh
+		long version = MediaLibraryChanges.getVersion();
+		boolean populated = false;
 		List<File> filesListFromDb = null;
 		List<String> virtualFoldersListFromDb = null;
 
@@ -247,22 +252,24 @@ public class MediaLibraryFolder extends MediaLibraryAbstract {
 						switch (expectedOutput) {
 							case FILES, FILES_NOSORT, PLAYLISTS, ISOS, EPISODES_WITHIN_SEASON -> {
 								firstSql = firstSql.replaceAll(SELECT_DISTINCT_TVSEASON, SELECT_ALL + FROM_FILES_VIDEOMETA);
-								filesListFromDb = MediaTableFiles.getFiles(connection, firstSql);
-								populatedFilesListFromDb = MediaTableFiles.getStrings(connection, firstSql);
+								filesListFromDb = getFiles(connection, firstSql, version);
+								populated = filesListFromDb != null;
 							}
 							case FILES_NOSORT_DEDUPED -> {
-								populatedFilesListFromDb = new ArrayList<>();
-								filesListFromDb = new ArrayList<>();
-								for (File item : MediaTableFiles.getFiles(connection, firstSql)) {
-									if (!populatedFilesListFromDb.contains(item.getAbsolutePath())) {
-										filesListFromDb.add(item);
-										populatedFilesListFromDb.add(item.getAbsolutePath());
+								List<File> files = getFiles(connection, firstSql, version);
+								if (files != null) {
+									Set<String> filenames = new HashSet<>();
+									filesListFromDb = new ArrayList<>();
+									for (File item : files) {
+										if (filenames.add(item.getAbsolutePath())) {
+											filesListFromDb.add(item);
+										}
 									}
 								}
+								populated = filesListFromDb != null;
 							}
 							case EPISODES -> {
-								filesListFromDb = MediaTableFiles.getFiles(connection, firstSql);
-								populatedFilesListFromDb = MediaTableFiles.getStrings(connection, firstSql);
+								filesListFromDb = getFiles(connection, firstSql, version);
 
 								// Build the season filter folders
 								int indexAfterFromInFirstQuery = firstSql.indexOf(FROM_FILES) + FROM_FILES.length();
@@ -277,21 +284,20 @@ public class MediaLibraryFolder extends MediaLibraryAbstract {
 
 								int indexBeforeOrderByInFirstQuery = seasonsQuery.indexOf(ORDER_BY);
 								seasonsQuery.replace(indexBeforeOrderByInFirstQuery, seasonsQuery.length(), orderBySection);
-								virtualFoldersListFromDb = MediaTableFiles.getStrings(connection, seasonsQuery.toString());
-								populatedVirtualFoldersListFromDb = virtualFoldersListFromDb;
+								virtualFoldersListFromDb = getStrings(connection, seasonsQuery.toString(), version);
+								populated = filesListFromDb != null && virtualFoldersListFromDb != null;
 							}
 							case TEXTS, TEXTS_NOSORT, SEASONS, TVSERIES, TVSERIES_NOSORT, MOVIE_FOLDERS -> {
-								virtualFoldersListFromDb = MediaTableFiles.getStrings(connection, firstSql);
-								populatedVirtualFoldersListFromDb = virtualFoldersListFromDb;
+								virtualFoldersListFromDb = getStrings(connection, firstSql, version);
+								populated = virtualFoldersListFromDb != null;
 							}
 							case FILES_WITH_FILTERS, ISOS_WITH_FILTERS, TEXTS_NOSORT_WITH_FILTERS, TEXTS_WITH_FILTERS, TVSERIES_WITH_FILTERS, EMPTY_FILES_WITH_FILTERS -> {
 								if (expectedOutput == TEXTS_NOSORT_WITH_FILTERS || expectedOutput == TEXTS_WITH_FILTERS || expectedOutput == TVSERIES_WITH_FILTERS) {
-									virtualFoldersListFromDb = MediaTableFiles.getStrings(connection, firstSql);
-									populatedVirtualFoldersListFromDb = virtualFoldersListFromDb;
+									virtualFoldersListFromDb = getStrings(connection, firstSql, version);
 								} else if (expectedOutput == FILES_WITH_FILTERS || expectedOutput == ISOS_WITH_FILTERS) {
-									filesListFromDb = MediaTableFiles.getFiles(connection, firstSql);
-									populatedFilesListFromDb = MediaTableFiles.getStrings(connection, firstSql);
+									filesListFromDb = getFiles(connection, firstSql, version);
 								}
+								populated = filesListFromDb != null || virtualFoldersListFromDb != null || expectedOutput == EMPTY_FILES_WITH_FILTERS;
 
 								if (!firstSql.toUpperCase().startsWith(SELECT)) {
 									firstSql = SELECT_FILENAME_MODIFIED_FILES_WHERE + firstSql;
@@ -361,6 +367,7 @@ public class MediaLibraryFolder extends MediaLibraryAbstract {
 							}
 							default -> {
 								// nothing to do
+								populated = true;
 							}
 						}
 						// Output is files
@@ -372,6 +379,10 @@ public class MediaLibraryFolder extends MediaLibraryAbstract {
 				MediaDatabase.close(connection);
 			}
 		}
+		if (populated) {
+			// a failed query is run again on the next browse
+			populatedVersion = version;
+		}
 		Set<File> newFiles = new LinkedHashSet<>();
 		Set<String> newVirtualFolders = new LinkedHashSet<>();
 		List<StoreResource> oldFiles = new ArrayList<>();
@@ -736,6 +747,41 @@ public class MediaLibraryFolder extends MediaLibraryAbstract {
 		sortChildrenIfNeeded();
 	}
 
+	private static List<File> getFiles(Connection connection, String sql, long version) {
+		return getQueryResult("FILES:" + sql, version, () -> MediaTableFiles.getFiles(connection, sql));
+	}
+
+	private static List<String> getStrings(Connection connection, String sql, long version) {
+		return getQueryResult("STRINGS:" + sql, version, () -> MediaTableFiles.getStrings(connection, sql));
+	}
+
+	/**
+	 * Gets the result of a query, running it only if the media library changed
+	 * since the query was last run by any folder.
+	 *
+	 * @param key the query identifier.
+	 * @param version the media library version the result must match.
+	 * @param query the query.
+	 * @return the unmodifiable result, or {@code null} if the query failed.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> getQueryResult(String key, long version, Supplier<List<T>> query) {
+		synchronized (QUERY_RESULTS) {
+			QueryResult<?> result = QUERY_RESULTS.get(key);
+			if (result != null && result.version == version) {
+				return (List<T>) result.rows;
+			}
+		}
+		List<T> rows = query.get();
+		if (rows != null) {
+			rows = Collections.unmodifiableList(rows);
+			synchronized (QUERY_RESULTS) {
+				QUERY_RESULTS.put(key, new QueryResult<>(version, rows));
+			}
+		}
+		return rows;
+	}
+
 	/**
 	 * @param expectedOutput
 	 * @return whether any text output is expected (can be in addition to file output)
@@ -771,14 +817,15 @@ public class MediaLibraryFolder extends MediaLibraryAbstract {
 		try {
 			Long tvSeriesId = Long.valueOf(virtualFolderName);
 			if (MediaDatabase.isAvailable()) {
-				Connection connection = null;
-				List<String> filenames = null;
-				try {
-					connection = MediaDatabase.getConnectionIfAvailable();
-					filenames = MediaTableVideoMetadata.getTvEpisodesFilesByTvSeriesId(connection, tvSeriesId);
-				} finally {
-					MediaDatabase.close(connection);
-				}
+				List<String> filenames = getQueryResult("TVSERIES_FILES:" + tvSeriesId, MediaLibraryChanges.getVersion(), () -> {
+					Connection connection = null;
+					try {
+						connection = MediaDatabase.getConnectionIfAvailable();
+						return MediaTableVideoMetadata.getTvEpisodesFilesByTvSeriesId(connection, tvSeriesId);
+					} finally {
+						MediaDatabase.close(connection);
+					}
+				});
 				if (filenames != null && !filenames.isEmpty()) {
 					for (String filename : filenames) {
 						File file = new File(filename);
@@ -862,4 +909,14 @@ public class MediaLibraryFolder extends MediaLibraryAbstract {
 		return result.toString();
 	}
 
+	private static class QueryResult<T> {
+		private final long version;
+		private final List<T> rows;
+
+		private QueryResult(long version, List<T> rows) {
+			this.version = version;
+			this.rows = rows;
+		}
+	}
+
 }
@@ -21,6 +21,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -92,6 +93,13 @@ public class MediaMonitor extends LocalizedStoreContainer {
 					fullyPlayedEntriesLock.readLock().unlock();
 				}
 			}
+			List<String> filenames = new ArrayList<>();
+			for (File fileEntry : files) {
+				if (fileEntry.isFile()) {
+					filenames.add(fileEntry.getAbsolutePath());
+				}
+			}
+			MediaStatusStore.loadMediaStatuses(renderer.getAccountUserId(), filenames);
 			for (File fileEntry : files) {
 				if (fileEntry.isFile()) {
 					if (MediaStatusStore.isFullyPlayed(fileEntry.getAbsolutePath(), renderer.getAccountUserId())) {
@@ -18,12 +18,14 @@ package net.pms.store.item;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import net.pms.dlna.DLNAThumbnailInputStream;
 import net.pms.formats.Format;
 import net.pms.media.MediaInfo;
 import net.pms.parsers.Parser;
 import net.pms.renderers.Renderer;
 import net.pms.store.StoreItem;
+import net.pms.util.ArchiveExtractionCache;
 import net.pms.util.IPushOutput;
 import net.pms.util.InputFile;
 
@@ -72,6 +74,11 @@ abstract class ArchiveEntry extends StoreItem implements IPushOutput {
 		return length() < MAX_ARCHIVE_SIZE_SEEK;
 	}
 
+	@Override
+	protected InputStream getSeekableInputStream(long position) throws IOException {
+		return ArchiveExtractionCache.getInputStream(file, entryName, length, this, position);
+	}
+
 	@Override
 	protected void resolveOnce() {
 		if (getMediaInfo() == null) {
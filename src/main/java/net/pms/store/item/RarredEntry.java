@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import net.pms.renderers.Renderer;
+import net.pms.util.ArchiveExtractionCache;
 import net.pms.util.ArchiveFileInputStream;
 import net.pms.util.IPushOutput;
 import org.slf4j.Logger;
@@ -69,7 +70,7 @@ public class RarredEntry extends ArchiveEntry implements IPushOutput {
 			}
 		};
 
-		new Thread(r, "Rar Extractor").start();
+		ArchiveExtractionCache.execute(r);
 	}
 
 }
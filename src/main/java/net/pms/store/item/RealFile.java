@@ -28,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Set;
 import net.pms.database.MediaTableCoverArtArchive;
 import net.pms.dlna.DLNAImageProfile;
+import net.pms.dlna.DLNAThumbnail;
 import net.pms.dlna.DLNAThumbnailInputStream;
 import net.pms.formats.Format;
 import net.pms.formats.FormatFactory;
@@ -154,7 +155,9 @@ public class RealFile extends StoreItem implements SystemFileResource {
 
 			// XXX isMediaInfoThumbnailGeneration is only true for the "default renderer"
 			if (getParent().getDefaultRenderer().isMediaInfoThumbnailGeneration()) {
-				checkThumbnail();
+				InputFile input = new InputFile();
+				input.setFile(getFile());
+				queueThumbnail(input);
 			}
 		} else if (getType() == Format.UNKNOWN) {
 			return false;
@@ -257,6 +260,12 @@ public class RealFile extends StoreItem implements SystemFileResource {
 
 	@Override
 	public DLNAThumbnailInputStream getThumbnailInputStream() throws IOException {
+		if (getParent() instanceof ChapterFileTranscodeVirtualFolder chapterFolder && getSplitRange().getStartOrZero() > 0) {
+			DLNAThumbnail chapterThumbnail = chapterFolder.getChapterThumbnail(getSplitRange().getStartOrZero());
+			if (chapterThumbnail != null) {
+				return new DLNAThumbnailInputStream(chapterThumbnail);
+			}
+		}
 		File cachedThumbnail = null;
 		MediaType mediaType = getMediaInfo() != null ? getMediaInfo().getMediaType() : MediaType.UNKNOWN;
 
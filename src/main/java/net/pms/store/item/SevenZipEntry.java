@@ -23,6 +23,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import net.pms.renderers.Renderer;
+import net.pms.util.ArchiveExtractionCache;
 import net.pms.util.ArchiveFileInputStream;
 import net.pms.util.IPushOutput;
 import net.sf.sevenzipjbinding.IInArchive;
@@ -89,7 +90,7 @@ public class SevenZipEntry extends ArchiveEntry implements IPushOutput {
 			}
 		};
 
-		new Thread(r, "7Zip Extractor").start();
+		ArchiveExtractionCache.execute(r);
 	}
 
 }
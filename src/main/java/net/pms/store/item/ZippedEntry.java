@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import net.pms.renderers.Renderer;
+import net.pms.util.ArchiveExtractionCache;
 import net.pms.util.ArchiveFileInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +39,19 @@ public class ZippedEntry extends ArchiveEntry {
 		return ArchiveFileInputStream.getZipEntryInputStream(file, entryName);
 	}
 
+	@Override
+	protected InputStream getSeekableInputStream(long position) throws IOException {
+		// stored entries are read at their offset in the zip file
+		InputStream in = ArchiveFileInputStream.getStoredZipEntryInputStream(file, entryName);
+		if (in == null) {
+			return super.getSeekableInputStream(position);
+		}
+		if (position > 0) {
+			in.skip(position);
+		}
+		return in;
+	}
+
 	@Override
 	public void push(final OutputStream out) throws IOException {
 		Runnable r = () -> {
@@ -55,7 +69,7 @@ public class ZippedEntry extends ArchiveEntry {
 				}
 			}
 		};
-		new Thread(r, "Zip Extractor").start();
+		ArchiveExtractionCache.execute(r);
 	}
 
 }
@@ -0,0 +1,184 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.pms.PMS;
+import net.pms.configuration.UmsConfiguration;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Extracts the compressed archive entries once to a bounded folder shared by
+ * all the requests, so seeking in an entry reads the extracted file at the
+ * requested position instead of decompressing the entry again from its start.
+ *
+ * Requests never wait for an extraction: reading from the start, or seeking
+ * before the extraction is complete, is served from the archive as before.
+ * The first seek in an entry starts its extraction in the background.
+ *
+ * The least recently used entries are removed when the cache grows over its
+ * configured size. The extractor threads of all the archive formats come from
+ * one pool.
+ */
+public class ArchiveExtractionCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ArchiveExtractionCache.class);
+	private static final UmsConfiguration CONFIGURATION = PMS.getConfiguration();
+	private static final ExecutorService EXTRACTORS = Executors.newCachedThreadPool(new SimpleThreadFactory("Archive Extractor", true));
+	private static final Set<String> EXTRACTIONS = new HashSet<>();
+	private static final String CACHE_FOLDER_NAME = "archives";
+	private static final String PART_SUFFIX = ".part";
+
+	private ArchiveExtractionCache() {
+		//should not be instantiated
+	}
+
+	/**
+	 * Runs an extractor in the shared pool.
+	 *
+	 * @param extractor the extraction to run.
+	 */
+	public static void execute(Runnable extractor) {
+		EXTRACTORS.execute(extractor);
+	}
+
+	/**
+	 * Gets the content of an archive entry from the given position if it is
+	 * extracted. A seek in an entry not extracted yet starts its extraction.
+	 *
+	 * @param archive the archive file.
+	 * @param entryName the entry name in the archive.
+	 * @param length the uncompressed size of the entry.
+	 * @param source the extractor pushing the entry content.
+	 * @param position the byte position to start from.
+	 * @return the stream, or {@code null} if the entry is to be read from the
+	 *         archive.
+	 * @throws IOException if the cached entry cannot be read.
+	 */
+	public static InputStream getInputStream(File archive, String entryName, long length, IPushOutput source, long position) throws IOException {
+		long maxSize = CONFIGURATION.getArchiveCacheSize() * 1024L * 1024L;
+		if (length <= 0 || length > maxSize) {
+			return null;
+		}
+		File cachedFile = getCachedFile(archive, entryName, length, source, maxSize, position > 0);
+		if (cachedFile == null) {
+			return null;
+		}
+		InputStream in = new FileInputStream(cachedFile);
+		if (position > 0) {
+			in.skip(position);
+		}
+		return in;
+	}
+
+	private static File getCachedFile(File archive, String entryName, long length, IPushOutput source, long maxSize, boolean seeking) {
+		File folder = getFolder();
+		if (folder == null) {
+			return null;
+		}
+		String key = DigestUtils.sha1Hex(archive.getAbsolutePath() + "|" + archive.lastModified() + "|" + entryName + "|" + length);
+		File cachedFile = new File(folder, key);
+		synchronized (EXTRACTIONS) {
+			if (cachedFile.length() == length) {
+				cachedFile.setLastModified(System.currentTimeMillis());
+				return cachedFile;
+			}
+			if (!seeking || !EXTRACTIONS.add(key)) {
+				return null;
+			}
+		}
+		LOGGER.debug("Archive entry \"{}\" is not extracted yet, reading it from the archive", entryName);
+		extract(key, cachedFile, length, source, maxSize);
+		return null;
+	}
+
+	private static void extract(String key, File cachedFile, long length, IPushOutput source, long maxSize) {
+		File partFile = new File(cachedFile.getParentFile(), key + PART_SUFFIX);
+		try {
+			// the extractor closes the stream when done
+			source.push(new FileOutputStream(partFile) {
+				@Override
+				public void close() throws IOException {
+					super.close();
+					synchronized (EXTRACTIONS) {
+						if (partFile.length() == length && partFile.renameTo(cachedFile)) {
+							trim(cachedFile.getParentFile(), maxSize);
+						} else if (!partFile.delete()) {
+							partFile.deleteOnExit();
+						}
+						EXTRACTIONS.remove(key);
+					}
+				}
+			});
+		} catch (IOException e) {
+			LOGGER.debug("Cannot extract archive entry to the cache: {}", e.getMessage());
+			synchronized (EXTRACTIONS) {
+				EXTRACTIONS.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Removes the least recently used entries over the cache size.
+	 */
+	private static void trim(File folder, long maxSize) {
+		File[] files = folder.listFiles((dir, name) -> !name.endsWith(PART_SUFFIX));
+		if (files == null) {
+			return;
+		}
+		long size = 0;
+		for (File file : files) {
+			size += file.length();
+		}
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+		for (File file : files) {
+			if (size <= maxSize) {
+				break;
+			}
+			long fileSize = file.length();
+			if (file.delete()) {
+				size -= fileSize;
+			}
+		}
+	}
+
+	private static File getFolder() {
+		try {
+			File folder = new File(CONFIGURATION.getTempFolder(), CACHE_FOLDER_NAME);
+			if (folder.isDirectory() || folder.mkdirs()) {
+				return folder;
+			}
+			LOGGER.debug("Cannot create the archive cache folder \"{}\"", folder);
+		} catch (IOException e) {
+			LOGGER.debug("Cannot get the archive cache folder: {}", e.getMessage());
+		}
+		return null;
+	}
+
+}
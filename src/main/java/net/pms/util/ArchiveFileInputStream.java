@@ -159,6 +159,36 @@ public class ArchiveFileInputStream extends InputStream {
 		return null;
 	}
 
+	/**
+	 * Gets a zip entry stored without compression. Skipping in it moves to the
+	 * position in the zip file without reading the bytes before.
+	 *
+	 * @param file the zip file.
+	 * @param name the entry name.
+	 * @return the stream, or {@code null} if the entry is compressed or not
+	 *         found.
+	 */
+	public static ArchiveFileInputStream getStoredZipEntryInputStream(File file, String name) {
+		ZipFile zipFile = null;
+		try {
+			zipFile = new ZipFile(file);
+			ZipEntry ze = zipFile.getEntry(name);
+			if (ze != null && ze.getMethod() == ZipEntry.STORED) {
+				return new ArchiveFileInputStream(file, name, zipFile.getInputStream(ze), zipFile);
+			}
+		} catch (IOException e) {
+			LOGGER.debug("ZipEntryInputStream error: {}", e.getMessage());
+		}
+		if (zipFile != null) {
+			try {
+				zipFile.close();
+			} catch (IOException e) {
+				//ignore
+			}
+		}
+		return null;
+	}
+
 	public static ArchiveFileInputStream getSevenZipEntryInputStream(File file, String name) {
 		IInArchive arc = null;
 		try {
@@ -193,7 +223,7 @@ public class ArchiveFileInputStream extends InputStream {
 						//ignore
 					}
 				};
-				new Thread(r).start();
+				ArchiveExtractionCache.execute(r);
 				return new ArchiveFileInputStream(file, name, in, arc);
 			} else {
 				LOGGER.error("SevenZip entry '{}' not found.", name);
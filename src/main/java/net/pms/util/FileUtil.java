@@ -36,6 +36,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -519,10 +520,10 @@ public class FileUtil {
 		String edition = null;
 		Matcher m = COMMON_FILE_EDITIONS_PATTERN.matcher(formattedName);
 		if (m.find()) {
-			edition = m.group().replaceAll("\\.", " ");
+			edition = m.group().replace(".", " ");
 			edition = "(" + WordUtils.capitalizeFully(edition) + ")";
-			formattedName = formattedName.replaceAll(" - " + COMMON_FILE_EDITIONS, "");
-			formattedName = formattedName.replaceAll(COMMON_FILE_EDITIONS, "");
+			formattedName = COMMON_FILE_EDITIONS_WITH_DASH_PATTERN.matcher(formattedName).replaceAll("");
+			formattedName = COMMON_FILE_EDITIONS_PATTERN.matcher(formattedName).replaceAll("");
 		}
 
 		return new FormattedNameAndEdition(formattedName, edition);
@@ -566,13 +567,11 @@ public class FileUtil {
 	 */
 	private static String removeGroupNameFromBeginning(String formattedName) {
 		if (!"".equals(formattedName) && (formattedName.startsWith("[") || formattedName.startsWith("("))) {
-			Pattern pattern = Pattern.compile("^[\\[\\(][^\\]]{0,25}[\\]\\)][^\\w]*(\\w.*?)\\s*$");
-			Matcher matcher = pattern.matcher(formattedName);
+			Matcher matcher = GROUP_NAME_AT_BEGINNING_PATTERN.matcher(formattedName);
 			if (matcher.find()) {
 				formattedName = matcher.group(1);
 			} else if (formattedName.endsWith("]")) {
-				pattern = Pattern.compile("^\\[([^\\[\\]]+)\\]\\s*$");
-				matcher = pattern.matcher(formattedName);
+				matcher = GROUP_NAME_ONLY_PATTERN.matcher(formattedName);
 				if (matcher.find()) {
 					formattedName = matcher.group(1);
 				}
@@ -587,8 +586,8 @@ public class FileUtil {
 	 * source, etc.
 	 */
 	private static String removeFilenameEndMetadata(String formattedName) {
-		formattedName = formattedName.replaceAll(COMMON_FILE_ENDS_CASE_SENSITIVE, "");
-		formattedName = formattedName.replaceAll("(?i)" + COMMON_FILE_ENDS, "");
+		formattedName = COMMON_FILE_ENDS_CASE_SENSITIVE_PATTERN.matcher(formattedName).replaceAll("");
+		formattedName = COMMON_FILE_ENDS_CASE_INSENSITIVE_PATTERN.matcher(formattedName).replaceAll("");
 		return formattedName;
 	}
 
@@ -643,6 +642,66 @@ public class FileUtil {
 	private static final String COMMON_ANIME_MULTIPLE_EPISODES_NUMBERS = "(?:[\\s']|S\\d{1,2}\\sE)(?:[pP]|)(\\d{1,4}-\\d{1,4})(?:[\\s']|v\\d)";
 	private static final Pattern COMMON_ANIME_MULTIPLE_EPISODES_NUMBERS_PATTERN = Pattern.compile(COMMON_ANIME_MULTIPLE_EPISODES_NUMBERS);
 
+	/**
+	 * The filename conventions and their replacements, compiled once instead
+	 * of on each {@link String#matches(String)} or
+	 * {@link String#replaceAll(String, String)} call.
+	 */
+	private static final Pattern COMMON_FILE_ENDS_PATTERN = Pattern.compile(COMMON_FILE_ENDS);
+	private static final Pattern COMMON_FILE_ENDS_CASE_INSENSITIVE_PATTERN = Pattern.compile("(?i)" + COMMON_FILE_ENDS);
+	private static final Pattern COMMON_FILE_ENDS_MATCH_PATTERN = Pattern.compile(COMMON_FILE_ENDS_MATCH);
+	private static final Pattern COMMON_FILE_ENDS_CASE_SENSITIVE_PATTERN = Pattern.compile(COMMON_FILE_ENDS_CASE_SENSITIVE);
+	private static final Pattern COMMON_FILE_EDITIONS_WITH_DASH_PATTERN = Pattern.compile(" - " + COMMON_FILE_EDITIONS);
+	private static final Pattern COMMON_ANIME_FILE_ENDS_PATTERN = Pattern.compile(COMMON_ANIME_FILE_ENDS);
+	private static final Pattern COMMON_ANIME_FILE_ENDS_MATCH_PATTERN = Pattern.compile(COMMON_ANIME_FILE_ENDS_MATCH);
+	private static final Pattern SCENE_MULTI_EPISODE_CONVENTION_MATCH_PATTERN = Pattern.compile(SCENE_MULTI_EPISODE_CONVENTION_MATCH);
+	private static final Pattern SCENE_MULTI_EPISODE_CONVENTION_SPACED_PATTERN = Pattern.compile("\\s" + SCENE_MULTI_EPISODE_CONVENTION + "\\s");
+	private static final Pattern SCENE_MULTI_EPISODE_CONVENTION_SPACE_PATTERN = Pattern.compile("\\s" + SCENE_MULTI_EPISODE_CONVENTION);
+	private static final Pattern SCENE_P2P_EPISODE_MATCH_PATTERN = Pattern.compile(".*" + SCENE_P2P_EPISODE_REGEX + ".*");
+	private static final Pattern SCENE_P2P_EPISODE_PATTERN = Pattern.compile(SCENE_P2P_EPISODE_REGEX);
+	private static final Pattern SCENE_P2P_EPISODE_SPACED_PATTERN = Pattern.compile("(?i)\\s" + SCENE_P2P_EPISODE_REGEX + "\\s");
+	private static final Pattern SCENE_P2P_EPISODE_SPACE_PATTERN = Pattern.compile("(?i)\\s" + SCENE_P2P_EPISODE_REGEX);
+	private static final Pattern SCENE_P2P_EPISODE_SPECIAL_MATCH_PATTERN = Pattern.compile(".*" + SCENE_P2P_EPISODE_SPECIAL_REGEX + ".*");
+	private static final Pattern SCENE_P2P_EPISODE_SPECIAL_PATTERN = Pattern.compile(SCENE_P2P_EPISODE_SPECIAL_REGEX);
+	private static final Pattern SCENE_P2P_EPISODE_SPECIAL_SPACE_PATTERN = Pattern.compile("(?i)\\s" + SCENE_P2P_EPISODE_SPECIAL_REGEX);
+	private static final Pattern OLDER_SCENE_EPISODE_MATCH_PATTERN = Pattern.compile(".*[\\s-\\.](\\d{1,2})[xX]\\d\\d.*");
+	private static final Pattern OLDER_SCENE_EPISODE_PATTERN = Pattern.compile("[\\s-\\.](\\d{1,2})[xX](\\d\\d)");
+	private static final Pattern OLDER_SCENE_EPISODE_SPACED_PATTERN = Pattern.compile("(?i)[\\s-\\.](\\d{1,2})[xX](\\d{1,})[\\s-\\.]");
+	private static final Pattern OLDER_SCENE_EPISODE_SPACE_CASE_INSENSITIVE_PATTERN = Pattern.compile("(?i)[\\s-\\.](\\d{1,2})[xX](\\d{1,})");
+	private static final Pattern OLDER_SCENE_EPISODE_SPACE_PATTERN = Pattern.compile("[\\s-\\.](\\d{1,2})[xX](\\d{1,})");
+	private static final Pattern OLDER_SCENE_THREE_DIGITS_MATCH_PATTERN = Pattern.compile(".*\\s-\\s(\\d{3})\\s-\\s.*");
+	private static final Pattern OLDER_SCENE_THREE_DIGITS_PATTERN = Pattern.compile("\\s-\\s(\\d{3})\\s-\\s");
+	private static final Pattern OLDER_SCENE_THREE_DIGITS_SPACE_PATTERN = Pattern.compile("\\s(\\d{3})");
+	private static final Pattern MINISERIES_CONVENTION_MATCH_PATTERN = Pattern.compile(MINISERIES_CONVENTION_MATCH);
+	private static final Pattern MIXED_EPISODE_CONVENTION_MATCH_PATTERN = Pattern.compile(MIXED_EPISODE_CONVENTION_MATCH);
+	private static final Pattern DAILY_EPISODE_MATCH_PATTERN = Pattern.compile(".*\\s(19|20)\\d{2}\\s[0-1]\\d\\s[0-3]\\d\\s.*");
+	private static final Pattern DAILY_EPISODE_PATTERN = Pattern.compile("\\s((?:19|20)\\d{2})\\s([0-1]\\d)\\s([0-3]\\d)\\s");
+	private static final Pattern DAILY_EPISODE_DATE_SPACED_PATTERN = Pattern.compile("\\s(19|20)(\\d{2})\\s([0-1]\\d)\\s([0-3]\\d)\\s");
+	private static final Pattern DAILY_EPISODE_DATE_PATTERN = Pattern.compile("\\s(19|20)(\\d{2})\\s([0-1]\\d)\\s([0-3]\\d)");
+	private static final Pattern SPORTS_MATCH_PATTERN = Pattern.compile("^(?!.*\\d{1,3}[\\s:][\\s-]).*\\s(?:19|20)\\d{2}([1-9]|1[0-2])([1-9]|[12][0-9]|3[01]).*");
+	private static final Pattern SCENE_P2P_MOVIE_MATCH_PATTERN = Pattern.compile(SCENE_P2P_MOVIE_MATCH);
+	private static final Pattern MOVIE_YEAR_PATTERN = Pattern.compile("\\s(19|20)(\\d{2})");
+	private static final Pattern BRACKETED_YEAR_MATCH_PATTERN = Pattern.compile(".*\\[(19|20)\\d{2}\\].*");
+	private static final Pattern BRACKETED_YEAR_PATTERN = Pattern.compile("(?i)\\[(19|20)(\\d{2})\\].*");
+	private static final Pattern PARENTHESIZED_YEAR_MATCH_PATTERN = Pattern.compile(".*\\((19|20)\\d{2}\\).*");
+	private static final Pattern ANIME_HASH_END_MATCH_PATTERN = Pattern.compile(".*\\[[0-9a-zA-Z]{8}\\]$");
+	private static final Pattern ANIME_EPISODE_END_MATCH_PATTERN = Pattern.compile(".*\\s-\\s\\d{1,3}$");
+	private static final Pattern SHOW_NAME_YEAR_PATTERN = Pattern.compile("(?:\\(|\\s)(?:19|20)\\d{2}");
+	private static final Pattern MOVIE_NAME_YEAR_PATTERN = Pattern.compile("\\s\\((?:19|20)\\d{2}\\)");
+	private static final Pattern GROUP_NAME_AT_BEGINNING_PATTERN = Pattern.compile("^[\\[\\(][^\\]]{0,25}[\\]\\)][^\\w]*(\\w.*?)\\s*$");
+	private static final Pattern GROUP_NAME_ONLY_PATTERN = Pattern.compile("^\\[([^\\[\\]]+)\\]\\s*$");
+	private static final Pattern PERIOD_OR_UNDERSCORE_PATTERN = Pattern.compile("\\.|_");
+	private static final Pattern WHITESPACES_PATTERN = Pattern.compile("\\s+");
+	private static final Pattern MULTIPLE_WHITESPACES_PATTERN = Pattern.compile("\\s{2,}");
+	private static final Pattern LEADING_ARTICLE_PATTERN = Pattern.compile("^(?i)A[ .]|The[ .]");
+	private static final Pattern DIGIT_PATTERN = Pattern.compile("\\d");
+
+	/**
+	 * The recently extracted filename metadata, by filename and path.
+	 */
+	private static final int FILENAME_METADATA_SIZE = 4096;
+	private static final Map<String, FileNameMetadata> FILENAME_METADATA = new LruMap<>(FILENAME_METADATA_SIZE);
+
 	/**
 	 * Attempts to resolve short filenames by using their parent directory.
 	 * For example, it can be common for files to have a filename like:
@@ -689,7 +748,7 @@ public class FileUtil {
 
 		if (!groupNameFromFilename.equals(lowerCase(groupNameFromDirectory))) {
 			// We didn't match the group name exactly, but let's try a partial match
-			String groupNameFromDirectoryWithoutNumbers = lowerCase(groupNameFromDirectory).replaceAll("\\d", "");
+			String groupNameFromDirectoryWithoutNumbers = DIGIT_PATTERN.matcher(lowerCase(groupNameFromDirectory)).replaceAll("");
 
 			/*
 			 * Sometimes the release group will have a number in it, and that will
@@ -697,8 +756,7 @@ public class FileUtil {
 			 * that's how it is. Here we remove that character from both strings
 			 * before attempting to match.
 			 */
-			Pattern pattern = Pattern.compile("\\d");
-			Matcher matcher = pattern.matcher(groupNameFromDirectory);
+			Matcher matcher = DIGIT_PATTERN.matcher(groupNameFromDirectory);
 			if (matcher.find()) {
 				Integer numberIndex = matcher.start();
 				groupNameFromFilename = new StringBuilder(groupNameFromFilename).deleteCharAt(numberIndex).toString();
@@ -911,6 +969,22 @@ public class FileUtil {
 			return new FileNameMetadata();
 		}
 
+		// the same names are parsed again on each discovery and sort
+		String key = filename + "\n" + absolutePath;
+		synchronized (FILENAME_METADATA) {
+			FileNameMetadata metadata = FILENAME_METADATA.get(key);
+			if (metadata != null) {
+				return metadata;
+			}
+		}
+		FileNameMetadata metadata = extractFileNameMetadata(filename, absolutePath);
+		synchronized (FILENAME_METADATA) {
+			FILENAME_METADATA.put(key, metadata);
+		}
+		return metadata;
+	}
+
+	private static FileNameMetadata extractFileNameMetadata(String filename, String absolutePath) {
 		String formattedName;
 
 		// These are false unless we recognize that we could use some info on the video from IMDb
@@ -927,7 +1001,6 @@ public class FileUtil {
 		// This can contain editions and "Sample" for now
 		String extraInformation;
 
-		Pattern pattern;
 		Matcher matcher;
 
 		filename = replaceShortFilenameWithParentDirectoryName(filename, absolutePath);
@@ -941,7 +1014,7 @@ public class FileUtil {
 		// change this to true to get better feedback while working on FileUtilTest
 		boolean verboseDevLogging = false;
 
-		if (formattedName.matches(SCENE_MULTI_EPISODE_CONVENTION_MATCH)) {
+		if (SCENE_MULTI_EPISODE_CONVENTION_MATCH_PATTERN.matcher(formattedName).matches()) {
 			if (verboseDevLogging) {
 				System.out.println("SCENE_MULTI_EPISODE_CONVENTION_MATCH: " + formattedName);
 			}
@@ -958,10 +1031,10 @@ public class FileUtil {
 			}
 
 			// Then strip the end of the episode if it does not have the episode name in the title
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS_CASE_SENSITIVE + ")", "");
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS + ")", "");
-			formattedName = formattedName.replaceAll("\\s" + SCENE_MULTI_EPISODE_CONVENTION + "\\s", " S" + tvSeason + "E$2-$3 - ");
-			formattedName = formattedName.replaceAll("\\s" + SCENE_MULTI_EPISODE_CONVENTION, " S" + tvSeason + "E$2-$3");
+			formattedName = COMMON_FILE_ENDS_CASE_SENSITIVE_PATTERN.matcher(formattedName).replaceAll("");
+			formattedName = COMMON_FILE_ENDS_PATTERN.matcher(formattedName).replaceAll("");
+			formattedName = SCENE_MULTI_EPISODE_CONVENTION_SPACED_PATTERN.matcher(formattedName).replaceAll(" S" + tvSeason + "E$2-$3 - ");
+			formattedName = SCENE_MULTI_EPISODE_CONVENTION_SPACE_PATTERN.matcher(formattedName).replaceAll(" S" + tvSeason + "E$2-$3");
 			FormattedNameAndEdition result = removeAndSaveEditionToBeAddedLater(formattedName);
 			formattedName = result.getFormattedName();
 			if (result.getEdition() != null) {
@@ -971,13 +1044,12 @@ public class FileUtil {
 			formattedName = removeFilenameEndMetadata(formattedName);
 
 			formattedName = convertFormattedNameToTitleCaseParts(formattedName);
-		} else if (formattedName.matches(".*" + SCENE_P2P_EPISODE_REGEX + ".*")) {
+		} else if (SCENE_P2P_EPISODE_MATCH_PATTERN.matcher(formattedName).matches()) {
 			if (verboseDevLogging) {
 				System.out.println("SCENE_P2P_EPISODE_REGEX: " + formattedName);
 			}
 			// This matches scene and most p2p TV episodes
-			pattern = Pattern.compile(SCENE_P2P_EPISODE_REGEX);
-			matcher = pattern.matcher(formattedName);
+			matcher = SCENE_P2P_EPISODE_PATTERN.matcher(formattedName);
 			if (matcher.find()) {
 				tvSeason = matcher.group(1);
 				if (tvSeason.length() == 1) {
@@ -993,20 +1065,19 @@ public class FileUtil {
 			}
 
 			// Then strip the end of the episode if it does not have the episode name in the title
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS_CASE_SENSITIVE + ")", "");
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS + ")", "");
-			formattedName = formattedName.replaceAll("(?i)\\s" + SCENE_P2P_EPISODE_REGEX + "\\s", " S" + tvSeason + "E$2 - ");
-			formattedName = formattedName.replaceAll("(?i)\\s" + SCENE_P2P_EPISODE_REGEX, " S" + tvSeason + "E$2");
-			formattedName = formattedName.replaceAll(SCENE_P2P_EPISODE_REGEX, " S" + tvSeason + "E$2");
+			formattedName = COMMON_FILE_ENDS_CASE_SENSITIVE_PATTERN.matcher(formattedName).replaceAll("");
+			formattedName = COMMON_FILE_ENDS_PATTERN.matcher(formattedName).replaceAll("");
+			formattedName = SCENE_P2P_EPISODE_SPACED_PATTERN.matcher(formattedName).replaceAll(" S" + tvSeason + "E$2 - ");
+			formattedName = SCENE_P2P_EPISODE_SPACE_PATTERN.matcher(formattedName).replaceAll(" S" + tvSeason + "E$2");
+			formattedName = SCENE_P2P_EPISODE_PATTERN.matcher(formattedName).replaceAll(" S" + tvSeason + "E$2");
 			formattedName = removeFilenameEndMetadata(formattedName);
 			formattedName = convertFormattedNameToTitleCaseParts(formattedName);
-		} else if (formattedName.matches(".*" + SCENE_P2P_EPISODE_SPECIAL_REGEX + ".*")) {
+		} else if (SCENE_P2P_EPISODE_SPECIAL_MATCH_PATTERN.matcher(formattedName).matches()) {
 			if (verboseDevLogging) {
 				System.out.println("SCENE_P2P_EPISODE_SPECIAL_REGEX: " + formattedName);
 			}
 			// This matches scene and most p2p TV special episodes, e.g. episodes that have no episode number in the filename
-			pattern = Pattern.compile(SCENE_P2P_EPISODE_SPECIAL_REGEX);
-			matcher = pattern.matcher(formattedName);
+			matcher = SCENE_P2P_EPISODE_SPECIAL_PATTERN.matcher(formattedName);
 			if (matcher.find()) {
 				tvSeason = matcher.group(1);
 				if (tvSeason.length() == 1) {
@@ -1021,19 +1092,18 @@ public class FileUtil {
 			}
 
 			// Then strip the end of the episode if it does not have the episode name in the title
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS_CASE_SENSITIVE + ")", "");
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS + ")", "");
-			formattedName = formattedName.replaceAll("(?i)\\s" + SCENE_P2P_EPISODE_SPECIAL_REGEX, " S" + tvSeason + " - $2");
+			formattedName = COMMON_FILE_ENDS_CASE_SENSITIVE_PATTERN.matcher(formattedName).replaceAll("");
+			formattedName = COMMON_FILE_ENDS_PATTERN.matcher(formattedName).replaceAll("");
+			formattedName = SCENE_P2P_EPISODE_SPECIAL_SPACE_PATTERN.matcher(formattedName).replaceAll(" S" + tvSeason + " - $2");
 			formattedName = removeFilenameEndMetadata(formattedName);
 			formattedName = convertFormattedNameToTitleCaseParts(formattedName);
-		} else if (formattedName.matches(".*[\\s-\\.](\\d{1,2})[xX]\\d\\d.*")) {
+		} else if (OLDER_SCENE_EPISODE_MATCH_PATTERN.matcher(formattedName).matches()) {
 			if (verboseDevLogging) {
 				System.out.println("older scene 1: " + formattedName);
 			}
 			// This matches older scene (like .avi releases) and some p2p TV episodes
 			// e.g. Universal Media Server - 1x02 - Mysterious Wordplay.mkv
-			pattern = Pattern.compile("[\\s-\\.](\\d{1,2})[xX](\\d\\d)");
-			matcher = pattern.matcher(formattedName);
+			matcher = OLDER_SCENE_EPISODE_PATTERN.matcher(formattedName);
 			if (matcher.find()) {
 				tvSeason = matcher.group(1);
 				if (tvSeason.length() == 1) {
@@ -1049,21 +1119,20 @@ public class FileUtil {
 			}
 
 			// Then strip the end of the episode if it does not have the episode name in the title
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS_CASE_SENSITIVE + ")", "");
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS + ")", "");
-			formattedName = formattedName.replaceAll("(?i)[\\s-\\.](\\d{1,2})[xX](\\d{1,})[\\s-\\.]", " S" + tvSeason + "E$2 - ");
-			formattedName = formattedName.replaceAll("(?i)[\\s-\\.](\\d{1,2})[xX](\\d{1,})", " S" + tvSeason + "E$2");
-			formattedName = formattedName.replaceAll("[\\s-\\.](\\d{1,2})[xX](\\d{1,})", " S" + tvSeason + "E$2");
+			formattedName = COMMON_FILE_ENDS_CASE_SENSITIVE_PATTERN.matcher(formattedName).replaceAll("");
+			formattedName = COMMON_FILE_ENDS_PATTERN.matcher(formattedName).replaceAll("");
+			formattedName = OLDER_SCENE_EPISODE_SPACED_PATTERN.matcher(formattedName).replaceAll(" S" + tvSeason + "E$2 - ");
+			formattedName = OLDER_SCENE_EPISODE_SPACE_CASE_INSENSITIVE_PATTERN.matcher(formattedName).replaceAll(" S" + tvSeason + "E$2");
+			formattedName = OLDER_SCENE_EPISODE_SPACE_PATTERN.matcher(formattedName).replaceAll(" S" + tvSeason + "E$2");
 			formattedName = removeFilenameEndMetadata(formattedName);
 			formattedName = convertFormattedNameToTitleCaseParts(formattedName);
-		} else if (formattedName.matches(".*\\s-\\s(\\d{3})\\s-\\s.*")) {
+		} else if (OLDER_SCENE_THREE_DIGITS_MATCH_PATTERN.matcher(formattedName).matches()) {
 			if (verboseDevLogging) {
 				System.out.println("older scene 2: " + formattedName);
 			}
 			// This matches other older scene (like .avi releases) and some p2p TV episodes
 			// e.g. Universal Media Server - 102 - Mysterious Wordplay.mkv
-			pattern = Pattern.compile("\\s-\\s(\\d{3})\\s-\\s");
-			matcher = pattern.matcher(formattedName);
+			matcher = OLDER_SCENE_THREE_DIGITS_PATTERN.matcher(formattedName);
 			if (matcher.find()) {
 				String tvSeasonAndEpisode = matcher.group(1);
 				tvSeason = "0" + tvSeasonAndEpisode.substring(0, 1);
@@ -1077,14 +1146,14 @@ public class FileUtil {
 			}
 
 			// Then strip the end of the episode if it does not have the episode name in the title
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS_CASE_SENSITIVE + ")", "");
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS + ")", "");
-			formattedName = formattedName.replaceAll("(?i)\\s-\\s(\\d{3})\\s-\\s", " S" + tvSeason + "E" + tvEpisodeNumber + " - ");
-			formattedName = formattedName.replaceAll("(?i)\\s(\\d{3})", " S" + tvSeason + "E" + tvEpisodeNumber);
-			formattedName = formattedName.replaceAll("\\s(\\d{3})", " S" + tvSeason + "E" + tvEpisodeNumber);
+			formattedName = COMMON_FILE_ENDS_CASE_SENSITIVE_PATTERN.matcher(formattedName).replaceAll("");
+			formattedName = COMMON_FILE_ENDS_PATTERN.matcher(formattedName).replaceAll("");
+			formattedName = OLDER_SCENE_THREE_DIGITS_PATTERN.matcher(formattedName).replaceAll(" S" + tvSeason + "E" + tvEpisodeNumber + " - ");
+			formattedName = OLDER_SCENE_THREE_DIGITS_SPACE_PATTERN.matcher(formattedName).replaceAll(" S" + tvSeason + "E" + tvEpisodeNumber);
+			formattedName = OLDER_SCENE_THREE_DIGITS_SPACE_PATTERN.matcher(formattedName).replaceAll(" S" + tvSeason + "E" + tvEpisodeNumber);
 			formattedName = removeFilenameEndMetadata(formattedName);
 			formattedName = convertFormattedNameToTitleCaseParts(formattedName);
-		} else if (formattedName.matches(MINISERIES_CONVENTION_MATCH)) {
+		} else if (MINISERIES_CONVENTION_MATCH_PATTERN.matcher(formattedName).matches()) {
 			if (verboseDevLogging) {
 				System.out.println("MINISERIES_CONVENTION_MATCH: " + formattedName);
 			}
@@ -1106,8 +1175,8 @@ public class FileUtil {
 			}
 
 			// Then strip the end of the episode if it does not have the episode name in the title
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS_CASE_SENSITIVE + ")", "");
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS + ")", "");
+			formattedName = COMMON_FILE_ENDS_CASE_SENSITIVE_PATTERN.matcher(formattedName).replaceAll("");
+			formattedName = COMMON_FILE_ENDS_PATTERN.matcher(formattedName).replaceAll("");
 
 			// Here we match existing case, otherwise we risk breaking the Title Case conversion later
 			String seasonLetterReplace = "S";
@@ -1116,10 +1185,10 @@ public class FileUtil {
 				seasonLetterReplace = "s";
 				episodeLetterReplace = "e";
 			}
-			formattedName = formattedName.replaceAll(MINISERIES_CONVENTION, " " + seasonLetterReplace + tvSeason + episodeLetterReplace + tvEpisodeNumber + " - ");
+			formattedName = MINISERIES_CONVENTION_PATTERN.matcher(formattedName).replaceAll(" " + seasonLetterReplace + tvSeason + episodeLetterReplace + tvEpisodeNumber + " - ");
 			formattedName = removeFilenameEndMetadata(formattedName);
 			formattedName = convertFormattedNameToTitleCaseParts(formattedName);
-		} else if (formattedName.matches(MIXED_EPISODE_CONVENTION_MATCH)) {
+		} else if (MIXED_EPISODE_CONVENTION_MATCH_PATTERN.matcher(formattedName).matches()) {
 			if (verboseDevLogging) {
 				System.out.println("MIXED_EPISODE_CONVENTION_MATCH: " + formattedName);
 			}
@@ -1138,8 +1207,8 @@ public class FileUtil {
 			}
 
 			// Then strip the end of the episode if it does not have the episode name in the title
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS_CASE_SENSITIVE + ")", "");
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS + ")", "");
+			formattedName = COMMON_FILE_ENDS_CASE_SENSITIVE_PATTERN.matcher(formattedName).replaceAll("");
+			formattedName = COMMON_FILE_ENDS_PATTERN.matcher(formattedName).replaceAll("");
 
 			// Here we match existing case, otherwise we risk breaking the Title Case conversion later
 			String seasonLetterReplace = "S";
@@ -1148,16 +1217,15 @@ public class FileUtil {
 				seasonLetterReplace = "s";
 				episodeLetterReplace = "e";
 			}
-			formattedName = formattedName.replaceAll(MIXED_EPISODE_CONVENTION, " " + seasonLetterReplace + tvSeason + episodeLetterReplace + tvEpisodeNumber + " - ");
+			formattedName = MIXED_EPISODE_CONVENTION_PATTERN.matcher(formattedName).replaceAll(" " + seasonLetterReplace + tvSeason + episodeLetterReplace + tvEpisodeNumber + " - ");
 			formattedName = removeFilenameEndMetadata(formattedName);
 			formattedName = convertFormattedNameToTitleCaseParts(formattedName);
-		} else if (formattedName.matches(".*\\s(19|20)\\d{2}\\s[0-1]\\d\\s[0-3]\\d\\s.*")) {
+		} else if (DAILY_EPISODE_MATCH_PATTERN.matcher(formattedName).matches()) {
 			if (verboseDevLogging) {
 				System.out.println("daily scene and p2p episode: " + formattedName);
 			}
 			// This matches scene and most p2p TV episodes that release several times per week
-			pattern = Pattern.compile("\\s((?:19|20)\\d{2})\\s([0-1]\\d)\\s([0-3]\\d)\\s");
-			matcher = pattern.matcher(formattedName);
+			matcher = DAILY_EPISODE_PATTERN.matcher(formattedName);
 			if (matcher.find()) {
 				tvSeason = matcher.group(1);
 				tvEpisodeNumber = matcher.group(2);
@@ -1165,11 +1233,11 @@ public class FileUtil {
 			}
 
 			// Rename the date. For example, "2013.03.18" changes to "2013/03/18"
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS_CASE_SENSITIVE + ")", "");
-			formattedName = formattedName.replaceAll("(" + COMMON_FILE_ENDS + ")", "");
-			formattedName = formattedName.replaceAll("(?i)\\s(19|20)(\\d{2})\\s([0-1]\\d)\\s([0-3]\\d)\\s", " $1$2/$3/$4 - ");
-			formattedName = formattedName.replaceAll("(?i)\\s(19|20)(\\d{2})\\s([0-1]\\d)\\s([0-3]\\d)", " $1$2/$3/$4");
-			formattedName = formattedName.replaceAll("\\s(19|20)(\\d{2})\\s([0-1]\\d)\\s([0-3]\\d)", " $1$2/$3/$4");
+			formattedName = COMMON_FILE_ENDS_CASE_SENSITIVE_PATTERN.matcher(formattedName).replaceAll("");
+			formattedName = COMMON_FILE_ENDS_PATTERN.matcher(formattedName).replaceAll("");
+			formattedName = DAILY_EPISODE_DATE_SPACED_PATTERN.matcher(formattedName).replaceAll(" $1$2/$3/$4 - ");
+			formattedName = DAILY_EPISODE_DATE_PATTERN.matcher(formattedName).replaceAll(" $1$2/$3/$4");
+			formattedName = DAILY_EPISODE_DATE_PATTERN.matcher(formattedName).replaceAll(" $1$2/$3/$4");
 			FormattedNameAndEdition result = removeAndSaveEditionToBeAddedLater(formattedName);
 			formattedName = result.getFormattedName();
 			if (result.getEdition() != null) {
@@ -1178,21 +1246,21 @@ public class FileUtil {
 
 			formattedName = removeFilenameEndMetadata(formattedName);
 			formattedName = convertFormattedNameToTitleCaseParts(formattedName);
-		} else if (formattedName.matches("^(?!.*\\d{1,3}[\\s:][\\s-]).*\\s(?:19|20)\\d{2}([1-9]|1[0-2])([1-9]|[12][0-9]|3[01]).*")) {
+		} else if (SPORTS_MATCH_PATTERN.matcher(formattedName).matches()) {
 			if (verboseDevLogging) {
 				System.out.println("sports: " + formattedName);
 			}
 			// This matches some sports releases
 
 			formattedName = convertFormattedNameToTitleCase(formattedName);
-		} else if (formattedName.matches(SCENE_P2P_MOVIE_MATCH)) {
+		} else if (SCENE_P2P_MOVIE_MATCH_PATTERN.matcher(formattedName).matches()) {
 			if (verboseDevLogging) {
 				System.out.println("SCENE_P2P_MOVIE_MATCH: " + formattedName);
 			}
 			// This matches scene and most p2p movies
 
 			// Rename the year. For example, "2013" changes to " (2013)"
-			formattedName = formattedName.replaceAll("\\s(19|20)(\\d{2})", " ($1$2)");
+			formattedName = MOVIE_YEAR_PATTERN.matcher(formattedName).replaceAll(" ($1$2)");
 			formattedName = removeFilenameEndMetadata(formattedName);
 			FormattedNameAndEdition result = removeAndSaveEditionToBeAddedLater(formattedName);
 			formattedName = result.getFormattedName();
@@ -1201,18 +1269,18 @@ public class FileUtil {
 			}
 
 			formattedName = convertFormattedNameToTitleCase(formattedName);
-		} else if (formattedName.matches(".*\\[(19|20)\\d{2}\\].*")) {
+		} else if (BRACKETED_YEAR_MATCH_PATTERN.matcher(formattedName).matches()) {
 			if (verboseDevLogging) {
 				System.out.println("rarer movies 1: " + formattedName);
 			}
 			// This matches rarer types of movies
 
 			// Rename the year. For example, "2013" changes to " (2013)"
-			formattedName = formattedName.replaceAll("(?i)\\[(19|20)(\\d{2})\\].*", " ($1$2)");
+			formattedName = BRACKETED_YEAR_PATTERN.matcher(formattedName).replaceAll(" ($1$2)");
 			formattedName = removeFilenameEndMetadata(formattedName);
 
 			formattedName = convertFormattedNameToTitleCase(formattedName);
-		} else if (formattedName.matches(".*\\((19|20)\\d{2}\\).*")) {
+		} else if (PARENTHESIZED_YEAR_MATCH_PATTERN.matcher(formattedName).matches()) {
 			if (verboseDevLogging) {
 				System.out.println("rarer movies 2: " + formattedName);
 			}
@@ -1220,7 +1288,9 @@ public class FileUtil {
 			formattedName = removeFilenameEndMetadata(formattedName);
 
 			formattedName = convertFormattedNameToTitleCase(formattedName);
-		} else if (formattedName.matches(".*\\[[0-9a-zA-Z]{8}\\]$") || formattedName.matches(".*\\s-\\s\\d{1,3}$") || formattedName.matches(COMMON_ANIME_FILE_ENDS_MATCH)) {
+		} else if (ANIME_HASH_END_MATCH_PATTERN.matcher(formattedName).matches() ||
+				ANIME_EPISODE_END_MATCH_PATTERN.matcher(formattedName).matches() ||
+				COMMON_ANIME_FILE_ENDS_MATCH_PATTERN.matcher(formattedName).matches()) {
 			if (verboseDevLogging) {
 				System.out.println("anime: " + formattedName);
 			}
@@ -1230,7 +1300,7 @@ public class FileUtil {
 			 */
 
 			// Remove stuff at the end of the filename like hash, quality, source, etc.
-			formattedName = formattedName.replaceAll(COMMON_ANIME_FILE_ENDS, "");
+			formattedName = COMMON_ANIME_FILE_ENDS_PATTERN.matcher(formattedName).replaceAll("");
 
 			matcher = COMMON_ANIME_EPISODE_NUMBERS_PATTERN.matcher(formattedName);
 			if (matcher.find()) {
@@ -1276,7 +1346,7 @@ public class FileUtil {
 			}
 
 			formattedName = convertFormattedNameToTitleCase(formattedName);
-		} else if (formattedName.matches(COMMON_FILE_ENDS_MATCH)) {
+		} else if (COMMON_FILE_ENDS_MATCH_PATTERN.matcher(formattedName).matches()) {
 			if (verboseDevLogging) {
 				System.out.println("COMMON_FILE_ENDS_MATCH: " + formattedName);
 			}
@@ -1293,7 +1363,7 @@ public class FileUtil {
 		}
 
 		// Remove extra spaces
-		formattedName = formattedName.replaceAll("\\s+", " ");
+		formattedName = WHITESPACES_PATTERN.matcher(formattedName).replaceAll(" ");
 		formattedName = formattedName.trim();
 		if (movieOrShowName != null) {
 			movieOrShowName = movieOrShowName.trim();
@@ -1338,7 +1408,7 @@ public class FileUtil {
 			if (movieOrShowName != null) {
 				movieOrShowName = movieOrShowName.trim();
 			}
-			int yearIndex = indexOf(Pattern.compile("(?:\\(|\\s)(?:19|20)\\d{2}"), movieOrShowName);
+			int yearIndex = indexOf(SHOW_NAME_YEAR_PATTERN, movieOrShowName);
 			if (yearIndex > -1) {
 				year = formattedName.substring(yearIndex + 1, yearIndex + 5);
 				movieOrShowName = formattedName.substring(0, yearIndex);
@@ -1349,7 +1419,7 @@ public class FileUtil {
 			if (isMovieWithoutYear) {
 				movieOrShowName = formattedName;
 			} else {
-				int yearIndex = indexOf(Pattern.compile("\\s\\((?:19|20)\\d{2}\\)"), formattedName);
+				int yearIndex = indexOf(MOVIE_NAME_YEAR_PATTERN, formattedName);
 				if (yearIndex > -1) {
 					movieOrShowName = formattedName.substring(0, yearIndex);
 					year = formattedName.substring(yearIndex + 2, yearIndex + 6);
@@ -1739,11 +1809,12 @@ public class FileUtil {
 	 * @throws IOException
 	 */
 	public static CharsetMatch getFileCharsetMatch(@Nonnull File file) throws IOException {
-		InputStream in = new BufferedInputStream(new FileInputStream(file));
-		CharsetDetector detector = new CharsetDetector();
-		detector.setText(in);
-		// Get best match only.
-		return detector.detect();
+		try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+			CharsetDetector detector = new CharsetDetector();
+			detector.setText(in);
+			// Get best match only.
+			return detector.detect();
+		}
 	}
 
 	/**
@@ -2191,7 +2262,7 @@ public class FileUtil {
 		filename = removeGroupNameFromBeginning(filename);
 
 		// Replace periods and underscores with spaces
-		return  filename.replaceAll("\\.|_", " ");
+		return  PERIOD_OR_UNDERSCORE_PATTERN.matcher(filename).replaceAll(" ");
 	}
 
 	public static String renameForSorting(String filename) {
@@ -2205,10 +2276,10 @@ public class FileUtil {
 
 		if (PMS.getConfiguration().isIgnoreTheWordAandThe()) {
 			// Remove "a" and "the" from filename
-			filename = filename.replaceAll("^(?i)A[ .]|The[ .]", "");
+			filename = LEADING_ARTICLE_PATTERN.matcher(filename).replaceAll("");
 
 			// Replace multiple whitespaces with space
-			filename = filename.replaceAll("\\s{2,}", " ");
+			filename = MULTIPLE_WHITESPACES_PATTERN.matcher(filename).replaceAll(" ");
 		}
 
 		return filename;
@@ -0,0 +1,74 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A {@link LinkedHashMap} in access order that drops its least recently used
+ * entry when it grows over a maximum size.
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+@NotThreadSafe
+public class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int maxSize;
+
+	/**
+	 * Constructs an empty {@link LruMap}.
+	 *
+	 * @param maxSize the maximum number of entries kept.
+	 */
+	public LruMap(int maxSize) {
+		super(16, 0.75f, true);
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return the maximum number of entries kept.
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	@Override
+	protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+		return size() > maxSize;
+	}
+
+	/**
+	 * Creates a thread-safe {@link LruMap}. Like any
+	 * {@link Collections#synchronizedMap}, iterating over its views must be
+	 * done while synchronized on the returned map.
+	 *
+	 * @param <K> the key type.
+	 * @param <V> the value type.
+	 * @param maxSize the maximum number of entries kept.
+	 * @return the synchronized map.
+	 */
+	public static <K, V> Map<K, V> synchronizedMap(int maxSize) {
+		return Collections.synchronizedMap(new LruMap<>(maxSize));
+	}
+
+}
@@ -0,0 +1,302 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+/**
+ * A compact table of presentation time to byte offset for a MPEG transport
+ * stream (TS or M2TS) or program stream.
+ *
+ * The table is built once by probing the file at regular intervals, then seeks
+ * are answered by a binary search in memory with a linear interpolation between
+ * the two surrounding entries.
+ */
+public class MpegSeekIndex {
+
+	private static final int FORMAT_VERSION = 1;
+	private static final int MAX_ENTRIES = 512;
+	private static final long MIN_SPACING = 8L * 1024 * 1024;
+	private static final int WINDOW = 250000;
+	private static final long PTS_WRAP = 1L << 33;
+	private static final int PTS_CLOCK = 90000;
+
+	private final long length;
+	private final int packetSize;
+	private final long[] offsets;
+	private final long[] times;
+
+	private MpegSeekIndex(long length, int packetSize, long[] offsets, long[] times) {
+		this.length = length;
+		this.packetSize = packetSize;
+		this.offsets = offsets;
+		this.times = times;
+	}
+
+	/**
+	 * @return the file length this index was built for.
+	 */
+	public long getLength() {
+		return length;
+	}
+
+	/**
+	 * @return the number of entries.
+	 */
+	public int size() {
+		return offsets.length;
+	}
+
+	/**
+	 * @return the indexed duration in seconds.
+	 */
+	public double getDuration() {
+		return offsets.length == 0 ? 0 : times[times.length - 1] / (double) PTS_CLOCK;
+	}
+
+	/**
+	 * Gets the byte position for the given time, aligned on a packet boundary.
+	 *
+	 * @param seconds the time from the start of the stream.
+	 * @return the position in bytes.
+	 */
+	public long getPosition(double seconds) {
+		if (offsets.length == 0 || seconds <= 0) {
+			return 0;
+		}
+		long pts = (long) (seconds * PTS_CLOCK);
+		int index = Arrays.binarySearch(times, pts);
+		if (index >= 0) {
+			return offsets[index];
+		}
+		int next = -index - 1;
+		if (next >= times.length) {
+			return offsets[offsets.length - 1];
+		}
+		int previous = next - 1;
+		if (previous < 0) {
+			return offsets[0];
+		}
+		long position = offsets[previous] + (long) ((offsets[next] - offsets[previous]) *
+			((pts - times[previous]) / (double) (times[next] - times[previous])));
+		return offsets[previous] + ((position - offsets[previous]) / packetSize) * packetSize;
+	}
+
+	/**
+	 * Builds the index by probing the file.
+	 *
+	 * @param file the TS, M2TS or PS file.
+	 * @return the index, or {@code null} if the file is not a MPEG stream
+	 * with timestamped video.
+	 * @throws IOException
+	 */
+	public static MpegSeekIndex build(File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			long length = raf.length();
+			if (length < 2 * WINDOW) {
+				return null;
+			}
+			byte[] buffer = new byte[WINDOW];
+			PesTimestamp first = readFirstTimestamp(raf, 0, buffer, -1);
+			if (first == null) {
+				return null;
+			}
+			int count = (int) Math.max(2, Math.min(MAX_ENTRIES, length / MIN_SPACING));
+			long step = (length - WINDOW) / (count - 1);
+			long[] offsets = new long[count];
+			long[] times = new long[count];
+			int size = 0;
+			offsets[size] = first.offset;
+			times[size] = 0;
+			size++;
+			for (int i = 1; i < count; i++) {
+				PesTimestamp current = readFirstTimestamp(raf, i * step, buffer, first.pid);
+				if (current == null) {
+					continue;
+				}
+				long time = current.pts - first.pts;
+				if (time < 0) {
+					time += PTS_WRAP;
+				}
+				// keep the table strictly increasing
+				if (time <= times[size - 1] || current.offset <= offsets[size - 1]) {
+					continue;
+				}
+				offsets[size] = current.offset;
+				times[size] = time;
+				size++;
+			}
+			return new MpegSeekIndex(length, first.packetSize, Arrays.copyOf(offsets, size), Arrays.copyOf(times, size));
+		}
+	}
+
+	public byte[] toByteArray() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + offsets.length * 16);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(FORMAT_VERSION);
+			out.writeLong(length);
+			out.writeInt(packetSize);
+			out.writeInt(offsets.length);
+			for (int i = 0; i < offsets.length; i++) {
+				out.writeLong(offsets[i]);
+				out.writeLong(times[i]);
+			}
+		} catch (IOException e) {
+			// cannot happen on a byte array
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Reads an index written by {@link #toByteArray()}.
+	 *
+	 * @param data the serialized index.
+	 * @return the index, or {@code null} if the data is not readable.
+	 */
+	public static MpegSeekIndex fromByteArray(byte[] data) {
+		if (data == null) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+			if (in.readInt() != FORMAT_VERSION) {
+				return null;
+			}
+			long length = in.readLong();
+			int packetSize = in.readInt();
+			int size = in.readInt();
+			if (size < 0 || size > MAX_ENTRIES) {
+				return null;
+			}
+			long[] offsets = new long[size];
+			long[] times = new long[size];
+			for (int i = 0; i < size; i++) {
+				offsets[i] = in.readLong();
+				times[i] = in.readLong();
+			}
+			return new MpegSeekIndex(length, packetSize, offsets, times);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Finds the first video PES header carrying a PTS in the window starting
+	 * at the given position.
+	 *
+	 * @param pid the PID to look for, or -1 for the first video PID found.
+	 */
+	private static PesTimestamp readFirstTimestamp(RandomAccessFile raf, long position, byte[] buffer, int pid) throws IOException {
+		raf.seek(position);
+		int read = raf.read(buffer, 0, buffer.length);
+		if (read < 1000) {
+			return null;
+		}
+		int packetSize = 0;
+		int start = 0;
+		for (int i = 0; i < 400; i++) {
+			if (buffer[i] == 0x47 && buffer[i + 188] == 0x47 && buffer[i + 376] == 0x47) {
+				packetSize = 188;
+				start = i;
+				break;
+			} else if (buffer[i] == 0x47 && buffer[i + 192] == 0x47 && buffer[i + 384] == 0x47) {
+				packetSize = 192;
+				start = i;
+				break;
+			}
+		}
+		if (packetSize == 0) {
+			return readFirstProgramStreamTimestamp(position, buffer, read, pid);
+		}
+		for (int i = start; i + 188 <= read; i += packetSize) {
+			if (buffer[i] != 0x47) {
+				return null;
+			}
+			boolean payloadStart = (buffer[i + 1] & 0x40) != 0;
+			int packetPid = ((buffer[i + 1] & 0x1f) << 8) | (buffer[i + 2] & 0xff);
+			int adaptation = (buffer[i + 3] >> 4) & 0x3;
+			if (!payloadStart || (pid != -1 && packetPid != pid) || (adaptation & 0x1) == 0) {
+				continue;
+			}
+			int payload = i + 4;
+			if (adaptation == 0x3) {
+				payload += 1 + (buffer[i + 4] & 0xff);
+			}
+			if (payload + 14 > i + 188) {
+				continue;
+			}
+			// 00 00 01 Ex : video PES with PTS
+			if (buffer[payload] == 0 && buffer[payload + 1] == 0 && buffer[payload + 2] == 1 &&
+					(buffer[payload + 3] & 0xf0) == 0xe0 && (buffer[payload + 7] & 0x80) != 0) {
+				long pts = getPts(buffer, payload + 9);
+				long offset = position + i - (packetSize == 192 ? 4 : 0);
+				return new PesTimestamp(packetPid, packetSize, Math.max(0, offset), pts);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Program stream variant: PES packets are not wrapped, the position
+	 * returned is the one of the pack header preceding the PES when found.
+	 */
+	private static PesTimestamp readFirstProgramStreamTimestamp(long position, byte[] buffer, int read, int streamId) {
+		int pack = -1;
+		for (int i = 0; i + 14 <= read; i++) {
+			if (buffer[i] != 0 || buffer[i + 1] != 0 || buffer[i + 2] != 1) {
+				continue;
+			}
+			int id = buffer[i + 3] & 0xff;
+			if (id == 0xba) {
+				pack = i;
+			} else if ((id & 0xf0) == 0xe0 && (streamId == -1 || id == streamId) && pack != -1 &&
+					(buffer[i + 6] & 0xc0) == 0x80 && (buffer[i + 7] & 0x80) != 0) {
+				return new PesTimestamp(id, 1, position + pack, getPts(buffer, i + 9));
+			}
+		}
+		return null;
+	}
+
+	private static long getPts(byte[] buffer, int offset) {
+		return ((long) (buffer[offset] & 0x0e) << 29) |
+			((buffer[offset + 1] & 0xff) << 22) |
+			((buffer[offset + 2] & 0xfe) << 14) |
+			((buffer[offset + 3] & 0xff) << 7) |
+			((buffer[offset + 4] & 0xfe) >> 1);
+	}
+
+	private static class PesTimestamp {
+		private final int pid;
+		private final int packetSize;
+		private final long offset;
+		private final long pts;
+
+		private PesTimestamp(int pid, int packetSize, long offset, long pts) {
+			this.pid = pid;
+			this.packetSize = packetSize;
+			this.offset = offset;
+			this.pts = pts;
+		}
+	}
+
+}
@@ -101,13 +101,21 @@ public class MpegUtil {
 	/**
 	 * gets position for specified time in MPEG stream (M2TS, TS)
 	 *
+	 * This probes the file on each call, prefer
+	 * {@link net.pms.store.SeekIndexStore#getPositionForTime(File, double)}.
+	 *
 	 * @param f - file to check
 	 * @param timeS - time (in seconds) to find
 	 * @return position in stream (in bytes).
 	 * @throws IOException
 	 */
 	public static long getPositionForTimeInMpeg(File f, int timeS) throws IOException {
-		RandomAccessFile raf = new RandomAccessFile(f, "r");
+		try (RandomAccessFile raf = new RandomAccessFile(f, "r")) {
+			return getPositionForTimeInMpeg(raf, timeS);
+		}
+	}
+
+	private static long getPositionForTimeInMpeg(RandomAccessFile raf, int timeS) throws IOException {
 		Map<Integer, Integer> ptsStart = checkRange(raf, 0, 250000, false);
 		long currentPos = 0;
 
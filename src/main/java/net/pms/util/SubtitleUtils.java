@@ -59,6 +59,7 @@ import net.pms.media.subtitle.MediaSubtitle;
 import net.pms.media.video.MediaVideo.Mode3D;
 import net.pms.renderers.Renderer;
 import net.pms.store.StoreResource;
+import net.pms.store.SubtitleAnalysisStore;
 import static net.pms.util.Constants.*;
 import net.pms.util.FileUtil.BufferedReaderDetectCharsetResult;
 import net.pms.util.StringUtil.LetterCase;
@@ -385,7 +386,7 @@ public class SubtitleUtils {
 			params.getSid().setType(SubtitleType.ASS);
 		}
 
-		PMS.get().addTempFile(tempSubs, 30 * 24 * 3600 * 1000);
+		PMS.get().addTempFile(tempSubs, 30L * 24 * 3600 * 1000, TempFileMgr.Category.SUBTITLES);
 		params.getSid().setConvertedFile(tempSubs);
 		return tempSubs;
 	}
@@ -1022,6 +1023,9 @@ public class SubtitleUtils {
 					}
 					cacheFolder.setItems(folderSubtitlesList);
 					folderSubtitles.addAll(folderSubtitlesList);
+					for (File subtitlesFile : folderSubtitlesList) {
+						SubtitleAnalysisStore.prepareAnalysis(subtitlesFile);
+					}
 				} else {
 					folderSubtitles.addAll(Arrays.asList(cacheFolder.getItems()));
 				}
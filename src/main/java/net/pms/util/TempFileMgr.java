@@ -16,17 +16,22 @@
  */
 package net.pms.util;
 
+import com.google.gson.JsonObject;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Iterator;
-import java.util.Map.Entry;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
 import net.pms.PMS;
@@ -34,15 +39,55 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Deletes the temporary files after their clean time, and the oldest ones
+ * when their total size exceeds the configured quota.
+ *
+ * The managed files are kept in a journal file: each change is appended to
+ * it, and it is rewritten with the remaining files only when it grows too
+ * much or when the files are checked.
+ */
 public class TempFileMgr {
 	private static final Logger LOGGER = LoggerFactory.getLogger(TempFileMgr.class);
-	private static final int DEFAULT_CLEAN_TIME = 14 * 24 * 3600 * 1000;
-	private static final int INTERVAL = 24 * 3600 * 1000;
-	private final HashMap<File, Integer> files;
+	private static final long DEFAULT_CLEAN_TIME = 14L * 24 * 3600 * 1000;
+	private static final long INTERVAL = 24L * 3600 * 1000;
+	private static final String ADDED = "+\t";
+	private static final String REMOVED = "-\t";
+
+	/**
+	 * The journal is rewritten when it has this many lines more than the
+	 * managed files.
+	 */
+	private static final int MAX_JOURNAL_OVERHEAD = 1000;
+
+	/**
+	 * The managed files, the least recently added first.
+	 */
+	private final LinkedHashMap<File, Entry> files = new LinkedHashMap<>();
+	private final EnumMap<Category, long[]> usage = new EnumMap<>(Category.class);
+	private long totalSize;
+	private long evicted;
+	private int journalLines;
+	private Writer journal;
+	private boolean loading;
+
+	/**
+	 * The kinds of managed temporary files.
+	 */
+	public enum Category {
+		SUBTITLES,
+		RESUME,
+		OTHER
+	}
 
 	public TempFileMgr() {
-		files = new HashMap<>();
-		parseCleanFile();
+		for (Category category : Category.values()) {
+			usage.put(category, new long[2]);
+		}
+		synchronized (this) {
+			parseCleanFile();
+			writeCleanFile();
+		}
 	}
 
 	public void add(File f) {
@@ -51,50 +96,101 @@ public class TempFileMgr {
 
 	public void add(File f, String str) {
 		try {
-			add(f, Integer.parseInt(str));
+			add(f, Long.parseLong(str));
 		} catch (NumberFormatException e) {
 			add(f);
 		}
 	}
 
-	public void add(File f, int cleanTime) {
-		files.put(f, cleanTime);
-		try {
-			dumpFile();
-		} catch (IOException e) {
-			LOGGER.error(
-				"An error occurred while trying to add \"{}\" to temporary file management: {}",
-				f.getAbsolutePath(),
-				e.getMessage()
-			);
-			LOGGER.trace("", e);
+	public void add(File f, long cleanTime) {
+		add(f, cleanTime, Category.OTHER);
+	}
+
+	/**
+	 * Manages a temporary file.
+	 *
+	 * @param f the file.
+	 * @param cleanTime how long the file is kept after its last
+	 *            modification, in milliseconds.
+	 * @param category the kind of file.
+	 */
+	public synchronized void add(File f, long cleanTime, Category category) {
+		f = f.getAbsoluteFile();
+		remove(f);
+		Entry entry = new Entry(cleanTime, category, f.length());
+		files.put(f, entry);
+		account(entry, 1);
+		if (!loading) {
+			append(ADDED + f.getPath() + "\t" + cleanTime + "\t" + category);
+			evict(f);
 		}
 	}
 
-	private void scan() {
+	/**
+	 * Deletes the least recently added files until the total size fits the
+	 * quota.
+	 *
+	 * @param keep the file to keep.
+	 */
+	private void evict(File keep) {
+		long quota = PMS.getConfiguration().getTempFilesQuota() * 1024L * 1024L;
+		if (quota <= 0 || totalSize <= quota) {
+			return;
+		}
+		Iterator<Map.Entry<File, Entry>> it = files.entrySet().iterator();
+		while (totalSize > quota && it.hasNext()) {
+			Map.Entry<File, Entry> file = it.next();
+			if (file.getKey().equals(keep)) {
+				continue;
+			}
+			it.remove();
+			account(file.getValue(), -1);
+			append(REMOVED + file.getKey().getPath());
+			evicted++;
+			if (file.getKey().delete()) {
+				LOGGER.debug("Deleted temporary file \"{}\" to stay within the quota", file.getKey());
+			} else if (file.getKey().exists()) {
+				LOGGER.warn("Failed to delete temporary file \"{}\"", file.getKey().getAbsolutePath());
+			}
+		}
+	}
+
+	private void remove(File f) {
+		Entry entry = files.remove(f);
+		if (entry != null) {
+			account(entry, -1);
+		}
+	}
+
+	private void account(Entry entry, int sign) {
+		long[] categoryUsage = usage.get(entry.category);
+		categoryUsage[0] += sign;
+		categoryUsage[1] += sign * entry.size;
+		totalSize += sign * entry.size;
+	}
+
+	private synchronized void scan() {
 		long now = System.currentTimeMillis();
-		for (Iterator<Entry<File, Integer>> it = files.entrySet().iterator(); it.hasNext();) {
-			Entry<File, Integer> entry = it.next();
-			if (!entry.getKey().exists()) {
+		for (Iterator<Map.Entry<File, Entry>> it = files.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<File, Entry> file = it.next();
+			account(file.getValue(), -1);
+			if (!file.getKey().exists()) {
 				it.remove();
 				continue;
 			}
-			if ((now - entry.getKey().lastModified()) > entry.getValue()) {
+			if ((now - file.getKey().lastModified()) > file.getValue().cleanTime) {
 				it.remove();
-				if (!entry.getKey().delete()) {
-					LOGGER.warn("Failed to delete temporary file \"{}\"", entry.getKey().getAbsolutePath());
+				if (!file.getKey().delete()) {
+					LOGGER.warn("Failed to delete temporary file \"{}\"", file.getKey().getAbsolutePath());
 				}
+				continue;
 			}
+			// the file may have been written after being added
+			file.getValue().size = file.getKey().length();
+			account(file.getValue(), 1);
 		}
-		try {
-			dumpFile();
-		} catch (IOException e) {
-			LOGGER.error(
-				"An error occurred while trying to write the temporary file management file: {}",
-				e.getMessage()
-			);
-			LOGGER.trace("", e);
-		}
+		evict(null);
+		writeCleanFile();
 	}
 
 	public void schedule() {
@@ -104,10 +200,31 @@ public class TempFileMgr {
 				scan();
 			}
 		};
-		Timer t = new Timer();
+		Timer t = new Timer("Temporary files cleaner", true);
 		t.scheduleAtFixedRate(task, 0, INTERVAL);
 	}
 
+	/**
+	 * @return the number and size of the managed files by category, and the
+	 *         quota.
+	 */
+	public synchronized JsonObject toJson() {
+		JsonObject result = new JsonObject();
+		result.addProperty("count", files.size());
+		result.addProperty("size", totalSize);
+		result.addProperty("quota", PMS.getConfiguration().getTempFilesQuota() * 1024L * 1024L);
+		result.addProperty("evicted", evicted);
+		JsonObject categories = new JsonObject();
+		for (Map.Entry<Category, long[]> categoryUsage : usage.entrySet()) {
+			JsonObject category = new JsonObject();
+			category.addProperty("count", categoryUsage.getValue()[0]);
+			category.addProperty("size", categoryUsage.getValue()[1]);
+			categories.add(categoryUsage.getKey().toString().toLowerCase(), category);
+		}
+		result.add("categories", categories);
+		return result;
+	}
+
 	private static File cleanFile() {
 		return new File(PMS.getConfiguration().getDataFile("UMS.tmpmgr"));
 	}
@@ -117,6 +234,7 @@ public class TempFileMgr {
 		if (!f.exists()) {
 			return;
 		}
+		loading = true;
 		try {
 			try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8))) {
 				String str;
@@ -125,11 +243,21 @@ public class TempFileMgr {
 					if (StringUtils.isEmpty(str) || str.startsWith("#")) {
 						continue;
 					}
-					String[] tmp = str.split(",");
-					if (tmp.length > 1) {
-						add(new File(tmp[0]), tmp[1]);
+					if (str.startsWith(REMOVED)) {
+						remove(new File(str.substring(REMOVED.length())));
+					} else if (str.startsWith(ADDED)) {
+						String[] tmp = str.substring(ADDED.length()).split("\t");
+						if (tmp.length > 2) {
+							add(new File(tmp[0]), parseCleanTime(tmp[1]), parseCategory(tmp[2]));
+						}
 					} else {
-						add(new File(tmp[0]));
+						// written by older versions
+						String[] tmp = str.split(",");
+						if (tmp.length > 1) {
+							add(new File(tmp[0]), tmp[1]);
+						} else {
+							add(new File(tmp[0]));
+						}
 					}
 				}
 			}
@@ -140,20 +268,94 @@ public class TempFileMgr {
 				e.getMessage()
 			);
 			LOGGER.trace("", e);
+		} finally {
+			loading = false;
+		}
+	}
+
+	private static long parseCleanTime(String str) {
+		try {
+			return Long.parseLong(str);
+		} catch (NumberFormatException e) {
+			return DEFAULT_CLEAN_TIME;
+		}
+	}
+
+	private static Category parseCategory(String str) {
+		try {
+			return Category.valueOf(str);
+		} catch (IllegalArgumentException e) {
+			return Category.OTHER;
 		}
 	}
 
-	private void dumpFile() throws IOException {
-		try (FileOutputStream out = new FileOutputStream(cleanFile())) {
-			Date now = new Date();
-			String n = "## " + now.toString() + "\n";
-			out.write("#########\n".getBytes(StandardCharsets.UTF_8));
-			out.write(n.getBytes(StandardCharsets.UTF_8));
-			for (Entry<File, Integer> entry : files.entrySet()) {
-				String str = entry.getKey().getAbsolutePath() + "," + entry.getValue() + "\n";
-				out.write(str.getBytes(StandardCharsets.UTF_8));
+	/**
+	 * Appends a change to the journal, or rewrites it when it has grown too
+	 * much.
+	 */
+	private void append(String line) {
+		if (journal == null || journalLines > files.size() + MAX_JOURNAL_OVERHEAD) {
+			writeCleanFile();
+			return;
+		}
+		try {
+			journal.write(line + "\n");
+			journal.flush();
+			journalLines++;
+		} catch (IOException e) {
+			LOGGER.error(
+				"An error occurred while trying to write the temporary file management file: {}",
+				e.getMessage()
+			);
+			LOGGER.trace("", e);
+			closeJournal();
+		}
+	}
+
+	/**
+	 * Rewrites the journal with the managed files only.
+	 */
+	private void writeCleanFile() {
+		closeJournal();
+		try {
+			journal = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(cleanFile()), StandardCharsets.UTF_8));
+			journal.write("#########\n");
+			journal.write("## " + new Date() + "\n");
+			for (Map.Entry<File, Entry> file : files.entrySet()) {
+				journal.write(ADDED + file.getKey().getPath() + "\t" + file.getValue().cleanTime + "\t" + file.getValue().category + "\n");
 			}
-			out.flush();
+			journal.flush();
+			journalLines = files.size();
+		} catch (IOException e) {
+			LOGGER.error(
+				"An error occurred while trying to write the temporary file management file: {}",
+				e.getMessage()
+			);
+			LOGGER.trace("", e);
+			closeJournal();
+		}
+	}
+
+	private void closeJournal() {
+		if (journal != null) {
+			try {
+				journal.close();
+			} catch (IOException e) {
+				LOGGER.trace("", e);
+			}
+			journal = null;
+		}
+	}
+
+	private static class Entry {
+		private final long cleanTime;
+		private final Category category;
+		private long size;
+
+		private Entry(long cleanTime, Category category, long size) {
+			this.cleanTime = cleanTime;
+			this.category = category;
+			this.size = size;
 		}
 	}
 }
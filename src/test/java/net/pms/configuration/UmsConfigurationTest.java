@@ -18,6 +18,7 @@ package net.pms.configuration;
 
 import ch.qos.logback.classic.Level;
 import java.io.File;
+import java.util.List;
 import java.util.Locale;
 import net.pms.TestHelper;
 import net.pms.util.FileUtil;
@@ -102,4 +103,23 @@ public class UmsConfigurationTest {
 		configuration.setLanguage((Locale) null);
 		assertEquals(configuration.getLanguageRawString(), "", "setLanguage(null)SetsBlankString");
 	}
+
+	/**
+	 * Test that the values read are updated on configuration changes
+	 */
+	@Test
+	public void testReadValuesFollowChanges() {
+		assertEquals(configuration.getInt("test_int", 1), 1, "IntDefault");
+		configuration.getConfiguration().setProperty("test_int", 2);
+		assertEquals(configuration.getInt("test_int", 1), 2, "IntChanged");
+		assertEquals(configuration.getInt("test_int", 3), 2, "IntOtherDefault");
+		configuration.getConfiguration().setProperty("test_list", "a, b");
+		assertEquals(configuration.getStringList("test_list", null), List.of("a", "b"), "List");
+		assertThrows(UnsupportedOperationException.class, () -> configuration.getStringList("test_list", null).add("c"), "ListUnmodifiable");
+		configuration.getConfiguration().clearProperty("test_list");
+		assertEquals(configuration.getStringList("test_list", "c"), List.of("c"), "ListCleared");
+		assertNull(configuration.getString("test_string", null), "StringNull");
+		configuration.getConfiguration().setProperty("test_string", " value ");
+		assertEquals(configuration.getString("test_string", null), "value", "StringChanged");
+	}
 }
@@ -17,9 +17,12 @@
 package net.pms.database;
 
 import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
 import net.pms.PMS;
 import net.pms.TestHelper;
 import net.pms.configuration.UmsConfiguration;
+import net.pms.media.MediaStatus;
 import org.apache.commons.configuration.ConfigurationException;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -85,12 +88,33 @@ public class MediaTableFilesStatusTest {
 		MediaDatabase.init();
 		MediaDatabase database = MediaDatabase.get();
 		try (Connection connection = database.getConnection()) {
+			long version = MediaLibraryChanges.getVersion();
 			MediaTableFilesStatus.setFullyPlayed(connection, "FileThatHasBeenPlayed", 0, true);
 			MediaTableFilesStatus.setFullyPlayed(connection, "FileThatHasBeenMarkedNotPlayed", 0, false);
+			assertNotEquals(version, MediaLibraryChanges.getVersion());
+			version = MediaLibraryChanges.getVersion();
+			MediaTableFilesStatus.setFullyPlayed(connection, "FileThatHasBeenPlayed", 0, true);
+			assertEquals(version, MediaLibraryChanges.getVersion());
 			assertNull(MediaTableFilesStatus.isFullyPlayed(connection, "FileThatDoesntExist", 0));
 			assertTrue(MediaTableFilesStatus.isFullyPlayed(connection, "FileThatHasBeenPlayed", 0));
 			assertNull(MediaTableFilesStatus.isFullyPlayed(connection, "FileThatHasBeenPlayed", 1));
 			assertFalse(MediaTableFilesStatus.isFullyPlayed(connection, "FileThatHasBeenMarkedNotPlayed", 0));
 		}
 	}
+
+	@Test
+	public void testGetMediaStatuses() throws Exception {
+		MediaDatabase.init();
+		MediaDatabase database = MediaDatabase.get();
+		try (Connection connection = database.getConnection()) {
+			MediaTableFilesStatus.setFullyPlayed(connection, "FileThatHasBeenPlayed", 0, true);
+			MediaTableFilesStatus.setFullyPlayed(connection, "FileThatHasBeenMarkedNotPlayed", 0, false);
+			Map<String, MediaStatus> mediaStatuses = MediaTableFilesStatus.getMediaStatuses(connection,
+				List.of("FileThatHasBeenPlayed", "FileThatHasBeenMarkedNotPlayed", "FileThatDoesntExist"), 0);
+			assertEquals(2, mediaStatuses.size());
+			assertTrue(mediaStatuses.get("FileThatHasBeenPlayed").isFullyPlayed());
+			assertFalse(mediaStatuses.get("FileThatHasBeenMarkedNotPlayed").isFullyPlayed());
+			assertTrue(MediaTableFilesStatus.getMediaStatuses(connection, List.of("FileThatHasBeenPlayed"), 1).isEmpty());
+		}
+	}
 }
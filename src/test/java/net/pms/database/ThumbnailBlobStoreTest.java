@@ -0,0 +1,117 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.database;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import net.pms.PMS;
+import net.pms.TestHelper;
+import net.pms.configuration.UmsConfiguration;
+import net.pms.dlna.DLNAThumbnail;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.configuration.ConfigurationException;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ThumbnailBlobStoreTest {
+
+	private static final long OLD = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2);
+
+	@BeforeEach
+	public final void setUp() throws ConfigurationException, InterruptedException {
+		TestHelper.SetLoggingOff();
+		PMS.get();
+		PMS.setConfiguration(new UmsConfiguration(false));
+	}
+
+	@Test
+	public void testWriteAndRead() {
+		byte[] bytes = "thumbnail".getBytes(StandardCharsets.UTF_8);
+		String hash = DigestUtils.md5Hex("testWriteAndRead");
+		assertTrue(ThumbnailBlobStore.write(hash, bytes));
+		assertArrayEquals(bytes, ThumbnailBlobStore.read(hash));
+		assertNull(ThumbnailBlobStore.read(DigestUtils.md5Hex("missing")));
+		assertFalse(ThumbnailBlobStore.write(null, bytes));
+		getFile(hash).delete();
+	}
+
+	@Test
+	public void testDedupeKeepsTheFileFromTheSweep() {
+		byte[] bytes = "dedupe".getBytes(StandardCharsets.UTF_8);
+		String hash = DigestUtils.md5Hex("testDedupeKeepsTheFileFromTheSweep");
+		assertTrue(ThumbnailBlobStore.write(hash, bytes));
+		File file = getFile(hash);
+		assertTrue(file.setLastModified(OLD));
+
+		// a new row uses the stored image
+		assertTrue(ThumbnailBlobStore.write(hash, bytes));
+		assertTrue(file.lastModified() > OLD);
+		ThumbnailBlobStore.sweep(Set.of());
+		assertTrue(file.isFile());
+		file.delete();
+	}
+
+	@Test
+	public void testSweep() {
+		byte[] bytes = "sweep".getBytes(StandardCharsets.UTF_8);
+		String used = DigestUtils.md5Hex("testSweepUsed");
+		String unused = DigestUtils.md5Hex("testSweepUnused");
+		assertTrue(ThumbnailBlobStore.write(used, bytes));
+		assertTrue(ThumbnailBlobStore.write(unused, bytes));
+		assertTrue(getFile(used).setLastModified(OLD));
+		assertTrue(getFile(unused).setLastModified(OLD));
+
+		assertTrue(ThumbnailBlobStore.sweep(Set.of(used)) >= 1);
+		assertTrue(getFile(used).isFile());
+		assertFalse(getFile(unused).exists());
+		getFile(used).delete();
+	}
+
+	@Test
+	public void testThumbnailIsReadWithItsImageInfo() throws Exception {
+		MediaDatabase.init();
+		DLNAThumbnail thumbnail;
+		try (InputStream inputStream = getClass().getResourceAsStream("/net/pms/parsers/image-jpeg.jpg")) {
+			thumbnail = DLNAThumbnail.toThumbnail(inputStream);
+		}
+		assertNotNull(thumbnail);
+		Connection connection = MediaDatabase.getConnectionIfAvailable();
+		try {
+			Long id = MediaTableThumbnails.setThumbnail(connection, thumbnail);
+			assertNotNull(id);
+			DLNAThumbnail stored = MediaTableThumbnails.getThumbnail(connection, id);
+			assertNotNull(stored);
+			assertArrayEquals(thumbnail.getBytes(false), stored.getBytes(false));
+			assertEquals(thumbnail.getWidth(), stored.getWidth());
+			assertEquals(thumbnail.getHeight(), stored.getHeight());
+			assertEquals(thumbnail.getFormat(), stored.getFormat());
+			assertEquals(thumbnail.getDLNAImageProfile(), stored.getDLNAImageProfile());
+		} finally {
+			MediaDatabase.close(connection);
+		}
+	}
+
+	private static File getFile(String hash) {
+		return new File(new File(new File(DatabaseEmbedded.getDbDir(), "thumbnails"), hash.substring(0, 2)), hash);
+	}
+
+}
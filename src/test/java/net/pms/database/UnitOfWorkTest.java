@@ -0,0 +1,69 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import net.pms.PMS;
+import net.pms.TestHelper;
+import net.pms.configuration.UmsConfiguration;
+import org.apache.commons.configuration.ConfigurationException;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class UnitOfWorkTest {
+
+	@BeforeEach
+	public final void setUp() throws ConfigurationException, InterruptedException {
+		TestHelper.SetLoggingOff();
+		PMS.get();
+		PMS.setConfiguration(new UmsConfiguration(false));
+		MediaDatabase.init();
+	}
+
+	@Test
+	public void testConnectionIsShared() throws Exception {
+		try (UnitOfWork unitOfWork = MediaDatabase.beginUnitOfWork()) {
+			Connection first = MediaDatabase.getConnectionIfAvailable();
+			int session = getSessionId(first);
+			MediaDatabase.close(first);
+			assertTrue(first.isClosed());
+			Connection second = MediaDatabase.getConnectionIfAvailable();
+			assertEquals(session, getSessionId(second));
+			// a transaction is kept apart from the other lookups
+			second.setAutoCommit(false);
+			Connection third = MediaDatabase.getConnectionIfAvailable();
+			assertNotEquals(session, getSessionId(third));
+			MediaDatabase.close(third);
+			MediaDatabase.close(second);
+			Connection fourth = MediaDatabase.getConnectionIfAvailable();
+			assertTrue(fourth.getAutoCommit());
+			assertEquals(session, getSessionId(fourth));
+			MediaDatabase.close(fourth);
+		}
+	}
+
+	private static int getSessionId(Connection connection) throws Exception {
+		try (PreparedStatement statement = connection.prepareStatement("CALL SESSION_ID()"); ResultSet resultSet = statement.executeQuery()) {
+			resultSet.next();
+			return resultSet.getInt(1);
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.external;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class JavaHttpClientTest {
+
+	private final AtomicInteger requests = new AtomicInteger();
+	private HttpServer server;
+	private String uri;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		// answers "too many requests" to the first request of each path
+		server.createContext("/", exchange -> {
+			int request = requests.incrementAndGet();
+			boolean limited = request == 1 || exchange.getRequestURI().getPath().startsWith("/limited");
+			byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+			if (limited) {
+				exchange.getResponseHeaders().add("Retry-After", "1");
+				exchange.sendResponseHeaders(429, -1);
+			} else {
+				exchange.sendResponseHeaders(200, body.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(body);
+				}
+			}
+			exchange.close();
+		});
+		server.start();
+		uri = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	public void testRetryAfterTooManyRequests() throws IOException {
+		assertEquals("ok", JavaHttpClient.getStringBody(uri + "/series"));
+		assertEquals(2, requests.get());
+	}
+
+	@Test
+	public void testRetryLimit() {
+		assertThrows(IOException.class, () -> JavaHttpClient.getBytes(uri + "/limited"));
+		assertEquals(3, requests.get());
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.external;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+public class LookupCacheTest {
+
+	@Test
+	public void testIdenticalLookupsRunOnce() throws Exception {
+		// nothing is kept, the second caller only gets the first result by
+		// joining the running lookup
+		LookupCache<String, String> cache = new LookupCache<>(0, 10);
+		AtomicInteger lookups = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch entered = new CountDownLatch(1);
+		AtomicReference<Thread> secondCaller = new AtomicReference<>();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> first = executor.submit(() -> cache.get("series", () -> {
+				lookups.incrementAndGet();
+				started.countDown();
+				awaitWaiting(entered, secondCaller);
+				return "show";
+			}));
+			started.await();
+			Future<String> second = executor.submit(() -> {
+				secondCaller.set(Thread.currentThread());
+				entered.countDown();
+				return cache.get("series", () -> {
+					lookups.incrementAndGet();
+					return "other";
+				});
+			});
+			assertEquals("show", first.get(10, TimeUnit.SECONDS));
+			assertEquals("show", second.get(10, TimeUnit.SECONDS));
+			assertEquals(1, lookups.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testResultsAreKept() throws IOException {
+		LookupCache<String, String> cache = new LookupCache<>(TimeUnit.MINUTES.toMillis(1), 10);
+		assertEquals("show", cache.get("series", () -> "show"));
+		assertEquals("show", cache.get("series", () -> "other"));
+	}
+
+	@Test
+	public void testFailuresAreNotKept() throws IOException {
+		LookupCache<String, String> cache = new LookupCache<>(TimeUnit.MINUTES.toMillis(1), 10);
+		assertThrows(IOException.class, () -> cache.get("poster", () -> {
+			throw new IOException("timeout");
+		}));
+		assertEquals("poster", cache.get("poster", () -> "poster"));
+	}
+
+	/**
+	 * Waits until the caller entered the cache and waits for the running
+	 * lookup.
+	 */
+	private static void awaitWaiting(CountDownLatch entered, AtomicReference<Thread> caller) throws IOException {
+		try {
+			entered.await();
+			while (caller.get().getState() != Thread.State.WAITING) {
+				Thread.sleep(1);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+	}
+
+}
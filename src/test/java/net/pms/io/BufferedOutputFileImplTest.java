@@ -0,0 +1,167 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.io;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+import net.pms.PMS;
+import net.pms.TestHelper;
+import net.pms.configuration.UmsConfiguration;
+import org.apache.commons.configuration.ConfigurationException;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BufferedOutputFileImplTest {
+
+	private static final int CHUNK = 65536;
+	private static final long TOTAL = 3 * 1048576;
+	private static final long TIMEOUT = 30000;
+
+	private BufferedOutputFileImpl output;
+	private AtomicReference<Throwable> error;
+
+	@BeforeEach
+	public final void setUp() throws ConfigurationException, InterruptedException {
+		TestHelper.SetLoggingOff();
+		PMS.get();
+		PMS.setConfiguration(new UmsConfiguration(false));
+		output = createOutput();
+		error = new AtomicReference<>();
+	}
+
+	@Test
+	public void testReadersShareOutput() throws Exception {
+		WaitBufferedInputStream first = (WaitBufferedInputStream) output.getInputStream(0);
+		WaitBufferedInputStream second = (WaitBufferedInputStream) output.getInputStream(0);
+		assertEquals(2, output.getInputStreamCount());
+		Thread writer = startWriter();
+		Thread firstReader = startReader(first);
+		Thread secondReader = startReader(second);
+		writer.join(TIMEOUT);
+		firstReader.join(TIMEOUT);
+		secondReader.join(TIMEOUT);
+		assertNull(error.get());
+		assertFalse(writer.isAlive());
+		// both readers got the whole output, with their own cursor
+		assertEquals(TOTAL, first.getReadCount());
+		assertEquals(TOTAL, second.getReadCount());
+	}
+
+	@Test
+	public void testWriterThrottledToSlowestReader() throws Exception {
+		WaitBufferedInputStream active = (WaitBufferedInputStream) output.getInputStream(0);
+		WaitBufferedInputStream stalled = (WaitBufferedInputStream) output.getInputStream(0);
+		Thread writer = startWriter();
+		Thread reader = startReader(active);
+		Thread.sleep(2000);
+		// the stalled reader data is not overwritten
+		assertTrue(writer.isAlive());
+		assertTrue(output.getWriteCount() - stalled.getReadCount() <= output.getMaxMemorySize());
+		assertTrue(active.getReadCount() <= output.getWriteCount());
+
+		// the writer goes on once the stalled reader left
+		stalled.close();
+		assertEquals(1, output.getInputStreamCount());
+		writer.join(TIMEOUT);
+		reader.join(TIMEOUT);
+		assertNull(error.get());
+		assertFalse(writer.isAlive());
+		assertEquals(TOTAL, active.getReadCount());
+	}
+
+	@Test
+	public void testStalledReaderDoesNotHoldBackOthers() throws Exception {
+		WaitBufferedInputStream active = (WaitBufferedInputStream) output.getInputStream(0);
+		WaitBufferedInputStream stalled = (WaitBufferedInputStream) output.getInputStream(0);
+		Thread writer = startWriter();
+		Thread reader = startReader(active);
+		// the other reader still receives the whole output
+		writer.join(TIMEOUT);
+		reader.join(TIMEOUT);
+		assertNull(error.get());
+		assertFalse(writer.isAlive());
+		assertEquals(TOTAL, active.getReadCount());
+		// the stalled reader was left behind and fails
+		assertEquals(1, output.getInputStreamCount());
+		assertFalse(output.isAttached(stalled));
+		assertThrows(IOException.class, () -> stalled.read(new byte[CHUNK], 0, CHUNK));
+	}
+
+	/**
+	 * Creates a 1 MB buffer, so the writer is throttled after a few chunks.
+	 */
+	private static BufferedOutputFileImpl createOutput() {
+		OutputParams params = new OutputParams(PMS.getConfiguration());
+		params.setMinBufferSize(0);
+		params.setMaxBufferSize(1);
+		params.setSecondReadMinSize(0);
+		params.setHideBuffer(true);
+		return new BufferedOutputFileImpl(params);
+	}
+
+	private static byte valueAt(long position) {
+		return (byte) (position % 251);
+	}
+
+	private Thread startWriter() {
+		Thread writer = new Thread(() -> {
+			byte[] chunk = new byte[CHUNK];
+			try {
+				for (long position = 0; position < TOTAL; position += CHUNK) {
+					for (int i = 0; i < CHUNK; i++) {
+						chunk[i] = valueAt(position + i);
+					}
+					output.write(chunk, 0, CHUNK);
+				}
+				output.close();
+			} catch (IOException e) {
+				error.compareAndSet(null, e);
+			}
+		});
+		writer.start();
+		return writer;
+	}
+
+	private Thread startReader(WaitBufferedInputStream input) {
+		Thread reader = new Thread(() -> {
+			byte[] buffer = new byte[CHUNK];
+			try {
+				while (input.getReadCount() < TOTAL) {
+					// only read what was written
+					int available = (int) Math.min(buffer.length, output.getWriteCount() - input.getReadCount());
+					if (available <= 0) {
+						Thread.sleep(5);
+						continue;
+					}
+					long position = input.getReadCount();
+					int read = input.read(buffer, 0, available);
+					for (int i = 0; i < read; i++) {
+						if (buffer[i] != valueAt(position + i)) {
+							throw new AssertionError("Unexpected byte at " + (position + i));
+						}
+					}
+				}
+			} catch (IOException | InterruptedException | AssertionError e) {
+				error.compareAndSet(null, e);
+			}
+		});
+		reader.start();
+		return reader;
+	}
+
+}
@@ -353,6 +353,21 @@ public class LoggingTest {
 		}
 	}
 
+	@Test
+	public void testAsyncAppendQueue() {
+		List<String> appended = Collections.synchronizedList(new ArrayList<>());
+		AsyncAppendQueue<String> queue = new AsyncAppendQueue<>("test", 16, appended::addAll, warning -> { });
+		queue.start();
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			expected.add("event " + i);
+			assertTrue(queue.offer("event " + i), "EventQueued");
+		}
+		queue.stop();
+		assertEquals(expected, appended, "EventsAppendedInOrder");
+		assertEquals(0, queue.getDropped(), "NoEventDropped");
+	}
+
 	private static boolean findAppender(Iterator<Appender<ILoggingEvent>> iterator, Appender<ILoggingEvent> appender) {
 		boolean found = false;
 		while (iterator.hasNext()) {
@@ -0,0 +1,53 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.network.mediaserver.jupnp.transport.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import net.pms.network.mediaserver.jupnp.transport.impl.StaticResponseCache.StaticResponse;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+public class StaticResponseCacheTest {
+
+	@Test
+	public void testGet() throws IOException {
+		String descriptor = "<?xml version=\"1.0\"?><root>" + "<device>test</device>".repeat(50) + "</root>";
+		StaticResponse response = StaticResponseCache.get(descriptor, StandardCharsets.UTF_8);
+		assertSame(response, StaticResponseCache.get(descriptor, StandardCharsets.UTF_8));
+		assertArrayEquals(descriptor.getBytes(StandardCharsets.UTF_8), response.getBytes());
+		assertNotNull(response.getGzipBytes());
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getGzipBytes()))) {
+			assertArrayEquals(response.getBytes(), in.readAllBytes());
+		}
+
+		StaticResponse other = StaticResponseCache.get("<root/>", StandardCharsets.UTF_8);
+		assertNotEquals(response.getEntityTag(), other.getEntityTag());
+		assertNull(other.getGzipBytes());
+
+		// icons are not compressed
+		byte[] icon = new byte[2048];
+		assertNull(StaticResponseCache.get(icon, null).getGzipBytes());
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.network.webguiserver;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.util.List;
+import net.pms.network.webguiserver.WebPlayerBrowseCache.BrowsePage;
+import net.pms.store.StoreResource;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class WebPlayerBrowseCacheTest {
+
+	@BeforeEach
+	public void setUp() {
+		WebPlayerBrowseCache.clear();
+	}
+
+	@Test
+	public void testKeyIsPerRendererAndResources() {
+		List<StoreResource> resources = List.of(new TestResource("12"), new TestResource("13"));
+		String key = WebPlayerBrowseCache.getKey("renderer-a", "5", "en", 1, 0, false, resources);
+		assertEquals(key, WebPlayerBrowseCache.getKey("renderer-a", "5", "en", 1, 0, false, List.of(new TestResource("12"), new TestResource("13"))));
+		assertNotEquals(key, WebPlayerBrowseCache.getKey("renderer-b", "5", "en", 1, 0, false, resources));
+		assertNotEquals(key, WebPlayerBrowseCache.getKey("renderer-a", "5", "en", 2, 0, false, resources));
+		// a refreshed folder has other children
+		assertNotEquals(key, WebPlayerBrowseCache.getKey("renderer-a", "5", "en", 1, 0, false, List.of(new TestResource("12"), new TestResource("14"))));
+	}
+
+	@Test
+	public void testInvalidate() {
+		String key = WebPlayerBrowseCache.getKey("renderer-a", "5", "en", 1, 0, false, List.of(new TestResource("12")));
+		BrowsePage page = WebPlayerBrowseCache.put(key, "5", getPage("12"));
+		assertSame(page, WebPlayerBrowseCache.get(key));
+
+		WebPlayerBrowseCache.invalidate(99L);
+		assertSame(page, WebPlayerBrowseCache.get(key));
+		// the page references its children
+		WebPlayerBrowseCache.invalidate(12L);
+		assertNull(WebPlayerBrowseCache.get(key));
+
+		page = WebPlayerBrowseCache.put(key, "5", getPage("12"));
+		assertNotNull(WebPlayerBrowseCache.get(key));
+		WebPlayerBrowseCache.invalidate(5L);
+		assertNull(WebPlayerBrowseCache.get(key));
+
+		WebPlayerBrowseCache.put(key, "5", getPage("12"));
+		WebPlayerBrowseCache.invalidate(-1L);
+		assertNull(WebPlayerBrowseCache.get(key));
+	}
+
+	@Test
+	public void testEtagFollowsThePageContent() {
+		String key = WebPlayerBrowseCache.getKey("renderer-a", "5", "en", 1, 0, false, List.of());
+		BrowsePage first = WebPlayerBrowseCache.put(key, "5", getPage("12"));
+		// same content, even rebuilt (or after a restart), keeps its etag
+		BrowsePage second = WebPlayerBrowseCache.put(key, "5", getPage("12"));
+		assertEquals(first.getEtag(), second.getEtag());
+		BrowsePage third = WebPlayerBrowseCache.put(key, "5", getPage("13"));
+		assertNotEquals(first.getEtag(), third.getEtag());
+	}
+
+	private static JsonObject getPage(String childId) {
+		JsonObject page = new JsonObject();
+		page.addProperty("goal", "browse");
+		JsonArray folders = new JsonArray();
+		JsonObject folder = new JsonObject();
+		folder.addProperty("id", childId);
+		folders.add(folder);
+		page.add("folders", folders);
+		return page;
+	}
+
+	private static class TestResource extends StoreResource {
+
+		private TestResource(String id) {
+			super(null);
+			setId(id);
+		}
+
+		@Override
+		public String getName() {
+			return getId();
+		}
+
+		@Override
+		public String getSystemName() {
+			return getId();
+		}
+
+		@Override
+		public long length() {
+			return 0;
+		}
+
+		@Override
+		public boolean isFolder() {
+			return false;
+		}
+
+		@Override
+		public boolean isValid() {
+			return true;
+		}
+
+	}
+
+}
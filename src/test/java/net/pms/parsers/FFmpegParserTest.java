@@ -17,10 +17,13 @@
 package net.pms.parsers;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.List;
 import net.pms.formats.Format;
 import net.pms.formats.FormatFactory;
 import net.pms.media.MediaInfo;
 import net.pms.util.InputFile;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -207,4 +210,21 @@ public class FFmpegParserTest {
 
 	}
 
+	@Test
+	public void testSplitJpegImages() {
+		byte[] first = {(byte) 0xFF, (byte) 0xD8, 0x01, (byte) 0xFF, 0x00, 0x02, (byte) 0xFF, (byte) 0xD9};
+		byte[] second = {(byte) 0xFF, (byte) 0xD8, 0x03, (byte) 0xFF, (byte) 0xD9};
+		byte[] bytes = new byte[first.length + second.length];
+		System.arraycopy(first, 0, bytes, 0, first.length);
+		System.arraycopy(second, 0, bytes, first.length, second.length);
+
+		List<byte[]> images = FFmpegParser.splitJpegImages(bytes);
+		assertEquals(2, images.size());
+		assertArrayEquals(first, images.get(0));
+		assertArrayEquals(second, images.get(1));
+
+		// an unfinished image is dropped
+		assertEquals(1, FFmpegParser.splitJpegImages(Arrays.copyOf(bytes, bytes.length - 1)).size());
+	}
+
 }
@@ -23,6 +23,7 @@ import net.pms.formats.FormatFactory;
 import net.pms.media.MediaInfo;
 import net.pms.media.audio.MediaAudio;
 import net.pms.media.video.MediaVideo;
+import net.pms.parsers.mediainfo.MediaInfoReport;
 import net.pms.parsers.mediainfo.StreamKind;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeAll;
@@ -114,6 +115,25 @@ public class MediaInfoParserTest {
 		// TODO this can continue with other container, video and audio formats
 	}
 
+	@Test
+	public void testSetFormatMpeg1FromReport() throws Exception {
+		// the JSON report of an MPEG-1 elementary video stream
+		MediaInfoReport report = MediaInfoReport.fromJson("{\"media\":{\"@ref\":\"video-mpeg1.m1v\",\"track\":[" +
+			"{\"@type\":\"General\",\"Format\":\"MPEG Video\",\"Format_Version\":\"1\",\"FileSize\":\"1048576\"}," +
+			"{\"@type\":\"Video\",\"Format\":\"MPEG Video\",\"Format_Version\":\"1\",\"Width\":\"352\",\"Height\":\"240\"}" +
+			"]}}");
+		assertNotNull(report);
+		assertEquals("Version 1", report.get(StreamKind.VIDEO, 0, "Format_Version"));
+
+		MediaInfo media = new MediaInfo();
+		MediaVideo video = new MediaVideo();
+		MediaAudio audio = new MediaAudio();
+		MediaInfoParser.setFormat(StreamKind.VIDEO, media, video, audio, report.get(StreamKind.VIDEO, 0, "Format"), null);
+		assertEquals(FormatConfiguration.MPEG2, video.getCodec());
+		MediaInfoParser.setFormat(StreamKind.VIDEO, media, video, audio, report.get(StreamKind.VIDEO, 0, "Format_Version"), null);
+		assertEquals(FormatConfiguration.MPEG1, video.getCodec());
+	}
+
 	@Test
 	public void testContainerProperties() throws Exception {
 		// Check if the MediaInfo library is properly installed and initialized
@@ -0,0 +1,66 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.parsers.mediainfo;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class MediaInfoReportTest {
+
+	private static final String JSON = "{\"creatingLibrary\":{\"name\":\"MediaInfoLib\",\"version\":\"23.04\"}," +
+		"\"media\":{\"@ref\":\"test.mkv\",\"track\":[" +
+		"{\"@type\":\"General\",\"Format\":\"Matroska\",\"Duration\":\"5.005\",\"OverallBitRate\":\"1234567\"," +
+		"\"extra\":{\"ALBUM_ARTISTS\":\"Someone\"}}," +
+		"{\"@type\":\"Video\",\"@typeorder\":\"1\",\"Format\":\"AVC\",\"Width\":\"1920\",\"Height\":\"1080\"}," +
+		"{\"@type\":\"Audio\",\"@typeorder\":\"1\",\"Format\":\"AAC\",\"Channels\":\"2\",\"Language\":\"en\"}," +
+		"{\"@type\":\"Audio\",\"@typeorder\":\"2\",\"Format\":\"AC-3\",\"Channels\":\"6\",\"Language\":\"fr\"}" +
+		"]}}";
+
+	@Test
+	public void testFromJson() {
+		MediaInfoReport report = MediaInfoReport.fromJson(JSON);
+		assertNotNull(report);
+		assertEquals(1, report.count(StreamKind.GENERAL));
+		assertEquals(1, report.count(StreamKind.VIDEO));
+		assertEquals(2, report.count(StreamKind.AUDIO));
+		assertEquals(0, report.count(StreamKind.TEXT));
+
+		assertEquals("Matroska", report.get(StreamKind.GENERAL, 0, "Format"));
+		assertEquals("Someone", report.get(StreamKind.GENERAL, 0, "ALBUM_ARTISTS"));
+		assertEquals("1920", report.get(StreamKind.VIDEO, 0, "Width"));
+		assertEquals("AC-3", report.get(StreamKind.AUDIO, 1, "Format"));
+		assertEquals("6", report.get(StreamKind.AUDIO, 1, "Channel(s)"));
+		assertEquals("2", report.get(StreamKind.AUDIO, 0, "StreamCount"));
+
+		// missing streams are empty, like the library answers
+		assertEquals("", report.get(StreamKind.TEXT, 0, "Format"));
+
+		// missing values, other units or names are left to the library
+		assertNull(report.get(StreamKind.VIDEO, 0, "Title"));
+		assertNull(report.get(StreamKind.GENERAL, 0, "Duration"));
+		assertNull(report.get(StreamKind.GENERAL, 0, "Encoded_Date"));
+		assertNull(report.get(StreamKind.VIDEO, 0, "Width/String"));
+	}
+
+	@Test
+	public void testNotJson() {
+		assertNull(MediaInfoReport.fromJson(null));
+		assertNull(MediaInfoReport.fromJson("General\nComplete name : test.mkv"));
+		assertNull(MediaInfoReport.fromJson("{\"media\":null}"));
+	}
+
+}
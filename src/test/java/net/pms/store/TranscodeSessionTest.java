@@ -0,0 +1,145 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.store;
+
+import java.io.InputStream;
+import net.pms.PMS;
+import net.pms.TestHelper;
+import net.pms.configuration.UmsConfiguration;
+import net.pms.io.BufferedOutputFile;
+import net.pms.io.BufferedOutputFileImpl;
+import net.pms.io.OutputParams;
+import net.pms.io.ProcessWrapperImpl;
+import org.apache.commons.configuration.ConfigurationException;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TranscodeSessionTest {
+
+	private BufferedOutputFileImpl output;
+	private TestProcess process;
+
+	@BeforeEach
+	public final void setUp() throws ConfigurationException, InterruptedException {
+		TestHelper.SetLoggingOff();
+		PMS.get();
+		PMS.setConfiguration(new UmsConfiguration(false));
+		OutputParams params = new OutputParams(PMS.getConfiguration());
+		params.setMinBufferSize(0);
+		params.setMaxBufferSize(1);
+		params.setSecondReadMinSize(0);
+		params.setHideBuffer(true);
+		output = new BufferedOutputFileImpl(params);
+		process = new TestProcess(output);
+		output.attachThread(process);
+	}
+
+	@Test
+	public void testSeekWindow() throws Exception {
+		TranscodeSession session = new TranscodeSession(process, 10, 1000);
+		output.write(new byte[5000], 0, 5000);
+		assertTrue(session.isDuplicateSeek(10.5));
+		assertFalse(session.isDuplicateSeek(12));
+		assertEquals(2000, session.getOffsetForTime(12));
+		// lookahead of 10 seconds after the written output
+		assertEquals(14000, session.getOffsetForTime(24));
+		assertEquals(-1, session.getOffsetForTime(26));
+		assertEquals(-1, session.getOffsetForTime(9));
+		// no byte rate, only duplicate seeks can be served
+		assertEquals(-1, new TranscodeSession(process, 10, 0).getOffsetForTime(12));
+	}
+
+	@Test
+	public void testReadersShareSession() throws Exception {
+		TranscodeSession session = new TranscodeSession(process, 0, 0);
+		session.getInputStream("first", 0);
+		assertEquals(1, session.getReaderCount());
+		assertFalse(session.isShared("first"));
+		TranscodeSessionStore.putSession("shared", session);
+
+		// a stale reader of the same renderer does not share the session
+		session.getInputStream("first", 0);
+		assertEquals(2, session.getReaderCount());
+		assertFalse(session.isShared("first"));
+
+		// a second renderer joins at the start of the output
+		output.write(new byte[1000], 0, 1000);
+		assertSame(session, TranscodeSessionStore.getSession("shared", 0));
+		InputStream second = session.getInputStream("second", 0);
+		assertEquals(3, session.getReaderCount());
+		assertTrue(session.isShared("first"));
+		assertTrue(session.isShared("second"));
+
+		// the second renderer left
+		second.close();
+		assertFalse(session.isShared("first"));
+
+		// not written yet, or another output
+		assertNull(TranscodeSessionStore.getSession("shared", 5000));
+		assertNull(TranscodeSessionStore.getSession("other", 0));
+		assertNull(TranscodeSessionStore.getSession(null, 0));
+	}
+
+	@Test
+	public void testSessionClosedByLastReader() throws Exception {
+		TranscodeSession session = new TranscodeSession(process, 0, 0);
+		InputStream first = process.getInputStream(0);
+		InputStream second = process.getInputStream(0);
+		TranscodeSessionStore.putSession("closed", session);
+
+		// the process keeps running for the other reader
+		first.close();
+		assertEquals(1, session.getReaderCount());
+		assertFalse(process.isReadyToStop());
+		assertTrue(session.isAlive());
+		assertSame(session, TranscodeSessionStore.getSession("closed", 0));
+
+		// the last reader leaving stops the process after a short delay
+		second.close();
+		assertTrue(process.isReadyToStop());
+		long end = System.currentTimeMillis() + 10000;
+		while (session.isAlive() && System.currentTimeMillis() < end) {
+			Thread.sleep(100);
+		}
+		assertFalse(session.isAlive());
+		assertNull(TranscodeSessionStore.getSession("closed", 0));
+	}
+
+	/**
+	 * A process which was not started, its output is written by the test.
+	 */
+	private static class TestProcess extends ProcessWrapperImpl {
+		private final BufferedOutputFileImpl output;
+
+		private TestProcess(BufferedOutputFileImpl output) {
+			super(new String[] {"test"}, new OutputParams(PMS.getConfiguration()));
+			this.output = output;
+		}
+
+		@Override
+		public BufferedOutputFile getBufferedOutputFile() {
+			return output;
+		}
+
+		@Override
+		public InputStream getInputStream(long seek) {
+			return output.getInputStream(seek);
+		}
+	}
+
+}
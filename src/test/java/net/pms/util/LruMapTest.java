@@ -0,0 +1,48 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.util;
+
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class LruMapTest {
+
+	@Test
+	public void testEviction() {
+		Map<String, Integer> map = new LruMap<>(2);
+		map.put("a", 1);
+		map.put("b", 2);
+		// a read makes "a" the most recently used entry
+		assertEquals(1, map.get("a"));
+		map.put("c", 3);
+		assertEquals(2, map.size());
+		assertTrue(map.containsKey("a"));
+		assertFalse(map.containsKey("b"));
+		assertTrue(map.containsKey("c"));
+	}
+
+	@Test
+	public void testSynchronizedMap() {
+		Map<String, Integer> map = LruMap.synchronizedMap(1);
+		map.put("a", 1);
+		map.put("b", 2);
+		assertEquals(1, map.size());
+		assertEquals(2, map.get("b"));
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is part of Universal Media Server, based on PS3 Media Server.
+ *
+ * This program is a free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; version 2 of the License only.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc., 51
+ * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package net.pms.util;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MpegSeekIndexTest {
+
+	private static final int PACKETS = 200000;
+	private static final int PACKETS_PER_FRAME = 50;
+	private static final int PTS_PER_FRAME = 3600;
+
+	@TempDir
+	File tempDir;
+
+	/**
+	 * Writes a constant bitrate transport stream where every
+	 * {@link #PACKETS_PER_FRAME} packets starts a video PES of 40 ms.
+	 */
+	private File createTransportStream() throws IOException {
+		File file = new File(tempDir, "test.ts");
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+			byte[] packet = new byte[188];
+			for (int i = 0; i < PACKETS; i++) {
+				Arrays.fill(packet, (byte) 0xff);
+				packet[0] = 0x47;
+				packet[1] = 0x01;
+				packet[2] = 0x00;
+				packet[3] = 0x10;
+				if (i % PACKETS_PER_FRAME == 0) {
+					long pts = 900000L + (long) (i / PACKETS_PER_FRAME) * PTS_PER_FRAME;
+					packet[1] |= 0x40;
+					packet[4] = 0;
+					packet[5] = 0;
+					packet[6] = 1;
+					packet[7] = (byte) 0xe0;
+					packet[8] = 0;
+					packet[9] = 0;
+					packet[10] = (byte) 0x80;
+					packet[11] = (byte) 0x80;
+					packet[12] = 5;
+					packet[13] = (byte) (0x21 | ((pts >> 29) & 0x0e));
+					packet[14] = (byte) (pts >> 22);
+					packet[15] = (byte) (((pts >> 14) & 0xfe) | 1);
+					packet[16] = (byte) (pts >> 7);
+					packet[17] = (byte) (((pts << 1) & 0xfe) | 1);
+				}
+				out.write(packet);
+			}
+		}
+		return file;
+	}
+
+	@Test
+	public void testBuildAndSeek() throws IOException {
+		File file = createTransportStream();
+		MpegSeekIndex seekIndex = MpegSeekIndex.build(file);
+		assertNotNull(seekIndex);
+		assertEquals(file.length(), seekIndex.getLength());
+		assertTrue(seekIndex.size() >= 2);
+
+		double frameDuration = PTS_PER_FRAME / 90000.0;
+		assertEquals(0, seekIndex.getPosition(0));
+		for (int frame : new int[] {100, 1000, 2500, 3900}) {
+			long expected = (long) frame * PACKETS_PER_FRAME * 188;
+			long position = seekIndex.getPosition(frame * frameDuration);
+			assertEquals(0, position % 188, "position must be aligned on packets");
+			assertTrue(Math.abs(position - expected) <= PACKETS_PER_FRAME * 188, "position " + position + " too far from " + expected);
+		}
+	}
+
+	@Test
+	public void testSerialization() throws IOException {
+		MpegSeekIndex seekIndex = MpegSeekIndex.build(createTransportStream());
+		assertNotNull(seekIndex);
+		MpegSeekIndex copy = MpegSeekIndex.fromByteArray(seekIndex.toByteArray());
+		assertNotNull(copy);
+		assertEquals(seekIndex.getLength(), copy.getLength());
+		assertEquals(seekIndex.size(), copy.size());
+		assertEquals(seekIndex.getPosition(42.5), copy.getPosition(42.5));
+		assertNull(MpegSeekIndex.fromByteArray(new byte[] {1, 2, 3}));
+	}
+
+	@Test
+	public void testNotMpeg() throws IOException {
+		File file = new File(tempDir, "random.bin");
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+			out.write(new byte[1024 * 1024]);
+		}
+		assertNull(MpegSeekIndex.build(file));
+	}
+
+}